@@ -0,0 +1,80 @@
+package com.scrap.gain.otpmodule.benchmark;
+
+import com.scrap.gain.otpmodule.config.OtpConfigProperties;
+import com.scrap.gain.otpmodule.util.OtpGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-thread DRBG generator against the previous shared SecureRandom,
+ * on one thread and on all cores; the generator should scale with threads
+ * while the shared baseline serializes on its lock
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OtpGeneratorBenchmark {
+
+    private static final SecureRandom SHARED_RANDOM = new SecureRandom();
+
+    private OtpGenerator otpGenerator;
+
+    @Setup
+    public void setUp() {
+        otpGenerator = new OtpGenerator(new OtpConfigProperties());
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String generate() {
+        return otpGenerator.generate();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public String generateAllThreads() {
+        return otpGenerator.generate();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String generateAlphanumeric() {
+        return otpGenerator.generateAlphanumeric();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String sharedSecureRandom() {
+        return sharedRandomOtp();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public String sharedSecureRandomAllThreads() {
+        return sharedRandomOtp();
+    }
+
+    // Previous implementation: one nextInt per digit on a shared SecureRandom
+    private static String sharedRandomOtp() {
+        StringBuilder otp = new StringBuilder(6);
+        for (int i = 0; i < 6; i++) {
+            otp.append(SHARED_RANDOM.nextInt(10));
+        }
+        return otp.toString();
+    }
+}
@@ -0,0 +1,80 @@
+package com.scrap.gain.otpmodule.benchmark;
+
+import com.scrap.gain.otpmodule.config.OtpConfigProperties;
+import com.scrap.gain.otpmodule.model.enums.HashAlgorithm;
+import com.scrap.gain.otpmodule.util.OtpHasher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BCrypt (cost 10) against SHA-256 and peppered HMAC-SHA256
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OtpHasherBenchmark {
+
+    private static final String OTP = "123456";
+
+    private OtpHasher otpHasher;
+    private String bcryptHash;
+    private String hmacHash;
+    private String salt;
+    private String sha256Hash;
+
+    @Setup
+    public void setUp() {
+        OtpConfigProperties config = new OtpConfigProperties();
+        config.getHashing().setAlgorithm(HashAlgorithm.HMAC_SHA256);
+        config.getHashing().setPepper("benchmark-pepper");
+        otpHasher = new OtpHasher(config);
+
+        bcryptHash = otpHasher.hashWithBcrypt(OTP);
+        hmacHash = otpHasher.hashWithHmac(OTP);
+        salt = otpHasher.generateSalt();
+        sha256Hash = otpHasher.hashWithSha256(OTP, salt);
+    }
+
+    @Benchmark
+    public String bcryptHash() {
+        return otpHasher.hashWithBcrypt(OTP);
+    }
+
+    @Benchmark
+    public boolean bcryptVerify() {
+        return otpHasher.verifyBcrypt(OTP, bcryptHash);
+    }
+
+    @Benchmark
+    public String sha256Hash() {
+        return otpHasher.hashWithSha256(OTP, salt);
+    }
+
+    @Benchmark
+    public boolean sha256Verify() {
+        return otpHasher.verifySha256(OTP, sha256Hash, salt);
+    }
+
+    @Benchmark
+    public String hmacHash() {
+        return otpHasher.hashWithHmac(OTP);
+    }
+
+    @Benchmark
+    public boolean hmacVerify() {
+        return otpHasher.verify(OTP, hmacHash);
+    }
+}
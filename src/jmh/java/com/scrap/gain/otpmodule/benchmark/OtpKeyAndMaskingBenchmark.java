@@ -0,0 +1,55 @@
+package com.scrap.gain.otpmodule.benchmark;
+
+import com.scrap.gain.otpmodule.entity.OtpRecord;
+import com.scrap.gain.otpmodule.model.OtpPurpose;
+import com.scrap.gain.otpmodule.util.MaskingUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request string work: Redis key building and identifier masking
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OtpKeyAndMaskingBenchmark {
+
+    private final MaskingUtil maskingUtil = new MaskingUtil();
+
+    private String phone = "+919876543210";
+    private String email = "john.doe@example.com";
+    private OtpPurpose purpose = OtpPurpose.LOGIN;
+
+    @Benchmark
+    public String buildRedisKey() {
+        return OtpRecord.buildRedisKey(phone, purpose);
+    }
+
+    // Baseline for buildRedisKey without String.format parsing
+    @Benchmark
+    public String buildRedisKeyConcat() {
+        return "otp:{" + phone + "}:" + purpose.name();
+    }
+
+    @Benchmark
+    public String maskPhone() {
+        return maskingUtil.maskIdentifier(phone);
+    }
+
+    @Benchmark
+    public String maskEmail() {
+        return maskingUtil.maskIdentifier(email);
+    }
+}
@@ -0,0 +1,80 @@
+package com.scrap.gain.otpmodule.benchmark;
+
+import com.scrap.gain.otpmodule.entity.OtpRecord;
+import com.scrap.gain.otpmodule.model.OtpPurpose;
+import com.scrap.gain.otpmodule.model.enums.RedisCodec;
+import com.scrap.gain.otpmodule.repository.OtpRecordRedisSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OtpRecord encoding through the Redis value serializer, JSON against binary
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OtpRecordSerializerBenchmark {
+
+    private final OtpRecordRedisSerializer jsonSerializer = new OtpRecordRedisSerializer(RedisCodec.JSON);
+    private final OtpRecordRedisSerializer binarySerializer = new OtpRecordRedisSerializer(RedisCodec.BINARY);
+
+    private OtpRecord record;
+    private byte[] jsonBytes;
+    private byte[] binaryBytes;
+
+    @Setup
+    public void setUp() {
+        Instant now = Instant.now();
+        record = OtpRecord.builder()
+                .id(OtpRecord.generateId())
+                .identifier("+919876543210")
+                .otpHash("$2a$10$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy")
+                .purpose(OtpPurpose.LOGIN)
+                .attemptCount(0)
+                .maxAttempts(5)
+                .createdAt(now)
+                .expiresAt(now.plus(5, ChronoUnit.MINUTES))
+                .verified(false)
+                .metadata(Map.of("sessionId", "5f1c2a9e"))
+                .build();
+
+        jsonBytes = jsonSerializer.serialize(record);
+        binaryBytes = binarySerializer.serialize(record);
+    }
+
+    @Benchmark
+    public byte[] jsonSerialize() {
+        return jsonSerializer.serialize(record);
+    }
+
+    @Benchmark
+    public OtpRecord jsonDeserialize() {
+        return jsonSerializer.deserialize(jsonBytes);
+    }
+
+    @Benchmark
+    public byte[] binarySerialize() {
+        return binarySerializer.serialize(record);
+    }
+
+    @Benchmark
+    public OtpRecord binaryDeserialize() {
+        return binarySerializer.deserialize(binaryBytes);
+    }
+}
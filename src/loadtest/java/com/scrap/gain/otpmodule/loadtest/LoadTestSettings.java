@@ -0,0 +1,81 @@
+package com.scrap.gain.otpmodule.loadtest;
+
+import com.scrap.gain.otpmodule.loadtest.OtpLoadTest.Scenario;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+/**
+ * Load test settings, read from system properties
+ *
+ * @param users           concurrent virtual users (closed loop, one request in flight each)
+ * @param warmupSeconds   traffic sent before recording starts
+ * @param durationSeconds recorded traffic
+ * @param mix             scenario weights, e.g. validate_correct=50,validate_wrong=20,...
+ * @param label           free-form tag for comparing runs, e.g. a commit id
+ * @param output          JSON result file
+ */
+record LoadTestSettings(int users,
+                        int warmupSeconds,
+                        int durationSeconds,
+                        String mix,
+                        String label,
+                        String output,
+                        Map<Scenario, Integer> weights,
+                        int totalWeight) {
+
+    static final String DEFAULT_MIX = "validate_correct=50,validate_wrong=20,validate_expired=10,resend=20";
+
+    static LoadTestSettings fromSystemProperties() {
+        String mix = System.getProperty("loadtest.mix", DEFAULT_MIX);
+        Map<Scenario, Integer> weights = parseMix(mix);
+        int totalWeight = weights.values().stream().mapToInt(Integer::intValue).sum();
+        if (totalWeight <= 0) {
+            throw new IllegalArgumentException("loadtest.mix has no positive weights: " + mix);
+        }
+
+        return new LoadTestSettings(
+                Integer.getInteger("loadtest.users", 32),
+                Integer.getInteger("loadtest.warmup-seconds", 10),
+                Integer.getInteger("loadtest.duration-seconds", 60),
+                mix,
+                System.getProperty("loadtest.label", "local"),
+                System.getProperty("loadtest.output", "target/loadtest-result.json"),
+                weights,
+                totalWeight);
+    }
+
+    Scenario pickScenario(RandomGenerator random) {
+        int roll = random.nextInt(totalWeight);
+        for (Map.Entry<Scenario, Integer> weight : weights.entrySet()) {
+            roll -= weight.getValue();
+            if (roll < 0) {
+                return weight.getKey();
+            }
+        }
+        throw new IllegalStateException("Unreachable: weights sum to " + totalWeight);
+    }
+
+    Map<String, Object> asMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("users", users);
+        map.put("warmupSeconds", warmupSeconds);
+        map.put("durationSeconds", durationSeconds);
+        map.put("mix", mix);
+        return map;
+    }
+
+    private static Map<Scenario, Integer> parseMix(String mix) {
+        Map<Scenario, Integer> weights = new EnumMap<>(Scenario.class);
+        for (String part : mix.split(",")) {
+            String[] nameAndWeight = part.split("=");
+            if (nameAndWeight.length != 2) {
+                throw new IllegalArgumentException("Expected scenario=weight in loadtest.mix, got: " + part);
+            }
+            weights.put(Scenario.fromName(nameAndWeight[0]), Integer.parseInt(nameAndWeight[1].trim()));
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,119 @@
+package com.scrap.gain.otpmodule.loadtest;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Latencies and outcomes per operation
+ * Each virtual user records into its own instance; instances are merged
+ * once the run is over, so recording never contends across threads.
+ */
+class LoadTestStats {
+
+    private final Map<String, Operation> operations = new TreeMap<>();
+
+    /**
+     * Record one request
+     * @param outcome SUCCESS, an ErrorCode name, HTTP_<status> or IO_ERROR
+     * @param expected whether the scenario expected this outcome (e.g. OTP_INVALID for a wrong OTP)
+     */
+    void record(String operation, long latencyNanos, String outcome, boolean expected) {
+        operations.computeIfAbsent(operation, op -> new Operation()).record(latencyNanos, outcome, expected);
+    }
+
+    void merge(LoadTestStats other) {
+        other.operations.forEach((name, operation) ->
+                operations.computeIfAbsent(name, op -> new Operation()).merge(operation));
+    }
+
+    long totalRequests() {
+        return operations.values().stream().mapToLong(operation -> operation.count).sum();
+    }
+
+    /**
+     * Per-operation summary, ready to be written as JSON
+     */
+    Map<String, Object> summary(double elapsedSeconds) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        operations.forEach((name, operation) -> summary.put(name, operation.summary(elapsedSeconds)));
+        return summary;
+    }
+
+    /**
+     * Unexpected outcomes across all operations, by outcome
+     */
+    Map<String, Long> errors() {
+        Map<String, Long> errors = new TreeMap<>();
+        operations.values().forEach(operation ->
+                operation.unexpected.forEach((outcome, count) -> errors.merge(outcome, count, Long::sum)));
+        return errors;
+    }
+
+    private static final class Operation {
+
+        private long[] latencies = new long[1024];
+        private int count;
+        private final Map<String, Long> outcomes = new TreeMap<>();
+        private final Map<String, Long> unexpected = new TreeMap<>();
+
+        void record(long latencyNanos, String outcome, boolean expected) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latencyNanos;
+            outcomes.merge(outcome, 1L, Long::sum);
+            if (!expected) {
+                unexpected.merge(outcome, 1L, Long::sum);
+            }
+        }
+
+        void merge(Operation other) {
+            if (count + other.count > latencies.length) {
+                latencies = Arrays.copyOf(latencies, count + other.count);
+            }
+            System.arraycopy(other.latencies, 0, latencies, count, other.count);
+            count += other.count;
+            other.outcomes.forEach((outcome, n) -> outcomes.merge(outcome, n, Long::sum));
+            other.unexpected.forEach((outcome, n) -> unexpected.merge(outcome, n, Long::sum));
+        }
+
+        Map<String, Object> summary(double elapsedSeconds) {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+
+            Map<String, Object> latency = new LinkedHashMap<>();
+            latency.put("mean", count == 0 ? 0 : millis(Arrays.stream(sorted).sum() / count));
+            latency.put("p50", millis(percentile(sorted, 0.50)));
+            latency.put("p95", millis(percentile(sorted, 0.95)));
+            latency.put("p99", millis(percentile(sorted, 0.99)));
+            latency.put("p999", millis(percentile(sorted, 0.999)));
+            latency.put("max", count == 0 ? 0 : millis(sorted[count - 1]));
+
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("count", count);
+            summary.put("throughputPerSecond", round(count / elapsedSeconds));
+            summary.put("latencyMillis", latency);
+            summary.put("outcomes", outcomes);
+            summary.put("unexpected", unexpected.values().stream().mapToLong(Long::longValue).sum());
+            return summary;
+        }
+
+        private static long percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(quantile * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(rank, sorted.length - 1))];
+        }
+
+        private static double millis(long nanos) {
+            return round(nanos / 1_000_000.0);
+        }
+
+        private static double round(double value) {
+            return Math.round(value * 1000) / 1000.0;
+        }
+    }
+}
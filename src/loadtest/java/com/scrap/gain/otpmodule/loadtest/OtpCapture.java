@@ -0,0 +1,51 @@
+package com.scrap.gain.otpmodule.loadtest;
+
+import com.scrap.gain.otpmodule.service.sms.SmsCaptureHook;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Hands OTPs sent through MockSmsProvider to the virtual user waiting for them
+ * A user registers interest before the request that triggers the send, so
+ * the SMS can never arrive before anyone is listening.
+ */
+class OtpCapture implements SmsCaptureHook {
+
+    private static final Pattern OTP = Pattern.compile("\\b(\\d{4,8})\\b");
+
+    private final Map<String, CompletableFuture<String>> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Expect the next OTP sent to the given number
+     */
+    CompletableFuture<String> expect(String phoneNumber) {
+        CompletableFuture<String> otp = new CompletableFuture<>();
+        pending.put(phoneNumber, otp);
+        return otp;
+    }
+
+    /**
+     * Stop waiting, e.g. when the request that should have sent it failed
+     */
+    void forget(String phoneNumber) {
+        pending.remove(phoneNumber);
+    }
+
+    @Override
+    public void onSend(String phoneNumber, String message) {
+        CompletableFuture<String> otp = pending.remove(phoneNumber);
+        if (otp == null) {
+            return;
+        }
+        Matcher matcher = OTP.matcher(message);
+        if (matcher.find()) {
+            otp.complete(matcher.group(1));
+        } else {
+            otp.completeExceptionally(new IllegalStateException("No OTP in message: " + message));
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package com.scrap.gain.otpmodule.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scrap.gain.ScrapgainservApplication;
+import com.scrap.gain.otpmodule.entity.OtpRecord;
+import com.scrap.gain.otpmodule.exception.ErrorCode;
+import com.scrap.gain.otpmodule.model.OtpPurpose;
+import com.scrap.gain.otpmodule.repository.OtpRepository;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Closed-loop load test for one node
+ *
+ * Starts the app in-process with the "loadtest" profile (in-memory store,
+ * MOCK provider without delay, no rate limits), then runs virtual users that
+ * each loop over weighted scenarios against the real HTTP endpoints:
+ * - validate_correct: generate, validate with the sent OTP
+ * - validate_wrong:   generate, validate with a wrong OTP, then with the sent one
+ * - validate_expired: generate, expire the record, validate
+ * - resend:           generate, resend, validate with the new OTP
+ * OTPs are read through an SmsCaptureHook, never from logs.
+ *
+ * Run with: ./mvnw -P loadtest test-compile exec:exec
+ * Settings (system properties, see LoadTestSettings): loadtest.duration-seconds,
+ * loadtest.warmup-seconds, loadtest.users, loadtest.mix, loadtest.label, loadtest.output
+ * Results go to target/loadtest-result.json
+ */
+public final class OtpLoadTest {
+
+    private static final String BASE_PATH = "/api/v1/otp";
+    private static final Duration CAPTURE_TIMEOUT = Duration.ofSeconds(10);
+    private static final String SUCCESS = "SUCCESS";
+    private static final Map<String, String> ERROR_NAMES = Arrays.stream(ErrorCode.values())
+            .collect(Collectors.toMap(ErrorCode::getCode, ErrorCode::name));
+
+    // Unique identifiers across users: +919 followed by nine digits
+    private static final AtomicLong PHONE_SEQUENCE = new AtomicLong();
+
+    private final LoadTestSettings settings;
+    private final OtpCapture capture;
+    private final OtpRepository otpRepository;
+    private final String baseUrl;
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private volatile long measureFromNanos;
+
+    private OtpLoadTest(LoadTestSettings settings, OtpCapture capture, OtpRepository otpRepository, int port) {
+        this.settings = settings;
+        this.capture = capture;
+        this.otpRepository = otpRepository;
+        this.baseUrl = "http://localhost:" + port + BASE_PATH;
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        OtpCapture capture = new OtpCapture();
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ScrapgainservApplication.class)
+                .profiles("loadtest")
+                .initializers(ctx -> ctx.getBeanFactory().registerSingleton("loadTestOtpCapture", capture))
+                .run(args)) {
+
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            new OtpLoadTest(settings, capture, context.getBean(OtpRepository.class), port).run();
+        }
+    }
+
+    private void run() throws Exception {
+        System.out.printf("Load test: %d users, %ds warmup, %ds measured, mix %s%n",
+                settings.users(), settings.warmupSeconds(), settings.durationSeconds(), settings.mix());
+
+        long start = System.nanoTime();
+        measureFromNanos = start + TimeUnit.SECONDS.toNanos(settings.warmupSeconds());
+        long endNanos = measureFromNanos + TimeUnit.SECONDS.toNanos(settings.durationSeconds());
+
+        List<Future<LoadTestStats>> users = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(settings.users())) {
+            for (int i = 0; i < settings.users(); i++) {
+                users.add(executor.submit(() -> runUser(endNanos)));
+            }
+        }
+
+        LoadTestStats stats = new LoadTestStats();
+        for (Future<LoadTestStats> user : users) {
+            stats.merge(user.get());
+        }
+        double elapsedSeconds = settings.durationSeconds();
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("label", settings.label());
+        result.put("timestamp", Instant.now().toString());
+        result.put("settings", settings.asMap());
+        result.put("environment", Map.of(
+                "javaVersion", Runtime.version().toString(),
+                "availableProcessors", Runtime.getRuntime().availableProcessors(),
+                "maxHeapMb", Runtime.getRuntime().maxMemory() / (1024 * 1024)));
+        result.put("totalRequests", stats.totalRequests());
+        result.put("throughputPerSecond", Math.round(stats.totalRequests() / elapsedSeconds * 1000) / 1000.0);
+        result.put("errors", stats.errors());
+        result.put("operations", stats.summary(elapsedSeconds));
+
+        Path output = Path.of(settings.output());
+        Files.createDirectories(output.toAbsolutePath().getParent());
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(output.toFile(), result);
+
+        System.out.printf("%d requests, %.1f req/s, unexpected outcomes %s%n",
+                stats.totalRequests(), stats.totalRequests() / elapsedSeconds, stats.errors());
+        System.out.println("Results written to " + output.toAbsolutePath());
+    }
+
+    private LoadTestStats runUser(long endNanos) {
+        LoadTestStats stats = new LoadTestStats();
+        while (System.nanoTime() < endNanos) {
+            String phone = "+919" + String.format("%09d", PHONE_SEQUENCE.incrementAndGet() % 1_000_000_000L);
+            try {
+                switch (settings.pickScenario(ThreadLocalRandom.current())) {
+                    case VALIDATE_CORRECT -> validateCorrect(stats, phone);
+                    case VALIDATE_WRONG -> validateWrong(stats, phone);
+                    case VALIDATE_EXPIRED -> validateExpired(stats, phone);
+                    case RESEND -> resend(stats, phone);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                // Scenario aborted (e.g. OTP never captured); the failing step is already recorded
+            }
+        }
+        return stats;
+    }
+
+    private void validateCorrect(LoadTestStats stats, String phone) throws Exception {
+        String otp = generate(stats, phone);
+        validate(stats, "validate_correct", phone, otp, SUCCESS);
+    }
+
+    private void validateWrong(LoadTestStats stats, String phone) throws Exception {
+        String otp = generate(stats, phone);
+        validate(stats, "validate_wrong", phone, wrong(otp), ErrorCode.OTP_INVALID.name());
+        validate(stats, "validate_correct", phone, otp, SUCCESS);
+    }
+
+    private void validateExpired(LoadTestStats stats, String phone) throws Exception {
+        String otp = generate(stats, phone);
+
+        // Move the expiry into the past; not timed, it stands in for waiting out the TTL
+        OtpRecord record = otpRepository.findByIdentifierAndPurpose(phone, OtpPurpose.LOGIN).orElseThrow();
+        record.setExpiresAt(Instant.now().minusSeconds(1));
+        otpRepository.update(record);
+
+        validate(stats, "validate_expired", phone, otp, ErrorCode.OTP_EXPIRED.name());
+    }
+
+    private void resend(LoadTestStats stats, String phone) throws Exception {
+        generate(stats, phone);
+        String otp = sendAndCapture(stats, "resend", "/resend", phone);
+        validate(stats, "validate_correct", phone, otp, SUCCESS);
+    }
+
+    private String generate(LoadTestStats stats, String phone) throws Exception {
+        return sendAndCapture(stats, "generate", "/generate", phone);
+    }
+
+    /**
+     * Call generate or resend and wait for the OTP to reach the mock provider
+     */
+    private String sendAndCapture(LoadTestStats stats, String operation, String path, String phone) throws Exception {
+        var sent = capture.expect(phone);
+        String outcome = post(stats, operation, path, Map.of("identifier", phone, "purpose", OtpPurpose.LOGIN),
+                SUCCESS);
+        if (!SUCCESS.equals(outcome)) {
+            capture.forget(phone);
+            throw new IllegalStateException(operation + " failed with " + outcome);
+        }
+
+        long start = System.nanoTime();
+        try {
+            String otp = sent.get(CAPTURE_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+            record(stats, "sms_delivery", start, SUCCESS, SUCCESS);
+            return otp;
+        } catch (TimeoutException e) {
+            capture.forget(phone);
+            record(stats, "sms_delivery", start, "CAPTURE_TIMEOUT", SUCCESS);
+            throw e;
+        }
+    }
+
+    private void validate(LoadTestStats stats, String operation, String phone, String otp, String expected)
+            throws Exception {
+        post(stats, operation, "/validate",
+                Map.of("identifier", phone, "purpose", OtpPurpose.LOGIN, "otp", otp), expected);
+    }
+
+    /**
+     * POST a JSON body and record latency and outcome
+     * @return SUCCESS, the ErrorCode name from the response, HTTP_<status> or IO_ERROR
+     */
+    private String post(LoadTestStats stats, String operation, String path, Map<String, ?> body, String expected)
+            throws InterruptedException {
+        long start = System.nanoTime();
+        String outcome;
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .timeout(Duration.ofSeconds(30))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                    .build();
+            HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            outcome = outcome(response);
+        } catch (IOException e) {
+            outcome = "IO_ERROR";
+        }
+        record(stats, operation, start, outcome, expected);
+        return outcome;
+    }
+
+    private String outcome(HttpResponse<byte[]> response) {
+        String errorCode = null;
+        try {
+            JsonNode json = objectMapper.readTree(response.body());
+            errorCode = json.hasNonNull("errorCode") ? json.get("errorCode").asText() : null;
+        } catch (IOException e) {
+            // Not an OtpResponse body, fall back to the status code
+        }
+        if (errorCode != null) {
+            return ERROR_NAMES.getOrDefault(errorCode, errorCode);
+        }
+        return response.statusCode() / 100 == 2 ? SUCCESS : "HTTP_" + response.statusCode();
+    }
+
+    private void record(LoadTestStats stats, String operation, long startNanos, String outcome, String expected) {
+        // Warmup requests are sent but not recorded
+        if (startNanos >= measureFromNanos) {
+            stats.record(operation, System.nanoTime() - startNanos, outcome, expected.equals(outcome));
+        }
+    }
+
+    private static String wrong(String otp) {
+        int length = otp.length();
+        int value = (Integer.parseInt(otp) + 1) % (int) Math.pow(10, length);
+        return String.format("%0" + length + "d", value);
+    }
+
+    /**
+     * Scenarios a virtual user picks from, weighted by loadtest.mix
+     */
+    enum Scenario {
+        VALIDATE_CORRECT, VALIDATE_WRONG, VALIDATE_EXPIRED, RESEND;
+
+        static Scenario fromName(String name) {
+            return valueOf(name.trim().toUpperCase());
+        }
+    }
+}
@@ -1,5 +1,10 @@
 package com.scrap.gain.otpmodule.config;
 
+import com.scrap.gain.otpmodule.model.OtpPurpose;
+import com.scrap.gain.otpmodule.model.enums.HashAlgorithm;
+import com.scrap.gain.otpmodule.model.enums.RedisCodec;
+import com.scrap.gain.otpmodule.model.enums.RedisLayout;
+import com.scrap.gain.otpmodule.model.enums.StoreType;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
@@ -8,6 +13,10 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.validation.annotation.Validated;
 
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
 @Data
 @Configuration
 @ConfigurationProperties(prefix = "otp")
@@ -29,18 +38,238 @@ public class OtpConfigProperties {
     @NotNull
     private SmsConfig sms = new SmsConfig();
 
+    @NotNull
+    private HashingConfig hashing = new HashingConfig();
+
+    @NotNull
+    private StoreConfig store = new StoreConfig();
+
+    @NotNull
+    private RedisStorageConfig redis = new RedisStorageConfig();
+
+    @NotNull
+    private BatchConfig batch = new BatchConfig();
+
+    @NotNull
+    private TokenConfig token = new TokenConfig();
+
+    @NotNull
+    private ResendConfig resend = new ResendConfig();
+
+    @NotNull
+    private IdempotencyConfig idempotency = new IdempotencyConfig();
+
+    @NotNull
+    private ValidationConfig validation = new ValidationConfig();
+
     @Data
     public static class RateLimitConfig {
         private boolean enabled = true;
         private int requestsPerMinute = 3;
         private int requestsPerHour = 10;
+        // Per client IP limits are looser since many users can share one NAT address
+        private int ipRequestsPerMinute = 20;
+        private int ipRequestsPerHour = 100;
+        // Max keys remembered locally as blocked, rejected without a Redis call
+        private int nearCacheMaxEntries = 10000;
+    }
+
+    @Data
+    public static class HashingConfig {
+        // Algorithm for new OTPs; stored hashes are tagged so both can be verified
+        private HashAlgorithm algorithm = HashAlgorithm.BCRYPT;
+        private int bcryptStrength = 10;
+        // Server-side secret for HMAC_SHA256, never stored alongside the hashes
+        private String pepper;
+        // Hashing pool size, 0 for one thread per core
+        private int threads = 0;
+        // Hashes waiting for a thread before new requests are shed
+        private int queueCapacity = 256;
+        // Max time a request waits for its hash before it is shed
+        private long maxWaitMillis = 2000;
+        @NotNull
+        private PrehashConfig prehash = new PrehashConfig();
+    }
+
+    @Data
+    public static class PrehashConfig {
+        // Ready (OTP, hash) pairs kept for generate, 0 to always hash inline
+        private int poolSize = 256;
+        // Background threads refilling the pool
+        private int workers = 1;
+        // Unused pairs older than this are discarded; their slots refill on the next take
+        private int maxAgeSeconds = 3600;
+    }
+
+    @Data
+    public static class StoreConfig {
+        // REDIS for shared multi-node storage, MEMORY for single-node setups and load tests
+        private StoreType type = StoreType.REDIS;
+        // MEMORY only: max live records, new OTPs are rejected once reached
+        private int maxEntries = 100_000;
+        // MEMORY only: expiry timing wheel resolution and slot count
+        private long wheelTickMillis = 100;
+        private int wheelSize = 512;
+    }
+
+    @Data
+    public static class RedisStorageConfig {
+        // Encoding for new writes; both encodings are always readable. JSON until every node
+        // runs a release that reads BINARY, then switch in a separate rollout
+        private RedisCodec codec = RedisCodec.JSON;
+        // STRING stores one encoded value per OTP, HASH stores one field per attribute
+        private RedisLayout layout = RedisLayout.STRING;
+        @NotNull
+        private CircuitBreakerConfig circuitBreaker = new CircuitBreakerConfig();
+        @NotNull
+        private DegradedConfig degraded = new DegradedConfig();
+    }
+
+    @Data
+    public static class CircuitBreakerConfig {
+        // Consecutive Redis failures before calls are short-circuited
+        private int failureThreshold = 5;
+        // Time the breaker stays open before one probe call is let through
+        private int openSeconds = 5;
+    }
+
+    @Data
+    public static class DegradedConfig {
+        // Keep new OTPs in a local store while Redis is unavailable
+        private boolean enabled = false;
+        // Max records held locally
+        private int maxEntries = 10_000;
+    }
+
+    @Data
+    public static class BatchConfig {
+        // Batch generate skips per-identifier limits, so it is off unless explicitly enabled
+        private boolean enabled = false;
+        // Shared secret callers send in the X-Admin-Token header; requests are refused while unset
+        private String adminToken;
+        // Max identifiers accepted by one batch generate request
+        private int maxSize = 500;
+    }
+
+    @Data
+    public static class TokenConfig {
+        // HMAC key for verification tokens, shared with every node and downstream verifier
+        private String secret;
+        // Development only: start with a random per-process secret when none is set
+        private boolean allowRandomSecret = false;
+        // Lifetime of a token issued on successful validation
+        private int ttlSeconds = 300;
+        // Max unexpired nonces remembered by VerificationTokenVerifier#verifyOnce
+        private int replayMaxEntries = 100_000;
+    }
+
+    @Data
+    public static class IdempotencyConfig {
+        // Honour Idempotency-Key headers on generate and resend
+        private boolean enabled = true;
+        // How long a completed response is replayed for the same key
+        private int ttlSeconds = 120;
+        // How long a request may hold its key before a duplicate may run again
+        private int inFlightSeconds = 30;
+        // Longer keys are rejected as invalid requests
+        private int maxKeyLength = 64;
+    }
+
+    @Data
+    public static class ValidationConfig {
+        // Allow one validation in flight per identifier and purpose; others are rejected before hashing
+        private boolean concurrencyGuard = true;
+        // Expiry of the shared in-flight marker, so a node dying mid-validation cannot hold it
+        private long guardLeaseMillis = 5000;
+    }
+
+    @Data
+    public static class ResendConfig {
+        // Min time between sends for one identifier and purpose, 0 to disable
+        private int cooldownSeconds = 30;
+        // Per-purpose overrides, e.g. otp.resend.purpose-cooldown-seconds.TRANSACTION=60
+        private Map<OtpPurpose, Integer> purposeCooldownSeconds = new EnumMap<>(OtpPurpose.class);
+
+        public Duration cooldownFor(OtpPurpose purpose) {
+            return Duration.ofSeconds(purposeCooldownSeconds.getOrDefault(purpose, cooldownSeconds));
+        }
     }
 
     @Data
     public static class SmsConfig {
-        private String provider = "MOCK"; // MOCK, TWILIO, AWS_SNS
+        private String provider = "MOCK"; // MOCK, TWILIO, AWS_SNS, ROUTING
         private TwilioConfig twilio = new TwilioConfig();
         private AwsSnsConfig aws = new AwsSnsConfig();
+        private DispatchConfig dispatch = new DispatchConfig();
+        private RoutingConfig routing = new RoutingConfig();
+        private OutboxConfig outbox = new OutboxConfig();
+        private ReceiptsConfig receipts = new ReceiptsConfig();
+        // Simulated provider round trip for the MOCK provider
+        private long mockDelayMillis = 100;
+    }
+
+    @Data
+    public static class RoutingConfig {
+        // Recent sends kept per provider for latency and error-rate stats
+        private int windowSize = 100;
+        // Sends older than this drop out of the stats; a provider with none left ranks first again,
+        // so one that failed gets a probe send once its failures age out
+        private long statsMaxAgeMillis = 60_000;
+        // Start a second provider when the first is slower than its usual latency
+        private boolean hedgingEnabled = false;
+        private double hedgePercentile = 0.95;
+        private long minHedgeDelayMillis = 500;
+        // Threads for hedged sends; with all of them busy a send fails over without hedging
+        private int hedgeThreads = 16;
+    }
+
+    @Data
+    public static class OutboxConfig {
+        // Append send jobs to a Redis stream before writing the OTP record, instead of the in-process queue
+        private boolean enabled = false;
+        // AES key material for the OTP inside each job, shared with every node; required when enabled
+        private String secret;
+        // Consumer name in the group, defaults to host name and pid
+        private String consumerName;
+        private int workers = 2;
+        // Entries read per XREADGROUP call and max time it blocks waiting for one;
+        // the block must end before spring.data.redis.timeout or every idle read times out
+        private int batchSize = 16;
+        private long blockMillis = 400;
+        // Pending entries idle this long belong to a dead consumer and are reclaimed with XAUTOCLAIM
+        private long claimIdleMillis = 30_000;
+        // Sends per job before it goes to the dead-letter stream
+        private int maxAttempts = 5;
+        // Retry delay doubles from the base up to the max
+        private long retryBaseMillis = 1000;
+        private long retryMaxMillis = 60_000;
+        // Approximate cap for the job and dead-letter streams (XADD MAXLEN ~)
+        private long maxLength = 100_000;
+    }
+
+    @Data
+    public static class ReceiptsConfig {
+        // Correlate provider delivery receipts with OTP records and record delivery latency
+        private boolean enabled = false;
+        // Public base URL of this service, used for the Twilio status callback and its signature check
+        private String callbackBaseUrl;
+        // Shared token expected as ?token= on the SNS receipt endpoint, which rejects everything when unset
+        private String token;
+        // Receipts waiting for processing; more are dropped (and counted)
+        private int queueCapacity = 10_000;
+        private int batchSize = 100;
+        // How long a sent message id is remembered for its receipts
+        private int correlationTtlMinutes = 60;
+        // MOCK provider only: feed a fake DELIVERED receipt back for every send
+        private boolean mockCallbacks = false;
+        private long mockCallbackDelayMillis = 200;
+    }
+
+    @Data
+    public static class DispatchConfig {
+        private int workers = 4;
+        private int queueCapacity = 1000;
+        private int shutdownTimeoutSeconds = 30;
     }
 
     @Data
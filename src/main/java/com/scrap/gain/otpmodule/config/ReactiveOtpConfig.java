@@ -0,0 +1,39 @@
+package com.scrap.gain.otpmodule.config;
+
+import com.scrap.gain.otpmodule.entity.OtpRecord;
+import com.scrap.gain.otpmodule.repository.OtpRecordRedisSerializer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+/**
+ * Beans for the reactive (WebFlux) stack
+ * Only active with spring.main.web-application-type=reactive
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveOtpConfig {
+
+    @Bean
+    public ReactiveRedisTemplate<String, OtpRecord> reactiveOtpRedisTemplate(
+            ReactiveRedisConnectionFactory connectionFactory,
+            OtpConfigProperties config) {
+
+        // Same key and value encoding as otpRedisTemplate
+        OtpRecordRedisSerializer serializer =
+                new OtpRecordRedisSerializer(config.getRedis().getCodec());
+
+        RedisSerializationContext<String, OtpRecord> context = RedisSerializationContext
+                .<String, OtpRecord>newSerializationContext(RedisSerializer.string())
+                .value(serializer)
+                .hashKey(RedisSerializer.string())
+                .hashValue(serializer)
+                .build();
+
+        return new ReactiveRedisTemplate<>(connectionFactory, context);
+    }
+}
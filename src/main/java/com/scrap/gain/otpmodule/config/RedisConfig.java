@@ -1,19 +1,26 @@
 package com.scrap.gain.otpmodule.config;
 
 import com.scrap.gain.otpmodule.entity.OtpRecord;
+import com.scrap.gain.otpmodule.repository.OtpRecordRedisSerializer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.serializer.JacksonJsonRedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
+/**
+ * Redis templates for OTP records
+ * Works against a standalone node or Redis Cluster (spring.data.redis.cluster.nodes).
+ * All keys of one identifier carry the {identifier} hash tag (see OtpRecord#buildRedisKey),
+ * so per-identifier scripts and multi-key commands stay within one slot.
+ */
 @Configuration
 public class RedisConfig {
 
     @Bean
     public RedisTemplate<String, OtpRecord> otpRedisTemplate(
-            RedisConnectionFactory connectionFactory) {
+            RedisConnectionFactory connectionFactory,
+            OtpConfigProperties config) {
 
         RedisTemplate<String, OtpRecord> template = new RedisTemplate<>();
         template.setConnectionFactory(connectionFactory);
@@ -21,9 +28,9 @@ public class RedisConfig {
         // Use String serializer for keys
         template.setKeySerializer(new StringRedisSerializer());
 
-        // Use JSON serializer for OtpRecord values
-        JacksonJsonRedisSerializer<OtpRecord> serializer =
-                new JacksonJsonRedisSerializer<>(OtpRecord.class);
+        // OtpRecord values written as JSON, or compact binary with otp.redis.codec=BINARY; both are read back
+        OtpRecordRedisSerializer serializer =
+                new OtpRecordRedisSerializer(config.getRedis().getCodec());
         template.setValueSerializer(serializer);
 
         // Hash key/value serializers
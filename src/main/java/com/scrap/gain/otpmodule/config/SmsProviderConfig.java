@@ -1,5 +1,6 @@
 package com.scrap.gain.otpmodule.config;
 
+import com.scrap.gain.otpmodule.service.sms.RoutingSmsProvider;
 import com.scrap.gain.otpmodule.service.sms.SmsProvider;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -7,6 +8,9 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 
+import java.util.List;
+import java.util.stream.Stream;
+
 /**
  * Configuration to select SMS provider based on application properties
  */
@@ -43,6 +47,19 @@ public class SmsProviderConfig {
                     yield mockProvider;
                 }
             }
+            case "ROUTING" -> {
+                List<SmsProvider> configured = Stream.of(twilioProvider, awsSnsProvider)
+                        .filter(SmsProvider::isConfigured)
+                        .toList();
+                // Routing is a production setup: refuse to start rather than silently send nothing
+                if (configured.isEmpty()) {
+                    throw new IllegalStateException(
+                            "otp.sms.provider=ROUTING needs Twilio or AWS SNS configured, none is");
+                }
+                log.info("Using routing SMS provider across {}",
+                        configured.stream().map(SmsProvider::getProviderName).toList());
+                yield new RoutingSmsProvider(configured, config.getSms().getRouting());
+            }
             default -> {
                 log.info("Using MOCK SMS provider");
                 yield mockProvider;
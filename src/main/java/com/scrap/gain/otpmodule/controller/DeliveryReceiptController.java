@@ -0,0 +1,94 @@
+package com.scrap.gain.otpmodule.controller;
+
+import com.scrap.gain.otpmodule.config.OtpConfigProperties;
+import com.scrap.gain.otpmodule.service.sms.DeliveryReceipt;
+import com.scrap.gain.otpmodule.service.sms.DeliveryReceiptTracker;
+import com.scrap.gain.otpmodule.service.sms.TwilioSmsProvider;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Provider delivery receipt callbacks
+ *
+ * Endpoints:
+ * - POST /api/v1/otp/receipts/twilio - Twilio status callback (form encoded, X-Twilio-Signature checked)
+ * - POST /api/v1/otp/receipts/sns    - SNS SMS delivery-status log events (one JSON event or an array),
+ *                                      ?token= must match otp.sms.receipts.token
+ *
+ * Receipts are only parsed and queued here; providers get 204 right away and the
+ * DeliveryReceiptTracker matches them to OTP records in batches.
+ * Servlet stack only.
+ */
+@Slf4j
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequiredArgsConstructor
+public class DeliveryReceiptController {
+
+    private final DeliveryReceiptTracker receiptTracker;
+    private final TwilioSmsProvider twilioSmsProvider;
+    private final OtpConfigProperties config;
+
+    @PostMapping(path = DeliveryReceiptTracker.TWILIO_CALLBACK_PATH,
+            consumes = MediaType.APPLICATION_FORM_URLENCODED_VALUE)
+    public ResponseEntity<Void> twilioReceipt(
+            @RequestParam Map<String, String> params,
+            @RequestHeader(name = "X-Twilio-Signature", required = false) String signature) {
+
+        if (!receiptTracker.isEnabled()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (!twilioSmsProvider.isValidCallback(params, signature)) {
+            log.warn("Rejected Twilio status callback with an invalid signature");
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        DeliveryReceipt.fromTwilio(params, System.currentTimeMillis()).ifPresent(receiptTracker::submit);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping(path = DeliveryReceiptTracker.SNS_CALLBACK_PATH, consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Void> snsReceipts(
+            @RequestBody Object body,
+            @RequestParam(name = "token", required = false) String token) {
+
+        if (!receiptTracker.isEnabled()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (!isValidToken(token)) {
+            log.warn("Rejected SNS delivery receipts with an invalid token");
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        long receivedAt = System.currentTimeMillis();
+        List<?> events = body instanceof List<?> list ? list : List.of(body);
+        for (Object event : events) {
+            if (event instanceof Map<?, ?> map) {
+                DeliveryReceipt.fromSns(map, receivedAt).ifPresent(receiptTracker::submit);
+            }
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    private boolean isValidToken(String token) {
+        String expected = config.getSms().getReceipts().getToken();
+        // Fail closed: without a configured token anyone could post receipts
+        if (!StringUtils.hasText(expected)) {
+            log.warn("SNS delivery receipts rejected, otp.sms.receipts.token is not set");
+            return false;
+        }
+        return token != null && MessageDigest.isEqual(
+                expected.getBytes(StandardCharsets.UTF_8), token.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,59 +1,116 @@
 package com.scrap.gain.otpmodule.controller;
 
+import com.scrap.gain.otpmodule.config.OtpConfigProperties;
+import com.scrap.gain.otpmodule.dto.OtpBatchGenerateRequest;
+import com.scrap.gain.otpmodule.dto.OtpBatchResponse;
 import com.scrap.gain.otpmodule.dto.OtpGenerateRequest;
 import com.scrap.gain.otpmodule.dto.OtpResendRequest;
 import com.scrap.gain.otpmodule.dto.OtpResponse;
 import com.scrap.gain.otpmodule.dto.OtpValidateRequest;
+import com.scrap.gain.otpmodule.dto.TokenVerifyRequest;
+import com.scrap.gain.otpmodule.service.IdempotencyService;
 import com.scrap.gain.otpmodule.service.OtpService;
+import com.scrap.gain.otpmodule.service.RateLimitService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
 /**
  * REST Controller for OTP operations
  *
  * Endpoints:
  * - POST /api/v1/otp/generate - Generate and send OTP
+ * - POST /api/v1/otp/generate/batch - Generate and send OTPs for many identifiers
  * - POST /api/v1/otp/validate - Validate OTP
  * - POST /api/v1/otp/resend   - Resend OTP
+ * - POST /api/v1/otp/verify-token - Check and consume a verification token
+ * - GET  /api/v1/otp/{referenceId}/delivery-status - SMS delivery status
+ *
+ * Generate and resend accept an optional Idempotency-Key header; retries with the same
+ * key get the first response back instead of a new OTP.
+ * Batch generate is disabled by default and requires the X-Admin-Token header.
+ * Servlet stack only; the reactive stack serves the same routes through OtpRouter.
  */
 @Slf4j
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/v1/otp")
 @RequiredArgsConstructor
 public class OtpController {
 
+    static final String ADMIN_TOKEN_HEADER = "X-Admin-Token";
+
     private final OtpService otpService;
-//    private final RateLimitService rateLimitService;
+    private final RateLimitService rateLimitService;
+    private final IdempotencyService idempotencyService;
+    private final OtpConfigProperties config;
 
     /**
      * Generate and send OTP to the specified identifier
      *
      * @param request Contains identifier (phone/email) and purpose
+     * @param idempotencyKey Optional client key; replays of a completed request return its response
      * @return OtpResponse with reference ID and expiry time
      */
     @PostMapping("/generate")
     public ResponseEntity<OtpResponse> generateOtp(
-            @Valid @RequestBody OtpGenerateRequest request) {
+            @Valid @RequestBody OtpGenerateRequest request,
+            @RequestHeader(name = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            HttpServletRequest httpRequest) {
 
         log.info("POST /api/v1/otp/generate - identifier: {}, purpose: {}",
                 maskIdentifier(request.getIdentifier()), request.getPurpose());
 
-        // Check rate limit - TBD
-//        if (!rateLimitService.isAllowed(request.getIdentifier())) {
-//            throw new OtpException(ErrorCode.RATE_LIMIT_EXCEEDED);
-//        }
-
-        OtpResponse response = otpService.generateOtp(request);
+        // Replays skip the rate limit, they send nothing
+        OtpResponse response = idempotencyService.execute(idempotencyKey, "generate",
+                request.getIdentifier(), request.getPurpose().name(), () -> {
+                    // Check rate limit (per identifier and per client IP)
+                    rateLimitService.checkLimit(request.getIdentifier(), httpRequest.getRemoteAddr());
+                    return otpService.generateOtp(request);
+                });
 
         return ResponseEntity
                 .status(HttpStatus.CREATED)
                 .body(response);
     }
 
+    /**
+     * Generate and send OTPs for many identifiers (imports, re-verification campaigns)
+     * Items are validated individually; the response carries one result per item.
+     * Per-identifier rate limits are not applied, so only callers holding otp.batch.admin-token
+     * are served: 404 while otp.batch.enabled is false, 403 without a matching token.
+     *
+     * @param request List of identifier/purpose pairs
+     * @param adminToken Value of otp.batch.admin-token
+     * @return OtpBatchResponse with per-item results in request order
+     */
+    @PostMapping("/generate/batch")
+    public ResponseEntity<OtpBatchResponse> generateOtpBatch(
+            @Valid @RequestBody OtpBatchGenerateRequest request,
+            @RequestHeader(name = ADMIN_TOKEN_HEADER, required = false) String adminToken) {
+
+        if (!config.getBatch().isEnabled()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (!isValidAdminToken(adminToken)) {
+            log.warn("Rejected batch generate without a valid admin token");
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        log.info("POST /api/v1/otp/generate/batch - items: {}", request.getRequests().size());
+
+        return ResponseEntity.ok(otpService.generateOtpBatch(request));
+    }
+
     /**
      * Validate OTP provided by user
      *
@@ -76,31 +133,61 @@ public class OtpController {
         return ResponseEntity.status(status).body(response);
     }
 
+    /**
+     * Check a verification token issued by validate; each token is accepted once
+     * Services holding otp.token.secret can check tokens locally with VerificationTokenVerifier.
+     *
+     * @param request Contains the token and optionally the expected purpose
+     * @return OtpResponse with the verified identifier, purpose and token expiry
+     */
+    @PostMapping("/verify-token")
+    public ResponseEntity<OtpResponse> verifyToken(
+            @Valid @RequestBody TokenVerifyRequest request) {
+
+        log.info("POST /api/v1/otp/verify-token - purpose: {}", request.getPurpose());
+
+        return ResponseEntity.ok(otpService.verifyToken(request));
+    }
+
     /**
      * Resend OTP (invalidates previous OTP)
      *
      * @param request Contains identifier and purpose
+     * @param idempotencyKey Optional client key; replays of a completed request return its response
      * @return OtpResponse with new reference ID and expiry time
      */
     @PostMapping("/resend")
     public ResponseEntity<OtpResponse> resendOtp(
-            @Valid @RequestBody OtpResendRequest request) {
+            @Valid @RequestBody OtpResendRequest request,
+            @RequestHeader(name = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            HttpServletRequest httpRequest) {
 
         log.info("POST /api/v1/otp/resend - identifier: {}, purpose: {}",
                 maskIdentifier(request.getIdentifier()), request.getPurpose());
 
-        // Check rate limit
-//        if (!rateLimitService.isAllowed(request.getIdentifier())) {
-//            throw new OtpException(ErrorCode.RATE_LIMIT_EXCEEDED);
-//        }
-
-        OtpResponse response = otpService.resendOtp(request);
+        OtpResponse response = idempotencyService.execute(idempotencyKey, "resend",
+                request.getIdentifier(), request.getPurpose().name(), () -> {
+                    // Check rate limit (per identifier and per client IP)
+                    rateLimitService.checkLimit(request.getIdentifier(), httpRequest.getRemoteAddr());
+                    return otpService.resendOtp(request);
+                });
 
         return ResponseEntity
                 .status(HttpStatus.CREATED)
                 .body(response);
     }
 
+    /**
+     * Get SMS delivery status for a generated OTP
+     *
+     * @param referenceId Reference ID returned by generate/resend
+     * @return OtpResponse with delivery status
+     */
+    @GetMapping("/{referenceId}/delivery-status")
+    public ResponseEntity<OtpResponse> getDeliveryStatus(@PathVariable String referenceId) {
+        return ResponseEntity.ok(otpService.getDeliveryStatus(referenceId));
+    }
+
     /**
      * Health check endpoint
      */
@@ -113,4 +200,11 @@ public class OtpController {
         if (identifier == null || identifier.length() < 4) return "****";
         return "****" + identifier.substring(identifier.length() - 4);
     }
+
+    // Fails closed: no configured token means no batch caller is trusted
+    private boolean isValidAdminToken(String token) {
+        String expected = config.getBatch().getAdminToken();
+        return StringUtils.hasText(expected) && token != null && MessageDigest.isEqual(
+                expected.getBytes(StandardCharsets.UTF_8), token.getBytes(StandardCharsets.UTF_8));
+    }
 }
@@ -0,0 +1,154 @@
+package com.scrap.gain.otpmodule.controller;
+
+import com.scrap.gain.otpmodule.dto.OtpGenerateRequest;
+import com.scrap.gain.otpmodule.dto.OtpResendRequest;
+import com.scrap.gain.otpmodule.dto.OtpResponse;
+import com.scrap.gain.otpmodule.dto.OtpValidateRequest;
+import com.scrap.gain.otpmodule.dto.TokenVerifyRequest;
+import com.scrap.gain.otpmodule.exception.ErrorCode;
+import com.scrap.gain.otpmodule.exception.GlobalExceptionHandler;
+import com.scrap.gain.otpmodule.exception.OtpException;
+import com.scrap.gain.otpmodule.service.ReactiveOtpService;
+import com.scrap.gain.otpmodule.service.ReactiveRateLimitService;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Mono;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Handler functions for the reactive OTP routes (see OtpRouter)
+ * Mirrors OtpController: same validation, rate limiting, status codes and error bodies.
+ */
+@Slf4j
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+public class OtpHandler {
+
+    private final ReactiveOtpService otpService;
+    private final ReactiveRateLimitService rateLimitService;
+    private final Validator validator;
+
+    public Mono<ServerResponse> generateOtp(ServerRequest request) {
+        return request.bodyToMono(OtpGenerateRequest.class)
+                .flatMap(this::validated)
+                .flatMap(body -> {
+                    log.info("POST /api/v1/otp/generate - identifier: {}, purpose: {}",
+                            maskIdentifier(body.getIdentifier()), body.getPurpose());
+
+                    // Check rate limit (per identifier and per client IP)
+                    return rateLimitService.checkLimit(body.getIdentifier(), clientIp(request))
+                            .then(otpService.generateOtp(body));
+                })
+                .flatMap(response -> ServerResponse.status(HttpStatus.CREATED).bodyValue(response))
+                .onErrorResume(this::errorResponse);
+    }
+
+    public Mono<ServerResponse> validateOtp(ServerRequest request) {
+        return request.bodyToMono(OtpValidateRequest.class)
+                .flatMap(this::validated)
+                .flatMap(body -> {
+                    log.info("POST /api/v1/otp/validate - identifier: {}, purpose: {}",
+                            maskIdentifier(body.getIdentifier()), body.getPurpose());
+                    return otpService.validateOtp(body);
+                })
+                .flatMap(response -> ServerResponse
+                        .status(Boolean.TRUE.equals(response.getValid()) ? HttpStatus.OK : HttpStatus.BAD_REQUEST)
+                        .bodyValue(response))
+                .onErrorResume(this::errorResponse);
+    }
+
+    public Mono<ServerResponse> verifyToken(ServerRequest request) {
+        return request.bodyToMono(TokenVerifyRequest.class)
+                .flatMap(this::validated)
+                .flatMap(body -> {
+                    log.info("POST /api/v1/otp/verify-token - purpose: {}", body.getPurpose());
+                    return otpService.verifyToken(body);
+                })
+                .flatMap(response -> ServerResponse.ok().bodyValue(response))
+                .onErrorResume(this::errorResponse);
+    }
+
+    public Mono<ServerResponse> resendOtp(ServerRequest request) {
+        return request.bodyToMono(OtpResendRequest.class)
+                .flatMap(this::validated)
+                .flatMap(body -> {
+                    log.info("POST /api/v1/otp/resend - identifier: {}, purpose: {}",
+                            maskIdentifier(body.getIdentifier()), body.getPurpose());
+
+                    // Check rate limit (per identifier and per client IP)
+                    return rateLimitService.checkLimit(body.getIdentifier(), clientIp(request))
+                            .then(otpService.resendOtp(body));
+                })
+                .flatMap(response -> ServerResponse.status(HttpStatus.CREATED).bodyValue(response))
+                .onErrorResume(this::errorResponse);
+    }
+
+    public Mono<ServerResponse> getDeliveryStatus(ServerRequest request) {
+        return otpService.getDeliveryStatus(request.pathVariable("referenceId"))
+                .flatMap(response -> ServerResponse.ok().bodyValue(response))
+                .onErrorResume(this::errorResponse);
+    }
+
+    public Mono<ServerResponse> health(ServerRequest request) {
+        return ServerResponse.ok().bodyValue("OTP Service is running");
+    }
+
+    private <T> Mono<T> validated(T body) {
+        Set<ConstraintViolation<T>> violations = validator.validate(body);
+        if (violations.isEmpty()) {
+            return Mono.just(body);
+        }
+        String errors = violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .collect(Collectors.joining(", "));
+        return Mono.error(new RequestValidationException(errors));
+    }
+
+    private Mono<ServerResponse> errorResponse(Throwable error) {
+        if (error instanceof OtpException ex) {
+            log.error("OTP Exception: {} - {}", ex.getErrorCode().getCode(), ex.getMessage());
+            return ServerResponse.status(GlobalExceptionHandler.statusFor(ex.getErrorCode()))
+                    .bodyValue(OtpResponse.error(ex.getErrorCode().getCode(), ex.getErrorCode().getMessage()));
+        }
+        if (error instanceof RequestValidationException || error instanceof ServerWebInputException) {
+            log.error("Validation error: {}", error.getMessage());
+            return ServerResponse.badRequest()
+                    .bodyValue(OtpResponse.error(ErrorCode.INVALID_REQUEST.getCode(), error.getMessage()));
+        }
+
+        log.error("Unexpected error: {}", error.getMessage(), error);
+        return ServerResponse.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .bodyValue(OtpResponse.error(ErrorCode.INTERNAL_ERROR.getCode(), "An unexpected error occurred"));
+    }
+
+    private static String clientIp(ServerRequest request) {
+        return request.remoteAddress()
+                .map(address -> address.getAddress() != null
+                        ? address.getAddress().getHostAddress()
+                        : address.getHostString())
+                .orElse("unknown");
+    }
+
+    private static String maskIdentifier(String identifier) {
+        if (identifier == null || identifier.length() < 4) return "****";
+        return "****" + identifier.substring(identifier.length() - 4);
+    }
+
+    private static final class RequestValidationException extends RuntimeException {
+
+        private RequestValidationException(String message) {
+            super(message, null, false, false);
+        }
+    }
+}
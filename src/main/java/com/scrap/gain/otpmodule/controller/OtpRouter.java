@@ -0,0 +1,39 @@
+package com.scrap.gain.otpmodule.controller;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.accept;
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+
+/**
+ * WebFlux routes for OTP operations, same paths as OtpController
+ *
+ * Endpoints:
+ * - POST /api/v1/otp/generate - Generate and send OTP
+ * - POST /api/v1/otp/validate - Validate OTP
+ * - POST /api/v1/otp/resend   - Resend OTP
+ * - POST /api/v1/otp/verify-token - Check and consume a verification token
+ * - GET  /api/v1/otp/{referenceId}/delivery-status - SMS delivery status
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class OtpRouter {
+
+    @Bean
+    public RouterFunction<ServerResponse> otpRoutes(OtpHandler handler) {
+        return route()
+                .path("/api/v1/otp", builder -> builder
+                        .POST("/generate", accept(MediaType.APPLICATION_JSON), handler::generateOtp)
+                        .POST("/validate", accept(MediaType.APPLICATION_JSON), handler::validateOtp)
+                        .POST("/resend", accept(MediaType.APPLICATION_JSON), handler::resendOtp)
+                        .POST("/verify-token", accept(MediaType.APPLICATION_JSON), handler::verifyToken)
+                        .GET("/health", handler::health)
+                        .GET("/{referenceId}/delivery-status", handler::getDeliveryStatus))
+                .build();
+    }
+}
@@ -0,0 +1,20 @@
+package com.scrap.gain.otpmodule.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OtpBatchGenerateRequest {
+
+    // Items are validated one by one so a bad identifier only fails its own result
+    @NotEmpty(message = "At least one identifier is required")
+    private List<OtpGenerateRequest> requests;
+}
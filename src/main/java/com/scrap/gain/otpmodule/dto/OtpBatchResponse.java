@@ -0,0 +1,34 @@
+package com.scrap.gain.otpmodule.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OtpBatchResponse {
+
+    private int total;
+
+    private int succeeded;
+
+    private int failed;
+
+    // One result per request item, in request order; failed items carry errorCode
+    private List<OtpResponse> results;
+
+    public static OtpBatchResponse of(List<OtpResponse> results) {
+        int failed = (int) results.stream().filter(result -> result.getErrorCode() != null).count();
+        return OtpBatchResponse.builder()
+                .total(results.size())
+                .succeeded(results.size() - failed)
+                .failed(failed)
+                .results(results)
+                .build();
+    }
+}
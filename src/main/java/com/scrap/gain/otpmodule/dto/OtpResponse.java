@@ -1,6 +1,7 @@
 package com.scrap.gain.otpmodule.dto;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.scrap.gain.otpmodule.model.OtpPurpose;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -39,6 +40,13 @@ public class OtpResponse {
     // Verification token (optional, for successful validation)
     private String verificationToken;
 
+    // SMS delivery status (QUEUED, SENDING, SENT, FAILED)
+    private String deliveryStatus;
+
+    // Verified identifier and purpose (token verification only)
+    private String identifier;
+    private OtpPurpose purpose;
+
     // Factory methods for common responses
     public static OtpResponse success(String referenceId, String maskedId, Instant expiresAt) {
         return OtpResponse.builder()
@@ -66,6 +74,23 @@ public class OtpResponse {
                 .build();
     }
 
+    public static OtpResponse tokenVerified(String identifier, OtpPurpose purpose, Instant expiresAt) {
+        return OtpResponse.builder()
+                .valid(true)
+                .identifier(identifier)
+                .purpose(purpose)
+                .expiresAt(expiresAt)
+                .message("Verification token accepted")
+                .build();
+    }
+
+    public static OtpResponse deliveryStatus(String referenceId, String status) {
+        return OtpResponse.builder()
+                .referenceId(referenceId)
+                .deliveryStatus(status)
+                .build();
+    }
+
     public static OtpResponse error(String errorCode, String message) {
         return OtpResponse.builder()
                 .errorCode(errorCode)
@@ -0,0 +1,23 @@
+package com.scrap.gain.otpmodule.dto;
+
+import com.scrap.gain.otpmodule.model.OtpPurpose;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenVerifyRequest {
+
+    @NotBlank(message = "Verification token is required")
+    @Size(max = 512, message = "Verification token is too long")
+    private String token;
+
+    // Optional: reject tokens issued for another purpose
+    private OtpPurpose purpose;
+}
@@ -1,5 +1,7 @@
 package com.scrap.gain.otpmodule.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.scrap.gain.otpmodule.model.OtpPurpose;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -7,6 +9,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.io.Serializable;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Map;
 import java.util.UUID;
@@ -15,6 +18,7 @@ import java.util.UUID;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
 public class OtpRecord implements Serializable {
 
     private static final long serialVersionUID = 1L;
@@ -55,11 +59,19 @@ public class OtpRecord implements Serializable {
     }
 
     // Check if OTP is expired
+    @JsonIgnore
     public boolean isExpired() {
         return Instant.now().isAfter(expiresAt);
     }
 
+    // Check if the record was saved less than the given time ago, e.g. inside a resend cooldown
+    @JsonIgnore
+    public boolean isSavedWithin(Duration window) {
+        return createdAt != null && Instant.now().isBefore(createdAt.plus(window));
+    }
+
     // Check if max attempts exceeded
+    @JsonIgnore
     public boolean isMaxAttemptsExceeded() {
         return attemptCount >= maxAttempts;
     }
@@ -70,12 +82,43 @@ public class OtpRecord implements Serializable {
     }
 
     // Generate Redis key
+    @JsonIgnore
     public String getRedisKey() {
-        return String.format("otp:%s:%s", identifier, purpose.name());
+        return buildRedisKey(identifier, purpose);
     }
 
-    // Static method to generate Redis key
+    // Static method to generate Redis key: otp:{identifier}:PURPOSE
+    // The identifier is a hash tag, so all keys of one identifier share a Redis Cluster slot
     public static String buildRedisKey(String identifier, OtpPurpose purpose) {
-        return String.format("otp:%s:%s", identifier, purpose.name());
+        return String.format("otp:%s:%s", hashTag(identifier), purpose.name());
+    }
+
+    // Cluster hash tag for an identifier; keys containing it are kept in one slot
+    public static String hashTag(String identifier) {
+        return "{" + identifier + "}";
+    }
+
+    // Redis key of the attempt counter kept next to the record
+    public static String buildAttemptsKey(String identifier, OtpPurpose purpose) {
+        return buildAttemptsKey(buildRedisKey(identifier, purpose));
+    }
+
+    public static String buildAttemptsKey(String redisKey) {
+        return redisKey + ":attempts";
+    }
+
+    // Redis key marking a verification token nonce as used: otp:{identifier}:token:<nonce>
+    public static String buildTokenKey(String identifier, String nonce) {
+        return String.format("otp:%s:token:%s", hashTag(identifier), nonce);
+    }
+
+    // Redis key held while a validation of the record runs: otp:{identifier}:PURPOSE:validating
+    public static String buildValidationLockKey(String identifier, OtpPurpose purpose) {
+        return buildRedisKey(identifier, purpose) + ":validating";
+    }
+
+    // Redis key of a client Idempotency-Key for one operation: otp:{identifier}:idem:<operation>:<key>
+    public static String buildIdempotencyKey(String identifier, String operation, String idempotencyKey) {
+        return String.format("otp:%s:idem:%s:%s", hashTag(identifier), operation, idempotencyKey);
     }
 }
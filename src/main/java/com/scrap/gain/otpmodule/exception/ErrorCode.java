@@ -17,6 +17,7 @@ public enum ErrorCode {
     OTP_MAX_ATTEMPTS("OTP_012", "Maximum validation attempts exceeded"),
     OTP_NOT_FOUND("OTP_013", "No OTP found for this identifier"),
     OTP_ALREADY_VERIFIED("OTP_014", "OTP already verified"),
+    VALIDATION_IN_PROGRESS("OTP_015", "Another validation of this OTP is in progress. Please try again"),
 
     // Rate Limiting Errors
     RATE_LIMIT_EXCEEDED("OTP_020", "Too many requests. Please try again later"),
@@ -24,11 +25,26 @@ public enum ErrorCode {
     // SMS Delivery Errors
     SMS_DELIVERY_FAILED("OTP_030", "Failed to send SMS"),
     SMS_PROVIDER_ERROR("OTP_031", "SMS provider error"),
+    SMS_QUEUE_FULL("OTP_032", "SMS service is busy. Please try again later"),
 
     // Validation Errors
     INVALID_PHONE_FORMAT("OTP_040", "Invalid phone number format"),
     INVALID_EMAIL_FORMAT("OTP_041", "Invalid email format"),
     INVALID_REQUEST("OTP_042", "Invalid request"),
+    BATCH_TOO_LARGE("OTP_043", "Batch exceeds the maximum number of identifiers"),
+
+    // Capacity and Storage Errors
+    OTP_STORE_FULL("OTP_050", "OTP service is at capacity. Please try again later"),
+    HASHING_OVERLOADED("OTP_051", "OTP service is busy. Please try again later"),
+    STORE_UNAVAILABLE("OTP_052", "OTP service is temporarily unavailable. Please try again later"),
+
+    // Verification Token Errors
+    TOKEN_INVALID("OTP_060", "Invalid or expired verification token"),
+    TOKEN_ALREADY_USED("OTP_061", "Verification token already used"),
+
+    // Idempotency Errors
+    IDEMPOTENCY_KEY_IN_USE("OTP_070", "A request with this Idempotency-Key is still in progress"),
+    IDEMPOTENCY_KEY_REUSED("OTP_071", "Idempotency-Key was already used for a different request"),
 
     // System Errors
     INTERNAL_ERROR("OTP_500", "Internal server error");
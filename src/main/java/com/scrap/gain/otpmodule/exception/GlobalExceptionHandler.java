@@ -2,6 +2,7 @@ package com.scrap.gain.otpmodule.exception;
 
 import com.scrap.gain.otpmodule.dto.OtpResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -14,9 +15,11 @@ import java.util.stream.Collectors;
 /**
  * Global exception handler for REST API
  * Converts exceptions to standardized OtpResponse format
+ * (the reactive router maps errors itself, see OtpHandler)
  */
 @Slf4j
 @RestControllerAdvice
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class GlobalExceptionHandler {
 
     /**
@@ -26,7 +29,7 @@ public class GlobalExceptionHandler {
     public ResponseEntity<OtpResponse> handleOtpException(OtpException ex) {
         log.error("OTP Exception: {} - {}", ex.getErrorCode().getCode(), ex.getMessage());
 
-        HttpStatus status = mapErrorCodeToStatus(ex.getErrorCode());
+        HttpStatus status = statusFor(ex.getErrorCode());
 
         OtpResponse response = OtpResponse.error(
                 ex.getErrorCode().getCode(),
@@ -75,15 +78,20 @@ public class GlobalExceptionHandler {
     /**
      * Map error codes to HTTP status codes
      */
-    private HttpStatus mapErrorCodeToStatus(ErrorCode errorCode) {
+    public static HttpStatus statusFor(ErrorCode errorCode) {
         return switch (errorCode) {
             case OTP_NOT_FOUND -> HttpStatus.NOT_FOUND;
             case OTP_EXPIRED, OTP_INVALID, OTP_MAX_ATTEMPTS,
                  OTP_ALREADY_VERIFIED, OTP_ALREADY_SENT -> HttpStatus.BAD_REQUEST;
-            case RATE_LIMIT_EXCEEDED -> HttpStatus.TOO_MANY_REQUESTS;
+            case RATE_LIMIT_EXCEEDED, VALIDATION_IN_PROGRESS -> HttpStatus.TOO_MANY_REQUESTS;
+            case TOKEN_INVALID, TOKEN_ALREADY_USED -> HttpStatus.UNAUTHORIZED;
+            case IDEMPOTENCY_KEY_IN_USE -> HttpStatus.CONFLICT;
+            case IDEMPOTENCY_KEY_REUSED -> HttpStatus.UNPROCESSABLE_ENTITY;
             case INVALID_PHONE_FORMAT, INVALID_EMAIL_FORMAT,
-                 INVALID_REQUEST -> HttpStatus.BAD_REQUEST;
-            case SMS_DELIVERY_FAILED, SMS_PROVIDER_ERROR -> HttpStatus.SERVICE_UNAVAILABLE;
+                 INVALID_REQUEST, BATCH_TOO_LARGE -> HttpStatus.BAD_REQUEST;
+            case SMS_DELIVERY_FAILED, SMS_PROVIDER_ERROR,
+                 SMS_QUEUE_FULL, OTP_STORE_FULL, STORE_UNAVAILABLE,
+                 HASHING_OVERLOADED -> HttpStatus.SERVICE_UNAVAILABLE;
             default -> HttpStatus.INTERNAL_SERVER_ERROR;
         };
     }
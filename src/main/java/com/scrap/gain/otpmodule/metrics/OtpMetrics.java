@@ -0,0 +1,134 @@
+package com.scrap.gain.otpmodule.metrics;
+
+import com.scrap.gain.otpmodule.dto.OtpResponse;
+import com.scrap.gain.otpmodule.exception.ErrorCode;
+import com.scrap.gain.otpmodule.exception.OtpException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Micrometer instrumentation for the OTP lifecycle
+ *
+ * Meters:
+ * - otp.request          timer per operation (generate, validate, resend)
+ * - otp.request.inflight gauge per operation
+ * - otp.outcome          counter per operation and outcome (SUCCESS or ErrorCode name)
+ * - otp.stage            timer per stage (hash, verify, redis.get, redis.set, ...)
+ * - otp.sms.send         timer per provider and result
+ */
+@Component
+public class OtpMetrics {
+
+    public static final String SUCCESS = "SUCCESS";
+
+    private final MeterRegistry registry;
+    private final Map<String, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    public OtpMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Time a service operation, track it as in-flight and count its outcome
+     */
+    public OtpResponse track(String operation, Supplier<OtpResponse> action) {
+        AtomicInteger gauge = inFlight.computeIfAbsent(operation, op -> {
+            AtomicInteger value = new AtomicInteger();
+            Gauge.builder("otp.request.inflight", value, AtomicInteger::get)
+                    .tag("operation", op)
+                    .register(registry);
+            return value;
+        });
+
+        String outcome = ErrorCode.INTERNAL_ERROR.name();
+        long start = System.nanoTime();
+        gauge.incrementAndGet();
+        try {
+            OtpResponse response = action.get();
+            outcome = Boolean.FALSE.equals(response.getValid()) ? ErrorCode.OTP_INVALID.name() : SUCCESS;
+            return response;
+        } catch (OtpException e) {
+            outcome = e.getErrorCode().name();
+            throw e;
+        } finally {
+            gauge.decrementAndGet();
+            recordRequest(operation, outcome, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Record a service operation that was timed by the caller (non-blocking operations)
+     */
+    public void recordRequest(String operation, String outcome, long elapsedNanos) {
+        timer("otp.request", "operation", operation).record(elapsedNanos, TimeUnit.NANOSECONDS);
+        recordOutcome(operation, outcome);
+    }
+
+    /**
+     * Count an outcome for an operation
+     */
+    public void recordOutcome(String operation, String outcome) {
+        counters.computeIfAbsent(operation + '|' + outcome, key -> Counter.builder("otp.outcome")
+                        .tag("operation", operation)
+                        .tag("outcome", outcome)
+                        .register(registry))
+                .increment();
+    }
+
+    /**
+     * Time one stage of an operation
+     */
+    public <T> T timeStage(String stage, Supplier<T> action) {
+        return timer("otp.stage", "stage", stage).record(action);
+    }
+
+    public void runStage(String stage, Runnable action) {
+        timer("otp.stage", "stage", stage).record(action);
+    }
+
+    /**
+     * Time a provider send, tagged by provider name and result
+     */
+    public boolean timeSend(String provider, BooleanSupplier send) {
+        long start = System.nanoTime();
+        boolean sent = false;
+        try {
+            sent = send.getAsBoolean();
+            return sent;
+        } finally {
+            recordSend(provider, sent, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Record a provider send that was timed by the caller (non-blocking sends)
+     */
+    public void recordSend(String provider, boolean sent, long elapsedNanos) {
+        String result = sent ? "sent" : "failed";
+        timers.computeIfAbsent("otp.sms.send|" + provider + '|' + result, key -> Timer.builder("otp.sms.send")
+                        .tag("provider", provider)
+                        .tag("result", result)
+                        .publishPercentileHistogram()
+                        .register(registry))
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer timer(String name, String tagKey, String tagValue) {
+        return timers.computeIfAbsent(name + '|' + tagValue, key -> Timer.builder(name)
+                .tag(tagKey, tagValue)
+                .publishPercentileHistogram()
+                .register(registry));
+    }
+}
@@ -0,0 +1,51 @@
+package com.scrap.gain.otpmodule.metrics;
+
+import com.scrap.gain.otpmodule.repository.RedisCircuitBreaker;
+import com.scrap.gain.otpmodule.repository.ResilientOtpRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.health.contributor.Health;
+import org.springframework.boot.health.contributor.HealthIndicator;
+import org.springframework.boot.health.contributor.Status;
+import org.springframework.stereotype.Component;
+
+/**
+ * Redis health as seen by the OTP store, exposed as the "otpStore" actuator component
+ *
+ * Reads the circuit breaker state instead of pinging Redis, so health checks add no
+ * load while Redis is struggling. UP when the breaker is closed; otherwise DEGRADED
+ * when the local fallback store is enabled, DOWN when it is not.
+ */
+@Component("otpStore")
+@RequiredArgsConstructor
+public class OtpStoreHealthIndicator implements HealthIndicator {
+
+    public static final Status DEGRADED = new Status("DEGRADED", "Redis unavailable, serving from the local store");
+
+    private final RedisCircuitBreaker circuitBreaker;
+    private final ObjectProvider<ResilientOtpRepository> resilientRepository;
+
+    @Override
+    public Health health() {
+        RedisCircuitBreaker.State state = circuitBreaker.getState();
+        ResilientOtpRepository repository = resilientRepository.getIfAvailable();
+        boolean degradedMode = repository != null && repository.isDegradedModeEnabled();
+
+        Health.Builder builder;
+        if (state == RedisCircuitBreaker.State.CLOSED) {
+            builder = Health.up();
+        } else if (degradedMode) {
+            builder = Health.status(DEGRADED);
+        } else {
+            builder = Health.down();
+        }
+
+        builder.withDetail("circuit", state.name())
+                .withDetail("consecutiveFailures", circuitBreaker.getConsecutiveFailures())
+                .withDetail("degradedMode", degradedMode);
+        if (degradedMode) {
+            builder.withDetail("degradedEntries", repository.degradedSize());
+        }
+        return builder.build();
+    }
+}
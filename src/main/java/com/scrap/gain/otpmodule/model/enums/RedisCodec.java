@@ -0,0 +1,6 @@
+package com.scrap.gain.otpmodule.model.enums;
+
+public enum RedisCodec {
+    JSON,
+    BINARY
+}
@@ -0,0 +1,11 @@
+package com.scrap.gain.otpmodule.model.enums;
+
+public enum SmsDeliveryStatus {
+    QUEUED,
+    SENDING,
+    SENT,
+    FAILED,
+    // Final states reported by provider delivery receipts
+    DELIVERED,
+    UNDELIVERED
+}
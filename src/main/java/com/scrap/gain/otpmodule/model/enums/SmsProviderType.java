@@ -3,5 +3,6 @@ package com.scrap.gain.otpmodule.model.enums;
 public enum SmsProviderType {
     MOCK,
     TWILIO,
-    AWS_SNS
+    AWS_SNS,
+    ROUTING
 }
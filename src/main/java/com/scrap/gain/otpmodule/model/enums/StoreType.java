@@ -0,0 +1,6 @@
+package com.scrap.gain.otpmodule.model.enums;
+
+public enum StoreType {
+    REDIS,
+    MEMORY
+}
@@ -0,0 +1,359 @@
+package com.scrap.gain.otpmodule.repository;
+
+import com.scrap.gain.otpmodule.config.OtpConfigProperties;
+import com.scrap.gain.otpmodule.entity.OtpRecord;
+import com.scrap.gain.otpmodule.exception.ErrorCode;
+import com.scrap.gain.otpmodule.exception.OtpException;
+import com.scrap.gain.otpmodule.model.OtpPurpose;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * In-process storage for OTP records (otp.store.type=MEMORY)
+ *
+ * Records live in a concurrent map keyed like Redis (identifier + purpose).
+ * Expiry is driven by a hashed timing wheel: each save drops a timeout into
+ * the slot of its deadline tick and a single ticker thread only visits the
+ * slots that came due, so expiry never scans the whole map. Reads also check
+ * the deadline, so a record is never served past its TTL between ticks.
+ * Attempts are counted inside ConcurrentHashMap#compute, which makes the
+ * check-increment-delete of a validation attempt atomic per key.
+ * Used verification token nonces are kept in a second map and expire
+ * through the same wheel.
+ *
+ * State is local to this JVM: only use for single-node deployments and tests.
+ */
+@Slf4j
+@Repository
+@ConditionalOnProperty(name = "otp.store.type", havingValue = "MEMORY")
+public class InMemoryOtpRepository implements OtpRepository {
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    // Used token keys with their deadline in nanos
+    private final ConcurrentHashMap<String, Long> usedTokens = new ConcurrentHashMap<>();
+    private final OtpConfigProperties config;
+    private final LongSupplier nanoClock;
+    private final TimingWheel wheel;
+    private final ScheduledExecutorService ticker;
+
+    @Autowired
+    public InMemoryOtpRepository(OtpConfigProperties config) {
+        this(config, System::nanoTime);
+    }
+
+    public InMemoryOtpRepository(OtpConfigProperties config, LongSupplier nanoClock) {
+        this.config = config;
+        this.nanoClock = nanoClock;
+
+        OtpConfigProperties.StoreConfig store = config.getStore();
+        this.wheel = new TimingWheel(store.getWheelSize(),
+                TimeUnit.MILLISECONDS.toNanos(store.getWheelTickMillis()), nanoClock.getAsLong());
+
+        this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "otp-store-wheel");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(this::expireDue,
+                store.getWheelTickMillis(), store.getWheelTickMillis(), TimeUnit.MILLISECONDS);
+
+        log.info("In-memory OTP store started, capacity {}, wheel {} x {} ms",
+                store.getMaxEntries(), store.getWheelSize(), store.getWheelTickMillis());
+    }
+
+    @Override
+    public OtpRecord save(OtpRecord record) {
+        String key = record.getRedisKey();
+
+        // Approximate under concurrent saves, which is enough to bound memory
+        if (entries.size() >= config.getStore().getMaxEntries() && !entries.containsKey(key)) {
+            log.warn("In-memory OTP store full ({} entries), rejecting key: {}", entries.size(), key);
+            throw new OtpException(ErrorCode.OTP_STORE_FULL);
+        }
+
+        long deadline = nanoClock.getAsLong() + Duration.ofMinutes(config.getExpiryMinutes()).toNanos();
+        entries.put(key, new Entry(copyOf(record), deadline, 0));
+        wheel.schedule(key, deadline);
+
+        log.debug("Saved OTP record with key: {}, TTL: {} minutes", key, config.getExpiryMinutes());
+        return record;
+    }
+
+    @Override
+    public List<Boolean> createAllIfAbsent(List<OtpRecord> records) {
+        return records.stream().map(this::createIfAbsent).toList();
+    }
+
+    @Override
+    public boolean createIfAbsent(OtpRecord record) {
+        String key = record.getRedisKey();
+        long now = nanoClock.getAsLong();
+        long deadline = now + Duration.ofMinutes(config.getExpiryMinutes()).toNanos();
+
+        if (entries.size() >= config.getStore().getMaxEntries() && !entries.containsKey(key)) {
+            log.warn("In-memory OTP store full ({} entries), rejecting key: {}", entries.size(), key);
+            throw new OtpException(ErrorCode.OTP_STORE_FULL);
+        }
+
+        // Check and insert inside compute, atomic per key like SET NX
+        boolean[] created = new boolean[1];
+        entries.compute(key, (k, entry) -> {
+            created[0] = entry == null || entry.isExpired(now);
+            return created[0] ? new Entry(copyOf(record), deadline, 0) : entry;
+        });
+        if (created[0]) {
+            wheel.schedule(key, deadline);
+        }
+
+        log.debug("Create OTP record with key: {}, created: {}", key, created[0]);
+        return created[0];
+    }
+
+    @Override
+    public List<OtpRecord> findAllByKeys(List<String> keys) {
+        long now = nanoClock.getAsLong();
+        List<OtpRecord> records = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            Entry entry = entries.get(key);
+            records.add(entry == null || entry.isExpired(now) ? null : copyOf(entry.record()));
+        }
+        return records;
+    }
+
+    @Override
+    public Optional<OtpRecord> findByIdentifierAndPurpose(String identifier, OtpPurpose purpose) {
+        Entry entry = entries.get(OtpRecord.buildRedisKey(identifier, purpose));
+        if (entry == null || entry.isExpired(nanoClock.getAsLong())) {
+            return Optional.empty();
+        }
+        return Optional.of(copyOf(entry.record()));
+    }
+
+    @Override
+    public ValidationAttempt attemptValidation(String identifier, OtpPurpose purpose, int maxAttempts) {
+        String key = OtpRecord.buildRedisKey(identifier, purpose);
+        long now = nanoClock.getAsLong();
+
+        ValidationAttempt[] result = new ValidationAttempt[1];
+        entries.compute(key, (k, entry) -> {
+            if (entry == null || entry.isExpired(now)) {
+                result[0] = ValidationAttempt.notFound();
+                return null;
+            }
+            int attempts = entry.attempts() + 1;
+            if (attempts > maxAttempts) {
+                result[0] = ValidationAttempt.maxAttempts(attempts - 1);
+                return null;
+            }
+            result[0] = ValidationAttempt.accepted(copyOf(entry.record()), attempts);
+            return new Entry(entry.record(), entry.deadlineNanos(), attempts);
+        });
+
+        log.debug("Validation attempt for key: {}, status: {}", key, result[0].status());
+        return result[0];
+    }
+
+    @Override
+    public void delete(String identifier, OtpPurpose purpose) {
+        deleteByKey(OtpRecord.buildRedisKey(identifier, purpose));
+    }
+
+    @Override
+    public void deleteByKey(String key) {
+        // The wheel timeout stays behind and is dropped when its slot comes due
+        Entry removed = entries.remove(key);
+        log.debug("Deleted OTP with key: {}, removed: {}", key, removed != null);
+    }
+
+    @Override
+    public boolean exists(String identifier, OtpPurpose purpose) {
+        return findByIdentifierAndPurpose(identifier, purpose).isPresent();
+    }
+
+    @Override
+    public OtpRecord update(OtpRecord record) {
+        String key = record.getRedisKey();
+        long now = nanoClock.getAsLong();
+
+        Entry updated = entries.computeIfPresent(key, (k, entry) -> entry.isExpired(now)
+                ? null
+                : new Entry(copyOf(record), entry.deadlineNanos(), entry.attempts()));
+        if (updated == null) {
+            // If no live record, save with the default TTL
+            return save(record);
+        }
+
+        log.debug("Updated OTP record with key: {}", key);
+        return record;
+    }
+
+    @Override
+    public boolean replaceAfterCooldown(OtpRecord record, Duration cooldown) {
+        String key = record.getRedisKey();
+        long now = nanoClock.getAsLong();
+        long ttlNanos = Duration.ofMinutes(config.getExpiryMinutes()).toNanos();
+
+        if (entries.size() >= config.getStore().getMaxEntries() && !entries.containsKey(key)) {
+            log.warn("In-memory OTP store full ({} entries), rejecting key: {}", entries.size(), key);
+            throw new OtpException(ErrorCode.OTP_STORE_FULL);
+        }
+
+        // Saved at deadline minus TTL, as in the Redis script
+        boolean[] replaced = new boolean[1];
+        entries.compute(key, (k, entry) -> {
+            replaced[0] = entry == null || entry.isExpired(now)
+                    || now - (entry.deadlineNanos() - ttlNanos) >= cooldown.toNanos();
+            return replaced[0] ? new Entry(copyOf(record), now + ttlNanos, 0) : entry;
+        });
+        if (replaced[0]) {
+            wheel.schedule(key, now + ttlNanos);
+        }
+
+        log.debug("Resend for key: {}, replaced: {}", key, replaced[0]);
+        return replaced[0];
+    }
+
+    @Override
+    public boolean markTokenUsed(String identifier, String nonce, Duration ttl) {
+        String key = OtpRecord.buildTokenKey(identifier, nonce);
+        long now = nanoClock.getAsLong();
+        long deadline = now + ttl.toNanos();
+
+        boolean[] firstUse = new boolean[1];
+        usedTokens.compute(key, (k, existing) -> {
+            firstUse[0] = existing == null || existing - now <= 0;
+            return firstUse[0] ? deadline : existing;
+        });
+        if (firstUse[0]) {
+            wheel.schedule(key, deadline);
+        }
+
+        log.debug("Marked verification token used with key: {}, first use: {}", key, firstUse[0]);
+        return firstUse[0];
+    }
+
+    /**
+     * Number of records currently held, including expired ones not yet reached by the wheel
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Advance the wheel to the current time and drop records whose deadline has passed
+     * Runs on the ticker thread every otp.store.wheel-tick-millis.
+     */
+    public void expireDue() {
+        long now = nanoClock.getAsLong();
+        int expired = 0;
+        for (String key : wheel.advance(now)) {
+            // Only drop if still expired: the key may have been saved again since
+            if (entries.computeIfPresent(key, (k, entry) -> entry.isExpired(now) ? null : entry) == null) {
+                expired++;
+            }
+            usedTokens.computeIfPresent(key, (k, deadline) -> deadline - now <= 0 ? null : deadline);
+        }
+        if (expired > 0) {
+            log.debug("Expired {} OTP records", expired);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ticker.shutdownNow();
+    }
+
+    private static OtpRecord copyOf(OtpRecord record) {
+        // Hand out copies so callers can't mutate stored state, as with a remote store
+        return OtpRecord.builder()
+                .id(record.getId())
+                .identifier(record.getIdentifier())
+                .otpHash(record.getOtpHash())
+                .purpose(record.getPurpose())
+                .attemptCount(record.getAttemptCount())
+                .maxAttempts(record.getMaxAttempts())
+                .createdAt(record.getCreatedAt())
+                .expiresAt(record.getExpiresAt())
+                .verified(record.isVerified())
+                .metadata(record.getMetadata() == null ? null : new LinkedHashMap<>(record.getMetadata()))
+                .build();
+    }
+
+    private record Entry(OtpRecord record, long deadlineNanos, int attempts) {
+
+        boolean isExpired(long nowNanos) {
+            return deadlineNanos - nowNanos <= 0;
+        }
+    }
+
+    /**
+     * Hashed timing wheel: slot = deadline tick modulo wheel size. Deadlines more
+     * than one rotation away simply stay in their slot until a later pass.
+     */
+    static final class TimingWheel {
+
+        private final Queue<Timeout>[] slots;
+        private final long tickNanos;
+        private final long startNanos;
+        private long currentTick;
+
+        @SuppressWarnings("unchecked")
+        TimingWheel(int size, long tickNanos, long startNanos) {
+            this.slots = new Queue[size];
+            for (int i = 0; i < size; i++) {
+                slots[i] = new ConcurrentLinkedQueue<>();
+            }
+            this.tickNanos = tickNanos;
+            this.startNanos = startNanos;
+        }
+
+        void schedule(String key, long deadlineNanos) {
+            // Round up so a timeout never fires before its deadline
+            long deadlineTick = Math.max(0, (deadlineNanos - startNanos + tickNanos - 1) / tickNanos);
+            slots[(int) (deadlineTick % slots.length)].add(new Timeout(key, deadlineTick));
+        }
+
+        /**
+         * Visit the slots passed since the last call and collect keys that came due
+         */
+        synchronized List<String> advance(long nowNanos) {
+            long nowTick = (nowNanos - startNanos) / tickNanos;
+            List<String> due = new ArrayList<>();
+
+            // After a long pause every slot is visited once, not once per missed tick
+            long from = Math.max(currentTick + 1, nowTick - slots.length + 1);
+            for (long tick = from; tick <= nowTick; tick++) {
+                Iterator<Timeout> timeouts = slots[(int) (tick % slots.length)].iterator();
+                while (timeouts.hasNext()) {
+                    Timeout timeout = timeouts.next();
+                    if (timeout.deadlineTick() <= nowTick) {
+                        timeouts.remove();
+                        due.add(timeout.key());
+                    }
+                }
+            }
+            currentTick = Math.max(currentTick, nowTick);
+            return due;
+        }
+
+        private record Timeout(String key, long deadlineTick) {
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.scrap.gain.otpmodule.repository;
+
+import com.scrap.gain.otpmodule.entity.OtpRecord;
+import com.scrap.gain.otpmodule.model.OtpPurpose;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Maps OtpRecord to and from the field/value pairs of the Redis hash layout
+ * Timestamps are epoch millis, metadata entries are stored as "m:<key>" fields
+ */
+final class OtpRecordHashMapper {
+
+    static final String ID = "id";
+    static final String IDENTIFIER = "identifier";
+    static final String OTP_HASH = "otpHash";
+    static final String PURPOSE = "purpose";
+    static final String ATTEMPTS = "attempts";
+    static final String MAX_ATTEMPTS = "maxAttempts";
+    static final String CREATED_AT = "createdAt";
+    static final String EXPIRES_AT = "expiresAt";
+    static final String VERIFIED = "verified";
+    static final String METADATA_PREFIX = "m:";
+
+    private OtpRecordHashMapper() {
+    }
+
+    static Map<String, String> toHash(OtpRecord record) {
+        Map<String, String> hash = new LinkedHashMap<>();
+        putIfPresent(hash, ID, record.getId());
+        putIfPresent(hash, IDENTIFIER, record.getIdentifier());
+        putIfPresent(hash, OTP_HASH, record.getOtpHash());
+        if (record.getPurpose() != null) {
+            hash.put(PURPOSE, record.getPurpose().name());
+        }
+        hash.put(ATTEMPTS, String.valueOf(record.getAttemptCount()));
+        hash.put(MAX_ATTEMPTS, String.valueOf(record.getMaxAttempts()));
+        if (record.getCreatedAt() != null) {
+            hash.put(CREATED_AT, String.valueOf(record.getCreatedAt().toEpochMilli()));
+        }
+        if (record.getExpiresAt() != null) {
+            hash.put(EXPIRES_AT, String.valueOf(record.getExpiresAt().toEpochMilli()));
+        }
+        hash.put(VERIFIED, record.isVerified() ? "1" : "0");
+        if (record.getMetadata() != null) {
+            record.getMetadata().forEach((key, value) -> putIfPresent(hash, METADATA_PREFIX + key, value));
+        }
+        return hash;
+    }
+
+    static OtpRecord fromHash(Map<?, ?> hash) {
+        if (hash == null || hash.isEmpty()) {
+            return null;
+        }
+
+        OtpRecord record = new OtpRecord();
+        Map<String, String> metadata = new LinkedHashMap<>();
+        hash.forEach((rawField, rawValue) -> {
+            String field = String.valueOf(rawField);
+            String value = String.valueOf(rawValue);
+            switch (field) {
+                case ID -> record.setId(value);
+                case IDENTIFIER -> record.setIdentifier(value);
+                case OTP_HASH -> record.setOtpHash(value);
+                case PURPOSE -> record.setPurpose(OtpPurpose.valueOf(value));
+                case ATTEMPTS -> record.setAttemptCount(Integer.parseInt(value));
+                case MAX_ATTEMPTS -> record.setMaxAttempts(Integer.parseInt(value));
+                case CREATED_AT -> record.setCreatedAt(Instant.ofEpochMilli(Long.parseLong(value)));
+                case EXPIRES_AT -> record.setExpiresAt(Instant.ofEpochMilli(Long.parseLong(value)));
+                case VERIFIED -> record.setVerified("1".equals(value));
+                default -> {
+                    if (field.startsWith(METADATA_PREFIX)) {
+                        metadata.put(field.substring(METADATA_PREFIX.length()), value);
+                    }
+                }
+            }
+        });
+        record.setMetadata(metadata.isEmpty() ? null : metadata);
+        return record;
+    }
+
+    static Instant parseInstant(Object epochMillis) {
+        return epochMillis == null ? null : Instant.ofEpochMilli(Long.parseLong(epochMillis.toString()));
+    }
+
+    private static void putIfPresent(Map<String, String> hash, String field, String value) {
+        if (value != null) {
+            hash.put(field, value);
+        }
+    }
+}
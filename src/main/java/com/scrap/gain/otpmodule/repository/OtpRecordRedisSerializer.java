@@ -0,0 +1,287 @@
+package com.scrap.gain.otpmodule.repository;
+
+import com.scrap.gain.otpmodule.entity.OtpRecord;
+import com.scrap.gain.otpmodule.model.OtpPurpose;
+import com.scrap.gain.otpmodule.model.enums.RedisCodec;
+import org.springframework.data.redis.serializer.JacksonJsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Compact versioned binary encoding for OtpRecord values
+ *
+ * Layout (version 1):
+ *   version byte | flags byte | id | identifier | otpHash | purpose ordinal
+ *   | attemptCount | maxAttempts | createdAt | expiresAt | metadata
+ *
+ * Integers are varints, timestamps are epoch seconds, strings are
+ * varint (length + 1) prefixed UTF-8 with 0 meaning null, ids that are
+ * UUIDs are stored as 16 raw bytes. Legacy JSON values (starting with '{')
+ * are still readable so existing keys survive the migration.
+ * OtpPurpose constants must only ever be appended, never reordered.
+ */
+public class OtpRecordRedisSerializer implements RedisSerializer<OtpRecord> {
+
+    private static final byte VERSION_1 = 1;
+    private static final byte JSON_START = '{';
+
+    private static final int FLAG_VERIFIED = 1;
+    private static final int FLAG_UUID_ID = 1 << 1;
+    private static final int FLAG_PURPOSE = 1 << 2;
+    private static final int FLAG_CREATED_AT = 1 << 3;
+    private static final int FLAG_EXPIRES_AT = 1 << 4;
+
+    private static final OtpPurpose[] PURPOSES = OtpPurpose.values();
+
+    private final JacksonJsonRedisSerializer<OtpRecord> jsonSerializer =
+            new JacksonJsonRedisSerializer<>(OtpRecord.class);
+    private final RedisCodec writeCodec;
+
+    public OtpRecordRedisSerializer(RedisCodec writeCodec) {
+        this.writeCodec = writeCodec;
+    }
+
+    @Override
+    public byte[] serialize(OtpRecord record) throws SerializationException {
+        if (record == null) {
+            return null;
+        }
+        if (writeCodec == RedisCodec.JSON) {
+            return jsonSerializer.serialize(record);
+        }
+
+        UUID uuid = parseUuid(record.getId());
+        byte[] id = uuid == null ? utf8(record.getId()) : null;
+        byte[] identifier = utf8(record.getIdentifier());
+        byte[] otpHash = utf8(record.getOtpHash());
+
+        int flags = (record.isVerified() ? FLAG_VERIFIED : 0)
+                | (uuid != null ? FLAG_UUID_ID : 0)
+                | (record.getPurpose() != null ? FLAG_PURPOSE : 0)
+                | (record.getCreatedAt() != null ? FLAG_CREATED_AT : 0)
+                | (record.getExpiresAt() != null ? FLAG_EXPIRES_AT : 0);
+
+        Writer out = new Writer(64 + length(id) + length(identifier) + length(otpHash)
+                + metadataSizeHint(record.getMetadata()));
+        out.put(VERSION_1);
+        out.put((byte) flags);
+        if (uuid != null) {
+            out.putLong(uuid.getMostSignificantBits());
+            out.putLong(uuid.getLeastSignificantBits());
+        } else {
+            out.putBytes(id);
+        }
+        out.putBytes(identifier);
+        out.putBytes(otpHash);
+        if (record.getPurpose() != null) {
+            out.putVarLong(record.getPurpose().ordinal());
+        }
+        out.putVarLong(record.getAttemptCount());
+        out.putVarLong(record.getMaxAttempts());
+        if (record.getCreatedAt() != null) {
+            out.putVarLong(record.getCreatedAt().getEpochSecond());
+        }
+        if (record.getExpiresAt() != null) {
+            out.putVarLong(record.getExpiresAt().getEpochSecond());
+        }
+        writeMetadata(out, record.getMetadata());
+
+        return out.toByteArray();
+    }
+
+    @Override
+    public OtpRecord deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] == JSON_START) {
+            return jsonSerializer.deserialize(bytes);
+        }
+        if (bytes[0] != VERSION_1) {
+            throw new SerializationException("Unsupported OtpRecord encoding version: " + bytes[0]);
+        }
+
+        try {
+            ByteBuffer in = ByteBuffer.wrap(bytes, 1, bytes.length - 1);
+            int flags = in.get();
+
+            OtpRecord record = new OtpRecord();
+            record.setVerified((flags & FLAG_VERIFIED) != 0);
+            record.setId((flags & FLAG_UUID_ID) != 0
+                    ? new UUID(in.getLong(), in.getLong()).toString()
+                    : readString(in));
+            record.setIdentifier(readString(in));
+            record.setOtpHash(readString(in));
+            if ((flags & FLAG_PURPOSE) != 0) {
+                record.setPurpose(PURPOSES[(int) readVarLong(in)]);
+            }
+            record.setAttemptCount((int) readVarLong(in));
+            record.setMaxAttempts((int) readVarLong(in));
+            if ((flags & FLAG_CREATED_AT) != 0) {
+                record.setCreatedAt(Instant.ofEpochSecond(readVarLong(in)));
+            }
+            if ((flags & FLAG_EXPIRES_AT) != 0) {
+                record.setExpiresAt(Instant.ofEpochSecond(readVarLong(in)));
+            }
+            record.setMetadata(readMetadata(in));
+            return record;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new SerializationException("Truncated OtpRecord value", e);
+        }
+    }
+
+    @Override
+    public Class<?> getTargetType() {
+        return OtpRecord.class;
+    }
+
+    private static void writeMetadata(Writer out, Map<String, String> metadata) {
+        if (metadata == null) {
+            out.putVarLong(0);
+            return;
+        }
+        out.putVarLong(metadata.size() + 1L);
+        for (Map.Entry<String, String> entry : metadata.entrySet()) {
+            out.putBytes(utf8(entry.getKey()));
+            out.putBytes(utf8(entry.getValue()));
+        }
+    }
+
+    private static Map<String, String> readMetadata(ByteBuffer in) {
+        long count = readVarLong(in);
+        if (count == 0) {
+            return null;
+        }
+        Map<String, String> metadata = new LinkedHashMap<>();
+        for (long i = 1; i < count; i++) {
+            metadata.put(readString(in), readString(in));
+        }
+        return metadata;
+    }
+
+    private static int metadataSizeHint(Map<String, String> metadata) {
+        if (metadata == null) {
+            return 0;
+        }
+        int size = 0;
+        for (Map.Entry<String, String> entry : metadata.entrySet()) {
+            size += 10 + 3 * (lengthOf(entry.getKey()) + lengthOf(entry.getValue()));
+        }
+        return size;
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = (int) readVarLong(in);
+        if (length == 0) {
+            return null;
+        }
+        length--;
+        String value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return value;
+    }
+
+    private static long readVarLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new SerializationException("Malformed varint in OtpRecord value");
+    }
+
+    private static UUID parseUuid(String id) {
+        // Only canonical lowercase UUIDs round-trip exactly through 16 bytes
+        if (id == null || id.length() != 36) {
+            return null;
+        }
+        try {
+            UUID uuid = UUID.fromString(id);
+            return uuid.toString().equals(id) ? uuid : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static byte[] utf8(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int length(byte[] bytes) {
+        return bytes == null ? 0 : bytes.length;
+    }
+
+    private static int lengthOf(String value) {
+        return value == null ? 0 : value.length();
+    }
+
+    /**
+     * Minimal growable byte buffer (ByteArrayOutputStream synchronizes every write)
+     */
+    private static final class Writer {
+
+        private byte[] buffer;
+        private int position;
+
+        Writer(int initialCapacity) {
+            this.buffer = new byte[initialCapacity];
+        }
+
+        void put(byte b) {
+            ensureCapacity(1);
+            buffer[position++] = b;
+        }
+
+        void putLong(long value) {
+            ensureCapacity(8);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                buffer[position++] = (byte) (value >>> shift);
+            }
+        }
+
+        void putVarLong(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        void putBytes(byte[] bytes) {
+            if (bytes == null) {
+                putVarLong(0);
+                return;
+            }
+            putVarLong(bytes.length + 1L);
+            ensureCapacity(bytes.length);
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+
+        byte[] toByteArray() {
+            byte[] result = new byte[position];
+            System.arraycopy(buffer, 0, result, 0, position);
+            return result;
+        }
+
+        private void ensureCapacity(int extra) {
+            if (position + extra > buffer.length) {
+                byte[] grown = new byte[Math.max(buffer.length * 2, position + extra)];
+                System.arraycopy(buffer, 0, grown, 0, position);
+                buffer = grown;
+            }
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.scrap.gain.otpmodule.repository;
+
+import com.scrap.gain.otpmodule.entity.OtpRecord;
+import com.scrap.gain.otpmodule.model.OtpPurpose;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.List;
+
+/**
+ * Server-side Lua scripts used by the OTP repositories
+ */
+@SuppressWarnings("rawtypes")
+final class OtpRedisScripts {
+
+    // Result codes shared by scripts and callers
+    static final long NOT_FOUND = 0;
+    static final long ACCEPTED = 1;
+    static final long MAX_ATTEMPTS = 2;
+    static final long IN_COOLDOWN = 0;
+    static final long REPLACED = 1;
+
+    /**
+     * Register a validation attempt in one round trip.
+     * KEYS[1] = record key, KEYS[2] = attempts key
+     * ARGV[1] = max attempts, ARGV[2] = fallback TTL in millis
+     * Returns {NOT_FOUND, 0} | {MAX_ATTEMPTS, attempts} | {ACCEPTED, attempts, record}
+     */
+    static final RedisScript<List> VALIDATION_ATTEMPT = RedisScript.of("""
+            local value = redis.call('GET', KEYS[1])
+            if not value then
+                return {0, 0}
+            end
+            local attempts = redis.call('INCR', KEYS[2])
+            if attempts == 1 then
+                local ttl = redis.call('PTTL', KEYS[1])
+                if ttl < 0 then
+                    ttl = tonumber(ARGV[2])
+                end
+                redis.call('PEXPIRE', KEYS[2], ttl)
+            end
+            if attempts > tonumber(ARGV[1]) then
+                redis.call('DEL', KEYS[1], KEYS[2])
+                return {2, attempts - 1}
+            end
+            return {1, attempts, value}
+            """, List.class);
+
+    /**
+     * Replace a hash-layout record and set its TTL once.
+     * KEYS[1] = record key
+     * ARGV[1] = TTL in millis, ARGV[2..] = field/value pairs
+     */
+    static final RedisScript<Long> HASH_SAVE = RedisScript.of("""
+            redis.call('DEL', KEYS[1])
+            redis.call('HSET', KEYS[1], unpack(ARGV, 2))
+            redis.call('PEXPIRE', KEYS[1], ARGV[1])
+            return 1
+            """, Long.class);
+
+    /**
+     * Create a hash-layout record unless one exists, the hash counterpart of SET NX PX.
+     * KEYS[1] = record key
+     * ARGV[1] = TTL in millis, ARGV[2..] = field/value pairs
+     * Returns 1 if created, 0 if a record exists
+     */
+    static final RedisScript<Long> HASH_CREATE = RedisScript.of("""
+            if redis.call('EXISTS', KEYS[1]) == 1 then
+                return 0
+            end
+            redis.call('HSET', KEYS[1], unpack(ARGV, 2))
+            redis.call('PEXPIRE', KEYS[1], ARGV[1])
+            return 1
+            """, Long.class);
+
+    /**
+     * Resend in one round trip: replace the record and reset its attempts unless
+     * the current one was saved less than the cooldown ago. Every save sets the full
+     * TTL and updates keep it, so time since the last send is TTL minus remaining TTL.
+     * KEYS[1] = record key, KEYS[2] = attempts key
+     * ARGV[1] = TTL in millis, ARGV[2] = cooldown in millis, ARGV[3] = encoded record
+     * Returns IN_COOLDOWN | REPLACED
+     */
+    static final RedisScript<Long> RESEND = RedisScript.of("""
+            local ttl = tonumber(ARGV[1])
+            local remaining = redis.call('PTTL', KEYS[1])
+            if remaining > 0 and ttl - remaining < tonumber(ARGV[2]) then
+                return 0
+            end
+            redis.call('SET', KEYS[1], ARGV[3], 'PX', ttl)
+            redis.call('DEL', KEYS[2])
+            return 1
+            """, Long.class);
+
+    /**
+     * RESEND for hash-layout records; attempts live in the hash, so replacing it resets them.
+     * KEYS[1] = record key
+     * ARGV[1] = TTL in millis, ARGV[2] = cooldown in millis, ARGV[3..] = field/value pairs
+     * Returns IN_COOLDOWN | REPLACED
+     */
+    static final RedisScript<Long> HASH_RESEND = RedisScript.of("""
+            local ttl = tonumber(ARGV[1])
+            local remaining = redis.call('PTTL', KEYS[1])
+            if remaining > 0 and ttl - remaining < tonumber(ARGV[2]) then
+                return 0
+            end
+            redis.call('DEL', KEYS[1])
+            redis.call('HSET', KEYS[1], unpack(ARGV, 3))
+            redis.call('PEXPIRE', KEYS[1], ttl)
+            return 1
+            """, Long.class);
+
+    /**
+     * Register a validation attempt on a hash-layout record with HINCRBY,
+     * returning only the fields validation needs.
+     * KEYS[1] = record key
+     * ARGV[1] = max attempts
+     * Returns {NOT_FOUND, 0} | {MAX_ATTEMPTS, attempts}
+     *       | {ACCEPTED, attempts, id, otpHash, expiresAt, verified}
+     */
+    static final RedisScript<List> HASH_VALIDATION_ATTEMPT = RedisScript.of("""
+            if redis.call('EXISTS', KEYS[1]) == 0 then
+                return {0, 0}
+            end
+            local attempts = redis.call('HINCRBY', KEYS[1], 'attempts', 1)
+            if attempts > tonumber(ARGV[1]) then
+                redis.call('DEL', KEYS[1])
+                return {2, attempts - 1}
+            end
+            local fields = redis.call('HMGET', KEYS[1], 'id', 'otpHash', 'expiresAt', 'verified')
+            return {1, attempts, fields[1], fields[2], fields[3], fields[4]}
+            """, List.class);
+
+    /**
+     * Map a VALIDATION_ATTEMPT / HASH_VALIDATION_ATTEMPT reply to a ValidationAttempt
+     */
+    static ValidationAttempt toValidationAttempt(List<?> result, boolean hashLayout,
+                                                 String identifier, OtpPurpose purpose, int maxAttempts) {
+        long status = ((Number) result.get(0)).longValue();
+        int attempts = ((Number) result.get(1)).intValue();
+
+        if (status == NOT_FOUND) {
+            return ValidationAttempt.notFound();
+        }
+        if (status == MAX_ATTEMPTS) {
+            return ValidationAttempt.maxAttempts(attempts);
+        }
+        if (!hashLayout) {
+            return ValidationAttempt.accepted((OtpRecord) result.get(2), attempts);
+        }
+
+        // Hash layout returns only the fields validation needs
+        OtpRecord record = OtpRecord.builder()
+                .id((String) result.get(2))
+                .identifier(identifier)
+                .purpose(purpose)
+                .otpHash((String) result.get(3))
+                .expiresAt(OtpRecordHashMapper.parseInstant(result.get(4)))
+                .verified("1".equals(result.get(5)))
+                .attemptCount(attempts)
+                .maxAttempts(maxAttempts)
+                .build();
+        return ValidationAttempt.accepted(record, attempts);
+    }
+
+    private OtpRedisScripts() {
+    }
+}
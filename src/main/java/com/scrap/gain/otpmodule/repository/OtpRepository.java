@@ -1,90 +1,113 @@
 package com.scrap.gain.otpmodule.repository;
 
-import com.scrap.gain.otpmodule.config.OtpConfigProperties;
 import com.scrap.gain.otpmodule.entity.OtpRecord;
 import com.scrap.gain.otpmodule.model.OtpPurpose;
-import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.stereotype.Repository;
 
 import java.time.Duration;
+import java.util.List;
 import java.util.Optional;
 
-@Slf4j
-@Repository
-@RequiredArgsConstructor
-public class OtpRepository {
-
-    private final RedisTemplate<String, OtpRecord> otpRedisTemplate;
-    private final OtpConfigProperties config;
+/**
+ * Storage for OTP records, selected with otp.store.type
+ * - REDIS:  shared store for multi-node deployments (default), see RedisOtpRepository
+ * - MEMORY: in-process store for single-node setups and tests, see InMemoryOtpRepository
+ * Records are keyed by OtpRecord#getRedisKey and expire otp.expiry-minutes after saving.
+ */
+public interface OtpRepository {
 
     /**
      * Save OTP record with TTL based on expiry configuration
      */
-    public OtpRecord save(OtpRecord record) {
-        String key = record.getRedisKey();
-        Duration ttl = Duration.ofMinutes(config.getExpiryMinutes());
+    OtpRecord save(OtpRecord record);
 
-        otpRedisTemplate.opsForValue().set(key, record, ttl);
-        log.debug("Saved OTP record with key: {}, TTL: {} minutes", key, config.getExpiryMinutes());
+    /**
+     * Save OTP record unless a live one exists for the same identifier and purpose,
+     * checked and written in one atomic step (SET NX PX on Redis)
+     * @return true if created, false if a live record exists
+     */
+    boolean createIfAbsent(OtpRecord record);
 
-        return record;
+    /**
+     * createIfAbsent with an SMS outbox job appended in the same round trip
+     * Stores without an outbox stream write the record only.
+     * @param job outbox entry, null to write the record only
+     */
+    default RecordWrite createIfAbsent(OtpRecord record, OutboxEntry job) {
+        return RecordWrite.unqueued(createIfAbsent(record));
     }
 
     /**
-     * Find OTP record by identifier and purpose
+     * createIfAbsent for many records in as few round trips as the store allows
+     * @return per record in input order, true if created
      */
-    public Optional<OtpRecord> findByIdentifierAndPurpose(String identifier, OtpPurpose purpose) {
-        String key = OtpRecord.buildRedisKey(identifier, purpose);
-        OtpRecord record = otpRedisTemplate.opsForValue().get(key);
+    List<Boolean> createAllIfAbsent(List<OtpRecord> records);
 
-        log.debug("Looking up OTP with key: {}, found: {}", key, record != null);
-        return Optional.ofNullable(record);
+    /**
+     * createAllIfAbsent with each record's SMS outbox job in the same round trip
+     * Stores without an outbox stream write the records only.
+     * @param jobs outbox entry per record in input order, null entries to write the record only
+     */
+    default List<RecordWrite> createAllIfAbsent(List<OtpRecord> records, List<OutboxEntry> jobs) {
+        return createAllIfAbsent(records).stream().map(RecordWrite::unqueued).toList();
     }
 
+    /**
+     * Find OTP records for many keys
+     * @return records in key order, null where no record exists
+     */
+    List<OtpRecord> findAllByKeys(List<String> keys);
+
+    /**
+     * Find OTP record by identifier and purpose
+     */
+    Optional<OtpRecord> findByIdentifierAndPurpose(String identifier, OtpPurpose purpose);
+
+    /**
+     * Atomically register a validation attempt: checks the record exists,
+     * increments its attempt counter and enforces max attempts.
+     * The record (and counter) are removed once max attempts is exceeded.
+     */
+    ValidationAttempt attemptValidation(String identifier, OtpPurpose purpose, int maxAttempts);
+
     /**
      * Delete OTP record (after successful verification or manual invalidation)
      */
-    public void delete(String identifier, OtpPurpose purpose) {
-        String key = OtpRecord.buildRedisKey(identifier, purpose);
-        Boolean deleted = otpRedisTemplate.delete(key);
-        log.debug("Deleted OTP with key: {}, success: {}", key, deleted);
-    }
+    void delete(String identifier, OtpPurpose purpose);
 
     /**
-     * Delete OTP record by key
+     * Delete OTP record and its attempt counter by key
      */
-    public void deleteByKey(String key) {
-        otpRedisTemplate.delete(key);
-        log.debug("Deleted OTP with key: {}", key);
-    }
+    void deleteByKey(String key);
 
     /**
      * Check if OTP exists for identifier and purpose
      */
-    public boolean exists(String identifier, OtpPurpose purpose) {
-        String key = OtpRecord.buildRedisKey(identifier, purpose);
-        return Boolean.TRUE.equals(otpRedisTemplate.hasKey(key));
-    }
+    boolean exists(String identifier, OtpPurpose purpose);
 
     /**
-     * Update existing OTP record (e.g., increment attempts)
+     * Update existing OTP record, keeping its remaining TTL
      */
-    public OtpRecord update(OtpRecord record) {
-        String key = record.getRedisKey();
-
-        // Get remaining TTL
-        Long ttl = otpRedisTemplate.getExpire(key);
-        if (ttl != null && ttl > 0) {
-            otpRedisTemplate.opsForValue().set(key, record, Duration.ofSeconds(ttl));
-        } else {
-            // If no TTL, use default
-            otpRedisTemplate.opsForValue().set(key, record,
-                    Duration.ofMinutes(config.getExpiryMinutes()));
-        }
-
-        log.debug("Updated OTP record with key: {}", key);
-        return record;
+    OtpRecord update(OtpRecord record);
+
+    /**
+     * Atomically replace the record for the same identifier and purpose and reset its
+     * attempts, unless the current record was saved less than the cooldown ago
+     * @return true if replaced, false if still in cooldown
+     */
+    boolean replaceAfterCooldown(OtpRecord record, Duration cooldown);
+
+    /**
+     * replaceAfterCooldown with an SMS outbox job appended in the same round trip
+     * Stores without an outbox stream write the record only.
+     * @param job outbox entry, null to write the record only
+     */
+    default RecordWrite replaceAfterCooldown(OtpRecord record, Duration cooldown, OutboxEntry job) {
+        return RecordWrite.unqueued(replaceAfterCooldown(record, cooldown));
     }
+
+    /**
+     * Mark a verification token nonce as used until the token expires
+     * @return true on first use, false if the nonce was already marked
+     */
+    boolean markTokenUsed(String identifier, String nonce, Duration ttl);
 }
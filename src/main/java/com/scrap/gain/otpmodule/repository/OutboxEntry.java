@@ -0,0 +1,30 @@
+package com.scrap.gain.otpmodule.repository;
+
+import org.springframework.data.redis.connection.RedisStreamCommands.XAddOptions;
+import org.springframework.data.redis.connection.stream.ByteRecord;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Entry appended to an SMS outbox stream, in the same round trip as the OTP record it sends
+ *
+ * @param streamKey Redis stream the entry is appended to
+ * @param fields    Entry fields
+ * @param maxLength Approximate stream length cap applied on append
+ */
+public record OutboxEntry(String streamKey, Map<String, String> fields, long maxLength) {
+
+    public ByteRecord toByteRecord() {
+        Map<byte[], byte[]> raw = new LinkedHashMap<>();
+        fields.forEach((field, value) ->
+                raw.put(field.getBytes(StandardCharsets.UTF_8), value.getBytes(StandardCharsets.UTF_8)));
+        return StreamRecords.rawBytes(raw).withStreamKey(streamKey.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public XAddOptions addOptions() {
+        return XAddOptions.maxlen(maxLength).approximateTrimming(true);
+    }
+}
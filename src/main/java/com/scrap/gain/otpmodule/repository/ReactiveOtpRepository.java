@@ -0,0 +1,243 @@
+package com.scrap.gain.otpmodule.repository;
+
+import com.scrap.gain.otpmodule.config.OtpConfigProperties;
+import com.scrap.gain.otpmodule.entity.OtpRecord;
+import com.scrap.gain.otpmodule.exception.ErrorCode;
+import com.scrap.gain.otpmodule.exception.OtpException;
+import com.scrap.gain.otpmodule.model.OtpPurpose;
+import com.scrap.gain.otpmodule.model.enums.RedisLayout;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.serializer.RedisElementReader;
+import org.springframework.data.redis.serializer.RedisElementWriter;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.util.ByteUtils;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Non-blocking Redis storage for OTP records, used by the reactive stack
+ * Same keys, layouts, encodings and scripts as RedisOtpRepository, so both stacks
+ * can serve the same Redis data. Calls go through the shared RedisCircuitBreaker.
+ */
+@Slf4j
+@Repository
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveOtpRepository {
+
+    private final ReactiveRedisTemplate<String, OtpRecord> reactiveOtpRedisTemplate;
+    private final ReactiveStringRedisTemplate reactiveStringRedisTemplate;
+    private final OtpConfigProperties config;
+    private final RedisCircuitBreaker circuitBreaker;
+
+    public ReactiveOtpRepository(
+            @Qualifier("reactiveOtpRedisTemplate") ReactiveRedisTemplate<String, OtpRecord> reactiveOtpRedisTemplate,
+            ReactiveStringRedisTemplate reactiveStringRedisTemplate,
+            OtpConfigProperties config,
+            RedisCircuitBreaker circuitBreaker) {
+        this.reactiveOtpRedisTemplate = reactiveOtpRedisTemplate;
+        this.reactiveStringRedisTemplate = reactiveStringRedisTemplate;
+        this.config = config;
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    /**
+     * Save OTP record with TTL based on expiry configuration
+     */
+    public Mono<OtpRecord> save(OtpRecord record) {
+        String key = record.getRedisKey();
+        Duration ttl = Duration.ofMinutes(config.getExpiryMinutes());
+
+        Mono<?> write;
+        if (isHashLayout()) {
+            List<String> args = new ArrayList<>();
+            args.add(String.valueOf(ttl.toMillis()));
+            OtpRecordHashMapper.toHash(record).forEach((field, value) -> {
+                args.add(field);
+                args.add(value);
+            });
+            write = reactiveStringRedisTemplate.execute(OtpRedisScripts.HASH_SAVE, List.of(key), args).then();
+        } else {
+            write = reactiveOtpRedisTemplate.opsForValue().set(key, record, ttl);
+        }
+
+        return guarded(write.then(Mono.fromSupplier(() -> {
+            log.debug("Saved OTP record with key: {}, TTL: {} minutes", key, config.getExpiryMinutes());
+            return record;
+        })));
+    }
+
+    /**
+     * Save OTP record unless one exists for the same identifier and purpose, in one atomic step
+     * @return true if created, false if a record exists
+     */
+    public Mono<Boolean> createIfAbsent(OtpRecord record) {
+        String key = record.getRedisKey();
+        Duration ttl = Duration.ofMinutes(config.getExpiryMinutes());
+
+        Mono<Boolean> create;
+        if (isHashLayout()) {
+            List<String> args = new ArrayList<>();
+            args.add(String.valueOf(ttl.toMillis()));
+            OtpRecordHashMapper.toHash(record).forEach((field, value) -> {
+                args.add(field);
+                args.add(value);
+            });
+            create = reactiveStringRedisTemplate.execute(OtpRedisScripts.HASH_CREATE, List.of(key), args)
+                    .next()
+                    .map(result -> result == 1);
+        } else {
+            // SET NX PX: existence check and write in one command
+            create = reactiveOtpRedisTemplate.opsForValue().setIfAbsent(key, record, ttl);
+        }
+
+        return guarded(create.defaultIfEmpty(false)
+                .doOnNext(created -> log.debug("Create OTP record with key: {}, created: {}", key, created)));
+    }
+
+    /**
+     * Check if OTP exists for identifier and purpose
+     */
+    public Mono<Boolean> exists(String identifier, OtpPurpose purpose) {
+        return guarded(reactiveStringRedisTemplate.hasKey(OtpRecord.buildRedisKey(identifier, purpose))
+                .defaultIfEmpty(false));
+    }
+
+    /**
+     * Find OTP record by identifier and purpose
+     */
+    public Mono<OtpRecord> findByIdentifierAndPurpose(String identifier, OtpPurpose purpose) {
+        String key = OtpRecord.buildRedisKey(identifier, purpose);
+        if (!isHashLayout()) {
+            return guarded(reactiveOtpRedisTemplate.opsForValue().get(key));
+        }
+        return guarded(reactiveStringRedisTemplate.<String, String>opsForHash().entries(key)
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+                .mapNotNull(OtpRecordHashMapper::fromHash));
+    }
+
+    /**
+     * Atomically register a validation attempt, see OtpRepository#attemptValidation
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public Mono<ValidationAttempt> attemptValidation(String identifier, OtpPurpose purpose, int maxAttempts) {
+        String key = OtpRecord.buildRedisKey(identifier, purpose);
+
+        // Multi-bulk replies are emitted element by element
+        Mono<List<Object>> result;
+        if (isHashLayout()) {
+            result = reactiveStringRedisTemplate.execute(OtpRedisScripts.HASH_VALIDATION_ATTEMPT,
+                            List.of(key), List.of(String.valueOf(maxAttempts)))
+                    .map(Object.class::cast)
+                    .collectList();
+        } else {
+            // Script args are plain strings; the record is decoded with the record serializer
+            long fallbackTtlMillis = Duration.ofMinutes(config.getExpiryMinutes()).toMillis();
+            result = reactiveOtpRedisTemplate.execute(OtpRedisScripts.VALIDATION_ATTEMPT,
+                            List.of(key, OtpRecord.buildAttemptsKey(key)),
+                            List.of(String.valueOf(maxAttempts), String.valueOf(fallbackTtlMillis)),
+                            RedisElementWriter.from(RedisSerializer.string()),
+                            (RedisElementReader) reactiveOtpRedisTemplate.getSerializationContext()
+                                    .getValueSerializationPair().getReader())
+                    .map(Object.class::cast)
+                    .collectList();
+        }
+
+        return guarded(result.map(reply -> {
+            log.debug("Validation attempt for key: {}, status: {}, attempts: {}", key, reply.get(0), reply.get(1));
+            return OtpRedisScripts.toValidationAttempt(reply, isHashLayout(), identifier, purpose, maxAttempts);
+        }));
+    }
+
+    /**
+     * Delete OTP record and its attempt counter
+     */
+    public Mono<Void> delete(String identifier, OtpPurpose purpose) {
+        String key = OtpRecord.buildRedisKey(identifier, purpose);
+        return guarded(reactiveOtpRedisTemplate.delete(key, OtpRecord.buildAttemptsKey(key))
+                .doOnNext(deleted -> log.debug("Deleted OTP with key: {}, keys removed: {}", key, deleted))
+                .then());
+    }
+
+    /**
+     * Atomically replace the record unless still in cooldown, see OtpRepository#replaceAfterCooldown
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public Mono<Boolean> replaceAfterCooldown(OtpRecord record, Duration cooldown) {
+        String key = record.getRedisKey();
+        Duration ttl = Duration.ofMinutes(config.getExpiryMinutes());
+
+        Mono<Long> result;
+        if (isHashLayout()) {
+            List<String> args = new ArrayList<>();
+            args.add(String.valueOf(ttl.toMillis()));
+            args.add(String.valueOf(cooldown.toMillis()));
+            OtpRecordHashMapper.toHash(record).forEach((field, value) -> {
+                args.add(field);
+                args.add(value);
+            });
+            result = reactiveStringRedisTemplate.execute(OtpRedisScripts.HASH_RESEND, List.of(key), args).next();
+        } else {
+            // The record goes in encoded by the record serializer, the numbers as plain strings
+            byte[] encoded = ByteUtils.getBytes(reactiveOtpRedisTemplate.getSerializationContext()
+                    .getValueSerializationPair().write(record));
+            result = reactiveOtpRedisTemplate.execute(OtpRedisScripts.RESEND,
+                            List.of(key, OtpRecord.buildAttemptsKey(key)),
+                            List.of(utf8(ttl.toMillis()), utf8(cooldown.toMillis()), encoded),
+                            RedisElementWriter.from(RedisSerializer.byteArray()),
+                            (RedisElementReader) RedisElementReader.from(RedisSerializer.byteArray()))
+                    .next();
+        }
+
+        return guarded(result.map(reply -> reply == OtpRedisScripts.REPLACED)
+                .doOnNext(replaced -> log.debug("Resend for key: {}, replaced: {}", key, replaced)));
+    }
+
+    /**
+     * Mark a verification token nonce as used, see OtpRepository#markTokenUsed
+     */
+    public Mono<Boolean> markTokenUsed(String identifier, String nonce, Duration ttl) {
+        String key = OtpRecord.buildTokenKey(identifier, nonce);
+        return guarded(reactiveStringRedisTemplate.opsForValue().setIfAbsent(key, "1", ttl)
+                .map(Boolean.TRUE::equals)
+                .doOnNext(marked -> log.debug("Marked verification token used with key: {}, first use: {}",
+                        key, marked)));
+    }
+
+    /**
+     * Run a Redis call through the circuit breaker; failures and refusals become STORE_UNAVAILABLE
+     * (no degraded fallback on the reactive stack)
+     */
+    private <T> Mono<T> guarded(Mono<T> redisCall) {
+        return Mono.defer(() -> {
+            if (!circuitBreaker.tryAcquire()) {
+                return Mono.error(new OtpException(ErrorCode.STORE_UNAVAILABLE));
+            }
+            return redisCall
+                    .doOnSuccess(value -> circuitBreaker.onSuccess())
+                    .onErrorMap(DataAccessException.class, e -> {
+                        circuitBreaker.onFailure(e);
+                        log.warn("Redis call failed: {}", e.getMessage());
+                        return new OtpException(ErrorCode.STORE_UNAVAILABLE);
+                    });
+        });
+    }
+
+    private static byte[] utf8(long value) {
+        return String.valueOf(value).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private boolean isHashLayout() {
+        return config.getRedis().getLayout() == RedisLayout.HASH;
+    }
+}
@@ -0,0 +1,14 @@
+package com.scrap.gain.otpmodule.repository;
+
+/**
+ * Outcome of writing an OTP record together with its SMS outbox job
+ *
+ * @param written Whether the record was created or replaced
+ * @param queued  Whether the job reached the outbox stream
+ */
+public record RecordWrite(boolean written, boolean queued) {
+
+    public static RecordWrite unqueued(boolean written) {
+        return new RecordWrite(written, false);
+    }
+}
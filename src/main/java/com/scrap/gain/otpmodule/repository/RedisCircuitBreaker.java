@@ -0,0 +1,103 @@
+package com.scrap.gain.otpmodule.repository;
+
+import com.scrap.gain.otpmodule.config.OtpConfigProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker shared by every Redis caller (OTP store and rate limiter)
+ *
+ * CLOSED:    calls go through; failureThreshold consecutive failures open the breaker.
+ * OPEN:      calls are refused without touching Redis for openSeconds.
+ * HALF_OPEN: a single probe call goes through; success closes, failure reopens.
+ * A probe that never reports back (cancelled, unexpected error) is replaced
+ * by a new one after another openSeconds, so the breaker cannot get stuck.
+ */
+@Slf4j
+@Component
+public class RedisCircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private final LongSupplier nanoClock;
+
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    // Time of the last transition to OPEN or HALF_OPEN
+    private volatile long changedAtNanos;
+
+    private final Counter failures;
+    private final Counter rejected;
+
+    @Autowired
+    public RedisCircuitBreaker(OtpConfigProperties config, MeterRegistry registry) {
+        this(config, registry, System::nanoTime);
+    }
+
+    public RedisCircuitBreaker(OtpConfigProperties config, MeterRegistry registry, LongSupplier nanoClock) {
+        OtpConfigProperties.CircuitBreakerConfig breaker = config.getRedis().getCircuitBreaker();
+        this.failureThreshold = Math.max(1, breaker.getFailureThreshold());
+        this.openNanos = TimeUnit.SECONDS.toNanos(breaker.getOpenSeconds());
+        this.nanoClock = nanoClock;
+
+        Gauge.builder("otp.redis.circuit.state", state, current -> current.get().ordinal())
+                .description("Redis circuit breaker state: 0 closed, 1 open, 2 half-open")
+                .register(registry);
+        this.failures = Counter.builder("otp.redis.failures").register(registry);
+        this.rejected = Counter.builder("otp.redis.circuit.rejected").register(registry);
+    }
+
+    /**
+     * Whether a Redis call may be made now; the caller must report its outcome
+     */
+    public boolean tryAcquire() {
+        State current = state.get();
+        if (current == State.CLOSED) {
+            return true;
+        }
+        if (nanoClock.getAsLong() - changedAtNanos >= openNanos && state.compareAndSet(current, State.HALF_OPEN)) {
+            // This caller is the probe
+            changedAtNanos = nanoClock.getAsLong();
+            return true;
+        }
+        rejected.increment();
+        return false;
+    }
+
+    public void onSuccess() {
+        consecutiveFailures.set(0);
+        if (state.getAndSet(State.CLOSED) != State.CLOSED) {
+            log.info("Redis circuit closed");
+        }
+    }
+
+    public void onFailure(Throwable error) {
+        failures.increment();
+        if (state.get() == State.HALF_OPEN || consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            changedAtNanos = nanoClock.getAsLong();
+            if (state.getAndSet(State.OPEN) != State.OPEN) {
+                log.warn("Redis circuit opened after {} consecutive failures: {}",
+                        consecutiveFailures.get(), error.getMessage());
+            }
+        }
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    public int getConsecutiveFailures() {
+        return consecutiveFailures.get();
+    }
+}
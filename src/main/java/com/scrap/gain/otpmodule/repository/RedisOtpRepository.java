@@ -0,0 +1,387 @@
+package com.scrap.gain.otpmodule.repository;
+
+import com.scrap.gain.otpmodule.config.OtpConfigProperties;
+import com.scrap.gain.otpmodule.entity.OtpRecord;
+import com.scrap.gain.otpmodule.metrics.OtpMetrics;
+import com.scrap.gain.otpmodule.model.OtpPurpose;
+import com.scrap.gain.otpmodule.model.enums.RedisLayout;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisStringCommands.SetOption;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.stereotype.Repository;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Redis storage for OTP records
+ *
+ * Two layouts are supported (otp.redis.layout):
+ * - STRING: one encoded value per OTP, attempts in a separate counter key
+ * - HASH:   one field per attribute, attempts incremented in place with HINCRBY
+ * Switching layouts on a live system requires existing keys to expire first.
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "otp.store.type", havingValue = "REDIS", matchIfMissing = true)
+public class RedisOtpRepository implements OtpRepository {
+
+    private final RedisTemplate<String, OtpRecord> otpRedisTemplate;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final OtpConfigProperties config;
+    private final OtpMetrics otpMetrics;
+
+    @Override
+    public OtpRecord save(OtpRecord record) {
+        String key = record.getRedisKey();
+        Duration ttl = Duration.ofMinutes(config.getExpiryMinutes());
+
+        if (isHashLayout()) {
+            List<String> args = new ArrayList<>();
+            args.add(String.valueOf(ttl.toMillis()));
+            OtpRecordHashMapper.toHash(record).forEach((field, value) -> {
+                args.add(field);
+                args.add(value);
+            });
+            otpMetrics.runStage("redis.set",
+                    () -> stringRedisTemplate.execute(OtpRedisScripts.HASH_SAVE, List.of(key), args.toArray()));
+        } else {
+            otpMetrics.runStage("redis.set", () -> otpRedisTemplate.opsForValue().set(key, record, ttl));
+        }
+        log.debug("Saved OTP record with key: {}, TTL: {} minutes", key, config.getExpiryMinutes());
+
+        return record;
+    }
+
+    @Override
+    public boolean createIfAbsent(OtpRecord record) {
+        String key = record.getRedisKey();
+        Duration ttl = Duration.ofMinutes(config.getExpiryMinutes());
+
+        boolean created;
+        if (isHashLayout()) {
+            List<String> args = new ArrayList<>();
+            args.add(String.valueOf(ttl.toMillis()));
+            OtpRecordHashMapper.toHash(record).forEach((field, value) -> {
+                args.add(field);
+                args.add(value);
+            });
+            Long result = otpMetrics.timeStage("redis.create",
+                    () -> stringRedisTemplate.execute(OtpRedisScripts.HASH_CREATE, List.of(key), args.toArray()));
+            created = result != null && result == 1;
+        } else {
+            // SET NX PX: existence check and write in one command
+            created = Boolean.TRUE.equals(otpMetrics.timeStage("redis.create",
+                    () -> otpRedisTemplate.opsForValue().setIfAbsent(key, record, ttl)));
+        }
+        log.debug("Create OTP record with key: {}, created: {}", key, created);
+        return created;
+    }
+
+    @Override
+    public RecordWrite createIfAbsent(OtpRecord record, OutboxEntry job) {
+        if (job == null) {
+            return RecordWrite.unqueued(createIfAbsent(record));
+        }
+        Duration ttl = Duration.ofMinutes(config.getExpiryMinutes());
+        RecordWrite write = writeWithJob("redis.create", connection -> create(connection, record, ttl), job);
+        log.debug("Create OTP record with key: {}, created: {}, queued: {}",
+                record.getRedisKey(), write.written(), write.queued());
+        return write;
+    }
+
+    @Override
+    public List<Boolean> createAllIfAbsent(List<OtpRecord> records) {
+        return createAllIfAbsent(records, Collections.nCopies(records.size(), null)).stream()
+                .map(RecordWrite::written)
+                .toList();
+    }
+
+    @Override
+    public List<RecordWrite> createAllIfAbsent(List<OtpRecord> records, List<OutboxEntry> jobs) {
+        if (records.isEmpty()) {
+            return List.of();
+        }
+        Duration ttl = Duration.ofMinutes(config.getExpiryMinutes());
+
+        // One SET NX PX (or HASH_CREATE) per record, each followed by the XADD of its job
+        List<Object> replies = otpMetrics.timeStage("redis.pipeline", () -> stringRedisTemplate.executePipelined(
+                (RedisCallback<Object>) connection -> {
+                    for (int i = 0; i < records.size(); i++) {
+                        create(connection, records.get(i), ttl);
+                        if (jobs.get(i) != null) {
+                            append(connection, jobs.get(i));
+                        }
+                    }
+                    return null;
+                }));
+
+        List<RecordWrite> writes = new ArrayList<>(records.size());
+        int reply = 0;
+        for (OutboxEntry job : jobs) {
+            boolean written = isWritten(replies.get(reply++));
+            writes.add(new RecordWrite(written, job != null && replies.get(reply++) != null));
+        }
+        log.debug("Created {} of {} OTP records in one pipeline", writes.stream().filter(RecordWrite::written).count(),
+                records.size());
+        return writes;
+    }
+
+    @Override
+    public List<OtpRecord> findAllByKeys(List<String> keys) {
+        if (keys.isEmpty()) {
+            return List.of();
+        }
+        if (!isHashLayout()) {
+            List<OtpRecord> records = otpMetrics.timeStage("redis.mget",
+                    () -> otpRedisTemplate.opsForValue().multiGet(keys));
+            return records != null ? records : new ArrayList<>(Collections.nCopies(keys.size(), null));
+        }
+
+        List<Object> hashes = otpMetrics.timeStage("redis.pipeline", () -> stringRedisTemplate.executePipelined(
+                (RedisCallback<Object>) connection -> {
+                    for (String key : keys) {
+                        connection.hashCommands().hGetAll(key.getBytes(StandardCharsets.UTF_8));
+                    }
+                    return null;
+                }));
+        List<OtpRecord> records = new ArrayList<>(keys.size());
+        for (Object hash : hashes) {
+            records.add(hash instanceof Map<?, ?> fields ? OtpRecordHashMapper.fromHash(fields) : null);
+        }
+        return records;
+    }
+
+    @Override
+    public Optional<OtpRecord> findByIdentifierAndPurpose(String identifier, OtpPurpose purpose) {
+        String key = OtpRecord.buildRedisKey(identifier, purpose);
+        OtpRecord record = otpMetrics.timeStage("redis.get", () -> isHashLayout()
+                ? OtpRecordHashMapper.fromHash(stringRedisTemplate.opsForHash().entries(key))
+                : otpRedisTemplate.opsForValue().get(key));
+
+        log.debug("Looking up OTP with key: {}, found: {}", key, record != null);
+        return Optional.ofNullable(record);
+    }
+
+    @Override
+    public ValidationAttempt attemptValidation(String identifier, OtpPurpose purpose, int maxAttempts) {
+        String key = OtpRecord.buildRedisKey(identifier, purpose);
+
+        long fallbackTtlMillis = Duration.ofMinutes(config.getExpiryMinutes()).toMillis();
+        List<?> result = otpMetrics.timeStage("redis.attempt", () -> isHashLayout()
+                ? stringRedisTemplate.execute(OtpRedisScripts.HASH_VALIDATION_ATTEMPT,
+                        List.of(key), String.valueOf(maxAttempts))
+                : executeScript(OtpRedisScripts.VALIDATION_ATTEMPT,
+                        List.of(key, OtpRecord.buildAttemptsKey(key)),
+                        String.valueOf(maxAttempts), String.valueOf(fallbackTtlMillis)));
+
+        log.debug("Validation attempt for key: {}, status: {}, attempts: {}", key, result.get(0), result.get(1));
+        return OtpRedisScripts.toValidationAttempt(result, isHashLayout(), identifier, purpose, maxAttempts);
+    }
+
+    @Override
+    public void delete(String identifier, OtpPurpose purpose) {
+        deleteByKey(OtpRecord.buildRedisKey(identifier, purpose));
+    }
+
+    @Override
+    public void deleteByKey(String key) {
+        Long deleted = otpMetrics.timeStage("redis.delete",
+                () -> otpRedisTemplate.delete(List.of(key, OtpRecord.buildAttemptsKey(key))));
+        log.debug("Deleted OTP with key: {}, keys removed: {}", key, deleted);
+    }
+
+    @Override
+    public boolean exists(String identifier, OtpPurpose purpose) {
+        String key = OtpRecord.buildRedisKey(identifier, purpose);
+        return Boolean.TRUE.equals(otpRedisTemplate.hasKey(key));
+    }
+
+    @Override
+    public OtpRecord update(OtpRecord record) {
+        String key = record.getRedisKey();
+
+        if (isHashLayout()) {
+            // Fields are updated in place, the TTL set at creation is kept
+            Map<String, String> fields = OtpRecordHashMapper.toHash(record);
+            stringRedisTemplate.opsForHash().putAll(key, fields);
+            log.debug("Updated OTP record with key: {}", key);
+            return record;
+        }
+
+        // Get remaining TTL
+        Long ttl = otpRedisTemplate.getExpire(key);
+        if (ttl != null && ttl > 0) {
+            otpRedisTemplate.opsForValue().set(key, record, Duration.ofSeconds(ttl));
+        } else {
+            // If no TTL, use default
+            otpRedisTemplate.opsForValue().set(key, record,
+                    Duration.ofMinutes(config.getExpiryMinutes()));
+        }
+
+        log.debug("Updated OTP record with key: {}", key);
+        return record;
+    }
+
+    @Override
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public boolean replaceAfterCooldown(OtpRecord record, Duration cooldown) {
+        String key = record.getRedisKey();
+        Duration ttl = Duration.ofMinutes(config.getExpiryMinutes());
+
+        Long result;
+        if (isHashLayout()) {
+            List<String> args = new ArrayList<>();
+            args.add(String.valueOf(ttl.toMillis()));
+            args.add(String.valueOf(cooldown.toMillis()));
+            OtpRecordHashMapper.toHash(record).forEach((field, value) -> {
+                args.add(field);
+                args.add(value);
+            });
+            result = otpMetrics.timeStage("redis.resend",
+                    () -> stringRedisTemplate.execute(OtpRedisScripts.HASH_RESEND, List.of(key), args.toArray()));
+        } else {
+            // The record goes in encoded by the record serializer, the numbers as plain strings
+            byte[] encoded = encode(record);
+            result = otpMetrics.timeStage("redis.resend", () -> (Long) otpRedisTemplate.execute(
+                    OtpRedisScripts.RESEND, RedisSerializer.byteArray(), (RedisSerializer) RedisSerializer.byteArray(),
+                    List.of(key, OtpRecord.buildAttemptsKey(key)),
+                    utf8(ttl.toMillis()), utf8(cooldown.toMillis()), encoded));
+        }
+
+        boolean replaced = result != null && result == OtpRedisScripts.REPLACED;
+        log.debug("Resend for key: {}, replaced: {}", key, replaced);
+        return replaced;
+    }
+
+    @Override
+    public RecordWrite replaceAfterCooldown(OtpRecord record, Duration cooldown, OutboxEntry job) {
+        if (job == null) {
+            return RecordWrite.unqueued(replaceAfterCooldown(record, cooldown));
+        }
+        Duration ttl = Duration.ofMinutes(config.getExpiryMinutes());
+        RecordWrite write = writeWithJob("redis.resend", connection -> resend(connection, record, ttl, cooldown), job);
+        log.debug("Resend for key: {}, replaced: {}, queued: {}", record.getRedisKey(), write.written(), write.queued());
+        return write;
+    }
+
+    @Override
+    public boolean markTokenUsed(String identifier, String nonce, Duration ttl) {
+        // SET NX PX: the marker lives exactly as long as the token it guards
+        String key = OtpRecord.buildTokenKey(identifier, nonce);
+        Boolean marked = otpMetrics.timeStage("redis.set",
+                () -> stringRedisTemplate.opsForValue().setIfAbsent(key, "1", ttl));
+        log.debug("Marked verification token used with key: {}, first use: {}", key, marked);
+        return Boolean.TRUE.equals(marked);
+    }
+
+    /**
+     * Pipeline a record write with the XADD of its outbox job
+     * The stream lives in its own cluster slot, so the two can't share a script; a job whose write
+     * lost a race is dropped by the outbox workers, which only send for the live record.
+     */
+    private RecordWrite writeWithJob(String stage, Consumer<RedisConnection> write, OutboxEntry job) {
+        List<Object> replies = otpMetrics.timeStage(stage, () -> stringRedisTemplate.executePipelined(
+                (RedisCallback<Object>) connection -> {
+                    write.accept(connection);
+                    append(connection, job);
+                    return null;
+                }));
+        return new RecordWrite(isWritten(replies.get(0)), replies.get(1) != null);
+    }
+
+    // SET NX PX or HASH_CREATE, for use inside a pipeline
+    private void create(RedisConnection connection, OtpRecord record, Duration ttl) {
+        if (isHashLayout()) {
+            connection.scriptingCommands().eval(script(OtpRedisScripts.HASH_CREATE), ReturnType.INTEGER, 1,
+                    hashKeyAndArgs(record, ttl.toMillis()));
+        } else {
+            connection.stringCommands().set(record.getRedisKey().getBytes(StandardCharsets.UTF_8), encode(record),
+                    Expiration.from(ttl), SetOption.ifAbsent());
+        }
+    }
+
+    private static void append(RedisConnection connection, OutboxEntry job) {
+        connection.streamCommands().xAdd(job.toByteRecord(), job.addOptions());
+    }
+
+    // RESEND or HASH_RESEND, for use inside a pipeline
+    private void resend(RedisConnection connection, OtpRecord record, Duration ttl, Duration cooldown) {
+        if (isHashLayout()) {
+            connection.scriptingCommands().eval(script(OtpRedisScripts.HASH_RESEND), ReturnType.INTEGER, 1,
+                    hashKeyAndArgs(record, ttl.toMillis(), cooldown.toMillis()));
+        } else {
+            String key = record.getRedisKey();
+            connection.scriptingCommands().eval(script(OtpRedisScripts.RESEND), ReturnType.INTEGER, 2,
+                    key.getBytes(StandardCharsets.UTF_8),
+                    OtpRecord.buildAttemptsKey(key).getBytes(StandardCharsets.UTF_8),
+                    utf8(ttl.toMillis()), utf8(cooldown.toMillis()), encode(record));
+        }
+    }
+
+    // Created and replaced share the reply 1; SET NX replies true
+    private static boolean isWritten(Object reply) {
+        return Boolean.TRUE.equals(reply) || (reply instanceof Number n && n.longValue() == OtpRedisScripts.REPLACED);
+    }
+
+    // EVAL rather than EVALSHA: a NOSCRIPT reply can't be retried inside a pipeline
+    private static byte[] script(RedisScript<?> script) {
+        return script.getScriptAsString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @SuppressWarnings("unchecked")
+    private byte[] encode(OtpRecord record) {
+        return ((RedisSerializer<OtpRecord>) otpRedisTemplate.getValueSerializer()).serialize(record);
+    }
+
+    /**
+     * Hash key, the given numeric args, then the record's field/value pairs
+     */
+    private static byte[][] hashKeyAndArgs(OtpRecord record, long... leading) {
+        Map<String, String> fields = OtpRecordHashMapper.toHash(record);
+        byte[][] keyAndArgs = new byte[1 + leading.length + fields.size() * 2][];
+        int i = 0;
+        keyAndArgs[i++] = record.getRedisKey().getBytes(StandardCharsets.UTF_8);
+        for (long arg : leading) {
+            keyAndArgs[i++] = utf8(arg);
+        }
+        for (Map.Entry<String, String> field : fields.entrySet()) {
+            keyAndArgs[i++] = field.getKey().getBytes(StandardCharsets.UTF_8);
+            keyAndArgs[i++] = field.getValue().getBytes(StandardCharsets.UTF_8);
+        }
+        return keyAndArgs;
+    }
+
+    private static byte[] utf8(long value) {
+        return String.valueOf(value).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private boolean isHashLayout() {
+        return config.getRedis().getLayout() == RedisLayout.HASH;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private List<Object> executeScript(RedisScript<List> script, List<String> keys, Object... args) {
+        // Script args are plain strings; byte[] results are decoded with the record serializer
+        RedisSerializer resultSerializer = otpRedisTemplate.getValueSerializer();
+        return (List<Object>) otpRedisTemplate.execute(
+                script, StringRedisSerializer.UTF_8, resultSerializer, keys, args);
+    }
+}
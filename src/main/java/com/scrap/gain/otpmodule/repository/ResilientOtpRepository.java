@@ -0,0 +1,268 @@
+package com.scrap.gain.otpmodule.repository;
+
+import com.scrap.gain.otpmodule.config.OtpConfigProperties;
+import com.scrap.gain.otpmodule.entity.OtpRecord;
+import com.scrap.gain.otpmodule.exception.ErrorCode;
+import com.scrap.gain.otpmodule.exception.OtpException;
+import com.scrap.gain.otpmodule.model.OtpPurpose;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * OTP store used by the services when otp.store.type=REDIS
+ *
+ * Wraps RedisOtpRepository with RedisCircuitBreaker: failed or refused Redis calls
+ * either fail with STORE_UNAVAILABLE, or with otp.redis.degraded.enabled go to a
+ * bounded local InMemoryOtpRepository. Records created locally stay there until
+ * they are validated, deleted or expire, so lookups check the local store first
+ * while it holds anything. Local records are visible to this node only.
+ * Deleting a Redis record and marking a token used never fall back: a local
+ * stand-in would leave the OTP or token usable on other nodes, so both fail
+ * with STORE_UNAVAILABLE instead.
+ */
+@Slf4j
+@Primary
+@Repository
+@ConditionalOnProperty(name = "otp.store.type", havingValue = "REDIS", matchIfMissing = true)
+public class ResilientOtpRepository implements OtpRepository {
+
+    private final RedisOtpRepository redis;
+    private final RedisCircuitBreaker circuitBreaker;
+    // Null when degraded mode is disabled
+    private final InMemoryOtpRepository degraded;
+    private final Counter degradedCalls;
+
+    public ResilientOtpRepository(RedisOtpRepository redis, RedisCircuitBreaker circuitBreaker,
+                                  OtpConfigProperties config, MeterRegistry registry) {
+        this.redis = redis;
+        this.circuitBreaker = circuitBreaker;
+        this.degraded = config.getRedis().getDegraded().isEnabled() ? newDegradedStore(config) : null;
+        this.degradedCalls = Counter.builder("otp.redis.degraded.calls").register(registry);
+    }
+
+    @Override
+    public OtpRecord save(OtpRecord record) {
+        return call(() -> {
+            redis.save(record);
+            forgetLocal(record.getRedisKey());
+            return record;
+        }, () -> degraded.save(record));
+    }
+
+    @Override
+    public boolean createIfAbsent(OtpRecord record) {
+        // A live local record counts as existing, whatever Redis holds
+        if (isLocal(record.getIdentifier(), record.getPurpose())) {
+            return degraded.createIfAbsent(record);
+        }
+        return call(() -> redis.createIfAbsent(record), () -> degraded.createIfAbsent(record));
+    }
+
+    @Override
+    public RecordWrite createIfAbsent(OtpRecord record, OutboxEntry job) {
+        // A local record is sent from this node, so its job is never queued
+        if (isLocal(record.getIdentifier(), record.getPurpose())) {
+            return RecordWrite.unqueued(degraded.createIfAbsent(record));
+        }
+        return call(() -> redis.createIfAbsent(record, job),
+                () -> RecordWrite.unqueued(degraded.createIfAbsent(record)));
+    }
+
+    @Override
+    public List<Boolean> createAllIfAbsent(List<OtpRecord> records) {
+        if (hasLocalRecords()) {
+            // Rare: only while local records remain, record by record so each is checked locally first
+            return records.stream().map(this::createIfAbsent).toList();
+        }
+        return call(() -> redis.createAllIfAbsent(records), () -> degraded.createAllIfAbsent(records));
+    }
+
+    @Override
+    public List<RecordWrite> createAllIfAbsent(List<OtpRecord> records, List<OutboxEntry> jobs) {
+        if (hasLocalRecords()) {
+            // As above, record by record so each is checked locally first
+            List<RecordWrite> writes = new ArrayList<>(records.size());
+            for (int i = 0; i < records.size(); i++) {
+                writes.add(createIfAbsent(records.get(i), jobs.get(i)));
+            }
+            return writes;
+        }
+        return call(() -> redis.createAllIfAbsent(records, jobs),
+                () -> degraded.createAllIfAbsent(records).stream().map(RecordWrite::unqueued).toList());
+    }
+
+    @Override
+    public List<OtpRecord> findAllByKeys(List<String> keys) {
+        List<OtpRecord> records = call(() -> redis.findAllByKeys(keys), () -> degraded.findAllByKeys(keys));
+        if (hasLocalRecords()) {
+            records = new ArrayList<>(records);
+            List<OtpRecord> local = degraded.findAllByKeys(keys);
+            for (int i = 0; i < keys.size(); i++) {
+                if (local.get(i) != null) {
+                    records.set(i, local.get(i));
+                }
+            }
+        }
+        return records;
+    }
+
+    @Override
+    public Optional<OtpRecord> findByIdentifierAndPurpose(String identifier, OtpPurpose purpose) {
+        if (isLocal(identifier, purpose)) {
+            return degraded.findByIdentifierAndPurpose(identifier, purpose);
+        }
+        return call(() -> redis.findByIdentifierAndPurpose(identifier, purpose),
+                () -> degraded.findByIdentifierAndPurpose(identifier, purpose));
+    }
+
+    @Override
+    public ValidationAttempt attemptValidation(String identifier, OtpPurpose purpose, int maxAttempts) {
+        if (isLocal(identifier, purpose)) {
+            return degraded.attemptValidation(identifier, purpose, maxAttempts);
+        }
+        return call(() -> redis.attemptValidation(identifier, purpose, maxAttempts),
+                () -> degraded.attemptValidation(identifier, purpose, maxAttempts));
+    }
+
+    @Override
+    public void delete(String identifier, OtpPurpose purpose) {
+        deleteByKey(OtpRecord.buildRedisKey(identifier, purpose));
+    }
+
+    @Override
+    public void deleteByKey(String key) {
+        // A record held locally is gone once forgotten; the DEL is then best effort
+        boolean local = forgetLocal(key);
+        call(() -> {
+            redis.deleteByKey(key);
+            return null;
+        }, local ? () -> null : null);
+    }
+
+    @Override
+    public boolean exists(String identifier, OtpPurpose purpose) {
+        return isLocal(identifier, purpose)
+                || call(() -> redis.exists(identifier, purpose), () -> false);
+    }
+
+    @Override
+    public OtpRecord update(OtpRecord record) {
+        if (isLocal(record.getIdentifier(), record.getPurpose())) {
+            return degraded.update(record);
+        }
+        return call(() -> redis.update(record), () -> degraded.update(record));
+    }
+
+    @Override
+    public boolean replaceAfterCooldown(OtpRecord record, Duration cooldown) {
+        if (isLocal(record.getIdentifier(), record.getPurpose())) {
+            return degraded.replaceAfterCooldown(record, cooldown);
+        }
+        return call(() -> redis.replaceAfterCooldown(record, cooldown),
+                () -> degraded.replaceAfterCooldown(record, cooldown));
+    }
+
+    @Override
+    public RecordWrite replaceAfterCooldown(OtpRecord record, Duration cooldown, OutboxEntry job) {
+        if (isLocal(record.getIdentifier(), record.getPurpose())) {
+            return RecordWrite.unqueued(degraded.replaceAfterCooldown(record, cooldown));
+        }
+        return call(() -> redis.replaceAfterCooldown(record, cooldown, job),
+                () -> RecordWrite.unqueued(degraded.replaceAfterCooldown(record, cooldown)));
+    }
+
+    @Override
+    public boolean markTokenUsed(String identifier, String nonce, Duration ttl) {
+        return call(() -> redis.markTokenUsed(identifier, nonce, ttl), null);
+    }
+
+    /**
+     * Records currently held by the degraded local store, -1 when degraded mode is disabled
+     */
+    public int degradedSize() {
+        return degraded == null ? -1 : degraded.size();
+    }
+
+    public boolean isDegradedModeEnabled() {
+        return degraded != null;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (degraded != null) {
+            degraded.shutdown();
+        }
+    }
+
+    /**
+     * Run a Redis call through the breaker, falling back to the local store when it fails or is refused
+     * @param fallback local call, null for calls that must reach Redis
+     * @throws OtpException STORE_UNAVAILABLE when Redis can't be used and there is no fallback
+     */
+    private <T> T call(Supplier<T> redisCall, Supplier<T> fallback) {
+        if (circuitBreaker.tryAcquire()) {
+            boolean failed = false;
+            try {
+                return redisCall.get();
+            } catch (DataAccessException e) {
+                failed = true;
+                circuitBreaker.onFailure(e);
+                log.warn("Redis call failed: {}", e.getMessage());
+            } finally {
+                // Any other outcome means Redis answered
+                if (!failed) {
+                    circuitBreaker.onSuccess();
+                }
+            }
+        }
+
+        if (degraded == null || fallback == null) {
+            throw new OtpException(ErrorCode.STORE_UNAVAILABLE);
+        }
+        degradedCalls.increment();
+        return fallback.get();
+    }
+
+    private boolean hasLocalRecords() {
+        return degraded != null && degraded.size() > 0;
+    }
+
+    private boolean isLocal(String identifier, OtpPurpose purpose) {
+        return hasLocalRecords() && degraded.exists(identifier, purpose);
+    }
+
+    /**
+     * @return true if the local store held a record for the key
+     */
+    private boolean forgetLocal(String key) {
+        if (!hasLocalRecords() || degraded.findAllByKeys(List.of(key)).get(0) == null) {
+            return false;
+        }
+        degraded.deleteByKey(key);
+        return true;
+    }
+
+    private static InMemoryOtpRepository newDegradedStore(OtpConfigProperties config) {
+        // Same expiry and wheel as the main settings, with its own capacity
+        OtpConfigProperties local = new OtpConfigProperties();
+        local.setExpiryMinutes(config.getExpiryMinutes());
+        local.getStore().setMaxEntries(config.getRedis().getDegraded().getMaxEntries());
+        local.getStore().setWheelTickMillis(config.getStore().getWheelTickMillis());
+        local.getStore().setWheelSize(config.getStore().getWheelSize());
+        log.info("Degraded mode enabled: up to {} OTPs kept locally while Redis is unavailable",
+                config.getRedis().getDegraded().getMaxEntries());
+        return new InMemoryOtpRepository(local);
+    }
+}
@@ -0,0 +1,31 @@
+package com.scrap.gain.otpmodule.repository;
+
+import com.scrap.gain.otpmodule.entity.OtpRecord;
+
+/**
+ * Outcome of atomically registering a validation attempt
+ *
+ * @param status       Whether the attempt may proceed to the hash comparison
+ * @param record       Stored OTP record (only set when ACCEPTED)
+ * @param attemptCount Attempts made so far, including this one
+ */
+public record ValidationAttempt(Status status, OtpRecord record, int attemptCount) {
+
+    public enum Status {
+        ACCEPTED,
+        NOT_FOUND,
+        MAX_ATTEMPTS
+    }
+
+    public static ValidationAttempt notFound() {
+        return new ValidationAttempt(Status.NOT_FOUND, null, 0);
+    }
+
+    public static ValidationAttempt maxAttempts(int attemptCount) {
+        return new ValidationAttempt(Status.MAX_ATTEMPTS, null, attemptCount);
+    }
+
+    public static ValidationAttempt accepted(OtpRecord record, int attemptCount) {
+        return new ValidationAttempt(Status.ACCEPTED, record, attemptCount);
+    }
+}
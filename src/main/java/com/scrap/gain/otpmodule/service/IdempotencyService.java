@@ -0,0 +1,228 @@
+package com.scrap.gain.otpmodule.service;
+
+import com.scrap.gain.otpmodule.config.OtpConfigProperties;
+import com.scrap.gain.otpmodule.dto.OtpResponse;
+import com.scrap.gain.otpmodule.entity.OtpRecord;
+import com.scrap.gain.otpmodule.exception.ErrorCode;
+import com.scrap.gain.otpmodule.exception.OtpException;
+import com.scrap.gain.otpmodule.repository.RedisCircuitBreaker;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency-Key handling for generate and resend
+ * The first request with a key claims it with an in-flight marker and runs; its successful
+ * response is kept for otp.idempotency.ttl-seconds and replayed to retries with the same key,
+ * without hashing, saving or sending again. Duplicates arriving while the first one runs are
+ * rejected with IDEMPOTENCY_KEY_IN_USE. Failed requests release the key, so they can be retried.
+ * Keys are scoped per identifier and operation and share the identifier's cluster slot.
+ * While Redis is unavailable requests run without idempotency, like the rate limiter.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    /**
+     * KEYS[1] = idempotency key
+     * ARGV[1] = request fingerprint, ARGV[2] = owner token, ARGV[3] = in-flight millis
+     * Returns an empty list when the key was claimed, else the stored entry (HGETALL)
+     */
+    @SuppressWarnings("rawtypes")
+    static final RedisScript<List> CLAIM_SCRIPT = RedisScript.of("""
+            if redis.call('EXISTS', KEYS[1]) == 0 then
+                redis.call('HSET', KEYS[1], 'state', 'PENDING', 'fingerprint', ARGV[1], 'owner', ARGV[2])
+                redis.call('PEXPIRE', KEYS[1], ARGV[3])
+                return {}
+            end
+            return redis.call('HGETALL', KEYS[1])
+            """, List.class);
+
+    /**
+     * KEYS[1] = idempotency key
+     * ARGV[1] = owner token, ARGV[2] = ttl millis, ARGV[3..] = response field/value pairs
+     * Writes the response over the in-flight marker, keeping its fingerprint,
+     * unless another request took the key over
+     */
+    static final RedisScript<Long> COMPLETE_SCRIPT = RedisScript.of("""
+            if redis.call('HGET', KEYS[1], 'owner') ~= ARGV[1] then
+                return 0
+            end
+            redis.call('HDEL', KEYS[1], 'owner')
+            redis.call('HSET', KEYS[1], unpack(ARGV, 3))
+            redis.call('PEXPIRE', KEYS[1], ARGV[2])
+            return 1
+            """, Long.class);
+
+    /**
+     * KEYS[1] = idempotency key, ARGV[1] = owner token
+     * Drops the in-flight marker if it is still ours
+     */
+    static final RedisScript<Long> RELEASE_SCRIPT = RedisScript.of("""
+            if redis.call('HGET', KEYS[1], 'owner') == ARGV[1] then
+                return redis.call('DEL', KEYS[1])
+            end
+            return 0
+            """, Long.class);
+
+    private static final String STATE_PENDING = "PENDING";
+    private static final String STATE_DONE = "DONE";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final OtpConfigProperties config;
+    private final RedisCircuitBreaker circuitBreaker;
+
+    /**
+     * Run the action once per idempotency key, replaying its response to retries
+     *
+     * @param idempotencyKey Client key, null to run the action without idempotency
+     * @param operation      Operation the key is scoped to (generate, resend)
+     * @param identifier     Identifier of the request, used for scoping and the cluster slot
+     * @param fingerprint    Rest of the request that a retry must repeat (the purpose)
+     * @throws OtpException with IDEMPOTENCY_KEY_IN_USE while the first request runs,
+     *                      IDEMPOTENCY_KEY_REUSED when the key was used for another request
+     */
+    public OtpResponse execute(String idempotencyKey, String operation, String identifier,
+                               String fingerprint, Supplier<OtpResponse> action) {
+        OtpConfigProperties.IdempotencyConfig idempotency = config.getIdempotency();
+        if (!idempotency.isEnabled() || idempotencyKey == null) {
+            return action.get();
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > idempotency.getMaxKeyLength()) {
+            throw new OtpException(ErrorCode.INVALID_REQUEST);
+        }
+
+        String key = OtpRecord.buildIdempotencyKey(identifier, operation, idempotencyKey);
+        String owner = UUID.randomUUID().toString();
+
+        List<?> existing = claim(key, fingerprint, owner);
+        if (existing == null) {
+            // Redis unavailable: fail open
+            return action.get();
+        }
+        if (!existing.isEmpty()) {
+            return replay(toMap(existing), fingerprint, operation);
+        }
+
+        OtpResponse response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            // Failures are not cached; a retry with the same key runs again
+            release(key, owner);
+            throw e;
+        }
+        complete(key, owner, response);
+        return response;
+    }
+
+    /**
+     * Claim the key or read its entry
+     * @return empty list if claimed, the entry as field/value list if present, null if Redis is unavailable
+     */
+    private List<?> claim(String key, String fingerprint, String owner) {
+        if (!circuitBreaker.tryAcquire()) {
+            log.debug("Redis circuit open, skipping idempotency check");
+            return null;
+        }
+        try {
+            List<?> reply = stringRedisTemplate.execute(CLAIM_SCRIPT, List.of(key), fingerprint, owner,
+                    String.valueOf(config.getIdempotency().getInFlightSeconds() * 1000L));
+            circuitBreaker.onSuccess();
+            return reply == null ? List.of() : reply;
+        } catch (DataAccessException e) {
+            circuitBreaker.onFailure(e);
+            log.warn("Idempotency store unavailable, running request without it: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private OtpResponse replay(Map<String, String> entry, String fingerprint, String operation) {
+        if (!fingerprint.equals(entry.get("fingerprint"))) {
+            throw new OtpException(ErrorCode.IDEMPOTENCY_KEY_REUSED);
+        }
+        if (STATE_PENDING.equals(entry.get("state"))) {
+            throw new OtpException(ErrorCode.IDEMPOTENCY_KEY_IN_USE);
+        }
+        log.debug("Replaying {} response for reference {}", operation, entry.get("referenceId"));
+        return fromFields(entry);
+    }
+
+    private void complete(String key, String owner, OtpResponse response) {
+        List<String> args = new ArrayList<>(List.of(owner,
+                String.valueOf(config.getIdempotency().getTtlSeconds() * 1000L)));
+        args.addAll(toFields(response));
+        runQuietly(COMPLETE_SCRIPT, key, args);
+    }
+
+    private void release(String key, String owner) {
+        runQuietly(RELEASE_SCRIPT, key, List.of(owner));
+    }
+
+    /**
+     * Best effort: a lost write only means a retry within the window runs again
+     */
+    private void runQuietly(RedisScript<Long> script, String key, List<String> args) {
+        try {
+            stringRedisTemplate.execute(script, List.of(key), args.toArray());
+            circuitBreaker.onSuccess();
+        } catch (DataAccessException e) {
+            circuitBreaker.onFailure(e);
+            log.warn("Could not update idempotency key: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Entry fields for a completed response; the fingerprint is kept from the claim
+     */
+    static List<String> toFields(OtpResponse response) {
+        List<String> fields = new ArrayList<>(List.of("state", STATE_DONE));
+        addField(fields, "referenceId", response.getReferenceId());
+        addField(fields, "maskedIdentifier", response.getMaskedIdentifier());
+        addField(fields, "expiresAt", response.getExpiresAt() == null
+                ? null : String.valueOf(response.getExpiresAt().toEpochMilli()));
+        addField(fields, "message", response.getMessage());
+        addField(fields, "deliveryStatus", response.getDeliveryStatus());
+        return fields;
+    }
+
+    static OtpResponse fromFields(Map<String, String> entry) {
+        String expiresAt = entry.get("expiresAt");
+        return OtpResponse.builder()
+                .referenceId(entry.get("referenceId"))
+                .maskedIdentifier(entry.get("maskedIdentifier"))
+                .expiresAt(expiresAt == null ? null : Instant.ofEpochMilli(Long.parseLong(expiresAt)))
+                .message(entry.get("message"))
+                .deliveryStatus(entry.get("deliveryStatus"))
+                .build();
+    }
+
+    private static void addField(List<String> fields, String name, String value) {
+        if (value != null) {
+            fields.add(name);
+            fields.add(value);
+        }
+    }
+
+    private static Map<String, String> toMap(List<?> flat) {
+        Map<String, String> map = new HashMap<>();
+        for (int i = 0; i + 1 < flat.size(); i += 2) {
+            map.put(String.valueOf(flat.get(i)), String.valueOf(flat.get(i + 1)));
+        }
+        return map;
+    }
+}
@@ -1,9 +1,12 @@
 package com.scrap.gain.otpmodule.service;
 
+import com.scrap.gain.otpmodule.dto.OtpBatchGenerateRequest;
+import com.scrap.gain.otpmodule.dto.OtpBatchResponse;
 import com.scrap.gain.otpmodule.dto.OtpGenerateRequest;
 import com.scrap.gain.otpmodule.dto.OtpResendRequest;
 import com.scrap.gain.otpmodule.dto.OtpResponse;
 import com.scrap.gain.otpmodule.dto.OtpValidateRequest;
+import com.scrap.gain.otpmodule.dto.TokenVerifyRequest;
 
 public interface OtpService {
 
@@ -12,13 +15,28 @@ public interface OtpService {
      */
     OtpResponse generateOtp(OtpGenerateRequest request);
 
+    /**
+     * Generate and send OTPs for many identifiers, with one result per item
+     */
+    OtpBatchResponse generateOtpBatch(OtpBatchGenerateRequest request);
+
     /**
      * Validate the OTP provided by user
      */
     OtpResponse validateOtp(OtpValidateRequest request);
 
+    /**
+     * Check a verification token issued by validateOtp and consume it
+     */
+    OtpResponse verifyToken(TokenVerifyRequest request);
+
     /**
      * Resend OTP (invalidates previous and generates new)
      */
     OtpResponse resendOtp(OtpResendRequest request);
+
+    /**
+     * Get SMS delivery status for a previously generated OTP
+     */
+    OtpResponse getDeliveryStatus(String referenceId);
 }
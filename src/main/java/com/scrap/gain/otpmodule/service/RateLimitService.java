@@ -0,0 +1,228 @@
+package com.scrap.gain.otpmodule.service;
+
+import com.scrap.gain.otpmodule.config.OtpConfigProperties;
+import com.scrap.gain.otpmodule.entity.OtpRecord;
+import com.scrap.gain.otpmodule.exception.ErrorCode;
+import com.scrap.gain.otpmodule.exception.OtpException;
+import com.scrap.gain.otpmodule.repository.RedisCircuitBreaker;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Sliding-window rate limiter for OTP sends
+ * Limits are evaluated per identifier and per client IP in a single Redis script.
+ * On Redis Cluster the two keys live in different slots, so the script runs once
+ * per key instead (see executePerSlot).
+ * Keys that Redis has rejected are remembered locally until their window frees up,
+ * so repeat offenders are turned away without a Redis round trip.
+ * While the Redis circuit breaker is open the limiter fails open without calling Redis.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RateLimitService {
+
+    /**
+     * KEYS[i] = limiter key (sorted set of request timestamps)
+     * ARGV[1] = unique member, ARGV[2i] / ARGV[2i+1] = per-minute / per-hour limit of KEYS[i]
+     * Returns retry-after millis per key, all zeros when the request is allowed and recorded
+     */
+    @SuppressWarnings("rawtypes")
+    static final RedisScript<List> SLIDING_WINDOW_SCRIPT = RedisScript.of("""
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+            local retryAfter = {}
+            local denied = false
+            for i, key in ipairs(KEYS) do
+                local perMinute = tonumber(ARGV[2 * i])
+                local perHour = tonumber(ARGV[2 * i + 1])
+                local wait = 0
+                redis.call('ZREMRANGEBYSCORE', key, '-inf', now - 3600000)
+                if redis.call('ZCOUNT', key, now - 60000, '+inf') >= perMinute then
+                    local oldest = redis.call('ZRANGEBYSCORE', key, now - 60000, '+inf', 'WITHSCORES', 'LIMIT', 0, 1)
+                    wait = math.max(wait, tonumber(oldest[2]) + 60000 - now, 1)
+                end
+                if redis.call('ZCARD', key) >= perHour then
+                    local oldest = redis.call('ZRANGE', key, 0, 0, 'WITHSCORES')
+                    wait = math.max(wait, tonumber(oldest[2]) + 3600000 - now, 1)
+                end
+                retryAfter[i] = wait
+                if wait > 0 then
+                    denied = true
+                end
+            end
+            if not denied then
+                for _, key in ipairs(KEYS) do
+                    redis.call('ZADD', key, now, ARGV[1])
+                    redis.call('PEXPIRE', key, 3600000)
+                end
+            end
+            return retryAfter
+            """, List.class);
+
+    // Identifier keys carry the identifier hash tag, so they share a cluster slot with its OTP keys
+    private static final String IDENTIFIER_KEY_PREFIX = "ratelimit:id:";
+    private static final String IP_KEY_PREFIX = "ratelimit:ip:";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final OtpConfigProperties config;
+    private final RedisCircuitBreaker circuitBreaker;
+
+    // Limiter key -> epoch millis until which it is known to be blocked
+    private final Map<String, Long> blockedUntil = new ConcurrentHashMap<>();
+
+    /**
+     * Record a send request for the identifier and client IP
+     * @throws OtpException with RATE_LIMIT_EXCEEDED when either limit is exhausted
+     */
+    public void checkLimit(String identifier, String clientIp) {
+        OtpConfigProperties.RateLimitConfig rateLimit = config.getRateLimit();
+        if (!rateLimit.isEnabled()) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        List<String> keys = limiterKeys(identifier, clientIp, now);
+
+        if (!circuitBreaker.tryAcquire()) {
+            log.debug("Redis circuit open, skipping rate limit for {}", clientIp);
+            return;
+        }
+
+        List<String> args = scriptArgs(now);
+        List<?> retryAfter;
+        try {
+            retryAfter = isCluster()
+                    ? executePerSlot(keys, args)
+                    : stringRedisTemplate.execute(SLIDING_WINDOW_SCRIPT, keys, args.toArray());
+            circuitBreaker.onSuccess();
+        } catch (DataAccessException e) {
+            // Fail open: an unavailable limiter must not block OTP delivery
+            circuitBreaker.onFailure(e);
+            log.warn("Rate limiter unavailable, allowing request: {}", e.getMessage());
+            return;
+        }
+
+        applyResult(keys, retryAfter, clientIp, now);
+    }
+
+    /**
+     * Limiter keys for a request, rejecting keys already known to be blocked
+     * @throws OtpException with RATE_LIMIT_EXCEEDED on a near-cache hit
+     */
+    List<String> limiterKeys(String identifier, String clientIp, long now) {
+        String identifierKey = IDENTIFIER_KEY_PREFIX + OtpRecord.hashTag(identifier);
+        String ipKey = IP_KEY_PREFIX + OtpRecord.hashTag(clientIp);
+
+        if (isBlockedLocally(identifierKey, now) || isBlockedLocally(ipKey, now)) {
+            log.debug("Rate limit hit in near-cache for {}", clientIp);
+            throw new OtpException(ErrorCode.RATE_LIMIT_EXCEEDED);
+        }
+        return List.of(identifierKey, ipKey);
+    }
+
+    List<String> scriptArgs(long now) {
+        OtpConfigProperties.RateLimitConfig rateLimit = config.getRateLimit();
+        return List.of(
+                nextMember(now),
+                String.valueOf(rateLimit.getRequestsPerMinute()),
+                String.valueOf(rateLimit.getRequestsPerHour()),
+                String.valueOf(rateLimit.getIpRequestsPerMinute()),
+                String.valueOf(rateLimit.getIpRequestsPerHour()));
+    }
+
+    /**
+     * Script arguments for evaluating only keys[index]: the shared member and that key's limits
+     */
+    static List<String> slotArgs(List<String> args, int index) {
+        return List.of(args.get(0), args.get(2 * index + 1), args.get(2 * index + 2));
+    }
+
+    /**
+     * Whether the connection targets Redis Cluster, where the limiter keys hash to different slots
+     */
+    boolean isCluster() {
+        return stringRedisTemplate.getConnectionFactory() instanceof LettuceConnectionFactory lettuce
+                && lettuce.isClusterAware();
+    }
+
+    /**
+     * Run the script once per key, stopping at the first denial
+     * Requests already recorded for earlier keys are removed again, so a denied
+     * request is not counted, as with the single multi-key script.
+     */
+    private List<Long> executePerSlot(List<String> keys, List<String> args) {
+        List<Long> retryAfter = new ArrayList<>();
+        for (int i = 0; i < keys.size(); i++) {
+            List<?> reply = stringRedisTemplate.execute(SLIDING_WINDOW_SCRIPT, List.of(keys.get(i)),
+                    slotArgs(args, i).toArray());
+            long wait = reply == null ? 0 : ((Number) reply.get(0)).longValue();
+            retryAfter.add(wait);
+            if (wait > 0) {
+                for (int j = 0; j < i; j++) {
+                    stringRedisTemplate.opsForZSet().remove(keys.get(j), args.get(0));
+                }
+                break;
+            }
+        }
+        while (retryAfter.size() < keys.size()) {
+            retryAfter.add(0L);
+        }
+        return retryAfter;
+    }
+
+    /**
+     * Remember blocked keys from a script reply
+     * @throws OtpException with RATE_LIMIT_EXCEEDED when either key was denied
+     */
+    void applyResult(List<String> keys, List<?> retryAfter, String clientIp, long now) {
+        boolean denied = block(keys.get(0), retryAfter, 0, now)
+                | block(keys.get(1), retryAfter, 1, now);
+        if (denied) {
+            log.warn("Rate limit exceeded for client IP {}", clientIp);
+            throw new OtpException(ErrorCode.RATE_LIMIT_EXCEEDED);
+        }
+    }
+
+    private boolean isBlockedLocally(String key, long now) {
+        Long until = blockedUntil.get(key);
+        if (until == null) {
+            return false;
+        }
+        if (until <= now) {
+            blockedUntil.remove(key, until);
+            return false;
+        }
+        return true;
+    }
+
+    private boolean block(String key, List<?> retryAfter, int index, long now) {
+        long waitMillis = retryAfter == null ? 0 : ((Number) retryAfter.get(index)).longValue();
+        if (waitMillis <= 0) {
+            return false;
+        }
+
+        if (blockedUntil.size() >= config.getRateLimit().getNearCacheMaxEntries()) {
+            blockedUntil.values().removeIf(until -> until <= now);
+        }
+        if (blockedUntil.size() < config.getRateLimit().getNearCacheMaxEntries()) {
+            blockedUntil.put(key, now + waitMillis);
+        }
+        return true;
+    }
+
+    private static String nextMember(long now) {
+        return now + "-" + Long.toHexString(ThreadLocalRandom.current().nextLong());
+    }
+}
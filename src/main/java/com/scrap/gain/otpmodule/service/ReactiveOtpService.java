@@ -0,0 +1,40 @@
+package com.scrap.gain.otpmodule.service;
+
+import com.scrap.gain.otpmodule.dto.OtpGenerateRequest;
+import com.scrap.gain.otpmodule.dto.OtpResendRequest;
+import com.scrap.gain.otpmodule.dto.OtpResponse;
+import com.scrap.gain.otpmodule.dto.OtpValidateRequest;
+import com.scrap.gain.otpmodule.dto.TokenVerifyRequest;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of OtpService, used by the WebFlux router
+ * Errors are signalled as OtpException, as in OtpService.
+ */
+public interface ReactiveOtpService {
+
+    /**
+     * Generate and send OTP to the specified identifier
+     */
+    Mono<OtpResponse> generateOtp(OtpGenerateRequest request);
+
+    /**
+     * Validate the OTP provided by user
+     */
+    Mono<OtpResponse> validateOtp(OtpValidateRequest request);
+
+    /**
+     * Check a verification token issued by validateOtp and consume it
+     */
+    Mono<OtpResponse> verifyToken(TokenVerifyRequest request);
+
+    /**
+     * Resend OTP (invalidates previous and generates new)
+     */
+    Mono<OtpResponse> resendOtp(OtpResendRequest request);
+
+    /**
+     * Get SMS delivery status for a previously generated OTP
+     */
+    Mono<OtpResponse> getDeliveryStatus(String referenceId);
+}
@@ -0,0 +1,100 @@
+package com.scrap.gain.otpmodule.service;
+
+import com.scrap.gain.otpmodule.config.OtpConfigProperties;
+import com.scrap.gain.otpmodule.repository.RedisCircuitBreaker;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Non-blocking front for RateLimitService
+ * Runs the same sliding-window script and shares its near-cache of blocked keys.
+ */
+@Slf4j
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+public class ReactiveRateLimitService {
+
+    private final RateLimitService rateLimitService;
+    private final ReactiveStringRedisTemplate reactiveStringRedisTemplate;
+    private final OtpConfigProperties config;
+    private final RedisCircuitBreaker circuitBreaker;
+
+    /**
+     * Record a send request for the identifier and client IP
+     * @return empty Mono, or an OtpException with RATE_LIMIT_EXCEEDED when either limit is exhausted
+     */
+    public Mono<Void> checkLimit(String identifier, String clientIp) {
+        if (!config.getRateLimit().isEnabled()) {
+            return Mono.empty();
+        }
+
+        return Mono.defer(() -> {
+            long now = System.currentTimeMillis();
+            List<String> keys = rateLimitService.limiterKeys(identifier, clientIp, now);
+            if (!circuitBreaker.tryAcquire()) {
+                return Mono.empty();
+            }
+            List<String> args = rateLimitService.scriptArgs(now);
+
+            Mono<List<?>> reply = rateLimitService.isCluster()
+                    ? executePerSlot(keys, args)
+                    : execute(keys, args);
+
+            return reply
+                    .doOnSuccess(retryAfter -> circuitBreaker.onSuccess())
+                    .onErrorResume(DataAccessException.class, e -> {
+                        // Fail open: an unavailable limiter must not block OTP delivery
+                        circuitBreaker.onFailure(e);
+                        log.warn("Rate limiter unavailable, allowing request: {}", e.getMessage());
+                        return Mono.empty();
+                    })
+                    .doOnNext(retryAfter -> rateLimitService.applyResult(keys, retryAfter, clientIp, now))
+                    .then();
+        });
+    }
+
+    private Mono<List<?>> execute(List<String> keys, List<String> args) {
+        // Multi-bulk replies are emitted element by element
+        return reactiveStringRedisTemplate.execute(RateLimitService.SLIDING_WINDOW_SCRIPT, keys, args)
+                .collectList()
+                .map(reply -> reply);
+    }
+
+    /**
+     * Cluster mode: run the script once per key, stopping at the first denial
+     * and removing the request again from keys already recorded
+     */
+    private Mono<List<?>> executePerSlot(List<String> keys, List<String> args) {
+        List<Long> retryAfter = new ArrayList<>(Collections.nCopies(keys.size(), 0L));
+
+        return Flux.range(0, keys.size())
+                .concatMap(i -> execute(List.of(keys.get(i)), RateLimitService.slotArgs(args, i))
+                        .map(reply -> {
+                            long wait = ((Number) reply.get(0)).longValue();
+                            retryAfter.set(i, wait);
+                            return wait;
+                        }))
+                .takeUntil(wait -> wait > 0)
+                .count()
+                .flatMap(evaluated -> {
+                    int last = evaluated.intValue() - 1;
+                    if (retryAfter.get(last) <= 0) {
+                        return Mono.<List<?>>just(retryAfter);
+                    }
+                    return Flux.range(0, last)
+                            .concatMap(j -> reactiveStringRedisTemplate.opsForZSet().remove(keys.get(j), args.get(0)))
+                            .then(Mono.<List<?>>just(retryAfter));
+                });
+    }
+}
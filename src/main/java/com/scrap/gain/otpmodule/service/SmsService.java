@@ -2,10 +2,22 @@ package com.scrap.gain.otpmodule.service;
 
 import com.scrap.gain.otpmodule.exception.ErrorCode;
 import com.scrap.gain.otpmodule.exception.OtpException;
+import com.scrap.gain.otpmodule.metrics.OtpMetrics;
+import com.scrap.gain.otpmodule.model.enums.SmsDeliveryStatus;
+import com.scrap.gain.otpmodule.service.sms.DeliveryReceiptTracker;
+import com.scrap.gain.otpmodule.service.sms.SentMessage;
+import com.scrap.gain.otpmodule.service.sms.SmsDispatcher;
 import com.scrap.gain.otpmodule.service.sms.SmsProvider;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 /**
  * Service for sending OTP via SMS
@@ -17,30 +29,99 @@ import org.springframework.stereotype.Service;
 public class SmsService {
 
     private final SmsProvider smsProvider;
+    private final SmsDispatcher smsDispatcher;
+    private final OtpMetrics otpMetrics;
+    private final DeliveryReceiptTracker receiptTracker;
 
     private static final String OTP_MESSAGE_TEMPLATE =
             "Your OTP is: %s. Valid for 5 minutes. Do not share with anyone.";
 
     /**
-     * Send OTP to phone number
+     * Queue OTP for sending on the dispatch workers
+     * @param referenceId OTP record id used for delivery status tracking
+     * @param phoneNumber Phone number with country code
+     * @param otp Plain text OTP
+     */
+    public void dispatchOtp(String referenceId, String phoneNumber, String otp) {
+        smsDispatcher.dispatch(referenceId, () -> sendOtp(referenceId, phoneNumber, otp));
+    }
+
+    /**
+     * Start a non-blocking OTP send, tracked like a queued one and matched to its delivery receipt
+     * @param referenceId OTP record id used for delivery status tracking
+     * @param phoneNumber Phone number with country code
+     * @param otp Plain text OTP
+     */
+    public void dispatchOtpReactive(String referenceId, String phoneNumber, String otp) {
+        String message = String.format(OTP_MESSAGE_TEMPLATE, otp);
+        String provider = smsProvider.getProviderName();
+
+        Mono<Boolean> send = Mono.defer(() -> {
+            long start = System.nanoTime();
+            return smsProvider.sendTrackedReactive(phoneNumber, message)
+                    .flatMap(sent -> trackReactive(referenceId, phoneNumber, sent))
+                    .defaultIfEmpty(false)
+                    .doOnNext(sent -> otpMetrics.recordSend(provider, sent, System.nanoTime() - start));
+        });
+        smsDispatcher.dispatchReactive(referenceId, send);
+    }
+
+    /**
+     * Queue many OTPs for sending in one hand-off to the dispatch workers
+     * @return record ids that could not be queued
+     */
+    public List<String> dispatchOtpBatch(List<OtpSend> otps) {
+        Map<String, Runnable> sends = new LinkedHashMap<>();
+        for (OtpSend otp : otps) {
+            sends.put(otp.referenceId(), () -> sendOtp(otp.referenceId(), otp.phoneNumber(), otp.otp()));
+        }
+        return smsDispatcher.dispatchBatch(sends);
+    }
+
+    /**
+     * Get delivery status of a dispatched OTP
+     */
+    public Optional<SmsDeliveryStatus> getDeliveryStatus(String referenceId) {
+        return smsDispatcher.getStatus(referenceId);
+    }
+
+    /**
+     * Send OTP to phone number (blocks until the provider responds)
      * @param phoneNumber Phone number with country code
      * @param otp Plain text OTP
      */
     public void sendOtp(String phoneNumber, String otp) {
+        sendOtp(null, phoneNumber, otp);
+    }
+
+    /**
+     * Send OTP to phone number and track its delivery receipt against the record
+     * @param referenceId OTP record id, null if the send is not tracked
+     * @param phoneNumber Phone number with country code
+     * @param otp Plain text OTP
+     */
+    public void sendOtp(String referenceId, String phoneNumber, String otp) {
         log.info("Sending OTP via {} to phone ending with ...{}",
                 smsProvider.getProviderName(),
                 phoneNumber.substring(phoneNumber.length() - 4));
 
         String message = String.format(OTP_MESSAGE_TEMPLATE, otp);
 
-        boolean sent = smsProvider.sendSms(phoneNumber, message);
+        long start = System.nanoTime();
+        Optional<SentMessage> sent = Optional.empty();
+        try {
+            sent = smsProvider.sendTracked(phoneNumber, message);
+        } finally {
+            otpMetrics.recordSend(smsProvider.getProviderName(), sent.isPresent(), System.nanoTime() - start);
+        }
 
-        if (!sent) {
+        if (sent.isEmpty()) {
             log.error("Failed to send OTP to {}", phoneNumber);
             throw new OtpException(ErrorCode.SMS_DELIVERY_FAILED);
         }
 
-        log.info("OTP sent successfully via {}", smsProvider.getProviderName());
+        receiptTracker.track(referenceId, phoneNumber, sent.get());
+        log.info("OTP sent successfully via {}", sent.get().provider());
     }
 
     /**
@@ -53,4 +134,20 @@ public class SmsService {
             throw new OtpException(ErrorCode.SMS_DELIVERY_FAILED);
         }
     }
+
+    // The tracker writes to Redis with a blocking client, so keep it off the event loop
+    private Mono<Boolean> trackReactive(String referenceId, String phoneNumber, SentMessage sent) {
+        if (!receiptTracker.isEnabled()) {
+            return Mono.just(true);
+        }
+        return Mono.fromRunnable(() -> receiptTracker.track(referenceId, phoneNumber, sent))
+                .subscribeOn(Schedulers.boundedElastic())
+                .thenReturn(true);
+    }
+
+    /**
+     * One OTP to send, keyed by its record id for delivery status tracking
+     */
+    public record OtpSend(String referenceId, String phoneNumber, String otp) {
+    }
 }
@@ -0,0 +1,134 @@
+package com.scrap.gain.otpmodule.service;
+
+import com.scrap.gain.otpmodule.config.OtpConfigProperties;
+import com.scrap.gain.otpmodule.entity.OtpRecord;
+import com.scrap.gain.otpmodule.exception.ErrorCode;
+import com.scrap.gain.otpmodule.exception.OtpException;
+import com.scrap.gain.otpmodule.model.OtpPurpose;
+import com.scrap.gain.otpmodule.model.enums.StoreType;
+import com.scrap.gain.otpmodule.repository.RedisCircuitBreaker;
+import com.scrap.gain.otpmodule.util.MaskingUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Allows one validation in flight per identifier and purpose
+ * Parallel validate calls for one OTP would each pay for a full hash comparison, so
+ * callers arriving while another validation of the same OTP runs are rejected with
+ * VALIDATION_IN_PROGRESS before any hashing. A local in-flight set turns duplicates on
+ * this node away without a round trip; with the Redis store a leased SET NX marker in
+ * the identifier's slot does the same across nodes. While Redis is unavailable only the
+ * local check applies, like the rate limiter.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ValidationGuard {
+
+    /**
+     * KEYS[1] = in-flight marker, ARGV[1] = owner token
+     * Drops the marker if it is still ours
+     */
+    static final RedisScript<Long> RELEASE_SCRIPT = RedisScript.of("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+                return redis.call('DEL', KEYS[1])
+            end
+            return 0
+            """, Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final OtpConfigProperties config;
+    private final RedisCircuitBreaker circuitBreaker;
+    private final MaskingUtil maskingUtil;
+
+    // Marker keys of validations running on this node
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Run the validation unless another one for the same OTP is in flight
+     * @throws OtpException with VALIDATION_IN_PROGRESS when one is
+     */
+    public <T> T run(String identifier, OtpPurpose purpose, Supplier<T> validation) {
+        if (!config.getValidation().isConcurrencyGuard()) {
+            return validation.get();
+        }
+
+        String key = OtpRecord.buildValidationLockKey(identifier, purpose);
+        if (!inFlight.add(key)) {
+            log.warn("Validation already in flight on this node for {}, purpose: {}",
+                    maskingUtil.maskIdentifier(identifier), purpose);
+            throw new OtpException(ErrorCode.VALIDATION_IN_PROGRESS);
+        }
+        try {
+            String owner = acquireShared(key, identifier, purpose);
+            try {
+                return validation.get();
+            } finally {
+                if (owner != null) {
+                    release(key, owner, identifier, purpose);
+                }
+            }
+        } finally {
+            inFlight.remove(key);
+        }
+    }
+
+    /**
+     * Take the cluster-wide marker
+     * @return owner token, null when the marker was skipped (memory store, Redis unavailable)
+     * @throws OtpException with VALIDATION_IN_PROGRESS when another node holds it
+     */
+    private String acquireShared(String key, String identifier, OtpPurpose purpose) {
+        if (config.getStore().getType() != StoreType.REDIS) {
+            return null;
+        }
+        if (!circuitBreaker.tryAcquire()) {
+            log.debug("Redis circuit open, guarding validation on this node only");
+            return null;
+        }
+
+        String owner = UUID.randomUUID().toString();
+        Boolean acquired;
+        try {
+            acquired = stringRedisTemplate.opsForValue().setIfAbsent(key, owner,
+                    Duration.ofMillis(config.getValidation().getGuardLeaseMillis()));
+            circuitBreaker.onSuccess();
+        } catch (DataAccessException e) {
+            circuitBreaker.onFailure(e);
+            log.warn("Validation guard store unavailable, guarding on this node only: {}", e.getMessage());
+            return null;
+        }
+
+        if (!Boolean.TRUE.equals(acquired)) {
+            log.warn("Validation already in flight on another node for {}, purpose: {}",
+                    maskingUtil.maskIdentifier(identifier), purpose);
+            throw new OtpException(ErrorCode.VALIDATION_IN_PROGRESS);
+        }
+        return owner;
+    }
+
+    /**
+     * Best effort: a lost release only keeps the marker until its lease expires
+     */
+    private void release(String key, String owner, String identifier, OtpPurpose purpose) {
+        try {
+            stringRedisTemplate.execute(RELEASE_SCRIPT, List.of(key), owner);
+            circuitBreaker.onSuccess();
+        } catch (DataAccessException e) {
+            circuitBreaker.onFailure(e);
+            log.warn("Could not release validation guard for {}, purpose: {}: {}",
+                    maskingUtil.maskIdentifier(identifier), purpose, e.getMessage());
+        }
+    }
+}
@@ -1,80 +1,258 @@
 package com.scrap.gain.otpmodule.service.impl;
 
 import com.scrap.gain.otpmodule.config.OtpConfigProperties;
+import com.scrap.gain.otpmodule.dto.OtpBatchGenerateRequest;
+import com.scrap.gain.otpmodule.dto.OtpBatchResponse;
 import com.scrap.gain.otpmodule.dto.OtpGenerateRequest;
 import com.scrap.gain.otpmodule.dto.OtpResendRequest;
 import com.scrap.gain.otpmodule.dto.OtpResponse;
 import com.scrap.gain.otpmodule.dto.OtpValidateRequest;
+import com.scrap.gain.otpmodule.dto.TokenVerifyRequest;
 import com.scrap.gain.otpmodule.entity.OtpRecord;
 import com.scrap.gain.otpmodule.exception.ErrorCode;
 import com.scrap.gain.otpmodule.exception.OtpException;
+import com.scrap.gain.otpmodule.metrics.OtpMetrics;
+import com.scrap.gain.otpmodule.model.OtpPurpose;
 import com.scrap.gain.otpmodule.repository.OtpRepository;
+import com.scrap.gain.otpmodule.repository.OutboxEntry;
+import com.scrap.gain.otpmodule.repository.RecordWrite;
+import com.scrap.gain.otpmodule.repository.ValidationAttempt;
 import com.scrap.gain.otpmodule.service.OtpService;
 import com.scrap.gain.otpmodule.service.SmsService;
+import com.scrap.gain.otpmodule.service.ValidationGuard;
+import com.scrap.gain.otpmodule.service.sms.SmsOutbox;
+import com.scrap.gain.otpmodule.util.HashingExecutor;
 import com.scrap.gain.otpmodule.util.MaskingUtil;
 import com.scrap.gain.otpmodule.util.OtpGenerator;
-import com.scrap.gain.otpmodule.util.OtpHasher;
+import com.scrap.gain.otpmodule.util.PrehashedOtpPool;
+import com.scrap.gain.otpmodule.util.PrehashedOtpPool.PrehashedOtp;
+import com.scrap.gain.otpmodule.util.VerificationTokenIssuer;
+import com.scrap.gain.otpmodule.util.VerificationTokenVerifier.VerifiedToken;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
-import java.util.UUID;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class OtpServiceImpl implements OtpService {
 
+    private static final String BATCH_OPERATION = "generate_batch";
+
     private final OtpRepository otpRepository;
     private final OtpGenerator otpGenerator;
-    private final OtpHasher otpHasher;
+    private final HashingExecutor hashingExecutor;
+    private final PrehashedOtpPool prehashedOtpPool;
+    private final VerificationTokenIssuer tokenIssuer;
     private final MaskingUtil maskingUtil;
     private final OtpConfigProperties config;
     private final SmsService smsService;
+    private final SmsOutbox smsOutbox;
+    private final ValidationGuard validationGuard;
+    private final OtpMetrics otpMetrics;
+    private final Validator validator;
 
     @Override
     public OtpResponse generateOtp(OtpGenerateRequest request) {
+        return otpMetrics.track("generate", () -> doGenerateOtp(request));
+    }
+
+    @Override
+    public OtpBatchResponse generateOtpBatch(OtpBatchGenerateRequest request) {
+        List<OtpGenerateRequest> items = request.getRequests();
+        if (items.size() > config.getBatch().getMaxSize()) {
+            throw new OtpException(ErrorCode.BATCH_TOO_LARGE);
+        }
+        log.info("Generating batch of {} OTPs", items.size());
+
+        OtpResponse[] results = new OtpResponse[items.size()];
+
+        // Validate items one by one; a repeated identifier/purpose keeps its first occurrence
+        Map<String, Integer> pending = new LinkedHashMap<>();
+        for (int i = 0; i < items.size(); i++) {
+            OtpGenerateRequest item = items.get(i);
+            String violation = firstViolation(item);
+            if (violation != null) {
+                results[i] = batchItemError(item, ErrorCode.INVALID_REQUEST, violation);
+            } else if (pending.putIfAbsent(
+                    OtpRecord.buildRedisKey(item.getIdentifier(), item.getPurpose()), i) != null) {
+                results[i] = batchItemError(item, ErrorCode.OTP_ALREADY_SENT,
+                        "Duplicate identifier and purpose in batch");
+            }
+        }
+
+        // One round trip to skip identifiers that still have a live OTP
+        List<String> keys = new ArrayList<>(pending.keySet());
+        List<OtpRecord> existing = otpRepository.findAllByKeys(keys);
+        for (int k = 0; k < keys.size(); k++) {
+            OtpRecord record = existing.get(k);
+            if (record != null && !record.isExpired()) {
+                int index = pending.remove(keys.get(k));
+                results[index] = batchItemError(items.get(index), ErrorCode.OTP_ALREADY_SENT, null);
+            }
+        }
+
+        // Hashing dominates the cost of a batch, spread it across the hashing pool
+        Instant now = Instant.now();
+        List<Integer> indexes = new ArrayList<>(pending.values());
+        List<String> plainOtps = indexes.stream().map(index -> otpGenerator.generate()).toList();
+        List<String> hashes = otpMetrics.timeStage("batch.hash", () -> hashingExecutor.hashAll(plainOtps));
+
+        List<PendingOtp> candidates = new ArrayList<>(indexes.size());
+        for (int i = 0; i < indexes.size(); i++) {
+            int index = indexes.get(i);
+            candidates.add(new PendingOtp(index, newRecord(items.get(index), hashes.get(i), now), plainOtps.get(i)));
+        }
+
+        // One pipelined SET NX per record, with its outbox job: a generate that won a race since the read
+        // above keeps its OTP
+        List<RecordWrite> writes = otpRepository.createAllIfAbsent(
+                candidates.stream().map(PendingOtp::record).toList(),
+                candidates.stream().map(otp -> smsOutbox.jobFor(
+                        otp.record(), otp.record().getIdentifier(), otp.plainOtp())).toList());
+        List<PendingOtp> otps = new ArrayList<>(candidates.size());
+        for (int i = 0; i < candidates.size(); i++) {
+            PendingOtp otp = candidates.get(i);
+            RecordWrite write = writes.get(i);
+            if (!write.written()) {
+                results[otp.index()] = batchItemError(items.get(otp.index()), ErrorCode.OTP_ALREADY_SENT, null);
+            } else if (write.queued()) {
+                smsOutbox.markQueued(otp.record().getId());
+                results[otp.index()] = batchItemSuccess(items.get(otp.index()), otp.record());
+            } else {
+                otps.add(otp);
+            }
+        }
+
+        // One hand-off to the dispatch workers for the items the outbox didn't take
+        Set<String> rejected = new HashSet<>(smsService.dispatchOtpBatch(otps.stream()
+                .map(otp -> new SmsService.OtpSend(
+                        otp.record().getId(), otp.record().getIdentifier(), otp.plainOtp()))
+                .toList()));
+
+        for (PendingOtp otp : otps) {
+            OtpRecord record = otp.record();
+            OtpGenerateRequest item = items.get(otp.index());
+            if (rejected.contains(record.getId())) {
+                // Drop the record so the identifier can be retried
+                otpRepository.deleteByKey(record.getRedisKey());
+                results[otp.index()] = batchItemError(item, ErrorCode.SMS_QUEUE_FULL, null);
+            } else {
+                results[otp.index()] = batchItemSuccess(item, record);
+            }
+        }
+
+        OtpBatchResponse response = OtpBatchResponse.of(Arrays.asList(results));
+        log.info("Batch generate finished: {} succeeded, {} failed", response.getSucceeded(), response.getFailed());
+        return response;
+    }
+
+    @Override
+    public OtpResponse validateOtp(OtpValidateRequest request) {
+        // One validation per OTP at a time; parallel guesses are turned away before hashing
+        return otpMetrics.track("validate", () -> validationGuard.run(
+                request.getIdentifier(), request.getPurpose(), () -> doValidateOtp(request)));
+    }
+
+    @Override
+    public OtpResponse verifyToken(TokenVerifyRequest request) {
+        return otpMetrics.track("verify_token", () -> doVerifyToken(request));
+    }
+
+    @Override
+    public OtpResponse resendOtp(OtpResendRequest request) {
+        return otpMetrics.track("resend", () -> doResendOtp(request));
+    }
+
+    @Override
+    public OtpResponse getDeliveryStatus(String referenceId) {
+        return smsService.getDeliveryStatus(referenceId)
+                .map(status -> OtpResponse.deliveryStatus(referenceId, status.name()))
+                .orElseThrow(() -> new OtpException(ErrorCode.OTP_NOT_FOUND));
+    }
+
+    private OtpResponse doGenerateOtp(OtpGenerateRequest request) {
         log.info("Generating OTP for identifier: {}, purpose: {}",
                 maskingUtil.maskIdentifier(request.getIdentifier()),
                 request.getPurpose());
 
-        // Check if OTP already exists and is still valid
-        otpRepository.findByIdentifierAndPurpose(request.getIdentifier(), request.getPurpose())
-                .ifPresent(existing -> {
-                    if (!existing.isExpired()) {
-                        log.warn("OTP already sent for {}", maskingUtil.maskIdentifier(request.getIdentifier()));
-                        throw new OtpException(ErrorCode.OTP_ALREADY_SENT);
-                    }
-                });
-
-        // Generate new OTP
-        String plainOtp = otpGenerator.generate();
-        String hashedOtp = otpHasher.hashWithBcrypt(plainOtp);
+        // Pool empty: look before hashing inline, so a repeated request doesn't pay for bcrypt
+        PrehashedOtp otp = prehashedOtpPool.take().orElse(null);
+        if (otp == null) {
+            if (otpRepository.exists(request.getIdentifier(), request.getPurpose())) {
+                throw alreadySent(request);
+            }
+            otp = hashInline();
+        }
 
         // Create OTP record
-        Instant now = Instant.now();
-        OtpRecord record = OtpRecord.builder()
-                .id(OtpRecord.generateId())
-                .identifier(request.getIdentifier())
-                .otpHash(hashedOtp)
-                .purpose(request.getPurpose())
-                .attemptCount(0)
-                .maxAttempts(config.getMaxAttempts())
-                .createdAt(now)
-                .expiresAt(now.plus(config.getExpiryMinutes(), ChronoUnit.MINUTES))
-                .verified(false)
-                .metadata(request.getMetadata())
-                .build();
+        OtpRecord record = newRecord(request, otp.hashedOtp(), Instant.now());
+
+        // Existence check and write in one atomic step: of concurrent generates only one sends
+        // (the outbox job goes in the same round trip; workers drop a job whose record lost the race)
+        RecordWrite write = otpRepository.createIfAbsent(record, outboxJob(request, record, otp.plainOtp()));
+        if (!write.written()) {
+            throw alreadySent(request);
+        }
+
+        return send(request, record, otp.plainOtp(), write);
+    }
+
+    private OtpException alreadySent(OtpGenerateRequest request) {
+        log.warn("OTP already sent for {}", maskingUtil.maskIdentifier(request.getIdentifier()));
+        return new OtpException(ErrorCode.OTP_ALREADY_SENT);
+    }
+
+    private PrehashedOtp nextOtp() {
+        return prehashedOtpPool.take().orElseGet(this::hashInline);
+    }
+
+    private PrehashedOtp hashInline() {
+        String generated = otpGenerator.generate();
+        return new PrehashedOtp(generated, otpMetrics.timeStage("hash", () -> hashingExecutor.hash(generated)));
+    }
+
+    private OutboxEntry outboxJob(OtpGenerateRequest request, OtpRecord record, String plainOtp) {
+        return smsOutbox.jobFor(record, request.getIdentifier(), plainOtp);
+    }
 
-        // Save to Redis
-        otpRepository.save(record);
+    /**
+     * Leave the send to the outbox workers when the job reached the stream, else send from this node
+     */
+    private OtpResponse send(OtpGenerateRequest request, OtpRecord record, String plainOtp, RecordWrite write) {
+        if (write.queued()) {
+            smsOutbox.markQueued(record.getId());
+            return accepted(request, record);
+        }
+        return dispatch(request, record, plainOtp);
+    }
 
-        // Send OTP via SMS
-        smsService.sendOtp(request.getIdentifier(), plainOtp);
+    private OtpResponse dispatch(OtpGenerateRequest request, OtpRecord record, String plainOtp) {
+        // Queue OTP for sending on this node; drop the record if the queue rejects it so the user can retry
+        try {
+            smsService.dispatchOtp(record.getId(), request.getIdentifier(), plainOtp);
+        } catch (OtpException e) {
+            otpRepository.delete(request.getIdentifier(), request.getPurpose());
+            throw e;
+        }
+        return accepted(request, record);
+    }
 
-        log.info("OTP generated and sent successfully for {}",
+    private OtpResponse accepted(OtpGenerateRequest request, OtpRecord record) {
+        log.info("OTP generated and queued for sending for {}",
                 maskingUtil.maskIdentifier(request.getIdentifier()));
 
         return OtpResponse.success(
@@ -84,16 +262,29 @@ public class OtpServiceImpl implements OtpService {
         );
     }
 
-    @Override
-    public OtpResponse validateOtp(OtpValidateRequest request) {
+    private OtpResponse doValidateOtp(OtpValidateRequest request) {
         log.info("Validating OTP for identifier: {}, purpose: {}",
                 maskingUtil.maskIdentifier(request.getIdentifier()),
                 request.getPurpose());
 
-        // Find OTP record
-        OtpRecord record = otpRepository
-                .findByIdentifierAndPurpose(request.getIdentifier(), request.getPurpose())
-                .orElseThrow(() -> new OtpException(ErrorCode.OTP_NOT_FOUND));
+        // Reserve the hash comparison first: an overloaded pool sheds the request before it uses an attempt
+        try (HashingExecutor.Reservation slot = hashingExecutor.reserve()) {
+            return validate(request, slot);
+        }
+    }
+
+    private OtpResponse validate(OtpValidateRequest request, HashingExecutor.Reservation slot) {
+        // Register the attempt atomically before spending CPU on the hash comparison
+        ValidationAttempt attempt = otpRepository.attemptValidation(
+                request.getIdentifier(), request.getPurpose(), config.getMaxAttempts());
+
+        switch (attempt.status()) {
+            case NOT_FOUND -> throw new OtpException(ErrorCode.OTP_NOT_FOUND);
+            case MAX_ATTEMPTS -> throw new OtpException(ErrorCode.OTP_MAX_ATTEMPTS);
+            case ACCEPTED -> { }
+        }
+
+        OtpRecord record = attempt.record();
 
         // Check if already verified
         if (record.isVerified()) {
@@ -106,33 +297,25 @@ public class OtpServiceImpl implements OtpService {
             throw new OtpException(ErrorCode.OTP_EXPIRED);
         }
 
-        // Check max attempts
-        if (record.isMaxAttemptsExceeded()) {
-            otpRepository.delete(request.getIdentifier(), request.getPurpose());
-            throw new OtpException(ErrorCode.OTP_MAX_ATTEMPTS);
-        }
-
         // Verify OTP
-        boolean isValid = otpHasher.verifyBcrypt(request.getOtp(), record.getOtpHash());
+        boolean isValid = otpMetrics.timeStage("verify",
+                () -> hashingExecutor.verify(slot, request.getOtp(), record.getOtpHash()));
 
         if (isValid) {
             // Mark as verified and delete
             record.setVerified(true);
             otpRepository.delete(request.getIdentifier(), request.getPurpose());
 
-            // Generate verification token
-            String token = UUID.randomUUID().toString();
+            // Signed token, checkable without a store lookup
+            String token = tokenIssuer.issue(request.getIdentifier(), request.getPurpose());
 
             log.info("OTP validated successfully for {}",
                     maskingUtil.maskIdentifier(request.getIdentifier()));
 
             return OtpResponse.validationSuccess(token);
         } else {
-            // Increment attempt count
-            record.incrementAttempts();
-            otpRepository.update(record);
-
-            int remaining = record.getMaxAttempts() - record.getAttemptCount();
+            // Attempt was already counted by the repository
+            int remaining = Math.max(0, config.getMaxAttempts() - attempt.attemptCount());
             log.warn("Invalid OTP attempt for {}, remaining: {}",
                     maskingUtil.maskIdentifier(request.getIdentifier()), remaining);
 
@@ -140,21 +323,94 @@ public class OtpServiceImpl implements OtpService {
         }
     }
 
-    @Override
-    public OtpResponse resendOtp(OtpResendRequest request) {
+    private OtpResponse doVerifyToken(TokenVerifyRequest request) {
+        VerifiedToken token = tokenIssuer.verify(request.getToken(), request.getPurpose());
+
+        // Single use across nodes: the marker expires together with the token
+        if (!otpRepository.markTokenUsed(token.identifier(), token.nonce(),
+                tokenIssuer.remainingTtl(token.expiresAt()))) {
+            log.warn("Verification token replayed for {}", maskingUtil.maskIdentifier(token.identifier()));
+            throw new OtpException(ErrorCode.TOKEN_ALREADY_USED);
+        }
+
+        log.info("Verification token accepted for {}", maskingUtil.maskIdentifier(token.identifier()));
+        return OtpResponse.tokenVerified(token.identifier(), OtpPurpose.valueOf(token.purpose()), token.expiresAt());
+    }
+
+    private OtpResponse doResendOtp(OtpResendRequest request) {
         log.info("Resending OTP for identifier: {}, purpose: {}",
                 maskingUtil.maskIdentifier(request.getIdentifier()),
                 request.getPurpose());
 
-        // Delete existing OTP if any
-        otpRepository.delete(request.getIdentifier(), request.getPurpose());
-
-        // Generate new OTP using the generate method
         OtpGenerateRequest generateRequest = OtpGenerateRequest.builder()
                 .identifier(request.getIdentifier())
                 .purpose(request.getPurpose())
                 .build();
 
-        return generateOtp(generateRequest);
+        // Look before hashing and queueing a job, so a resend inside the cooldown costs one read
+        Duration cooldown = config.getResend().cooldownFor(request.getPurpose());
+        if (otpRepository.findByIdentifierAndPurpose(request.getIdentifier(), request.getPurpose())
+                .filter(current -> current.isSavedWithin(cooldown))
+                .isPresent()) {
+            throw resendInCooldown(request.getIdentifier());
+        }
+
+        PrehashedOtp otp = nextOtp();
+        OtpRecord record = newRecord(generateRequest, otp.hashedOtp(), Instant.now());
+
+        // Cooldown check, replace and attempts reset in one step: concurrent resends send one SMS
+        RecordWrite write = otpRepository.replaceAfterCooldown(record, cooldown,
+                outboxJob(generateRequest, record, otp.plainOtp()));
+        if (!write.written()) {
+            throw resendInCooldown(request.getIdentifier());
+        }
+
+        return send(generateRequest, record, otp.plainOtp(), write);
+    }
+
+    private OtpException resendInCooldown(String identifier) {
+        log.warn("OTP resend within cooldown for {}", maskingUtil.maskIdentifier(identifier));
+        return new OtpException(ErrorCode.OTP_ALREADY_SENT);
+    }
+
+    private OtpRecord newRecord(OtpGenerateRequest request, String hashedOtp, Instant now) {
+        return OtpRecord.builder()
+                .id(OtpRecord.generateId())
+                .identifier(request.getIdentifier())
+                .otpHash(hashedOtp)
+                .purpose(request.getPurpose())
+                .attemptCount(0)
+                .maxAttempts(config.getMaxAttempts())
+                .createdAt(now)
+                .expiresAt(now.plus(config.getExpiryMinutes(), ChronoUnit.MINUTES))
+                .verified(false)
+                .metadata(request.getMetadata())
+                .build();
+    }
+
+    private String firstViolation(OtpGenerateRequest item) {
+        if (item == null) {
+            return "Request item is required";
+        }
+        Set<ConstraintViolation<OtpGenerateRequest>> violations = validator.validate(item);
+        return violations.isEmpty() ? null : violations.iterator().next().getMessage();
+    }
+
+    private OtpResponse batchItemSuccess(OtpGenerateRequest item, OtpRecord record) {
+        otpMetrics.recordOutcome(BATCH_OPERATION, OtpMetrics.SUCCESS);
+        return OtpResponse.success(
+                record.getId(), maskingUtil.maskIdentifier(item.getIdentifier()), record.getExpiresAt());
+    }
+
+    private OtpResponse batchItemError(OtpGenerateRequest item, ErrorCode errorCode, String message) {
+        otpMetrics.recordOutcome(BATCH_OPERATION, errorCode.name());
+        return OtpResponse.builder()
+                .maskedIdentifier(item != null ? maskingUtil.maskIdentifier(item.getIdentifier()) : null)
+                .errorCode(errorCode.getCode())
+                .message(message != null ? message : errorCode.getMessage())
+                .build();
+    }
+
+    private record PendingOtp(int index, OtpRecord record, String plainOtp) {
     }
 }
@@ -0,0 +1,266 @@
+package com.scrap.gain.otpmodule.service.impl;
+
+import com.scrap.gain.otpmodule.config.OtpConfigProperties;
+import com.scrap.gain.otpmodule.dto.OtpGenerateRequest;
+import com.scrap.gain.otpmodule.dto.OtpResendRequest;
+import com.scrap.gain.otpmodule.dto.OtpResponse;
+import com.scrap.gain.otpmodule.dto.OtpValidateRequest;
+import com.scrap.gain.otpmodule.dto.TokenVerifyRequest;
+import com.scrap.gain.otpmodule.entity.OtpRecord;
+import com.scrap.gain.otpmodule.exception.ErrorCode;
+import com.scrap.gain.otpmodule.exception.OtpException;
+import com.scrap.gain.otpmodule.metrics.OtpMetrics;
+import com.scrap.gain.otpmodule.model.OtpPurpose;
+import com.scrap.gain.otpmodule.repository.ReactiveOtpRepository;
+import com.scrap.gain.otpmodule.repository.ValidationAttempt;
+import com.scrap.gain.otpmodule.service.ReactiveOtpService;
+import com.scrap.gain.otpmodule.service.SmsService;
+import com.scrap.gain.otpmodule.util.HashingExecutor;
+import com.scrap.gain.otpmodule.util.MaskingUtil;
+import com.scrap.gain.otpmodule.util.OtpGenerator;
+import com.scrap.gain.otpmodule.util.PrehashedOtpPool;
+import com.scrap.gain.otpmodule.util.PrehashedOtpPool.PrehashedOtp;
+import com.scrap.gain.otpmodule.util.VerificationTokenIssuer;
+import com.scrap.gain.otpmodule.util.VerificationTokenVerifier.VerifiedToken;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Reactive OTP flow: Redis and SMS calls never block, hashing runs on the
+ * bounded HashingExecutor pool. Same rules and error codes as OtpServiceImpl.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveOtpServiceImpl implements ReactiveOtpService {
+
+    private final ReactiveOtpRepository otpRepository;
+    private final OtpGenerator otpGenerator;
+    private final HashingExecutor hashingExecutor;
+    private final PrehashedOtpPool prehashedOtpPool;
+    private final VerificationTokenIssuer tokenIssuer;
+    private final MaskingUtil maskingUtil;
+    private final OtpConfigProperties config;
+    private final SmsService smsService;
+    private final OtpMetrics otpMetrics;
+
+    @Override
+    public Mono<OtpResponse> generateOtp(OtpGenerateRequest request) {
+        return tracked("generate", Mono.defer(() -> doGenerateOtp(request)));
+    }
+
+    @Override
+    public Mono<OtpResponse> validateOtp(OtpValidateRequest request) {
+        return tracked("validate", Mono.defer(() -> doValidateOtp(request)));
+    }
+
+    @Override
+    public Mono<OtpResponse> verifyToken(TokenVerifyRequest request) {
+        return tracked("verify_token", Mono.defer(() -> {
+            VerifiedToken token = tokenIssuer.verify(request.getToken(), request.getPurpose());
+
+            // Single use across nodes: the marker expires together with the token
+            return otpRepository.markTokenUsed(token.identifier(), token.nonce(),
+                            tokenIssuer.remainingTtl(token.expiresAt()))
+                    .flatMap(firstUse -> {
+                        if (!firstUse) {
+                            log.warn("Verification token replayed for {}",
+                                    maskingUtil.maskIdentifier(token.identifier()));
+                            return Mono.<OtpResponse>error(new OtpException(ErrorCode.TOKEN_ALREADY_USED));
+                        }
+                        log.info("Verification token accepted for {}", maskingUtil.maskIdentifier(token.identifier()));
+                        return Mono.just(OtpResponse.tokenVerified(
+                                token.identifier(), OtpPurpose.valueOf(token.purpose()), token.expiresAt()));
+                    });
+        }));
+    }
+
+    @Override
+    public Mono<OtpResponse> resendOtp(OtpResendRequest request) {
+        return tracked("resend", Mono.defer(() -> {
+            log.info("Resending OTP for identifier: {}, purpose: {}",
+                    maskingUtil.maskIdentifier(request.getIdentifier()),
+                    request.getPurpose());
+
+            OtpGenerateRequest generateRequest = OtpGenerateRequest.builder()
+                    .identifier(request.getIdentifier())
+                    .purpose(request.getPurpose())
+                    .build();
+            String maskedIdentifier = maskingUtil.maskIdentifier(request.getIdentifier());
+
+            Duration cooldown = config.getResend().cooldownFor(request.getPurpose());
+
+            // Look before hashing, so a resend inside the cooldown costs one read
+            Mono<PrehashedOtp> otp = otpRepository
+                    .findByIdentifierAndPurpose(request.getIdentifier(), request.getPurpose())
+                    .map(current -> current.isSavedWithin(cooldown))
+                    .defaultIfEmpty(false)
+                    .flatMap(inCooldown -> inCooldown
+                            ? Mono.<PrehashedOtp>error(resendInCooldown(maskedIdentifier))
+                            : nextOtp());
+
+            // Cooldown check, replace and attempts reset in one step: concurrent resends send one SMS
+            return otp.flatMap(next -> {
+                OtpRecord record = newRecord(generateRequest, next.hashedOtp(), Instant.now());
+                return otpRepository.replaceAfterCooldown(record, cooldown)
+                        .flatMap(replaced -> replaced
+                                ? dispatch(generateRequest, maskedIdentifier, record, next.plainOtp())
+                                : Mono.<OtpResponse>error(resendInCooldown(maskedIdentifier)));
+            });
+        }));
+    }
+
+    @Override
+    public Mono<OtpResponse> getDeliveryStatus(String referenceId) {
+        return Mono.justOrEmpty(smsService.getDeliveryStatus(referenceId))
+                .map(status -> OtpResponse.deliveryStatus(referenceId, status.name()))
+                .switchIfEmpty(Mono.error(() -> new OtpException(ErrorCode.OTP_NOT_FOUND)));
+    }
+
+    private Mono<OtpResponse> doGenerateOtp(OtpGenerateRequest request) {
+        String maskedIdentifier = maskingUtil.maskIdentifier(request.getIdentifier());
+        log.info("Generating OTP for identifier: {}, purpose: {}", maskedIdentifier, request.getPurpose());
+
+        // Pool empty: look before hashing inline, so a repeated request doesn't pay for bcrypt
+        Mono<PrehashedOtp> otp = prehashedOtpPool.take()
+                .map(Mono::just)
+                .orElseGet(() -> otpRepository.exists(request.getIdentifier(), request.getPurpose())
+                        .flatMap(exists -> exists
+                                ? Mono.<PrehashedOtp>error(alreadySent(maskedIdentifier))
+                                : hashInline()));
+
+        // Existence check and write in one atomic step: of concurrent generates only one sends
+        return otp.flatMap(next -> {
+            OtpRecord record = newRecord(request, next.hashedOtp(), Instant.now());
+            return otpRepository.createIfAbsent(record)
+                    .flatMap(created -> created
+                            ? dispatch(request, maskedIdentifier, record, next.plainOtp())
+                            : Mono.<OtpResponse>error(alreadySent(maskedIdentifier)));
+        });
+    }
+
+    private OtpException alreadySent(String maskedIdentifier) {
+        log.warn("OTP already sent for {}", maskedIdentifier);
+        return new OtpException(ErrorCode.OTP_ALREADY_SENT);
+    }
+
+    private OtpException resendInCooldown(String maskedIdentifier) {
+        log.warn("OTP resend within cooldown for {}", maskedIdentifier);
+        return new OtpException(ErrorCode.OTP_ALREADY_SENT);
+    }
+
+    private Mono<PrehashedOtp> nextOtp() {
+        // Take a pre-hashed OTP when ready, otherwise hash on the hashing pool
+        return Mono.justOrEmpty(prehashedOtpPool.take())
+                .switchIfEmpty(Mono.defer(this::hashInline));
+    }
+
+    private Mono<PrehashedOtp> hashInline() {
+        String generated = otpGenerator.generate();
+        return Mono.fromFuture(() -> hashingExecutor.hashAsync(generated))
+                .map(hashedOtp -> new PrehashedOtp(generated, hashedOtp));
+    }
+
+    private Mono<OtpResponse> dispatch(OtpGenerateRequest request, String maskedIdentifier,
+                                       OtpRecord record, String plainOtp) {
+        // Start the send; drop the record if too many sends are in flight so the user can retry
+        try {
+            smsService.dispatchOtpReactive(record.getId(), request.getIdentifier(), plainOtp);
+        } catch (OtpException e) {
+            return otpRepository.delete(request.getIdentifier(), request.getPurpose())
+                    .then(Mono.<OtpResponse>error(e));
+        }
+
+        log.info("OTP generated and queued for sending for {}", maskedIdentifier);
+        return Mono.just(OtpResponse.success(record.getId(), maskedIdentifier, record.getExpiresAt()));
+    }
+
+    private Mono<OtpResponse> doValidateOtp(OtpValidateRequest request) {
+        log.info("Validating OTP for identifier: {}, purpose: {}",
+                maskingUtil.maskIdentifier(request.getIdentifier()),
+                request.getPurpose());
+
+        // Reserve the hash comparison first: an overloaded pool sheds the request before it uses an attempt,
+        // then register the attempt atomically before spending CPU on the hash comparison
+        return Mono.using(hashingExecutor::reserve, slot -> otpRepository.attemptValidation(
+                        request.getIdentifier(), request.getPurpose(), config.getMaxAttempts())
+                .flatMap(attempt -> switch (attempt.status()) {
+                    case NOT_FOUND -> Mono.<OtpResponse>error(new OtpException(ErrorCode.OTP_NOT_FOUND));
+                    case MAX_ATTEMPTS -> Mono.<OtpResponse>error(new OtpException(ErrorCode.OTP_MAX_ATTEMPTS));
+                    case ACCEPTED -> verify(request, attempt, slot);
+                }), HashingExecutor.Reservation::close);
+    }
+
+    private Mono<OtpResponse> verify(OtpValidateRequest request, ValidationAttempt attempt,
+                                     HashingExecutor.Reservation slot) {
+        OtpRecord record = attempt.record();
+
+        // Check if already verified
+        if (record.isVerified()) {
+            return Mono.error(new OtpException(ErrorCode.OTP_ALREADY_VERIFIED));
+        }
+
+        // Check if expired
+        if (record.isExpired()) {
+            return otpRepository.delete(request.getIdentifier(), request.getPurpose())
+                    .then(Mono.error(new OtpException(ErrorCode.OTP_EXPIRED)));
+        }
+
+        return Mono.fromFuture(() -> hashingExecutor.verifyAsync(slot, request.getOtp(), record.getOtpHash()))
+                .flatMap(isValid -> {
+                    if (isValid) {
+                        return otpRepository.delete(request.getIdentifier(), request.getPurpose())
+                                .then(Mono.fromSupplier(() -> {
+                                    log.info("OTP validated successfully for {}",
+                                            maskingUtil.maskIdentifier(request.getIdentifier()));
+                                    return OtpResponse.validationSuccess(tokenIssuer.issue(
+                                            request.getIdentifier(), request.getPurpose()));
+                                }));
+                    }
+
+                    // Attempt was already counted by the repository
+                    int remaining = Math.max(0, config.getMaxAttempts() - attempt.attemptCount());
+                    log.warn("Invalid OTP attempt for {}, remaining: {}",
+                            maskingUtil.maskIdentifier(request.getIdentifier()), remaining);
+                    return Mono.just(OtpResponse.validationFailed(remaining, ErrorCode.OTP_INVALID.getCode()));
+                });
+    }
+
+    private Mono<OtpResponse> tracked(String operation, Mono<OtpResponse> action) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return action
+                    .doOnNext(response -> otpMetrics.recordRequest(operation,
+                            Boolean.FALSE.equals(response.getValid()) ? ErrorCode.OTP_INVALID.name() : OtpMetrics.SUCCESS,
+                            System.nanoTime() - start))
+                    .doOnError(e -> otpMetrics.recordRequest(operation,
+                            e instanceof OtpException otpException
+                                    ? otpException.getErrorCode().name()
+                                    : ErrorCode.INTERNAL_ERROR.name(),
+                            System.nanoTime() - start));
+        });
+    }
+
+    private OtpRecord newRecord(OtpGenerateRequest request, String hashedOtp, Instant now) {
+        return OtpRecord.builder()
+                .id(OtpRecord.generateId())
+                .identifier(request.getIdentifier())
+                .otpHash(hashedOtp)
+                .purpose(request.getPurpose())
+                .attemptCount(0)
+                .maxAttempts(config.getMaxAttempts())
+                .createdAt(now)
+                .expiresAt(now.plus(config.getExpiryMinutes(), ChronoUnit.MINUTES))
+                .verified(false)
+                .metadata(request.getMetadata())
+                .build();
+    }
+}
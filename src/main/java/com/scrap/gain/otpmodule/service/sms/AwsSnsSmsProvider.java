@@ -7,6 +7,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import reactor.core.publisher.Mono;
+import software.amazon.awssdk.services.sns.SnsAsyncClient;
 import software.amazon.awssdk.services.sns.SnsClient;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.sns.model.MessageAttributeValue;
@@ -16,6 +18,7 @@ import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 
 /**
  * AWS SNS SMS Provider implementation
@@ -28,6 +31,8 @@ public class AwsSnsSmsProvider implements SmsProvider {
 
     private final OtpConfigProperties config;
     private SnsClient snsClient;
+    // Non-blocking client (Netty based) used by the reactive stack
+    private SnsAsyncClient snsAsyncClient;
     private boolean initialized = false;
 
     @PostConstruct
@@ -46,6 +51,11 @@ public class AwsSnsSmsProvider implements SmsProvider {
                         .credentialsProvider(StaticCredentialsProvider.create(credentials))
                         .build();
 
+                snsAsyncClient = SnsAsyncClient.builder()
+                        .region(Region.of(awsConfig.getRegion()))
+                        .credentialsProvider(StaticCredentialsProvider.create(credentials))
+                        .build();
+
                 initialized = true;
                 log.info("AWS SNS SMS provider initialized successfully");
 
@@ -60,36 +70,46 @@ public class AwsSnsSmsProvider implements SmsProvider {
 
     @Override
     public boolean sendSms(String phoneNumber, String message) {
+        return sendTracked(phoneNumber, message).isPresent();
+    }
+
+    @Override
+    public Optional<SentMessage> sendTracked(String phoneNumber, String message) {
         if (!initialized || snsClient == null) {
             log.error("AWS SNS not initialized - cannot send SMS");
-            return false;
+            return Optional.empty();
         }
 
         try {
-            // Set SMS attributes for transactional messages
-            Map<String, MessageAttributeValue> smsAttributes = new HashMap<>();
-            smsAttributes.put("AWS.SNS.SMS.SMSType", MessageAttributeValue.builder()
-                    .stringValue("Transactional")
-                    .dataType("String")
-                    .build());
-
-            PublishRequest request = PublishRequest.builder()
-                    .message(message)
-                    .phoneNumber(phoneNumber)
-                    .messageAttributes(smsAttributes)
-                    .build();
-
-            PublishResponse response = snsClient.publish(request);
+            PublishResponse response = snsClient.publish(publishRequest(phoneNumber, message));
 
             log.info("SMS sent via AWS SNS. MessageId: {}", response.messageId());
-            return true;
+            return Optional.of(new SentMessage(getProviderName(), response.messageId()));
 
         } catch (Exception e) {
             log.error("Failed to send SMS via AWS SNS: {}", e.getMessage(), e);
-            return false;
+            return Optional.empty();
         }
     }
 
+    @Override
+    public Mono<SentMessage> sendTrackedReactive(String phoneNumber, String message) {
+        if (!initialized || snsAsyncClient == null) {
+            log.error("AWS SNS not initialized - cannot send SMS");
+            return Mono.empty();
+        }
+
+        return Mono.fromFuture(() -> snsAsyncClient.publish(publishRequest(phoneNumber, message)))
+                .map(response -> {
+                    log.info("SMS sent via AWS SNS. MessageId: {}", response.messageId());
+                    return new SentMessage(getProviderName(), response.messageId());
+                })
+                .onErrorResume(e -> {
+                    log.error("Failed to send SMS via AWS SNS: {}", e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
     @Override
     public String getProviderName() {
         return "AWS_SNS";
@@ -101,4 +121,19 @@ public class AwsSnsSmsProvider implements SmsProvider {
         return StringUtils.hasText(aws.getAccessKey())
                 && StringUtils.hasText(aws.getSecretKey());
     }
+
+    private static PublishRequest publishRequest(String phoneNumber, String message) {
+        // Set SMS attributes for transactional messages
+        Map<String, MessageAttributeValue> smsAttributes = new HashMap<>();
+        smsAttributes.put("AWS.SNS.SMS.SMSType", MessageAttributeValue.builder()
+                .stringValue("Transactional")
+                .dataType("String")
+                .build());
+
+        return PublishRequest.builder()
+                .message(message)
+                .phoneNumber(phoneNumber)
+                .messageAttributes(smsAttributes)
+                .build();
+    }
 }
@@ -0,0 +1,81 @@
+package com.scrap.gain.otpmodule.service.sms;
+
+import com.scrap.gain.otpmodule.model.enums.SmsDeliveryStatus;
+import org.springframework.util.StringUtils;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Final delivery outcome of one message, as reported by its provider
+ *
+ * @param provider          Provider name, as in SentMessage
+ * @param messageId         Provider message id
+ * @param status            DELIVERED or UNDELIVERED
+ * @param providerStatus    Raw provider status, for logs
+ * @param deliveredAtMillis When the outcome happened, provider time when reported, else receipt time
+ */
+public record DeliveryReceipt(String provider, String messageId, SmsDeliveryStatus status,
+                              String providerStatus, long deliveredAtMillis) {
+
+    private static final DateTimeFormatter SNS_TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+
+    /**
+     * Twilio status callback form parameters (MessageSid, MessageStatus)
+     * @return empty for intermediate statuses (queued, sending, sent) and malformed callbacks
+     */
+    public static Optional<DeliveryReceipt> fromTwilio(Map<String, String> params, long receivedAtMillis) {
+        String sid = params.get("MessageSid");
+        String status = params.get("MessageStatus");
+        if (!StringUtils.hasText(sid) || status == null) {
+            return Optional.empty();
+        }
+        SmsDeliveryStatus outcome = switch (status.toLowerCase(Locale.ROOT)) {
+            case "delivered", "read" -> SmsDeliveryStatus.DELIVERED;
+            case "undelivered", "failed" -> SmsDeliveryStatus.UNDELIVERED;
+            default -> null;
+        };
+        return outcome == null
+                ? Optional.empty()
+                : Optional.of(new DeliveryReceipt("TWILIO", sid, outcome, status, receivedAtMillis));
+    }
+
+    /**
+     * SNS SMS delivery-status log event, as forwarded from CloudWatch Logs:
+     * {"notification": {"messageId", "timestamp"}, "delivery": {"dwellTimeMsUntilDeviceAck", ...}, "status"}
+     * The device acknowledgement time (publish timestamp plus dwell time) is used when present.
+     */
+    public static Optional<DeliveryReceipt> fromSns(Map<?, ?> event, long receivedAtMillis) {
+        if (!(event.get("notification") instanceof Map<?, ?> notification)
+                || !(notification.get("messageId") instanceof String messageId)
+                || !(event.get("status") instanceof String status)) {
+            return Optional.empty();
+        }
+        SmsDeliveryStatus outcome = switch (status.toUpperCase(Locale.ROOT)) {
+            case "SUCCESS" -> SmsDeliveryStatus.DELIVERED;
+            case "FAILURE" -> SmsDeliveryStatus.UNDELIVERED;
+            default -> null;
+        };
+        if (outcome == null) {
+            return Optional.empty();
+        }
+
+        long deliveredAt = receivedAtMillis;
+        if (notification.get("timestamp") instanceof String timestamp
+                && event.get("delivery") instanceof Map<?, ?> delivery
+                && delivery.get("dwellTimeMsUntilDeviceAck") instanceof Number dwell) {
+            try {
+                deliveredAt = LocalDateTime.parse(timestamp, SNS_TIMESTAMP).toInstant(ZoneOffset.UTC).toEpochMilli()
+                        + dwell.longValue();
+            } catch (DateTimeParseException e) {
+                // Keep the receipt time
+            }
+        }
+        return Optional.of(new DeliveryReceipt("AWS_SNS", messageId, outcome, status, deliveredAt));
+    }
+}
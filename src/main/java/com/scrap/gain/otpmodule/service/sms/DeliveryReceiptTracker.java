@@ -0,0 +1,215 @@
+package com.scrap.gain.otpmodule.service.sms;
+
+import com.scrap.gain.otpmodule.config.OtpConfigProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Matches provider delivery receipts to OTP records (otp.sms.receipts.enabled)
+ *
+ * Every tracked send stores its message id with the record id, country prefix and send time
+ * in Redis, so a receipt can land on any node. Receipts are queued by the callback endpoints
+ * and processed in batches on one background thread: one MGET per batch, then
+ * - otp.sms.delivery.latency  timer per provider, country prefix and status (send to delivery)
+ * - otp.sms.receipts          counter per provider and result (status, unmatched or dropped)
+ * and the delivery status of the record is updated.
+ */
+@Slf4j
+@Component
+public class DeliveryReceiptTracker {
+
+    public static final String TWILIO_CALLBACK_PATH = "/api/v1/otp/receipts/twilio";
+    public static final String SNS_CALLBACK_PATH = "/api/v1/otp/receipts/sns";
+
+    private static final String KEY_PREFIX = "otp:receipt:";
+    private static final String UNKNOWN_COUNTRY = "unknown";
+
+    // Two-digit country calling codes; other codes starting with 2-9 have three digits, 1 and 7 have one
+    private static final Set<String> TWO_DIGIT_CODES = Set.of(
+            "20", "27", "30", "31", "32", "33", "34", "36", "39", "40", "41", "43", "44", "45", "46", "47",
+            "48", "49", "51", "52", "53", "54", "55", "56", "57", "58", "60", "61", "62", "63", "64", "65",
+            "66", "81", "82", "84", "86", "90", "91", "92", "93", "94", "95", "98");
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final SmsDispatcher smsDispatcher;
+    private final MeterRegistry registry;
+    private final OtpConfigProperties.ReceiptsConfig receipts;
+
+    private final BlockingQueue<DeliveryReceipt> queue;
+    private final Thread worker;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    public DeliveryReceiptTracker(StringRedisTemplate stringRedisTemplate,
+                                  SmsDispatcher smsDispatcher,
+                                  MeterRegistry registry,
+                                  OtpConfigProperties config) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.smsDispatcher = smsDispatcher;
+        this.registry = registry;
+        this.receipts = config.getSms().getReceipts();
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, receipts.getQueueCapacity()));
+
+        if (receipts.isEnabled()) {
+            Gauge.builder("otp.sms.receipts.queued", queue, BlockingQueue::size).register(registry);
+            worker = new Thread(this::drain, "sms-receipts");
+            worker.setDaemon(true);
+            worker.start();
+            log.info("Delivery receipt tracking enabled, callbacks at {} and {}",
+                    TWILIO_CALLBACK_PATH, SNS_CALLBACK_PATH);
+        } else {
+            worker = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return receipts.isEnabled();
+    }
+
+    /**
+     * Remember a sent message so its receipt can be matched to the OTP record
+     */
+    public void track(String referenceId, String phoneNumber, SentMessage sent) {
+        if (!isEnabled() || referenceId == null || sent.messageId() == null) {
+            return;
+        }
+        String value = referenceId + '|' + countryPrefix(phoneNumber) + '|' + System.currentTimeMillis();
+        try {
+            stringRedisTemplate.opsForValue().set(key(sent.provider(), sent.messageId()), value,
+                    Duration.ofMinutes(receipts.getCorrelationTtlMinutes()));
+        } catch (DataAccessException e) {
+            // Only metrics are lost, the SMS is already on its way
+            log.warn("Could not track {} message {}: {}", sent.provider(), sent.messageId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Queue a receipt for batch processing
+     * @return false if the queue is full and the receipt was dropped
+     */
+    public boolean submit(DeliveryReceipt receipt) {
+        if (queue.offer(receipt)) {
+            return true;
+        }
+        count(receipt.provider(), "dropped");
+        return false;
+    }
+
+    /**
+     * Match a batch of receipts to their sends, record delivery latency and status
+     */
+    public void process(List<DeliveryReceipt> batch) {
+        List<String> keys = batch.stream().map(receipt -> key(receipt.provider(), receipt.messageId())).toList();
+        List<String> sends = stringRedisTemplate.opsForValue().multiGet(keys);
+
+        List<String> matched = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            DeliveryReceipt receipt = batch.get(i);
+            String send = sends == null ? null : sends.get(i);
+            if (send == null) {
+                // Expired correlation, another environment's message, or a duplicate receipt
+                count(receipt.provider(), "unmatched");
+                continue;
+            }
+
+            String[] parts = send.split("\\|", 3);
+            long latencyMillis = Math.max(0, receipt.deliveredAtMillis() - Long.parseLong(parts[2]));
+            latencyTimer(receipt.provider(), parts[1], receipt.status().name())
+                    .record(latencyMillis, TimeUnit.MILLISECONDS);
+            smsDispatcher.recordStatus(parts[0], receipt.status());
+            count(receipt.provider(), receipt.status().name());
+            matched.add(keys.get(i));
+
+            log.debug("{} receipt for reference {}: {} after {} ms",
+                    receipt.provider(), parts[0], receipt.providerStatus(), latencyMillis);
+        }
+
+        if (!matched.isEmpty()) {
+            stringRedisTemplate.delete(matched);
+        }
+    }
+
+    /**
+     * Country calling code of an E.164 number (ITU zone rules), "unknown" for anything else
+     * Bounded, so it can be used as a metric tag.
+     */
+    public static String countryPrefix(String phoneNumber) {
+        if (phoneNumber == null || phoneNumber.length() < 5 || phoneNumber.charAt(0) != '+'
+                || !Character.isDigit(phoneNumber.charAt(1)) || phoneNumber.charAt(1) == '0') {
+            return UNKNOWN_COUNTRY;
+        }
+        char zone = phoneNumber.charAt(1);
+        if (zone == '1' || zone == '7') {
+            return String.valueOf(zone);
+        }
+        String two = phoneNumber.substring(1, 3);
+        String three = phoneNumber.substring(1, 4);
+        if (TWO_DIGIT_CODES.contains(two)) {
+            return two;
+        }
+        return three.chars().allMatch(Character::isDigit) ? three : UNKNOWN_COUNTRY;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    private void drain() {
+        List<DeliveryReceipt> batch = new ArrayList<>(receipts.getBatchSize());
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                batch.add(queue.take());
+                queue.drainTo(batch, receipts.getBatchSize() - 1);
+                process(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                log.warn("Dropped {} delivery receipts: {}", batch.size(), e.getMessage());
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private Timer latencyTimer(String provider, String country, String status) {
+        return timers.computeIfAbsent(provider + '|' + country + '|' + status,
+                key -> Timer.builder("otp.sms.delivery.latency")
+                        .tag("provider", provider)
+                        .tag("country", country)
+                        .tag("status", status)
+                        .publishPercentileHistogram()
+                        .register(registry));
+    }
+
+    private void count(String provider, String result) {
+        counters.computeIfAbsent(provider + '|' + result, key -> Counter.builder("otp.sms.receipts")
+                        .tag("provider", provider)
+                        .tag("result", result)
+                        .register(registry))
+                .increment();
+    }
+
+    private static String key(String provider, String messageId) {
+        return KEY_PREFIX + provider + ':' + messageId;
+    }
+}
@@ -0,0 +1,52 @@
+package com.scrap.gain.otpmodule.service.sms;
+
+import com.scrap.gain.otpmodule.config.OtpConfigProperties;
+import com.scrap.gain.otpmodule.model.enums.SmsDeliveryStatus;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fake provider callbacks for the MOCK provider (otp.sms.receipts.mock-callbacks)
+ * Every mock send gets a DELIVERED receipt after a fixed delay, so the receipt pipeline
+ * and latency metrics can be exercised locally and in load tests without a real provider.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "otp.sms.receipts.mock-callbacks", havingValue = "true")
+public class MockDeliveryReceiptSender {
+
+    private final DeliveryReceiptTracker receiptTracker;
+    private final long delayMillis;
+    private final ScheduledExecutorService scheduler;
+
+    public MockDeliveryReceiptSender(DeliveryReceiptTracker receiptTracker, OtpConfigProperties config) {
+        this.receiptTracker = receiptTracker;
+        this.delayMillis = config.getSms().getReceipts().getMockCallbackDelayMillis();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sms-mock-receipts");
+            thread.setDaemon(true);
+            return thread;
+        });
+        log.warn("Mock delivery receipts enabled - every MOCK send is reported as delivered");
+    }
+
+    /**
+     * Report the message as delivered once the configured delay has passed
+     */
+    public void onSent(SentMessage sent) {
+        scheduler.schedule(() -> receiptTracker.submit(new DeliveryReceipt(sent.provider(), sent.messageId(),
+                        SmsDeliveryStatus.DELIVERED, "delivered", System.currentTimeMillis())),
+                delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
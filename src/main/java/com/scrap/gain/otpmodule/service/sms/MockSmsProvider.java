@@ -1,27 +1,36 @@
 package com.scrap.gain.otpmodule.service.sms;
 
+import com.scrap.gain.otpmodule.config.OtpConfigProperties;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
 
 /**
  * Mock SMS Provider for development and testing
- * Logs OTP to console instead of sending actual SMS
+ * Logs OTP to console instead of sending actual SMS, and hands it to any SmsCaptureHook beans
  */
 @Slf4j
 @Component("mockSmsProvider")
+@RequiredArgsConstructor
 public class MockSmsProvider implements SmsProvider {
 
+    private final OtpConfigProperties config;
+    private final ObjectProvider<SmsCaptureHook> captureHooks;
+    private final ObjectProvider<MockDeliveryReceiptSender> receiptSender;
+
     @Override
     public boolean sendSms(String phoneNumber, String message) {
-        log.info("========================================");
-        log.info("📱 MOCK SMS SENT");
-        log.info("To: {}", phoneNumber);
-        log.info("Message: {}", message);
-        log.info("========================================");
+        logMessage(phoneNumber, message);
 
         // Simulate network delay
         try {
-            Thread.sleep(100);
+            Thread.sleep(config.getSms().getMockDelayMillis());
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
         }
@@ -29,6 +38,26 @@ public class MockSmsProvider implements SmsProvider {
         return true;
     }
 
+    @Override
+    public Optional<SentMessage> sendTracked(String phoneNumber, String message) {
+        sendSms(phoneNumber, message);
+        SentMessage sent = new SentMessage(getProviderName(), "mock-" + UUID.randomUUID());
+        receiptSender.ifAvailable(sender -> sender.onSent(sent));
+        return Optional.of(sent);
+    }
+
+    @Override
+    public Mono<SentMessage> sendTrackedReactive(String phoneNumber, String message) {
+        // Simulated delay on a timer instead of a sleeping thread
+        return Mono.delay(Duration.ofMillis(config.getSms().getMockDelayMillis()))
+                .map(tick -> {
+                    logMessage(phoneNumber, message);
+                    SentMessage sent = new SentMessage(getProviderName(), "mock-" + UUID.randomUUID());
+                    receiptSender.ifAvailable(sender -> sender.onSent(sent));
+                    return sent;
+                });
+    }
+
     @Override
     public String getProviderName() {
         return "MOCK";
@@ -38,4 +67,13 @@ public class MockSmsProvider implements SmsProvider {
     public boolean isConfigured() {
         return true; // Always configured
     }
+
+    private void logMessage(String phoneNumber, String message) {
+        log.info("========================================");
+        log.info("📱 MOCK SMS SENT");
+        log.info("To: {}", phoneNumber);
+        log.info("Message: {}", message);
+        log.info("========================================");
+        captureHooks.forEach(hook -> hook.onSend(phoneNumber, message));
+    }
 }
@@ -0,0 +1,256 @@
+package com.scrap.gain.otpmodule.service.sms;
+
+import com.scrap.gain.otpmodule.config.OtpConfigProperties;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Composite SMS provider that routes each send to the healthiest provider
+ *
+ * Providers are ranked by recent error rate and median latency. A failed send
+ * fails over to the next provider. Stats only cover the last statsMaxAgeMillis,
+ * so a provider ranked last gets a probe send once its failures age out.
+ * With hedging enabled, a second provider is started when the first is slower
+ * than its configured latency percentile and the first success wins (the user
+ * may then receive the same OTP twice).
+ */
+@Slf4j
+public class RoutingSmsProvider implements SmsProvider, AutoCloseable {
+
+    private final Map<SmsProvider, ProviderStats> providers = new LinkedHashMap<>();
+    private final OtpConfigProperties.RoutingConfig config;
+    private final ExecutorService hedgeExecutor;
+
+    public RoutingSmsProvider(List<SmsProvider> providers, OtpConfigProperties.RoutingConfig config) {
+        if (providers.isEmpty()) {
+            throw new IllegalArgumentException("At least one SMS provider is required for routing");
+        }
+        providers.forEach(provider -> this.providers.put(provider,
+                new ProviderStats(config.getWindowSize(), config.getStatsMaxAgeMillis())));
+        this.config = config;
+
+        // No queue: a hedged send either gets a thread now or isn't hedged
+        AtomicInteger threadCount = new AtomicInteger();
+        this.hedgeExecutor = new ThreadPoolExecutor(0, config.getHedgeThreads(), 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "sms-hedge-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @Override
+    public boolean sendSms(String phoneNumber, String message) {
+        return sendTracked(phoneNumber, message).isPresent();
+    }
+
+    /**
+     * Send through the ranked providers; the result names the provider that delivered it
+     */
+    @Override
+    public Optional<SentMessage> sendTracked(String phoneNumber, String message) {
+        List<SmsProvider> ranked = rankedProviders();
+
+        int next = 0;
+        if (config.isHedgingEnabled() && ranked.size() > 1) {
+            Optional<SentMessage> sent = sendHedged(ranked.get(0), ranked.get(1), phoneNumber, message);
+            if (sent.isPresent()) {
+                return sent;
+            }
+            next = 2;
+        }
+
+        for (int i = next; i < ranked.size(); i++) {
+            SmsProvider provider = ranked.get(i);
+            Optional<SentMessage> sent = timedSend(provider, phoneNumber, message);
+            if (sent.isPresent()) {
+                return sent;
+            }
+            log.warn("SMS via {} failed, failing over", provider.getProviderName());
+        }
+
+        log.error("All SMS providers failed");
+        return Optional.empty();
+    }
+
+    @Override
+    public String getProviderName() {
+        return "ROUTING";
+    }
+
+    @Override
+    public boolean isConfigured() {
+        return providers.keySet().stream().anyMatch(SmsProvider::isConfigured);
+    }
+
+    /**
+     * Providers ordered from healthiest to least healthy
+     */
+    public List<SmsProvider> rankedProviders() {
+        // Snapshot scores first, stats keep changing while we sort
+        Map<SmsProvider, Double> scores = new HashMap<>();
+        providers.forEach((provider, stats) -> scores.put(provider, stats.score()));
+
+        List<SmsProvider> ranked = new ArrayList<>(providers.keySet());
+        ranked.sort(Comparator.comparingDouble(scores::get));
+        return ranked;
+    }
+
+    @Override
+    public void close() {
+        hedgeExecutor.shutdownNow();
+    }
+
+    private Optional<SentMessage> sendHedged(SmsProvider primary, SmsProvider secondary,
+                                             String phoneNumber, String message) {
+        long hedgeDelay = Math.max(config.getMinHedgeDelayMillis(),
+                providers.get(primary).latencyPercentile(config.getHedgePercentile()));
+
+        CompletableFuture<Optional<SentMessage>> first;
+        try {
+            first = CompletableFuture.supplyAsync(() -> timedSend(primary, phoneNumber, message), hedgeExecutor);
+        } catch (RejectedExecutionException e) {
+            log.warn("No hedge thread free, sending via {} without hedging", primary.getProviderName());
+            first = CompletableFuture.completedFuture(timedSend(primary, phoneNumber, message));
+        }
+        try {
+            Optional<SentMessage> sent = first.get(hedgeDelay, TimeUnit.MILLISECONDS);
+            if (sent.isPresent()) {
+                return sent;
+            }
+            // Primary failed fast, plain failover
+            return timedSend(secondary, phoneNumber, message);
+        } catch (TimeoutException e) {
+            log.info("SMS via {} slower than {} ms, hedging with {}",
+                    primary.getProviderName(), hedgeDelay, secondary.getProviderName());
+        } catch (ExecutionException e) {
+            return timedSend(secondary, phoneNumber, message);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        }
+
+        CompletableFuture<Optional<SentMessage>> second;
+        try {
+            second = CompletableFuture.supplyAsync(() -> timedSend(secondary, phoneNumber, message), hedgeExecutor);
+        } catch (RejectedExecutionException e) {
+            log.warn("No hedge thread free, waiting for {}", primary.getProviderName());
+            Optional<SentMessage> sent = first.join();
+            return sent.isPresent() ? sent : timedSend(secondary, phoneNumber, message);
+        }
+
+        // First success wins; empty only once both have failed
+        CompletableFuture<Optional<SentMessage>> winner = new CompletableFuture<>();
+        AtomicInteger pending = new AtomicInteger(2);
+        for (CompletableFuture<Optional<SentMessage>> attempt : List.of(first, second)) {
+            attempt.whenComplete((sent, error) -> {
+                if (sent != null && sent.isPresent()) {
+                    winner.complete(sent);
+                } else if (pending.decrementAndGet() == 0) {
+                    winner.complete(Optional.empty());
+                }
+            });
+        }
+        return winner.join();
+    }
+
+    private Optional<SentMessage> timedSend(SmsProvider provider, String phoneNumber, String message) {
+        long start = System.nanoTime();
+        Optional<SentMessage> sent;
+        try {
+            sent = provider.sendTracked(phoneNumber, message);
+        } catch (Exception e) {
+            log.error("SMS provider {} threw: {}", provider.getProviderName(), e.getMessage());
+            sent = Optional.empty();
+        }
+        providers.get(provider).record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), sent.isPresent());
+        return sent;
+    }
+
+    /**
+     * Rolling window of recent send outcomes for one provider, ignoring sends older than maxAgeMillis
+     */
+    static final class ProviderStats {
+
+        // Penalty per unit of error rate, in milliseconds of latency
+        private static final double ERROR_PENALTY_MILLIS = 10_000;
+
+        private final long[] latencies;
+        private final boolean[] failures;
+        private final long[] recordedAt;
+        private final long maxAgeMillis;
+        private int next;
+        private int count;
+
+        ProviderStats(int windowSize, long maxAgeMillis) {
+            this.latencies = new long[windowSize];
+            this.failures = new boolean[windowSize];
+            this.recordedAt = new long[windowSize];
+            this.maxAgeMillis = maxAgeMillis;
+        }
+
+        synchronized void record(long latencyMillis, boolean success) {
+            latencies[next] = latencyMillis;
+            failures[next] = !success;
+            recordedAt[next] = System.currentTimeMillis();
+            next = (next + 1) % latencies.length;
+            count = Math.min(count + 1, latencies.length);
+        }
+
+        synchronized double errorRate() {
+            long oldest = System.currentTimeMillis() - maxAgeMillis;
+            int recent = 0;
+            int failed = 0;
+            for (int i = 0; i < count; i++) {
+                if (recordedAt[i] >= oldest) {
+                    recent++;
+                    if (failures[i]) {
+                        failed++;
+                    }
+                }
+            }
+            return recent == 0 ? 0 : (double) failed / recent;
+        }
+
+        synchronized long latencyPercentile(double percentile) {
+            long oldest = System.currentTimeMillis() - maxAgeMillis;
+            long[] sorted = new long[count];
+            int recent = 0;
+            for (int i = 0; i < count; i++) {
+                if (recordedAt[i] >= oldest) {
+                    sorted[recent++] = latencies[i];
+                }
+            }
+            if (recent == 0) {
+                return 0;
+            }
+            Arrays.sort(sorted, 0, recent);
+            int index = (int) Math.ceil(percentile * recent) - 1;
+            return sorted[Math.max(0, Math.min(index, recent - 1))];
+        }
+
+        /**
+         * Lower is healthier; providers without recent samples rank first so they get tried
+         */
+        double score() {
+            return latencyPercentile(0.5) + errorRate() * ERROR_PENALTY_MILLIS;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.scrap.gain.otpmodule.service.sms;
+
+/**
+ * A message accepted by an SMS provider
+ *
+ * @param provider  Provider that accepted it (the actual one when routing)
+ * @param messageId Provider message id (Twilio SID, SNS MessageId), null if the provider has none
+ */
+public record SentMessage(String provider, String messageId) {
+}
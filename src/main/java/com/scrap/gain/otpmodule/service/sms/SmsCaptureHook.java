@@ -0,0 +1,12 @@
+package com.scrap.gain.otpmodule.service.sms;
+
+/**
+ * Receives every message "sent" by MockSmsProvider
+ * Lets load tests and local tooling read OTPs without scraping logs.
+ * Never called by real providers.
+ */
+@FunctionalInterface
+public interface SmsCaptureHook {
+
+    void onSend(String phoneNumber, String message);
+}
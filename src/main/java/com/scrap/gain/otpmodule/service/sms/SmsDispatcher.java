@@ -0,0 +1,270 @@
+package com.scrap.gain.otpmodule.service.sms;
+
+import com.scrap.gain.otpmodule.config.OtpConfigProperties;
+import com.scrap.gain.otpmodule.exception.ErrorCode;
+import com.scrap.gain.otpmodule.exception.OtpException;
+import com.scrap.gain.otpmodule.model.enums.SmsDeliveryStatus;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded in-process queue for SMS sends
+ * Keeps provider round-trips off the request thread and tracks
+ * delivery status per OTP record id.
+ * Batches are sent in small chunks on at most workers - 1 workers at a time, and a
+ * batch lane goes back to the tail of the queue after every chunk, so single sends
+ * always find a worker within a chunk or two.
+ */
+@Slf4j
+@Component
+public class SmsDispatcher {
+
+    // Sends per batch chunk: short enough that single sends get a worker between chunks
+    private static final int BATCH_CHUNK_SIZE = 8;
+
+    private final ThreadPoolExecutor executor;
+    // Batch chunks waiting for a lane; their sends count against the queue capacity
+    private final Queue<List<String>> batchBacklog = new ConcurrentLinkedQueue<>();
+    private final Map<String, Runnable> batchSends = new ConcurrentHashMap<>();
+    private final AtomicInteger batchBacklogSends = new AtomicInteger();
+    // Workers batch chunks may hold at once
+    private final Semaphore batchLanes;
+    private final Map<String, DeliveryState> deliveryStates = new ConcurrentHashMap<>();
+    private final OtpConfigProperties config;
+    // Non-blocking sends started but not yet completed
+    private final AtomicInteger reactiveInFlight = new AtomicInteger();
+
+    public SmsDispatcher(OtpConfigProperties config) {
+        this.config = config;
+
+        var dispatch = config.getSms().getDispatch();
+        AtomicInteger threadCount = new AtomicInteger();
+
+        this.executor = new ThreadPoolExecutor(
+                dispatch.getWorkers(),
+                dispatch.getWorkers(),
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(dispatch.getQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "sms-dispatch-" + threadCount.incrementAndGet());
+                    thread.setDaemon(false);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+        this.batchLanes = new Semaphore(Math.max(1, dispatch.getWorkers() - 1));
+
+        log.info("SMS dispatcher started with {} workers, queue capacity {}",
+                dispatch.getWorkers(), dispatch.getQueueCapacity());
+    }
+
+    /**
+     * Enqueue a send for the given OTP record
+     * @throws OtpException with SMS_QUEUE_FULL when the queue is saturated
+     */
+    public void dispatch(String referenceId, Runnable send) {
+        updateStatus(referenceId, SmsDeliveryStatus.QUEUED);
+
+        try {
+            executor.execute(() -> {
+                send(referenceId, send);
+                startBatchLanes();
+            });
+        } catch (RejectedExecutionException e) {
+            deliveryStates.remove(referenceId);
+            log.warn("SMS dispatch queue full ({} pending), rejecting reference {}",
+                    executor.getQueue().size(), referenceId);
+            throw new OtpException(ErrorCode.SMS_QUEUE_FULL);
+        }
+    }
+
+    /**
+     * Enqueue many sends in small chunks, taking at most workers - 1 workers at a time
+     * Every send takes a place in the queue capacity until its chunk starts.
+     * @param sends send per OTP record id, in dispatch order
+     * @return record ids that were rejected because the queue is saturated
+     */
+    public List<String> dispatchBatch(Map<String, Runnable> sends) {
+        List<String> referenceIds = new ArrayList<>(sends.keySet());
+        int capacity = config.getSms().getDispatch().getQueueCapacity();
+        List<String> rejected = new ArrayList<>();
+
+        for (int from = 0; from < referenceIds.size(); from += BATCH_CHUNK_SIZE) {
+            List<String> chunk = referenceIds.subList(from, Math.min(from + BATCH_CHUNK_SIZE, referenceIds.size()));
+            if (executor.getQueue().size() + batchBacklogSends.addAndGet(chunk.size()) > capacity) {
+                batchBacklogSends.addAndGet(-chunk.size());
+                rejected.addAll(chunk);
+                continue;
+            }
+            chunk.forEach(referenceId -> {
+                updateStatus(referenceId, SmsDeliveryStatus.QUEUED);
+                batchSends.put(referenceId, sends.get(referenceId));
+            });
+            batchBacklog.add(chunk);
+        }
+        startBatchLanes();
+
+        if (!rejected.isEmpty()) {
+            log.warn("SMS dispatch queue full ({} pending), rejected {} of {} batched sends",
+                    executor.getQueue().size(), rejected.size(), referenceIds.size());
+        }
+        return rejected;
+    }
+
+    /**
+     * Start a non-blocking send and track its status without using a worker
+     * In-flight sends are bounded by the queue capacity, as for queued sends.
+     * @throws OtpException with SMS_QUEUE_FULL when too many sends are in flight
+     */
+    public void dispatchReactive(String referenceId, Mono<Boolean> send) {
+        int limit = config.getSms().getDispatch().getQueueCapacity();
+        if (reactiveInFlight.incrementAndGet() > limit) {
+            reactiveInFlight.decrementAndGet();
+            log.warn("{} non-blocking SMS sends in flight, rejecting reference {}", limit, referenceId);
+            throw new OtpException(ErrorCode.SMS_QUEUE_FULL);
+        }
+
+        updateStatus(referenceId, SmsDeliveryStatus.QUEUED);
+        send.doOnSubscribe(subscription -> updateStatus(referenceId, SmsDeliveryStatus.SENDING))
+                .doFinally(signal -> reactiveInFlight.decrementAndGet())
+                .subscribe(
+                        sent -> updateStatus(referenceId,
+                                sent ? SmsDeliveryStatus.SENT : SmsDeliveryStatus.FAILED),
+                        error -> {
+                            log.error("SMS dispatch failed for reference {}: {}", referenceId, error.getMessage());
+                            updateStatus(referenceId, SmsDeliveryStatus.FAILED);
+                        });
+    }
+
+    /**
+     * Record the status of a send handled outside this queue (SMS outbox workers)
+     */
+    public void recordStatus(String referenceId, SmsDeliveryStatus status) {
+        updateStatus(referenceId, status);
+    }
+
+    /**
+     * Get last known delivery status for an OTP record id
+     */
+    public Optional<SmsDeliveryStatus> getStatus(String referenceId) {
+        return Optional.ofNullable(deliveryStates.get(referenceId))
+                .map(DeliveryState::status);
+    }
+
+    /**
+     * Number of sends waiting for a worker
+     */
+    public int getQueueDepth() {
+        return executor.getQueue().size() + batchBacklogSends.get();
+    }
+
+    /**
+     * Drop statuses that outlived the OTP they belong to
+     */
+    @Scheduled(fixedDelay = 60_000)
+    public void purgeExpiredStatuses() {
+        Instant cutoff = Instant.now().minus(Duration.ofMinutes(config.getExpiryMinutes()));
+        deliveryStates.values().removeIf(state -> state.updatedAt().isBefore(cutoff));
+    }
+
+    /**
+     * Stop accepting sends and drain what is already queued
+     */
+    @PreDestroy
+    public void shutdown() {
+        int timeout = config.getSms().getDispatch().getShutdownTimeoutSeconds();
+        log.info("Draining SMS dispatch queue ({} pending), timeout {}s",
+                executor.getQueue().size(), timeout);
+
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(timeout, TimeUnit.SECONDS)) {
+                List<Runnable> dropped = executor.shutdownNow();
+                log.error("SMS dispatch drain timed out, {} sends dropped", dropped.size());
+            }
+            if (batchBacklogSends.get() > 0) {
+                log.error("SMS dispatch stopped with {} batched sends not started", batchBacklogSends.get());
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Give waiting batch chunks a lane each while lanes are free
+     */
+    private void startBatchLanes() {
+        while (!batchBacklog.isEmpty() && batchLanes.tryAcquire()) {
+            try {
+                executor.execute(this::runBatchLane);
+            } catch (RejectedExecutionException e) {
+                // Queue full: the next send to finish starts the lane
+                batchLanes.release();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Send one chunk, then go back to the tail of the queue while chunks are waiting,
+     * so single sends queued meanwhile go first. Runs holding a batch lane.
+     */
+    private void runBatchLane() {
+        List<String> chunk = batchBacklog.poll();
+        while (chunk != null) {
+            batchBacklogSends.addAndGet(-chunk.size());
+            chunk.forEach(referenceId -> send(referenceId, batchSends.remove(referenceId)));
+            if (batchBacklog.isEmpty()) {
+                break;
+            }
+            try {
+                executor.execute(this::runBatchLane);
+                return;
+            } catch (RejectedExecutionException e) {
+                // Queue full or shutting down: keep the lane on this worker
+                chunk = batchBacklog.poll();
+            }
+        }
+        batchLanes.release();
+        // Chunks added after the check above
+        startBatchLanes();
+    }
+
+    private void send(String referenceId, Runnable send) {
+        updateStatus(referenceId, SmsDeliveryStatus.SENDING);
+        try {
+            send.run();
+            updateStatus(referenceId, SmsDeliveryStatus.SENT);
+        } catch (Exception e) {
+            log.error("SMS dispatch failed for reference {}: {}", referenceId, e.getMessage());
+            updateStatus(referenceId, SmsDeliveryStatus.FAILED);
+        }
+    }
+
+    private void updateStatus(String referenceId, SmsDeliveryStatus status) {
+        deliveryStates.put(referenceId, new DeliveryState(status, Instant.now()));
+    }
+
+    private record DeliveryState(SmsDeliveryStatus status, Instant updatedAt) {
+    }
+}
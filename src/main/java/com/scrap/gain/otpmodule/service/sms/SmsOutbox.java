@@ -0,0 +1,168 @@
+package com.scrap.gain.otpmodule.service.sms;
+
+import com.scrap.gain.otpmodule.config.OtpConfigProperties;
+import com.scrap.gain.otpmodule.entity.OtpRecord;
+import com.scrap.gain.otpmodule.model.OtpPurpose;
+import com.scrap.gain.otpmodule.model.enums.SmsDeliveryStatus;
+import com.scrap.gain.otpmodule.repository.OutboxEntry;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Durable SMS outbox on a Redis stream (otp.sms.outbox.enabled)
+ *
+ * Send jobs are appended to the job stream in the same pipeline as the OTP record write, and
+ * sent by SmsOutboxWorker consumers on any node once that record is live: a node dying after
+ * the write still leaves a job to send, and a job whose write lost a race is never sent.
+ * Jobs carry the plain OTP, so each one is sealed with AES-GCM under otp.sms.outbox.secret.
+ * When the stream can't be reached the caller sends from this node's SmsDispatcher queue.
+ */
+@Component
+public class SmsOutbox {
+
+    // One hash tag so the scripts touching all three keys run in a single cluster slot
+    public static final String STREAM_KEY = "otp:{sms-outbox}:jobs";
+    public static final String RETRY_KEY = "otp:{sms-outbox}:retry";
+    public static final String DEAD_LETTER_KEY = "otp:{sms-outbox}:dead";
+    public static final String JOB_FIELD = "job";
+
+    private static final String CIPHER = "AES/GCM/NoPadding";
+    private static final int IV_BYTES = 12;
+    private static final int TAG_BITS = 128;
+    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
+
+    private final SmsDispatcher smsDispatcher;
+    private final OtpConfigProperties.OutboxConfig outbox;
+    // Null when the outbox is disabled
+    private final SecretKeySpec key;
+
+    public SmsOutbox(SmsDispatcher smsDispatcher, OtpConfigProperties config) {
+        this.smsDispatcher = smsDispatcher;
+        this.outbox = config.getSms().getOutbox();
+        this.key = outbox.isEnabled() ? keyOf(outbox.getSecret()) : null;
+    }
+
+    public boolean isEnabled() {
+        return key != null;
+    }
+
+    /**
+     * Send job for a record about to be written, appended in the same pipeline as the write
+     * (OtpRepository#createIfAbsent(OtpRecord, OutboxEntry))
+     * @return null when the outbox is disabled
+     */
+    public OutboxEntry jobFor(OtpRecord record, String phoneNumber, String otp) {
+        if (!isEnabled()) {
+            return null;
+        }
+        Job job = new Job(record.getId(), phoneNumber, otp, 0, record.getExpiresAt().toEpochMilli(),
+                record.getPurpose());
+        return new OutboxEntry(STREAM_KEY, Map.of(JOB_FIELD, encode(job)), outbox.getMaxLength());
+    }
+
+    /**
+     * Record that a job reached the stream and now waits for a worker
+     */
+    public void markQueued(String referenceId) {
+        smsDispatcher.recordStatus(referenceId, SmsDeliveryStatus.QUEUED);
+    }
+
+    /**
+     * Seal a job into its stream field value
+     */
+    public String encode(Job job) {
+        String plain = String.join("\n", job.referenceId(), job.phoneNumber(), job.otp(),
+                String.valueOf(job.attempt()), String.valueOf(job.expiresAtMillis()),
+                job.purpose() == null ? "" : job.purpose().name());
+        byte[] iv = new byte[IV_BYTES];
+        SECURE_RANDOM.nextBytes(iv);
+        try {
+            Cipher cipher = Cipher.getInstance(CIPHER);
+            cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, iv));
+            byte[] sealed = cipher.doFinal(plain.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(
+                    ByteBuffer.allocate(IV_BYTES + sealed.length).put(iv).put(sealed).array());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot seal SMS outbox job", e);
+        }
+    }
+
+    /**
+     * Open a sealed job
+     * @return empty if the value is malformed or was sealed with another secret
+     */
+    public Optional<Job> decode(String value) {
+        try {
+            byte[] raw = Base64.getUrlDecoder().decode(value);
+            if (raw.length <= IV_BYTES) {
+                return Optional.empty();
+            }
+            Cipher cipher = Cipher.getInstance(CIPHER);
+            cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, raw, 0, IV_BYTES));
+            String[] parts = new String(cipher.doFinal(raw, IV_BYTES, raw.length - IV_BYTES),
+                    StandardCharsets.UTF_8).split("\n", -1);
+            // Jobs sealed before the purpose was added have five parts
+            if (parts.length != 5 && parts.length != 6) {
+                return Optional.empty();
+            }
+            OtpPurpose purpose = parts.length == 6 && !parts[5].isEmpty() ? OtpPurpose.valueOf(parts[5]) : null;
+            return Optional.of(new Job(parts[0], parts[1], parts[2],
+                    Integer.parseInt(parts[3]), Long.parseLong(parts[4]), purpose));
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Delay before the given retry, doubling from the base up to the max
+     */
+    public Duration retryDelay(int attempt) {
+        long delay = outbox.getRetryBaseMillis() << Math.min(Math.max(attempt - 1, 0), 20);
+        return Duration.ofMillis(Math.min(delay, outbox.getRetryMaxMillis()));
+    }
+
+    private static SecretKeySpec keyOf(String secret) {
+        if (!StringUtils.hasText(secret)) {
+            throw new IllegalStateException("otp.sms.outbox.secret is required when the SMS outbox is enabled");
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(secret.getBytes(StandardCharsets.UTF_8));
+            return new SecretKeySpec(digest, "AES");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * One OTP send waiting in the outbox
+     *
+     * @param referenceId     OTP record id used for delivery status tracking
+     * @param attempt         Failed sends so far
+     * @param expiresAtMillis OTP expiry, after which the job is dropped
+     * @param purpose         Purpose of the OTP record the job belongs to, null for older jobs
+     */
+    public record Job(String referenceId, String phoneNumber, String otp, int attempt, long expiresAtMillis,
+                      OtpPurpose purpose) {
+
+        public Job nextAttempt() {
+            return new Job(referenceId, phoneNumber, otp, attempt + 1, expiresAtMillis, purpose);
+        }
+
+        public boolean isExpired(long nowMillis) {
+            return nowMillis >= expiresAtMillis;
+        }
+    }
+}
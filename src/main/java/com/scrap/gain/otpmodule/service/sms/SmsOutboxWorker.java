@@ -0,0 +1,393 @@
+package com.scrap.gain.otpmodule.service.sms;
+
+import com.scrap.gain.otpmodule.config.OtpConfigProperties;
+import com.scrap.gain.otpmodule.entity.OtpRecord;
+import com.scrap.gain.otpmodule.model.enums.SmsDeliveryStatus;
+import com.scrap.gain.otpmodule.repository.OtpRepository;
+import com.scrap.gain.otpmodule.service.SmsService;
+import com.scrap.gain.otpmodule.service.sms.SmsOutbox.Job;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Consumer-group workers sending the jobs in the SMS outbox stream
+ *
+ * Each worker reads new entries with XREADGROUP and acknowledges (and deletes) an entry
+ * once its SMS is sent. Failed sends are moved to a retry sorted set with exponential
+ * backoff and put back on the stream when due; jobs that run out of attempts or outlive
+ * their OTP go to the dead-letter stream without the OTP. Entries left pending by a dead
+ * consumer are taken over with XAUTOCLAIM, so a job is sent at least once.
+ * Jobs are appended before their OTP record is written, so a job is only sent while its
+ * record is the live one: jobs whose record was replaced, or never appeared within
+ * RECORD_GRACE_MILLIS, are dropped.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "otp.sms.outbox.enabled", havingValue = "true")
+public class SmsOutboxWorker {
+
+    public static final String GROUP = "otp-sms-senders";
+
+    private static final long HOUSEKEEPING_INTERVAL_MILLIS = 1000;
+    private static final long BACKOFF_MILLIS = 1000;
+    // Time the generating node has to write the record after appending its job
+    private static final long RECORD_GRACE_MILLIS = 5000;
+
+    /**
+     * KEYS[1] = job stream, ARGV[1] = group, ARGV[2] = entry id
+     */
+    private static final RedisScript<Long> COMPLETE_SCRIPT = RedisScript.of("""
+            redis.call('XACK', KEYS[1], ARGV[1], ARGV[2])
+            return redis.call('XDEL', KEYS[1], ARGV[2])
+            """, Long.class);
+
+    /**
+     * KEYS[1] = job stream, KEYS[2] = retry set
+     * ARGV[1] = group, ARGV[2] = entry id, ARGV[3] = due epoch millis, ARGV[4] = sealed job
+     */
+    private static final RedisScript<Long> RETRY_SCRIPT = RedisScript.of("""
+            redis.call('ZADD', KEYS[2], ARGV[3], ARGV[4])
+            redis.call('XACK', KEYS[1], ARGV[1], ARGV[2])
+            return redis.call('XDEL', KEYS[1], ARGV[2])
+            """, Long.class);
+
+    /**
+     * KEYS[1] = job stream, KEYS[2] = dead-letter stream
+     * ARGV[1] = group, ARGV[2] = entry id, ARGV[3] = max length,
+     * ARGV[4] = reference id, ARGV[5] = attempts, ARGV[6] = reason
+     */
+    private static final RedisScript<Long> DEAD_LETTER_SCRIPT = RedisScript.of("""
+            redis.call('XADD', KEYS[2], 'MAXLEN', '~', ARGV[3], '*',
+                'ref', ARGV[4], 'attempts', ARGV[5], 'reason', ARGV[6])
+            redis.call('XACK', KEYS[1], ARGV[1], ARGV[2])
+            return redis.call('XDEL', KEYS[1], ARGV[2])
+            """, Long.class);
+
+    /**
+     * KEYS[1] = job stream, KEYS[2] = retry set
+     * ARGV[1] = now epoch millis, ARGV[2] = max jobs to move, ARGV[3] = max length, ARGV[4] = job field
+     * Returns the number of due retries put back on the stream
+     */
+    private static final RedisScript<Long> PROMOTE_SCRIPT = RedisScript.of("""
+            local due = redis.call('ZRANGEBYSCORE', KEYS[2], '-inf', ARGV[1], 'LIMIT', 0, tonumber(ARGV[2]))
+            for _, job in ipairs(due) do
+                redis.call('XADD', KEYS[1], 'MAXLEN', '~', ARGV[3], '*', ARGV[4], job)
+                redis.call('ZREM', KEYS[2], job)
+            end
+            return #due
+            """, Long.class);
+
+    /**
+     * KEYS[1] = job stream
+     * ARGV[1] = group, ARGV[2] = consumer, ARGV[3] = min idle millis, ARGV[4] = count, ARGV[5] = job field
+     * Returns claimed entries as a flat list of entry id, sealed job pairs
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> CLAIM_SCRIPT = RedisScript.of("""
+            local reply = redis.call('XAUTOCLAIM', KEYS[1], ARGV[1], ARGV[2], ARGV[3], '0-0', 'COUNT', ARGV[4])
+            local claimed = {}
+            for _, entry in ipairs(reply[2]) do
+                local job = false
+                if entry[2] then
+                    for i = 1, #entry[2], 2 do
+                        if entry[2][i] == ARGV[5] then
+                            job = entry[2][i + 1]
+                        end
+                    end
+                end
+                if job then
+                    table.insert(claimed, entry[1])
+                    table.insert(claimed, job)
+                else
+                    -- Trimmed from the stream while pending (Redis 6.2 still returns it)
+                    redis.call('XACK', KEYS[1], ARGV[1], entry[1])
+                end
+            end
+            return claimed
+            """, List.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final SmsOutbox smsOutbox;
+    private final SmsService smsService;
+    private final SmsDispatcher smsDispatcher;
+    private final OtpRepository otpRepository;
+    private final OtpConfigProperties.OutboxConfig outbox;
+    private final long expiryMillis;
+    private final String consumerName;
+
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running = true;
+    private volatile boolean groupReady;
+    private final AtomicLong lastHousekeeping = new AtomicLong();
+
+    private final Counter sent;
+    private final Counter retried;
+    private final Counter deadLettered;
+    private final Counter dropped;
+
+    public SmsOutboxWorker(StringRedisTemplate stringRedisTemplate,
+                           SmsOutbox smsOutbox,
+                           SmsService smsService,
+                           SmsDispatcher smsDispatcher,
+                           OtpRepository otpRepository,
+                           OtpConfigProperties config,
+                           MeterRegistry registry,
+                           @Value("${spring.data.redis.timeout:#{null}}") Duration commandTimeout) {
+        OtpConfigProperties.OutboxConfig outboxConfig = config.getSms().getOutbox();
+        if (commandTimeout != null && outboxConfig.getBlockMillis() >= commandTimeout.toMillis()) {
+            throw new IllegalStateException("otp.sms.outbox.block-millis (" + outboxConfig.getBlockMillis()
+                    + ") must be below spring.data.redis.timeout (" + commandTimeout.toMillis() + " ms)");
+        }
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.smsOutbox = smsOutbox;
+        this.smsService = smsService;
+        this.smsDispatcher = smsDispatcher;
+        this.otpRepository = otpRepository;
+        this.outbox = outboxConfig;
+        this.expiryMillis = Duration.ofMinutes(config.getExpiryMinutes()).toMillis();
+        this.consumerName = StringUtils.hasText(outbox.getConsumerName())
+                ? outbox.getConsumerName() : defaultConsumerName();
+
+        this.sent = Counter.builder("otp.sms.outbox.jobs").tag("result", "sent").register(registry);
+        this.retried = Counter.builder("otp.sms.outbox.jobs").tag("result", "retried").register(registry);
+        this.deadLettered = Counter.builder("otp.sms.outbox.jobs").tag("result", "dead").register(registry);
+        this.dropped = Counter.builder("otp.sms.outbox.jobs").tag("result", "dropped").register(registry);
+
+        for (int i = 1; i <= outbox.getWorkers(); i++) {
+            String consumer = consumerName + "-" + i;
+            Thread worker = new Thread(() -> consume(consumer), "sms-outbox-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+        log.info("SMS outbox started with {} workers as consumer {} in group {}",
+                outbox.getWorkers(), consumerName, GROUP);
+    }
+
+    /**
+     * Send one job read from the stream, then acknowledge, retry or dead-letter it
+     */
+    public void handle(String entryId, String sealedJob) {
+        Optional<Job> decoded = sealedJob == null ? Optional.empty() : smsOutbox.decode(sealedJob);
+        if (decoded.isEmpty()) {
+            log.error("Unreadable SMS outbox entry {}, check otp.sms.outbox.secret on every node", entryId);
+            deadLetter(entryId, null, "UNREADABLE");
+            return;
+        }
+
+        Job job = decoded.get();
+        long now = System.currentTimeMillis();
+        if (job.isExpired(now)) {
+            deadLetter(entryId, job, "EXPIRED");
+            return;
+        }
+        if (!isLive(entryId, job, now)) {
+            return;
+        }
+
+        smsDispatcher.recordStatus(job.referenceId(), SmsDeliveryStatus.SENDING);
+        try {
+            smsService.sendOtp(job.referenceId(), job.phoneNumber(), job.otp());
+        } catch (RuntimeException e) {
+            retryOrDeadLetter(entryId, job, e);
+            return;
+        }
+
+        stringRedisTemplate.execute(COMPLETE_SCRIPT, List.of(SmsOutbox.STREAM_KEY), GROUP, entryId);
+        smsDispatcher.recordStatus(job.referenceId(), SmsDeliveryStatus.SENT);
+        sent.increment();
+    }
+
+    /**
+     * Put due retries back on the stream and take over entries stuck with dead consumers
+     */
+    public void housekeeping(String consumer) {
+        long now = System.currentTimeMillis();
+        Long promoted = stringRedisTemplate.execute(PROMOTE_SCRIPT,
+                List.of(SmsOutbox.STREAM_KEY, SmsOutbox.RETRY_KEY),
+                String.valueOf(now), String.valueOf(outbox.getBatchSize()),
+                String.valueOf(outbox.getMaxLength()), SmsOutbox.JOB_FIELD);
+        if (promoted != null && promoted > 0) {
+            log.debug("Moved {} due SMS retries back to the outbox", promoted);
+        }
+
+        List<?> claimed = stringRedisTemplate.execute(CLAIM_SCRIPT, List.of(SmsOutbox.STREAM_KEY),
+                GROUP, consumer, String.valueOf(outbox.getClaimIdleMillis()),
+                String.valueOf(outbox.getBatchSize()), SmsOutbox.JOB_FIELD);
+        if (claimed != null && !claimed.isEmpty()) {
+            log.warn("Reclaimed {} stuck SMS outbox entries", claimed.size() / 2);
+            for (int i = 0; i + 1 < claimed.size(); i += 2) {
+                handle(String.valueOf(claimed.get(i)), String.valueOf(claimed.get(i + 1)));
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        workers.forEach(Thread::interrupt);
+        for (Thread worker : workers) {
+            try {
+                worker.join(outbox.getBlockMillis() + BACKOFF_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void consume(String consumer) {
+        while (running && !Thread.currentThread().isInterrupted()) {
+            try {
+                ensureGroup();
+                if (dueForHousekeeping()) {
+                    housekeeping(consumer);
+                }
+
+                List<MapRecord<String, Object, Object>> entries = stringRedisTemplate.opsForStream().read(
+                        Consumer.from(GROUP, consumer),
+                        StreamReadOptions.empty().count(outbox.getBatchSize())
+                                .block(Duration.ofMillis(outbox.getBlockMillis())),
+                        StreamOffset.create(SmsOutbox.STREAM_KEY, ReadOffset.lastConsumed()));
+                if (entries != null) {
+                    for (MapRecord<String, Object, Object> entry : entries) {
+                        Object job = entry.getValue().get(SmsOutbox.JOB_FIELD);
+                        handle(entry.getId().getValue(), job == null ? null : job.toString());
+                    }
+                }
+            } catch (RuntimeException e) {
+                if (!running) {
+                    return;
+                }
+                // The group may be gone with the stream, recreate it on the next pass
+                groupReady = false;
+                log.warn("SMS outbox unavailable: {}", e.getMessage());
+                sleepQuietly();
+            }
+        }
+    }
+
+    private void ensureGroup() {
+        if (groupReady) {
+            return;
+        }
+        try {
+            stringRedisTemplate.execute((RedisCallback<String>) connection -> connection.streamCommands()
+                    .xGroupCreate(SmsOutbox.STREAM_KEY.getBytes(StandardCharsets.UTF_8), GROUP,
+                            ReadOffset.from("0"), true));
+            log.info("Created SMS outbox consumer group {}", GROUP);
+        } catch (DataAccessException e) {
+            if (!String.valueOf(e.getMostSpecificCause().getMessage()).contains("BUSYGROUP")) {
+                throw e;
+            }
+        }
+        groupReady = true;
+    }
+
+    private boolean dueForHousekeeping() {
+        long now = System.currentTimeMillis();
+        long last = lastHousekeeping.get();
+        // One worker per interval on this node
+        return now - last >= HOUSEKEEPING_INTERVAL_MILLIS && lastHousekeeping.compareAndSet(last, now);
+    }
+
+    /**
+     * Whether the job's record is the live one; otherwise the entry is dropped, or put back
+     * for a later look while the generating node may still be writing the record
+     */
+    private boolean isLive(String entryId, Job job, long now) {
+        if (job.purpose() == null) {
+            return true;
+        }
+        Optional<OtpRecord> record = otpRepository.findByIdentifierAndPurpose(job.phoneNumber(), job.purpose());
+        if (record.isPresent() && record.get().getId().equals(job.referenceId())) {
+            return true;
+        }
+
+        long appendedAt = job.expiresAtMillis() - expiryMillis;
+        if (record.isEmpty() && now - appendedAt < RECORD_GRACE_MILLIS) {
+            // Not written yet: look again after the base retry delay, without using up an attempt
+            stringRedisTemplate.execute(RETRY_SCRIPT, List.of(SmsOutbox.STREAM_KEY, SmsOutbox.RETRY_KEY),
+                    GROUP, entryId, String.valueOf(now + outbox.getRetryBaseMillis()), smsOutbox.encode(job));
+            return false;
+        }
+
+        // Replaced by another OTP, lost a generate race, or already validated / deleted
+        log.debug("Dropping SMS outbox job for reference {}, its OTP record is not live", job.referenceId());
+        stringRedisTemplate.execute(COMPLETE_SCRIPT, List.of(SmsOutbox.STREAM_KEY), GROUP, entryId);
+        dropped.increment();
+        return false;
+    }
+
+    private void retryOrDeadLetter(String entryId, Job job, RuntimeException error) {
+        Job next = job.nextAttempt();
+        long due = System.currentTimeMillis() + smsOutbox.retryDelay(next.attempt()).toMillis();
+        if (next.attempt() >= outbox.getMaxAttempts() || job.isExpired(due)) {
+            log.error("SMS for reference {} failed after {} attempts: {}",
+                    job.referenceId(), next.attempt(), error.getMessage());
+            deadLetter(entryId, next, "SEND_FAILED");
+            return;
+        }
+
+        stringRedisTemplate.execute(RETRY_SCRIPT, List.of(SmsOutbox.STREAM_KEY, SmsOutbox.RETRY_KEY),
+                GROUP, entryId, String.valueOf(due), smsOutbox.encode(next));
+        smsDispatcher.recordStatus(job.referenceId(), SmsDeliveryStatus.QUEUED);
+        retried.increment();
+        log.warn("SMS for reference {} failed (attempt {}), retrying in {} ms: {}",
+                job.referenceId(), next.attempt(), due - System.currentTimeMillis(), error.getMessage());
+    }
+
+    private void deadLetter(String entryId, Job job, String reason) {
+        stringRedisTemplate.execute(DEAD_LETTER_SCRIPT, List.of(SmsOutbox.STREAM_KEY, SmsOutbox.DEAD_LETTER_KEY),
+                GROUP, entryId, String.valueOf(outbox.getMaxLength()),
+                job == null ? "" : job.referenceId(),
+                String.valueOf(job == null ? 0 : job.attempt()),
+                reason);
+        if (job != null) {
+            smsDispatcher.recordStatus(job.referenceId(), SmsDeliveryStatus.FAILED);
+        }
+        deadLettered.increment();
+    }
+
+    private static String defaultConsumerName() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "unknown";
+        }
+        return host + "-" + ProcessHandle.current().pid();
+    }
+
+    private static void sleepQuietly() {
+        try {
+            Thread.sleep(BACKOFF_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
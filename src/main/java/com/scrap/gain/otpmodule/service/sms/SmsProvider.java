@@ -1,5 +1,10 @@
 package com.scrap.gain.otpmodule.service.sms;
 
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Optional;
+
 /**
  * Interface for SMS providers
  * Allows easy switching between different SMS services
@@ -14,6 +19,28 @@ public interface SmsProvider {
      */
     boolean sendSms(String phoneNumber, String message);
 
+    /**
+     * Send SMS and report the provider's message id, which delivery receipts refer to
+     * Providers without receipts keep the default, whose result has no message id.
+     * @return the sent message, empty if the send failed
+     */
+    default Optional<SentMessage> sendTracked(String phoneNumber, String message) {
+        return sendSms(phoneNumber, message)
+                ? Optional.of(new SentMessage(getProviderName(), null))
+                : Optional.empty();
+    }
+
+    /**
+     * sendTracked without blocking the caller
+     * Providers with a non-blocking client override this; the default runs
+     * the blocking send on the bounded elastic scheduler.
+     * @return emits the sent message, completes empty if the send failed
+     */
+    default Mono<SentMessage> sendTrackedReactive(String phoneNumber, String message) {
+        return Mono.fromCallable(() -> sendTracked(phoneNumber, message).orElse(null))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
     /**
      * Get provider name for logging
      */
@@ -3,12 +3,23 @@ package com.scrap.gain.otpmodule.service.sms;
 import com.scrap.gain.otpmodule.config.OtpConfigProperties;
 import com.twilio.Twilio;
 import com.twilio.rest.api.v2010.account.Message;
+import com.twilio.rest.api.v2010.account.MessageCreator;
+import com.twilio.security.RequestValidator;
 import com.twilio.type.PhoneNumber;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.Optional;
 
 /**
  * Twilio SMS Provider implementation
@@ -19,17 +30,25 @@ import org.springframework.util.StringUtils;
 @RequiredArgsConstructor
 public class TwilioSmsProvider implements SmsProvider {
 
+    private static final String API_BASE_URL = "https://api.twilio.com/2010-04-01";
+
     private final OtpConfigProperties config;
     private boolean initialized = false;
 
+    // Non-blocking client for the Messages REST resource, used by the reactive stack
+    private WebClient webClient;
+
     @PostConstruct
     public void init() {
         if (isConfigured()) {
             try {
-                Twilio.init(
-                        config.getSms().getTwilio().getAccountSid(),
-                        config.getSms().getTwilio().getAuthToken()
-                );
+                var twilio = config.getSms().getTwilio();
+                Twilio.init(twilio.getAccountSid(), twilio.getAuthToken());
+                webClient = WebClient.builder()
+                        .baseUrl(API_BASE_URL)
+                        .defaultHeaders(headers ->
+                                headers.setBasicAuth(twilio.getAccountSid(), twilio.getAuthToken()))
+                        .build();
                 initialized = true;
                 log.info("Twilio SMS provider initialized successfully");
             } catch (Exception e) {
@@ -43,27 +62,84 @@ public class TwilioSmsProvider implements SmsProvider {
 
     @Override
     public boolean sendSms(String phoneNumber, String message) {
+        return sendTracked(phoneNumber, message).isPresent();
+    }
+
+    @Override
+    public Optional<SentMessage> sendTracked(String phoneNumber, String message) {
         if (!initialized) {
             log.error("Twilio not initialized - cannot send SMS");
-            return false;
+            return Optional.empty();
         }
 
         try {
-            Message twilioMessage = Message.creator(
+            MessageCreator creator = Message.creator(
                     new PhoneNumber(phoneNumber),
                     new PhoneNumber(config.getSms().getTwilio().getFromNumber()),
                     message
-            ).create();
+            );
+            String statusCallback = statusCallbackUrl();
+            if (statusCallback != null) {
+                creator.setStatusCallback(URI.create(statusCallback));
+            }
+            Message twilioMessage = creator.create();
 
             log.info("SMS sent via Twilio. SID: {}, Status: {}",
                     twilioMessage.getSid(), twilioMessage.getStatus());
 
-            return twilioMessage.getStatus() != Message.Status.FAILED;
+            return twilioMessage.getStatus() == Message.Status.FAILED
+                    ? Optional.empty()
+                    : Optional.of(new SentMessage(getProviderName(), twilioMessage.getSid()));
 
         } catch (Exception e) {
             log.error("Failed to send SMS via Twilio: {}", e.getMessage(), e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Check the X-Twilio-Signature of a status callback against the URL it was sent to
+     */
+    public boolean isValidCallback(Map<String, String> params, String signature) {
+        String statusCallback = statusCallbackUrl();
+        if (!initialized || statusCallback == null || signature == null) {
             return false;
         }
+        return new RequestValidator(config.getSms().getTwilio().getAuthToken())
+                .validate(statusCallback, params, signature);
+    }
+
+    @Override
+    public Mono<SentMessage> sendTrackedReactive(String phoneNumber, String message) {
+        if (!initialized) {
+            log.error("Twilio not initialized - cannot send SMS");
+            return Mono.empty();
+        }
+
+        var twilio = config.getSms().getTwilio();
+        BodyInserters.FormInserter<String> form = BodyInserters.fromFormData("To", phoneNumber)
+                .with("From", twilio.getFromNumber())
+                .with("Body", message);
+        String statusCallback = statusCallbackUrl();
+        if (statusCallback != null) {
+            form.with("StatusCallback", statusCallback);
+        }
+        return webClient.post()
+                .uri("/Accounts/{accountSid}/Messages.json", twilio.getAccountSid())
+                .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                .body(form)
+                .retrieve()
+                .bodyToMono(new ParameterizedTypeReference<Map<String, Object>>() { })
+                .<SentMessage>handle((body, sink) -> {
+                    log.info("SMS sent via Twilio. SID: {}, Status: {}", body.get("sid"), body.get("status"));
+                    if (!"failed".equals(body.get("status"))) {
+                        sink.next(new SentMessage(getProviderName(), (String) body.get("sid")));
+                    }
+                })
+                .onErrorResume(e -> {
+                    log.error("Failed to send SMS via Twilio: {}", e.getMessage());
+                    return Mono.empty();
+                });
     }
 
     @Override
@@ -71,6 +147,18 @@ public class TwilioSmsProvider implements SmsProvider {
         return "TWILIO";
     }
 
+    /**
+     * Status callback URL for new messages, null unless delivery receipts are enabled
+     */
+    private String statusCallbackUrl() {
+        var receipts = config.getSms().getReceipts();
+        if (!receipts.isEnabled() || !StringUtils.hasText(receipts.getCallbackBaseUrl())) {
+            return null;
+        }
+        return StringUtils.trimTrailingCharacter(receipts.getCallbackBaseUrl(), '/')
+                + DeliveryReceiptTracker.TWILIO_CALLBACK_PATH;
+    }
+
     @Override
     public boolean isConfigured() {
         var twilio = config.getSms().getTwilio();
@@ -0,0 +1,298 @@
+package com.scrap.gain.otpmodule.util;
+
+import com.scrap.gain.otpmodule.config.OtpConfigProperties;
+import com.scrap.gain.otpmodule.exception.ErrorCode;
+import com.scrap.gain.otpmodule.exception.OtpException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Bounded CPU pool for OTP hashing and verification
+ * Keeps bcrypt off request threads and event loops; once the queue is full,
+ * or a task waits longer than otp.hashing.max-wait-millis, callers fail fast
+ * with HASHING_OVERLOADED instead of queueing without limit.
+ * Batch hashing runs in small chunks on at most threads - 1 threads at a time, so
+ * interactive generate and validate calls always find a thread within a chunk or two.
+ * Validation reserves its place with reserve() before the attempt is counted; a reserved
+ * verification is never shed, so overload costs the user a retry, not an attempt.
+ *
+ * Meters:
+ * - otp.hashing.queue.depth  gauge of tasks waiting for a thread
+ * - otp.hashing.active       gauge of tasks running
+ * - otp.hashing.wait         timer of time spent queued
+ * - otp.hashing.rejected     counter of shed tasks
+ */
+@Slf4j
+@Component
+public class HashingExecutor {
+
+    // OTPs per batch task: short enough that queued interactive tasks get a turn between chunks
+    private static final int BATCH_CHUNK_SIZE = 8;
+
+    private final OtpHasher otpHasher;
+    private final ThreadPoolExecutor executor;
+    // One permit per task on the pool, running or queued (threads + queue capacity)
+    private final Semaphore slots;
+    // Batch chunks running or queued, across all batches
+    private final Semaphore batchLanes;
+    private final long maxWaitMillis;
+    private final Timer waitTimer;
+    private final Counter rejected;
+
+    public HashingExecutor(OtpHasher otpHasher, OtpConfigProperties config, MeterRegistry registry) {
+        this.otpHasher = otpHasher;
+
+        var hashing = config.getHashing();
+        int threads = hashing.getThreads() > 0 ? hashing.getThreads() : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+
+        // Admission is decided by the slots; the queue is sized so the pool itself never rejects
+        this.slots = new Semaphore(threads + hashing.getQueueCapacity());
+        this.executor = new ThreadPoolExecutor(
+                threads,
+                threads,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads + hashing.getQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "otp-hash-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+        this.maxWaitMillis = hashing.getMaxWaitMillis();
+        this.batchLanes = new Semaphore(Math.max(1, threads - 1));
+
+        Gauge.builder("otp.hashing.queue.depth", executor, pool -> pool.getQueue().size())
+                .register(registry);
+        Gauge.builder("otp.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(registry);
+        this.waitTimer = Timer.builder("otp.hashing.wait")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.rejected = Counter.builder("otp.hashing.rejected")
+                .register(registry);
+
+        log.info("Hashing pool started with {} threads, queue capacity {}", threads, hashing.getQueueCapacity());
+    }
+
+    /**
+     * Hash an OTP on the pool, blocking the caller until done
+     * @throws OtpException with HASHING_OVERLOADED when the pool is saturated
+     */
+    public String hash(String otp) {
+        return await(hashAsync(otp));
+    }
+
+    /**
+     * Reserve a place on the pool for one verification
+     * Take it before counting a validation attempt; close it if the verification is not run.
+     * @throws OtpException with HASHING_OVERLOADED when the pool is saturated
+     */
+    public Reservation reserve() {
+        if (!slots.tryAcquire()) {
+            throw shed();
+        }
+        return new Reservation(slots);
+    }
+
+    /**
+     * Verify an OTP on a reserved place, blocking the caller until done
+     * Not shed after max-wait-millis: the wait is bounded by the queue capacity.
+     */
+    public boolean verify(Reservation reservation, String plainOtp, String hashedOtp) {
+        CompletableFuture<Boolean> future = verifyAsync(reservation, plainOtp, hashedOtp);
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OtpException(ErrorCode.HASHING_OVERLOADED);
+        }
+    }
+
+    /**
+     * Hash an OTP on the pool without blocking the caller
+     * @throws OtpException with HASHING_OVERLOADED when the queue is full
+     */
+    public CompletableFuture<String> hashAsync(String otp) {
+        return submit(() -> otpHasher.hash(otp));
+    }
+
+    /**
+     * Verify an OTP on a reserved place without blocking the caller
+     */
+    public CompletableFuture<Boolean> verifyAsync(Reservation reservation, String plainOtp, String hashedOtp) {
+        reservation.take();
+        return run(() -> otpHasher.verify(plainOtp, hashedOtp));
+    }
+
+    /**
+     * Hash many OTPs in small chunks, keeping at most threads - 1 chunks on the pool
+     * across all batches, so a large batch never holds every hashing thread
+     * @return hashes in input order
+     * @throws OtpException with HASHING_OVERLOADED when the queue is full
+     */
+    public List<String> hashAll(List<String> otps) {
+        List<CompletableFuture<List<String>>> chunks = new ArrayList<>();
+
+        for (int from = 0; from < otps.size(); from += BATCH_CHUNK_SIZE) {
+            List<String> chunk = otps.subList(from, Math.min(from + BATCH_CHUNK_SIZE, otps.size()));
+            try {
+                batchLanes.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new OtpException(ErrorCode.HASHING_OVERLOADED);
+            }
+            CompletableFuture<List<String>> future;
+            try {
+                future = submit(() -> chunk.stream().map(otpHasher::hash).toList());
+            } catch (OtpException e) {
+                batchLanes.release();
+                throw e;
+            }
+            future.whenComplete((hashes, error) -> batchLanes.release());
+            chunks.add(future);
+        }
+
+        // Batches are not interactive, so they wait for their chunks without a deadline
+        List<String> hashes = new ArrayList<>(otps.size());
+        for (CompletableFuture<List<String>> chunk : chunks) {
+            try {
+                hashes.addAll(chunk.join());
+            } catch (CompletionException e) {
+                throw unwrap(e.getCause());
+            }
+        }
+        return hashes;
+    }
+
+    /**
+     * Tasks waiting for a hashing thread
+     */
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> task) {
+        if (!slots.tryAcquire()) {
+            throw shed();
+        }
+        return run(task);
+    }
+
+    /**
+     * Run a task on a slot the caller holds; the slot is freed once the task leaves the
+     * pool, also when it was cancelled while queued
+     */
+    private <T> CompletableFuture<T> run(Supplier<T> task) {
+        long queuedAt = System.nanoTime();
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                try {
+                    if (!future.isDone()) {
+                        waitTimer.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                        future.complete(task.get());
+                    }
+                } catch (RuntimeException e) {
+                    future.completeExceptionally(e);
+                } finally {
+                    slots.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Only after shutdown
+            slots.release();
+            throw shed();
+        }
+        return future;
+    }
+
+    private OtpException shed() {
+        rejected.increment();
+        log.warn("Hashing queue full ({} pending), shedding request", executor.getQueue().size());
+        return new OtpException(ErrorCode.HASHING_OVERLOADED);
+    }
+
+    private <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.get(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Drop the task if it has not started yet so the queue drains
+            future.cancel(false);
+            rejected.increment();
+            log.warn("Hashing took longer than {} ms ({} pending), shedding request",
+                    maxWaitMillis, executor.getQueue().size());
+            throw new OtpException(ErrorCode.HASHING_OVERLOADED);
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        } catch (CancellationException e) {
+            throw new OtpException(ErrorCode.HASHING_OVERLOADED);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OtpException(ErrorCode.HASHING_OVERLOADED);
+        }
+    }
+
+    private static RuntimeException unwrap(Throwable cause) {
+        return cause instanceof RuntimeException runtime ? runtime : new IllegalStateException(cause);
+    }
+
+    /**
+     * A place on the pool held for one verification
+     */
+    public static final class Reservation implements AutoCloseable {
+
+        private final Semaphore slots;
+        private final AtomicBoolean held = new AtomicBoolean(true);
+
+        private Reservation(Semaphore slots) {
+            this.slots = slots;
+        }
+
+        // Hand the slot over to the task, which frees it when done
+        private void take() {
+            if (!held.compareAndSet(true, false)) {
+                throw new IllegalStateException("Hashing reservation already used");
+            }
+        }
+
+        /**
+         * Free the slot if no verification was run on it
+         */
+        @Override
+        public void close() {
+            if (held.compareAndSet(true, false)) {
+                slots.release();
+            }
+        }
+    }
+}
@@ -1,37 +1,51 @@
 package com.scrap.gain.otpmodule.util;
 
 import com.scrap.gain.otpmodule.config.OtpConfigProperties;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.function.Supplier;
 
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class OtpGenerator {
 
+    private static final char[] DIGITS = "0123456789".toCharArray();
+    private static final char[] ALPHANUMERIC = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ".toCharArray();
+
+    // Random bytes drawn per refill, enough for several OTPs
+    private static final int ENTROPY_BYTES = 64;
+    // Longest OTP the reusable buffer holds (otp.length is capped at 8)
+    private static final int MAX_LENGTH = 16;
+
     private final OtpConfigProperties config;
 
-    // SecureRandom is thread-safe and cryptographically strong
-    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
+    // One DRBG per thread so concurrent generates never contend on a shared lock
+    private final ThreadLocal<Entropy> entropy;
+
+    @Autowired
+    public OtpGenerator(OtpConfigProperties config) {
+        this(config, Entropy::newDrbg);
+    }
+
+    /**
+     * @param randomSource creates the random source of each generating thread
+     */
+    public OtpGenerator(OtpConfigProperties config, Supplier<SecureRandom> randomSource) {
+        this.config = config;
+        this.entropy = ThreadLocal.withInitial(() -> new Entropy(randomSource.get()));
+    }
 
     /**
      * Generate a cryptographically secure random OTP
      * @return OTP string of configured length (default 6 digits)
      */
     public String generate() {
-        int length = config.getLength();
-        StringBuilder otp = new StringBuilder(length);
-
-        for (int i = 0; i < length; i++) {
-            otp.append(SECURE_RANDOM.nextInt(10)); // 0-9
-        }
-
-        String generatedOtp = otp.toString();
-        log.debug("Generated OTP of length {}", length);
-        return generatedOtp;
+        return entropy.get().next(DIGITS, config.getLength());
     }
 
     /**
@@ -39,14 +53,58 @@ public class OtpGenerator {
      * @return Alphanumeric OTP string
      */
     public String generateAlphanumeric() {
-        int length = config.getLength();
-        String chars = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ";
-        StringBuilder otp = new StringBuilder(length);
+        return entropy.get().next(ALPHANUMERIC, config.getLength());
+    }
 
-        for (int i = 0; i < length; i++) {
-            otp.append(chars.charAt(SECURE_RANDOM.nextInt(chars.length())));
+    /**
+     * Per-thread DRBG with a buffer of random bytes and a reusable char buffer
+     */
+    private static final class Entropy {
+
+        private final SecureRandom random;
+        private final byte[] bytes = new byte[ENTROPY_BYTES];
+        private final char[] chars = new char[MAX_LENGTH];
+        private int position = ENTROPY_BYTES;
+
+        private Entropy(SecureRandom random) {
+            this.random = random;
         }
 
-        return otp.toString();
+        String next(char[] alphabet, int length) {
+            // Largest multiple of the alphabet size below 256; bytes above it are
+            // rejected so every symbol is equally likely (no modulo bias)
+            int limit = 256 - (256 % alphabet.length);
+
+            for (int i = 0; i < length; i++) {
+                int value;
+                do {
+                    value = nextByte();
+                } while (value >= limit);
+                chars[i] = alphabet[value % alphabet.length];
+            }
+
+            String otp = new String(chars, 0, length);
+            Arrays.fill(chars, 0, length, '\0');
+            return otp;
+        }
+
+        private int nextByte() {
+            if (position == bytes.length) {
+                random.nextBytes(bytes);
+                position = 0;
+            }
+            int value = bytes[position] & 0xFF;
+            bytes[position++] = 0;
+            return value;
+        }
+
+        private static SecureRandom newDrbg() {
+            try {
+                return SecureRandom.getInstance("DRBG");
+            } catch (NoSuchAlgorithmException e) {
+                log.warn("DRBG not available, using default SecureRandom");
+                return new SecureRandom();
+            }
+        }
     }
 }
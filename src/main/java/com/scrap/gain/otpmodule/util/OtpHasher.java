@@ -1,21 +1,81 @@
 package com.scrap.gain.otpmodule.util;
 
+import com.scrap.gain.otpmodule.config.OtpConfigProperties;
+import com.scrap.gain.otpmodule.model.enums.HashAlgorithm;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
 
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
 import java.util.Base64;
 
 @Slf4j
 @Component
 public class OtpHasher {
 
+    // Tag prefixed to HMAC hashes so they can coexist with BCrypt ($2a$...) hashes
+    public static final String HMAC_PREFIX = "$hs256$";
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final int HMAC_SALT_BYTES = 16;
+    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
+    private static final Base64.Encoder BASE64 = Base64.getEncoder().withoutPadding();
+    private static final Base64.Decoder BASE64_DECODER = Base64.getDecoder();
+
     // BCrypt for secure hashing (slower but more secure)
-    private final PasswordEncoder bcryptEncoder = new BCryptPasswordEncoder(10);
+    private final PasswordEncoder bcryptEncoder;
+
+    private final HashAlgorithm algorithm;
+
+    // Mac instances are not thread-safe, keep one per thread (null when no pepper is configured)
+    private final ThreadLocal<Mac> hmac;
+
+    public OtpHasher(OtpConfigProperties config) {
+        OtpConfigProperties.HashingConfig hashing = config.getHashing();
+        this.bcryptEncoder = new BCryptPasswordEncoder(hashing.getBcryptStrength());
+        this.algorithm = hashing.getAlgorithm();
+
+        if (StringUtils.hasText(hashing.getPepper())) {
+            SecretKeySpec pepperKey = new SecretKeySpec(
+                    hashing.getPepper().getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM);
+            this.hmac = ThreadLocal.withInitial(() -> newMac(pepperKey));
+        } else if (algorithm == HashAlgorithm.HMAC_SHA256) {
+            throw new IllegalStateException("otp.hashing.pepper is required for HMAC_SHA256");
+        } else {
+            this.hmac = null;
+        }
+
+        log.info("OTP hashing algorithm: {}", algorithm);
+    }
+
+    /**
+     * Hash OTP with the configured algorithm
+     */
+    public String hash(String otp) {
+        return algorithm == HashAlgorithm.HMAC_SHA256
+                ? hashWithHmac(otp)
+                : hashWithBcrypt(otp);
+    }
+
+    /**
+     * Verify OTP against a stored hash, picking the algorithm from the hash tag
+     */
+    public boolean verify(String plainOtp, String storedHash) {
+        if (storedHash == null) {
+            return false;
+        }
+        return storedHash.startsWith(HMAC_PREFIX)
+                ? verifyHmac(plainOtp, storedHash)
+                : verifyBcrypt(plainOtp, storedHash);
+    }
 
     /**
      * Hash OTP using BCrypt (recommended for high security)
@@ -32,6 +92,41 @@ public class OtpHasher {
         return bcryptEncoder.matches(plainOtp, hashedOtp);
     }
 
+    /**
+     * Hash OTP using HMAC-SHA256 keyed with the server-side pepper
+     * Format: $hs256$<base64 salt>$<base64 mac>
+     * Fast enough for the validate hot path; brute force is bounded by
+     * short expiry, max attempts and the secret pepper
+     */
+    public String hashWithHmac(String otp) {
+        byte[] salt = new byte[HMAC_SALT_BYTES];
+        SECURE_RANDOM.nextBytes(salt);
+        return HMAC_PREFIX + BASE64.encodeToString(salt) + "$" + BASE64.encodeToString(computeHmac(otp, salt));
+    }
+
+    /**
+     * Verify OTP against HMAC-SHA256 hash in constant time
+     */
+    public boolean verifyHmac(String plainOtp, String hashedOtp) {
+        int separator = hashedOtp.indexOf('$', HMAC_PREFIX.length());
+        if (!hashedOtp.startsWith(HMAC_PREFIX) || separator < 0) {
+            return false;
+        }
+        if (hmac == null) {
+            log.error("HMAC hash found but otp.hashing.pepper is not configured");
+            return false;
+        }
+
+        try {
+            byte[] salt = BASE64_DECODER.decode(hashedOtp.substring(HMAC_PREFIX.length(), separator));
+            byte[] expected = BASE64_DECODER.decode(hashedOtp.substring(separator + 1));
+            return MessageDigest.isEqual(expected, computeHmac(plainOtp, salt));
+        } catch (IllegalArgumentException e) {
+            log.warn("Malformed HMAC hash: {}", e.getMessage());
+            return false;
+        }
+    }
+
     /**
      * Hash OTP using SHA-256 with salt (faster, acceptable for short-lived OTPs)
      * Use this if performance is critical and OTP expiry is short (< 5 min)
@@ -49,11 +144,13 @@ public class OtpHasher {
     }
 
     /**
-     * Verify OTP against SHA-256 hash
+     * Verify OTP against SHA-256 hash (constant-time comparison)
      */
     public boolean verifySha256(String plainOtp, String hashedOtp, String salt) {
         String computedHash = hashWithSha256(plainOtp, salt);
-        return computedHash.equals(hashedOtp);
+        return MessageDigest.isEqual(
+                computedHash.getBytes(StandardCharsets.UTF_8),
+                hashedOtp.getBytes(StandardCharsets.UTF_8));
     }
 
     /**
@@ -61,7 +158,26 @@ public class OtpHasher {
      */
     public String generateSalt() {
         byte[] salt = new byte[16];
-        new java.security.SecureRandom().nextBytes(salt);
+        SECURE_RANDOM.nextBytes(salt);
         return Base64.getEncoder().encodeToString(salt);
     }
+
+    private byte[] computeHmac(String otp, byte[] salt) {
+        if (hmac == null) {
+            throw new IllegalStateException("otp.hashing.pepper is not configured");
+        }
+        Mac mac = hmac.get();
+        mac.update(salt);
+        return mac.doFinal(otp.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Mac newMac(SecretKeySpec key) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 not available", e);
+        }
+    }
 }
@@ -0,0 +1,196 @@
+package com.scrap.gain.otpmodule.util;
+
+import com.scrap.gain.otpmodule.config.OtpConfigProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded pool of ready (plainOtp, hash) pairs so generate does not pay
+ * the bcrypt cost inline
+ * Background workers refill the pool and back off while the hashing pool
+ * has queued work. Pairs live only in memory, are handed out once and are
+ * discarded after otp.hashing.prehash.max-age-seconds. A discarded pair's
+ * slot is only refilled once take() is called again, so an idle node stops
+ * hashing instead of re-hashing the whole pool every max age.
+ *
+ * Meters:
+ * - otp.prehash.ready      gauge of pairs in the pool
+ * - otp.prehash.take       counter per result (hit, miss)
+ * - otp.prehash.discarded  counter of pairs dropped unused
+ */
+@Slf4j
+@Component
+public class PrehashedOtpPool {
+
+    private static final long BACKOFF_MILLIS = 50;
+
+    private final OtpGenerator otpGenerator;
+    private final OtpHasher otpHasher;
+    private final HashingExecutor hashingExecutor;
+    private final LongSupplier nanoClock;
+    private final long maxAgeNanos;
+
+    private final ConcurrentLinkedQueue<Entry> ready = new ConcurrentLinkedQueue<>();
+    // Free slots; workers only hash once they hold one, so the pool never overfills
+    private final Semaphore slots;
+    // Slots of discarded pairs, handed back to the workers one per take()
+    private final AtomicInteger idleSlots = new AtomicInteger();
+    private final List<Thread> workers = new ArrayList<>();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter discarded;
+
+    @Autowired
+    public PrehashedOtpPool(OtpGenerator otpGenerator,
+                            OtpHasher otpHasher,
+                            HashingExecutor hashingExecutor,
+                            OtpConfigProperties config,
+                            MeterRegistry registry) {
+        this(otpGenerator, otpHasher, hashingExecutor, config, registry, System::nanoTime);
+    }
+
+    public PrehashedOtpPool(OtpGenerator otpGenerator,
+                            OtpHasher otpHasher,
+                            HashingExecutor hashingExecutor,
+                            OtpConfigProperties config,
+                            MeterRegistry registry,
+                            LongSupplier nanoClock) {
+        this.otpGenerator = otpGenerator;
+        this.otpHasher = otpHasher;
+        this.hashingExecutor = hashingExecutor;
+        this.nanoClock = nanoClock;
+
+        var prehash = config.getHashing().getPrehash();
+        this.maxAgeNanos = TimeUnit.SECONDS.toNanos(prehash.getMaxAgeSeconds());
+        this.slots = new Semaphore(prehash.getPoolSize());
+
+        Gauge.builder("otp.prehash.ready", ready, ConcurrentLinkedQueue::size)
+                .register(registry);
+        this.hits = Counter.builder("otp.prehash.take").tag("result", "hit").register(registry);
+        this.misses = Counter.builder("otp.prehash.take").tag("result", "miss").register(registry);
+        this.discarded = Counter.builder("otp.prehash.discarded").register(registry);
+
+        if (prehash.getPoolSize() > 0) {
+            for (int i = 1; i <= prehash.getWorkers(); i++) {
+                Thread worker = new Thread(this::refill, "otp-prehash-" + i);
+                worker.setDaemon(true);
+                worker.start();
+                workers.add(worker);
+            }
+            log.info("Pre-hashed OTP pool started with {} workers, size {}", prehash.getWorkers(), prehash.getPoolSize());
+        }
+    }
+
+    /**
+     * Take a ready pair; each pair is handed out at most once
+     * @return empty when the pool is drained, callers then hash inline
+     */
+    public Optional<PrehashedOtp> take() {
+        Optional<PrehashedOtp> taken = poll();
+        // Demand is back: let the workers refill one slot that went idle
+        if (idleSlots.getAndUpdate(idle -> Math.max(0, idle - 1)) > 0) {
+            slots.release();
+        }
+        return taken;
+    }
+
+    /**
+     * Pairs currently ready
+     */
+    public int size() {
+        return ready.size();
+    }
+
+    /**
+     * Drop pairs older than the max age; the queue is in creation order
+     */
+    @Scheduled(fixedDelay = 10_000)
+    public void discardStale() {
+        Entry head;
+        while ((head = ready.peek()) != null && isStale(head)) {
+            if (ready.remove(head)) {
+                idleSlots.incrementAndGet();
+                discarded.increment();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.forEach(Thread::interrupt);
+        ready.clear();
+    }
+
+    private Optional<PrehashedOtp> poll() {
+        Entry entry;
+        while ((entry = ready.poll()) != null) {
+            if (!isStale(entry)) {
+                slots.release();
+                hits.increment();
+                return Optional.of(entry.otp());
+            }
+            idleSlots.incrementAndGet();
+            discarded.increment();
+        }
+        misses.increment();
+        return Optional.empty();
+    }
+
+    private void refill() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                slots.acquire();
+                // Leave the CPU to requests that are already waiting for a hash
+                while (hashingExecutor.getQueueDepth() > 0) {
+                    Thread.sleep(BACKOFF_MILLIS);
+                }
+                String plainOtp = otpGenerator.generate();
+                String hashedOtp = otpHasher.hash(plainOtp);
+                ready.offer(new Entry(new PrehashedOtp(plainOtp, hashedOtp), nanoClock.getAsLong()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                slots.release();
+                log.warn("Pre-hashing failed: {}", e.getMessage());
+                sleepQuietly();
+            }
+        }
+    }
+
+    private boolean isStale(Entry entry) {
+        return nanoClock.getAsLong() - entry.createdNanos() > maxAgeNanos;
+    }
+
+    private static void sleepQuietly() {
+        try {
+            Thread.sleep(BACKOFF_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Plain OTP and its hash, ready to be stored and sent
+     */
+    public record PrehashedOtp(String plainOtp, String hashedOtp) {
+    }
+
+    private record Entry(PrehashedOtp otp, long createdNanos) {
+    }
+}
@@ -0,0 +1,99 @@
+package com.scrap.gain.otpmodule.util;
+
+import com.scrap.gain.otpmodule.config.OtpConfigProperties;
+import com.scrap.gain.otpmodule.exception.ErrorCode;
+import com.scrap.gain.otpmodule.exception.OtpException;
+import com.scrap.gain.otpmodule.model.OtpPurpose;
+import com.scrap.gain.otpmodule.util.VerificationTokenVerifier.VerifiedToken;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Issues signed verification tokens after a successful OTP validation and
+ * checks them for /verify-token; downstream services embed VerificationTokenVerifier.
+ */
+@Slf4j
+@Component
+public class VerificationTokenIssuer {
+
+    private static final int NONCE_BYTES = 12;
+    private static final int SECRET_BYTES = 32;
+    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
+
+    private final VerificationTokenVerifier verifier;
+    private final Duration ttl;
+    private final Clock clock;
+
+    @Autowired
+    public VerificationTokenIssuer(OtpConfigProperties config) {
+        this(config, Clock.systemUTC());
+    }
+
+    public VerificationTokenIssuer(OtpConfigProperties config, Clock clock) {
+        OtpConfigProperties.TokenConfig token = config.getToken();
+        this.ttl = Duration.ofSeconds(token.getTtlSeconds());
+        this.clock = clock;
+        this.verifier = new VerificationTokenVerifier(secretOf(token), clock, token.getReplayMaxEntries());
+    }
+
+    /**
+     * Issue a token for an identifier that just proved possession of its OTP
+     */
+    public String issue(String identifier, OtpPurpose purpose) {
+        byte[] nonce = new byte[NONCE_BYTES];
+        SECURE_RANDOM.nextBytes(nonce);
+        return verifier.encode(identifier, purpose.name(), clock.instant().plus(ttl),
+                VerificationTokenVerifier.encodeNonce(nonce));
+    }
+
+    /**
+     * Check signature, expiry and (when given) purpose; single use is left to the caller
+     * @throws OtpException TOKEN_INVALID if any check fails
+     */
+    public VerifiedToken verify(String token, OtpPurpose expectedPurpose) {
+        VerifiedToken verified = verifier.verify(token)
+                .orElseThrow(() -> new OtpException(ErrorCode.TOKEN_INVALID));
+        if (expectedPurpose != null && !expectedPurpose.name().equals(verified.purpose())) {
+            throw new OtpException(ErrorCode.TOKEN_INVALID);
+        }
+        return verified;
+    }
+
+    /**
+     * Verifier sharing this issuer's secret
+     */
+    public VerificationTokenVerifier getVerifier() {
+        return verifier;
+    }
+
+    /**
+     * Remaining lifetime of a token, used to expire its replay marker with it
+     */
+    public Duration remainingTtl(Instant expiresAt) {
+        Duration remaining = Duration.between(clock.instant(), expiresAt);
+        return remaining.isPositive() ? remaining : Duration.ofMillis(1);
+    }
+
+    private static byte[] secretOf(OtpConfigProperties.TokenConfig token) {
+        if (StringUtils.hasText(token.getSecret())) {
+            return token.getSecret().getBytes(StandardCharsets.UTF_8);
+        }
+        if (!token.isAllowRandomSecret()) {
+            throw new IllegalStateException("otp.token.secret is required "
+                    + "(set otp.token.allow-random-secret=true for single-node development only)");
+        }
+        log.warn("otp.token.secret is not set, using a random secret: tokens will not verify "
+                + "on other nodes or after a restart");
+        byte[] secret = new byte[SECRET_BYTES];
+        SECURE_RANDOM.nextBytes(secret);
+        return secret;
+    }
+}
@@ -0,0 +1,144 @@
+package com.scrap.gain.otpmodule.util;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Checks signed verification tokens without any call to the OTP service or Redis
+ *
+ * Depends on the JDK only, so downstream services can embed it with the shared
+ * otp.token.secret:
+ *     VerificationTokenVerifier verifier = new VerificationTokenVerifier(secret);
+ *     verifier.verifyOnce(token).ifPresent(verified -> ...);
+ *
+ * Token format: base64url(identifier \n purpose \n expiry epoch seconds \n nonce)
+ * "." base64url(HMAC-SHA256 of the payload, truncated to 128 bits).
+ * verifyOnce also remembers nonces until their tokens expire, so a token is
+ * accepted once per verifier instance; the OTP service's /verify-token enforces
+ * single use across nodes through the OTP store instead.
+ */
+public class VerificationTokenVerifier {
+
+    static final String HMAC_ALGORITHM = "HmacSHA256";
+    static final char FIELD_SEPARATOR = '\n';
+    static final int MAC_BYTES = 16;
+
+    private static final int DEFAULT_REPLAY_CAPACITY = 100_000;
+    private static final Base64.Encoder BASE64 = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder BASE64_DECODER = Base64.getUrlDecoder();
+
+    private final ThreadLocal<Mac> hmac;
+    private final Clock clock;
+    private final int replayCapacity;
+
+    // Nonces of tokens accepted by verifyOnce, with their expiry in epoch seconds
+    private final ConcurrentHashMap<String, Long> usedNonces = new ConcurrentHashMap<>();
+
+    public VerificationTokenVerifier(String secret) {
+        this(secret.getBytes(StandardCharsets.UTF_8), Clock.systemUTC(), DEFAULT_REPLAY_CAPACITY);
+    }
+
+    public VerificationTokenVerifier(byte[] secret, Clock clock, int replayCapacity) {
+        if (secret == null || secret.length == 0) {
+            throw new IllegalArgumentException("Verification token secret is required");
+        }
+        SecretKeySpec key = new SecretKeySpec(secret.clone(), HMAC_ALGORITHM);
+        // Mac instances are not thread-safe, keep one per thread
+        this.hmac = ThreadLocal.withInitial(() -> newMac(key));
+        this.clock = clock;
+        this.replayCapacity = replayCapacity;
+    }
+
+    /**
+     * Check signature and expiry; the same token can be verified any number of times
+     */
+    public Optional<VerifiedToken> verify(String token) {
+        if (token == null) {
+            return Optional.empty();
+        }
+        int dot = token.indexOf('.');
+        if (dot <= 0 || dot != token.lastIndexOf('.')) {
+            return Optional.empty();
+        }
+
+        try {
+            byte[] payload = BASE64_DECODER.decode(token.substring(0, dot));
+            byte[] mac = BASE64_DECODER.decode(token.substring(dot + 1));
+            if (!MessageDigest.isEqual(mac, sign(payload))) {
+                return Optional.empty();
+            }
+
+            String[] fields = new String(payload, StandardCharsets.UTF_8).split(String.valueOf(FIELD_SEPARATOR), -1);
+            if (fields.length != 4) {
+                return Optional.empty();
+            }
+            Instant expiresAt = Instant.ofEpochSecond(Long.parseLong(fields[2]));
+            if (!clock.instant().isBefore(expiresAt)) {
+                return Optional.empty();
+            }
+            return Optional.of(new VerifiedToken(fields[0], fields[1], expiresAt, fields[3]));
+        } catch (IllegalArgumentException e) {
+            // Bad base64 or expiry: treat like any other forged token
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Check signature and expiry, and accept each token only once on this instance
+     * Fails closed when the replay set is full of unexpired nonces.
+     */
+    public Optional<VerifiedToken> verifyOnce(String token) {
+        return verify(token).filter(verified -> {
+            long now = clock.instant().getEpochSecond();
+            if (usedNonces.size() >= replayCapacity) {
+                usedNonces.values().removeIf(expiry -> expiry <= now);
+                if (usedNonces.size() >= replayCapacity) {
+                    return false;
+                }
+            }
+            return usedNonces.putIfAbsent(verified.nonce(), verified.expiresAt().getEpochSecond()) == null;
+        });
+    }
+
+    /**
+     * Encode and sign a token, used by VerificationTokenIssuer
+     */
+    String encode(String identifier, String purpose, Instant expiresAt, String nonce) {
+        byte[] payload = (identifier + FIELD_SEPARATOR + purpose + FIELD_SEPARATOR
+                + expiresAt.getEpochSecond() + FIELD_SEPARATOR + nonce).getBytes(StandardCharsets.UTF_8);
+        return BASE64.encodeToString(payload) + "." + BASE64.encodeToString(sign(payload));
+    }
+
+    static String encodeNonce(byte[] nonce) {
+        return BASE64.encodeToString(nonce);
+    }
+
+    private byte[] sign(byte[] payload) {
+        return Arrays.copyOf(hmac.get().doFinal(payload), MAC_BYTES);
+    }
+
+    private static Mac newMac(SecretKeySpec key) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 not available", e);
+        }
+    }
+
+    /**
+     * Claims of a token whose signature and expiry checked out
+     */
+    public record VerifiedToken(String identifier, String purpose, Instant expiresAt, String nonce) {
+    }
+}
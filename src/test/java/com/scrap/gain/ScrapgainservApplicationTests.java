@@ -3,7 +3,7 @@ package com.scrap.gain;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = "otp.token.secret=test-token-secret")
 class ScrapgainservApplicationTests {
 
     @Test
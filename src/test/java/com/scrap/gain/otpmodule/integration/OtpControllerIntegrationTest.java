@@ -34,6 +34,7 @@ class OtpControllerIntegrationTest {
     static void redisProperties(DynamicPropertyRegistry registry) {
         registry.add("spring.data.redis.host", redis::getHost);
         registry.add("spring.data.redis.port", redis::getFirstMappedPort);
+        registry.add("otp.token.secret", () -> "test-token-secret");
     }
 
     @Autowired
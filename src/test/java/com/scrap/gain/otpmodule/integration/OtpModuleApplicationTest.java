@@ -20,6 +20,7 @@ class OtpModuleApplicationTests {
     static void redisProperties(DynamicPropertyRegistry registry) {
         registry.add("spring.data.redis.host", redis::getHost);
         registry.add("spring.data.redis.port", redis::getFirstMappedPort);
+        registry.add("otp.token.secret", () -> "test-token-secret");
     }
 
     @Test
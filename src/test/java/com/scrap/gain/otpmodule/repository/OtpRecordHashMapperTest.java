@@ -0,0 +1,132 @@
+package com.scrap.gain.otpmodule.repository;
+
+import com.scrap.gain.otpmodule.entity.OtpRecord;
+import com.scrap.gain.otpmodule.model.OtpPurpose;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("OtpRecord Hash Mapper Tests")
+class OtpRecordHashMapperTest {
+
+    private static final String PHONE = "+919876543210";
+
+    @Test
+    @DisplayName("Should round-trip a full record through the hash layout")
+    void shouldRoundTripFullRecord() {
+        OtpRecord record = sampleRecord();
+
+        Map<String, String> hash = OtpRecordHashMapper.toHash(record);
+
+        assertThat(hash)
+                .containsEntry(OtpRecordHashMapper.CREATED_AT, "1760000000000")
+                .containsEntry(OtpRecordHashMapper.VERIFIED, "0")
+                .containsEntry("m:sessionId", "abc-123");
+        assertThat(OtpRecordHashMapper.fromHash(hash)).isEqualTo(record);
+    }
+
+    @Test
+    @DisplayName("Should round-trip nulls and a verified record without metadata")
+    void shouldRoundTripNullsWithoutMetadata() {
+        OtpRecord record = OtpRecord.builder()
+                .id("custom-id")
+                .identifier("user@example.com")
+                .attemptCount(2)
+                .verified(true)
+                .build();
+
+        Map<String, String> hash = OtpRecordHashMapper.toHash(record);
+
+        assertThat(hash).doesNotContainKeys(OtpRecordHashMapper.OTP_HASH, OtpRecordHashMapper.PURPOSE,
+                OtpRecordHashMapper.CREATED_AT, OtpRecordHashMapper.EXPIRES_AT);
+        assertThat(hash.keySet()).noneMatch(field -> field.startsWith(OtpRecordHashMapper.METADATA_PREFIX));
+        OtpRecord decoded = OtpRecordHashMapper.fromHash(hash);
+        assertThat(decoded).isEqualTo(record);
+        assertThat(decoded.getMetadata()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should read a missing or empty hash as no record")
+    void shouldReadEmptyHashAsAbsent() {
+        assertThat(OtpRecordHashMapper.fromHash(null)).isNull();
+        assertThat(OtpRecordHashMapper.fromHash(Map.of())).isNull();
+    }
+
+    @Test
+    @DisplayName("Should parse epoch millis replies into instants")
+    void shouldParseInstant() {
+        assertThat(OtpRecordHashMapper.parseInstant("1760000300000"))
+                .isEqualTo(Instant.ofEpochSecond(1_760_000_300L));
+        assertThat(OtpRecordHashMapper.parseInstant(1_760_000_300_000L))
+                .isEqualTo(Instant.ofEpochSecond(1_760_000_300L));
+        assertThat(OtpRecordHashMapper.parseInstant(null)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should map an accepted hash-layout attempt reply")
+    void shouldMapAcceptedHashLayoutReply() {
+        OtpRecord stored = sampleRecord();
+        List<?> reply = List.of(OtpRedisScripts.ACCEPTED, 2L, stored.getId(), stored.getOtpHash(),
+                String.valueOf(stored.getExpiresAt().toEpochMilli()), "0");
+
+        ValidationAttempt attempt = OtpRedisScripts.toValidationAttempt(reply, true, PHONE, OtpPurpose.LOGIN, 5);
+
+        assertThat(attempt.status()).isEqualTo(ValidationAttempt.Status.ACCEPTED);
+        assertThat(attempt.attemptCount()).isEqualTo(2);
+        OtpRecord record = attempt.record();
+        assertThat(record.getId()).isEqualTo(stored.getId());
+        assertThat(record.getIdentifier()).isEqualTo(PHONE);
+        assertThat(record.getPurpose()).isEqualTo(OtpPurpose.LOGIN);
+        assertThat(record.getOtpHash()).isEqualTo(stored.getOtpHash());
+        assertThat(record.getExpiresAt()).isEqualTo(stored.getExpiresAt());
+        assertThat(record.isVerified()).isFalse();
+        assertThat(record.getAttemptCount()).isEqualTo(2);
+        assertThat(record.getMaxAttempts()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("Should map a verified hash-layout reply without an expiry")
+    void shouldMapVerifiedReplyWithoutExpiry() {
+        List<?> reply = Arrays.asList(OtpRedisScripts.ACCEPTED, 1L, "custom-id", "hash", null, "1");
+
+        ValidationAttempt attempt = OtpRedisScripts.toValidationAttempt(reply, true, PHONE, OtpPurpose.LOGIN, 5);
+
+        assertThat(attempt.record().isVerified()).isTrue();
+        assertThat(attempt.record().getExpiresAt()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should map not found and max attempts hash-layout replies")
+    void shouldMapRejectedHashLayoutReplies() {
+        ValidationAttempt notFound = OtpRedisScripts.toValidationAttempt(
+                List.of(OtpRedisScripts.NOT_FOUND, 0L), true, PHONE, OtpPurpose.LOGIN, 5);
+        ValidationAttempt maxAttempts = OtpRedisScripts.toValidationAttempt(
+                List.of(OtpRedisScripts.MAX_ATTEMPTS, 6L), true, PHONE, OtpPurpose.LOGIN, 5);
+
+        assertThat(notFound.status()).isEqualTo(ValidationAttempt.Status.NOT_FOUND);
+        assertThat(notFound.record()).isNull();
+        assertThat(maxAttempts.status()).isEqualTo(ValidationAttempt.Status.MAX_ATTEMPTS);
+        assertThat(maxAttempts.attemptCount()).isEqualTo(6);
+    }
+
+    private static OtpRecord sampleRecord() {
+        return OtpRecord.builder()
+                .id("3f2b8c4e-9a1d-4e6f-8b7a-2c5d9e0f1a3b")
+                .identifier(PHONE)
+                .otpHash("$2a$10$abcdefghijklmnopqrstuuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ01")
+                .purpose(OtpPurpose.LOGIN)
+                .attemptCount(1)
+                .maxAttempts(5)
+                .createdAt(Instant.ofEpochSecond(1_760_000_000L))
+                .expiresAt(Instant.ofEpochSecond(1_760_000_300L))
+                .verified(false)
+                .metadata(Map.of("sessionId", "abc-123"))
+                .build();
+    }
+}
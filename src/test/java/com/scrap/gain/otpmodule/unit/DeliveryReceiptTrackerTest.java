@@ -0,0 +1,139 @@
+package com.scrap.gain.otpmodule.unit;
+
+import com.scrap.gain.otpmodule.config.OtpConfigProperties;
+import com.scrap.gain.otpmodule.model.enums.SmsDeliveryStatus;
+import com.scrap.gain.otpmodule.service.sms.DeliveryReceipt;
+import com.scrap.gain.otpmodule.service.sms.DeliveryReceiptTracker;
+import com.scrap.gain.otpmodule.service.sms.SentMessage;
+import com.scrap.gain.otpmodule.service.sms.SmsDispatcher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Delivery Receipt Tracker Tests")
+class DeliveryReceiptTrackerTest {
+
+    @Mock private StringRedisTemplate stringRedisTemplate;
+    @Mock private ValueOperations<String, String> valueOperations;
+    @Mock private SmsDispatcher smsDispatcher;
+
+    private SimpleMeterRegistry registry;
+    private DeliveryReceiptTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        // Disabled: no worker thread, the tests drive process() directly
+        registry = new SimpleMeterRegistry();
+        tracker = new DeliveryReceiptTracker(stringRedisTemplate, smsDispatcher, registry,
+                new OtpConfigProperties());
+    }
+
+    @Test
+    @DisplayName("Should only turn final Twilio statuses into receipts")
+    void shouldParseTwilioCallbacks() {
+        // When & Then
+        assertThat(DeliveryReceipt.fromTwilio(Map.of("MessageSid", "SM1", "MessageStatus", "delivered"), 5L))
+                .contains(new DeliveryReceipt("TWILIO", "SM1", SmsDeliveryStatus.DELIVERED, "delivered", 5L));
+        assertThat(DeliveryReceipt.fromTwilio(Map.of("MessageSid", "SM1", "MessageStatus", "undelivered"), 5L))
+                .map(DeliveryReceipt::status).contains(SmsDeliveryStatus.UNDELIVERED);
+        assertThat(DeliveryReceipt.fromTwilio(Map.of("MessageSid", "SM1", "MessageStatus", "sent"), 5L)).isEmpty();
+        assertThat(DeliveryReceipt.fromTwilio(Map.of("MessageStatus", "delivered"), 5L)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should time SNS receipts from the publish timestamp plus dwell time")
+    void shouldParseSnsEvents() {
+        // Given
+        Map<String, Object> event = Map.of(
+                "notification", Map.of("messageId", "sns-1", "timestamp", "2024-01-01 00:00:00.000"),
+                "delivery", Map.of("dwellTimeMsUntilDeviceAck", 1500),
+                "status", "SUCCESS");
+
+        // When
+        DeliveryReceipt receipt = DeliveryReceipt.fromSns(event, 0L).orElseThrow();
+
+        // Then
+        assertThat(receipt.provider()).isEqualTo("AWS_SNS");
+        assertThat(receipt.status()).isEqualTo(SmsDeliveryStatus.DELIVERED);
+        assertThat(receipt.deliveredAtMillis()).isEqualTo(1_704_067_200_000L + 1500);
+        assertThat(DeliveryReceipt.fromSns(Map.of("status", "SUCCESS"), 0L)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should derive the country calling code for metric tags")
+    void shouldDeriveCountryPrefix() {
+        assertThat(DeliveryReceiptTracker.countryPrefix("+14155550100")).isEqualTo("1");
+        assertThat(DeliveryReceiptTracker.countryPrefix("+919876543210")).isEqualTo("91");
+        assertThat(DeliveryReceiptTracker.countryPrefix("+971501234567")).isEqualTo("971");
+        assertThat(DeliveryReceiptTracker.countryPrefix("user@example.com")).isEqualTo("unknown");
+        assertThat(DeliveryReceiptTracker.countryPrefix(null)).isEqualTo("unknown");
+    }
+
+    @Test
+    @DisplayName("Should match a batch with one read, record latency and status, and forget matched sends")
+    void shouldProcessBatch() {
+        // Given
+        long sentAt = System.currentTimeMillis() - 2000;
+        when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.multiGet(anyList())).thenReturn(Arrays.asList("ref-1|91|" + sentAt, null));
+        List<DeliveryReceipt> batch = List.of(
+                new DeliveryReceipt("TWILIO", "SM1", SmsDeliveryStatus.DELIVERED, "delivered", sentAt + 1200),
+                new DeliveryReceipt("TWILIO", "SM2", SmsDeliveryStatus.DELIVERED, "delivered", sentAt));
+
+        // When
+        tracker.process(batch);
+
+        // Then
+        verify(valueOperations).multiGet(List.of("otp:receipt:TWILIO:SM1", "otp:receipt:TWILIO:SM2"));
+        verify(smsDispatcher).recordStatus("ref-1", SmsDeliveryStatus.DELIVERED);
+        verify(stringRedisTemplate).delete(List.of("otp:receipt:TWILIO:SM1"));
+        assertThat(registry.get("otp.sms.delivery.latency").tag("country", "91").timer()
+                .totalTime(TimeUnit.MILLISECONDS)).isEqualTo(1200);
+        assertThat(registry.get("otp.sms.receipts").tag("result", "unmatched").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should only track sends when enabled and the provider returned a message id")
+    void shouldTrackSends() {
+        // Given
+        OtpConfigProperties config = new OtpConfigProperties();
+        config.getSms().getReceipts().setEnabled(true);
+        DeliveryReceiptTracker enabled = new DeliveryReceiptTracker(stringRedisTemplate, smsDispatcher,
+                new SimpleMeterRegistry(), config);
+        when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+
+        try {
+            // When
+            tracker.track("ref-0", "+919876543210", new SentMessage("TWILIO", "SM0"));
+            enabled.track("ref-1", "+919876543210", new SentMessage("MOCK", null));
+            enabled.track("ref-2", "+919876543210", new SentMessage("TWILIO", "SM2"));
+
+            // Then
+            ArgumentCaptor<String> value = ArgumentCaptor.forClass(String.class);
+            verify(valueOperations).set(eq("otp:receipt:TWILIO:SM2"), value.capture(), eq(Duration.ofMinutes(60)));
+            assertThat(value.getValue()).startsWith("ref-2|91|");
+            verifyNoMoreInteractions(valueOperations);
+        } finally {
+            enabled.shutdown();
+        }
+    }
+}
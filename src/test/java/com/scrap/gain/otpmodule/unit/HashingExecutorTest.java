@@ -0,0 +1,189 @@
+package com.scrap.gain.otpmodule.unit;
+
+import com.scrap.gain.otpmodule.config.OtpConfigProperties;
+import com.scrap.gain.otpmodule.exception.ErrorCode;
+import com.scrap.gain.otpmodule.exception.OtpException;
+import com.scrap.gain.otpmodule.util.HashingExecutor;
+import com.scrap.gain.otpmodule.util.OtpHasher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("Hashing Executor Tests")
+class HashingExecutorTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final OtpHasher otpHasher = mock(OtpHasher.class);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch started = new CountDownLatch(1);
+
+    private HashingExecutor hashingExecutor;
+
+    @BeforeEach
+    void setUp() {
+        OtpConfigProperties config = new OtpConfigProperties();
+        config.getHashing().setThreads(1);
+        config.getHashing().setQueueCapacity(1);
+        config.getHashing().setMaxWaitMillis(200);
+        hashingExecutor = new HashingExecutor(otpHasher, config, registry);
+
+        // "slow" blocks the only thread until released
+        when(otpHasher.hash("slow")).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return "slow-hash";
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        hashingExecutor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should hash on the pool and record queue wait")
+    void shouldHashOnPool() {
+        // Given
+        when(otpHasher.hash("123456")).thenReturn("hashed");
+
+        // When
+        String hash = hashingExecutor.hash("123456");
+
+        // Then
+        assertThat(hash).isEqualTo("hashed");
+        assertThat(registry.get("otp.hashing.wait").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should shed requests when the queue is full")
+    void shouldShedWhenQueueIsFull() throws Exception {
+        // Given - occupy the only thread, then fill the only queue slot
+        hashingExecutor.hashAsync("slow");
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        hashingExecutor.hashAsync("queued");
+
+        // When / Then
+        assertThatThrownBy(() -> hashingExecutor.hash("123456"))
+                .isInstanceOf(OtpException.class)
+                .extracting("errorCode")
+                .isEqualTo(ErrorCode.HASHING_OVERLOADED);
+        assertThat(registry.get("otp.hashing.rejected").counter().count()).isEqualTo(1);
+        assertThat(registry.get("otp.hashing.queue.depth").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should shed requests that wait longer than max wait")
+    void shouldShedAfterMaxWait() throws Exception {
+        // Given
+        hashingExecutor.hashAsync("slow");
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // When / Then
+        assertThatThrownBy(() -> hashingExecutor.hash("123456"))
+                .isInstanceOf(OtpException.class)
+                .extracting("errorCode")
+                .isEqualTo(ErrorCode.HASHING_OVERLOADED);
+    }
+
+    @Test
+    @DisplayName("Should refuse a reservation when the pool is full and free unused ones")
+    void shouldRefuseReservationWhenFull() throws Exception {
+        // Given - occupy the only thread, then hold the only queue slot
+        hashingExecutor.hashAsync("slow");
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        HashingExecutor.Reservation held = hashingExecutor.reserve();
+
+        // When / Then
+        assertThatThrownBy(() -> hashingExecutor.reserve())
+                .isInstanceOf(OtpException.class)
+                .extracting("errorCode")
+                .isEqualTo(ErrorCode.HASHING_OVERLOADED);
+
+        held.close();
+        hashingExecutor.reserve().close();
+    }
+
+    @Test
+    @DisplayName("Should not shed a reserved verification past max wait")
+    void shouldRunReservedVerificationPastMaxWait() throws Exception {
+        // Given - the reservation is taken while the only thread is busy past max wait
+        when(otpHasher.verify("123456", "hashed")).thenReturn(true);
+        hashingExecutor.hashAsync("slow");
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        HashingExecutor.Reservation slot = hashingExecutor.reserve();
+        Thread releaser = new Thread(() -> {
+            try {
+                Thread.sleep(400);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            release.countDown();
+        });
+
+        // When
+        releaser.start();
+        boolean valid = hashingExecutor.verify(slot, "123456", "hashed");
+
+        // Then
+        assertThat(valid).isTrue();
+        assertThat(registry.get("otp.hashing.rejected").counter().count()).isZero();
+        releaser.join(5000);
+    }
+
+    @Test
+    @DisplayName("Should hash a batch within one queue slot per thread, in order")
+    void shouldHashBatchInOrder() {
+        // Given
+        when(otpHasher.hash("111111")).thenReturn("h1");
+        when(otpHasher.hash("222222")).thenReturn("h2");
+        when(otpHasher.hash("333333")).thenReturn("h3");
+
+        // When
+        List<String> hashes = hashingExecutor.hashAll(List.of("111111", "222222", "333333"));
+
+        // Then
+        assertThat(hashes).containsExactly("h1", "h2", "h3");
+    }
+
+    @Test
+    @DisplayName("Should leave a thread free for interactive calls while a batch runs")
+    void shouldKeepThreadForInteractiveCalls() throws Exception {
+        // Given - two threads, the batch may use one of them
+        OtpConfigProperties config = new OtpConfigProperties();
+        config.getHashing().setThreads(2);
+        config.getHashing().setMaxWaitMillis(1000);
+        HashingExecutor twoThreads = new HashingExecutor(otpHasher, config, new SimpleMeterRegistry());
+        when(otpHasher.hash("123456")).thenReturn("hashed");
+        List<String> batch = new ArrayList<>(Collections.nCopies(20, "slow"));
+        Thread batchCaller = new Thread(() -> twoThreads.hashAll(batch));
+
+        try {
+            batchCaller.start();
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+            // When
+            String hash = twoThreads.hash("123456");
+
+            // Then
+            assertThat(hash).isEqualTo("hashed");
+        } finally {
+            release.countDown();
+            batchCaller.join(5000);
+            twoThreads.shutdown();
+        }
+    }
+}
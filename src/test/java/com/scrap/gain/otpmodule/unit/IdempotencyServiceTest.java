@@ -0,0 +1,223 @@
+package com.scrap.gain.otpmodule.unit;
+
+import com.scrap.gain.otpmodule.config.OtpConfigProperties;
+import com.scrap.gain.otpmodule.dto.OtpResponse;
+import com.scrap.gain.otpmodule.exception.ErrorCode;
+import com.scrap.gain.otpmodule.exception.OtpException;
+import com.scrap.gain.otpmodule.repository.RedisCircuitBreaker;
+import com.scrap.gain.otpmodule.service.IdempotencyService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Idempotency Service Tests")
+class IdempotencyServiceTest {
+
+    private static final String PHONE = "+919876543210";
+    private static final String KEY = "retry-key-1";
+    private static final String REDIS_KEY = "otp:{" + PHONE + "}:idem:generate:" + KEY;
+    private static final Instant EXPIRES_AT = Instant.ofEpochMilli(1_700_000_300_000L);
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    private IdempotencyService idempotencyService;
+    private AtomicInteger executions;
+
+    @BeforeEach
+    void setUp() {
+        OtpConfigProperties config = new OtpConfigProperties();
+        idempotencyService = new IdempotencyService(stringRedisTemplate, config,
+                new RedisCircuitBreaker(config, new SimpleMeterRegistry()));
+        executions = new AtomicInteger();
+    }
+
+    @Test
+    @DisplayName("Should run without Redis when no key is sent")
+    void shouldRunWithoutKey() {
+        // When
+        OtpResponse response = idempotencyService.execute(null, "generate", PHONE, "LOGIN", action());
+
+        // Then
+        assertThat(response.getReferenceId()).isEqualTo("ref-1");
+        assertThat(executions).hasValue(1);
+        verifyNoInteractions(stringRedisTemplate);
+    }
+
+    @Test
+    @DisplayName("Should run the first request and store its response")
+    void shouldRunAndStoreFirstRequest() {
+        // Given
+        when(stringRedisTemplate.execute(any(RedisScript.class), eq(List.of(REDIS_KEY)), any(Object[].class)))
+                .thenReturn(List.of());
+
+        // When
+        OtpResponse response = idempotencyService.execute(KEY, "generate", PHONE, "LOGIN", action());
+
+        // Then
+        assertThat(response.getReferenceId()).isEqualTo("ref-1");
+        assertThat(executions).hasValue(1);
+        verify(stringRedisTemplate, times(2)).execute(any(RedisScript.class), eq(List.of(REDIS_KEY)),
+                any(Object[].class));
+    }
+
+    @Test
+    @DisplayName("Should replay the stored response without running again")
+    void shouldReplayCompletedRequest() {
+        // Given
+        when(stringRedisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class)))
+                .thenReturn(List.of("state", "DONE", "fingerprint", "LOGIN", "referenceId", "ref-1",
+                        "maskedIdentifier", "****3210", "expiresAt", String.valueOf(EXPIRES_AT.toEpochMilli()),
+                        "message", "OTP sent successfully"));
+
+        // When
+        OtpResponse response = idempotencyService.execute(KEY, "generate", PHONE, "LOGIN", action());
+
+        // Then
+        assertThat(response).isEqualTo(OtpResponse.success("ref-1", "****3210", EXPIRES_AT));
+        assertThat(executions).hasValue(0);
+    }
+
+    @Test
+    @DisplayName("Should replay the entry the scripts leave after claim and complete")
+    void shouldReplayAfterClaimAndComplete() {
+        // Given
+        Map<String, Map<String, String>> hashes = new HashMap<>();
+        when(stringRedisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class)))
+                .thenAnswer(invocation -> runScript(hashes, invocation.getArguments()));
+        idempotencyService.execute(KEY, "generate", PHONE, "LOGIN", action());
+
+        // When
+        OtpResponse replayed = idempotencyService.execute(KEY, "generate", PHONE, "LOGIN", action());
+
+        // Then
+        assertThat(replayed).isEqualTo(OtpResponse.success("ref-1", "****3210", EXPIRES_AT));
+        assertThat(executions).hasValue(1);
+        assertThat(hashes.get(REDIS_KEY)).containsEntry("fingerprint", "LOGIN").doesNotContainKey("owner");
+        assertThatThrownBy(() -> idempotencyService.execute(KEY, "generate", PHONE, "REGISTRATION", action()))
+                .isInstanceOf(OtpException.class)
+                .extracting("errorCode").isEqualTo(ErrorCode.IDEMPOTENCY_KEY_REUSED);
+    }
+
+    @Test
+    @DisplayName("Should reject duplicates in flight and keys reused for another request")
+    void shouldRejectInFlightAndReusedKeys() {
+        // Given
+        when(stringRedisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class)))
+                .thenReturn(List.of("state", "PENDING", "fingerprint", "LOGIN", "owner", "other"));
+
+        // When & Then
+        assertThatThrownBy(() -> idempotencyService.execute(KEY, "generate", PHONE, "LOGIN", action()))
+                .isInstanceOf(OtpException.class)
+                .extracting("errorCode").isEqualTo(ErrorCode.IDEMPOTENCY_KEY_IN_USE);
+        assertThatThrownBy(() -> idempotencyService.execute(KEY, "generate", PHONE, "REGISTRATION", action()))
+                .isInstanceOf(OtpException.class)
+                .extracting("errorCode").isEqualTo(ErrorCode.IDEMPOTENCY_KEY_REUSED);
+        assertThat(executions).hasValue(0);
+    }
+
+    @Test
+    @DisplayName("Should release the key when the request fails")
+    void shouldReleaseKeyOnFailure() {
+        // Given
+        when(stringRedisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class)))
+                .thenReturn(List.of());
+
+        // When & Then
+        assertThatThrownBy(() -> idempotencyService.execute(KEY, "generate", PHONE, "LOGIN", () -> {
+            throw new OtpException(ErrorCode.SMS_QUEUE_FULL);
+        })).isInstanceOf(OtpException.class);
+        verify(stringRedisTemplate).execute(any(RedisScript.class), eq(List.of(REDIS_KEY)), anyString());
+    }
+
+    @Test
+    @DisplayName("Should run without idempotency when Redis is unavailable")
+    void shouldFailOpen() {
+        // Given
+        when(stringRedisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class)))
+                .thenThrow(new RedisConnectionFailureException("connection refused"));
+
+        // When
+        OtpResponse response = idempotencyService.execute(KEY, "generate", PHONE, "LOGIN", action());
+
+        // Then
+        assertThat(response.getReferenceId()).isEqualTo("ref-1");
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Should reject oversized keys")
+    void shouldRejectOversizedKey() {
+        assertThatThrownBy(() -> idempotencyService.execute("k".repeat(65), "generate", PHONE, "LOGIN", action()))
+                .isInstanceOf(OtpException.class)
+                .extracting("errorCode").isEqualTo(ErrorCode.INVALID_REQUEST);
+    }
+
+    /**
+     * Applies the Redis commands of the claim, complete and release scripts to an in-memory hash
+     */
+    private static Object runScript(Map<String, Map<String, String>> hashes, Object[] arguments) {
+        String script = ((RedisScript<?>) arguments[0]).getScriptAsString();
+        String key = ((List<?>) arguments[1]).get(0).toString();
+        List<String> argv = Arrays.stream(arguments, 2, arguments.length).map(String::valueOf).toList();
+        Map<String, String> hash = hashes.get(key);
+
+        if (script.contains("'EXISTS'")) {
+            if (hash == null) {
+                hashes.put(key, new HashMap<>(Map.of("state", "PENDING", "fingerprint", argv.get(0),
+                        "owner", argv.get(1))));
+                return List.of();
+            }
+            List<String> flat = new ArrayList<>();
+            hash.forEach((field, value) -> {
+                flat.add(field);
+                flat.add(value);
+            });
+            return flat;
+        }
+        if (hash == null || !argv.get(0).equals(hash.get("owner"))) {
+            return 0L;
+        }
+        if (script.contains("unpack")) {
+            hash.remove("owner");
+            for (int i = 2; i + 1 < argv.size(); i += 2) {
+                hash.put(argv.get(i), argv.get(i + 1));
+            }
+        } else {
+            hashes.remove(key);
+        }
+        return 1L;
+    }
+
+    private Supplier<OtpResponse> action() {
+        return () -> {
+            executions.incrementAndGet();
+            return OtpResponse.success("ref-1", "****3210", EXPIRES_AT);
+        };
+    }
+}
@@ -0,0 +1,172 @@
+package com.scrap.gain.otpmodule.unit;
+
+import com.scrap.gain.otpmodule.config.OtpConfigProperties;
+import com.scrap.gain.otpmodule.entity.OtpRecord;
+import com.scrap.gain.otpmodule.exception.ErrorCode;
+import com.scrap.gain.otpmodule.exception.OtpException;
+import com.scrap.gain.otpmodule.model.OtpPurpose;
+import com.scrap.gain.otpmodule.repository.InMemoryOtpRepository;
+import com.scrap.gain.otpmodule.repository.ValidationAttempt;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("In-Memory OTP Repository Tests")
+class InMemoryOtpRepositoryTest {
+
+    private static final String PHONE = "+919876543210";
+
+    private final AtomicLong clock = new AtomicLong();
+    private OtpConfigProperties config;
+    private InMemoryOtpRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        config = new OtpConfigProperties();
+        config.getStore().setMaxEntries(2);
+        // Long real-time tick so only the test drives the wheel
+        config.getStore().setWheelTickMillis(60_000);
+        config.getStore().setWheelSize(8);
+        repository = new InMemoryOtpRepository(config, clock::get);
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should return a copy of the saved record")
+    void shouldFindSavedRecord() {
+        // Given
+        repository.save(record(PHONE));
+
+        // When
+        OtpRecord found = repository.findByIdentifierAndPurpose(PHONE, OtpPurpose.LOGIN).orElseThrow();
+        found.setVerified(true);
+
+        // Then
+        assertThat(found.getOtpHash()).isEqualTo("hash");
+        assertThat(repository.findByIdentifierAndPurpose(PHONE, OtpPurpose.LOGIN).orElseThrow().isVerified())
+                .isFalse();
+    }
+
+    @Test
+    @DisplayName("Should count attempts and remove record past max attempts")
+    void shouldCountAttemptsAndRemovePastMax() {
+        // Given
+        repository.save(record(PHONE));
+
+        // When & Then
+        assertThat(repository.attemptValidation(PHONE, OtpPurpose.LOGIN, 2).attemptCount()).isEqualTo(1);
+        assertThat(repository.attemptValidation(PHONE, OtpPurpose.LOGIN, 2).attemptCount()).isEqualTo(2);
+
+        ValidationAttempt third = repository.attemptValidation(PHONE, OtpPurpose.LOGIN, 2);
+        assertThat(third.status()).isEqualTo(ValidationAttempt.Status.MAX_ATTEMPTS);
+        assertThat(repository.exists(PHONE, OtpPurpose.LOGIN)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should expire records when the wheel reaches their deadline")
+    void shouldExpireRecordsOnWheelTick() {
+        // Given
+        repository.save(record(PHONE));
+        long ttlNanos = Duration.ofMinutes(config.getExpiryMinutes()).toNanos();
+
+        // When
+        clock.set(ttlNanos - 1);
+        repository.expireDue();
+
+        // Then
+        assertThat(repository.size()).isEqualTo(1);
+
+        clock.set(ttlNanos + Duration.ofMinutes(1).toNanos());
+        repository.expireDue();
+
+        assertThat(repository.size()).isZero();
+        assertThat(repository.attemptValidation(PHONE, OtpPurpose.LOGIN, 5).status())
+                .isEqualTo(ValidationAttempt.Status.NOT_FOUND);
+    }
+
+    @Test
+    @DisplayName("Should reject new records once capacity is reached")
+    void shouldRejectWhenFull() {
+        // Given
+        repository.save(record("+919876543211"));
+        repository.save(record("+919876543212"));
+
+        // When & Then
+        assertThatThrownBy(() -> repository.save(record(PHONE)))
+                .isInstanceOf(OtpException.class)
+                .extracting("errorCode")
+                .isEqualTo(ErrorCode.OTP_STORE_FULL);
+    }
+
+    @Test
+    @DisplayName("Should replace a record and reset attempts only after the cooldown")
+    void shouldReplaceAfterCooldown() {
+        // Given
+        repository.save(record(PHONE));
+        repository.attemptValidation(PHONE, OtpPurpose.LOGIN, 5);
+        Duration cooldown = Duration.ofSeconds(30);
+
+        // When & Then
+        clock.set(cooldown.toNanos() - 1);
+        assertThat(repository.replaceAfterCooldown(record(PHONE), cooldown)).isFalse();
+
+        clock.set(cooldown.toNanos());
+        assertThat(repository.replaceAfterCooldown(record(PHONE), cooldown)).isTrue();
+        assertThat(repository.replaceAfterCooldown(record(PHONE), cooldown)).isFalse();
+        assertThat(repository.attemptValidation(PHONE, OtpPurpose.LOGIN, 5).attemptCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should create a record only while none is live")
+    void shouldCreateIfAbsent() {
+        // Given
+        OtpRecord first = record(PHONE);
+
+        // When & Then
+        assertThat(repository.createIfAbsent(first)).isTrue();
+        assertThat(repository.createIfAbsent(record(PHONE))).isFalse();
+        assertThat(repository.findByIdentifierAndPurpose(PHONE, OtpPurpose.LOGIN).orElseThrow().getId())
+                .isEqualTo(first.getId());
+
+        clock.set(Duration.ofMinutes(config.getExpiryMinutes()).toNanos());
+        assertThat(repository.createIfAbsent(record(PHONE))).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should accept a token nonce once until its marker expires")
+    void shouldMarkTokenUsedOnce() {
+        // When & Then
+        assertThat(repository.markTokenUsed(PHONE, "nonce", Duration.ofMinutes(5))).isTrue();
+        assertThat(repository.markTokenUsed(PHONE, "nonce", Duration.ofMinutes(5))).isFalse();
+        assertThat(repository.markTokenUsed(PHONE, "other", Duration.ofMinutes(5))).isTrue();
+
+        clock.set(Duration.ofMinutes(6).toNanos());
+        repository.expireDue();
+
+        assertThat(repository.markTokenUsed(PHONE, "nonce", Duration.ofMinutes(5))).isTrue();
+    }
+
+    private static OtpRecord record(String identifier) {
+        return OtpRecord.builder()
+                .id(OtpRecord.generateId())
+                .identifier(identifier)
+                .purpose(OtpPurpose.LOGIN)
+                .otpHash("hash")
+                .maxAttempts(5)
+                .createdAt(Instant.now())
+                .expiresAt(Instant.now().plusSeconds(300))
+                .build();
+    }
+}
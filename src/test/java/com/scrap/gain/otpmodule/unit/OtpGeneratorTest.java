@@ -9,8 +9,12 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.security.SecureRandom;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.when;
@@ -67,4 +71,61 @@ class OtpGeneratorTest {
         assertThat(otp).hasSize(6);
         assertThat(otp).matches("[0-9A-Z]{6}");
     }
+
+    @Test
+    @DisplayName("Should skip bytes at or above the largest multiple of the digit count")
+    void shouldRejectBiasedDigitBytes() {
+        // 0-249 hold each digit 25 times; 250-255 would give 0-5 a 26th, so they are never used
+        OtpGenerator generator = new OtpGenerator(config,
+                () -> scriptedRandom(250, 3, 255, 17, 251, 252, 253, 254, 49, 0, 249, 99));
+
+        String otp = generator.generate();
+
+        assertThat(otp).isEqualTo("379099");
+    }
+
+    @Test
+    @DisplayName("Should skip bytes at or above the largest multiple of the alphabet size")
+    void shouldRejectBiasedAlphanumericBytes() {
+        // 36 symbols: 252-255 are rejected, 251 is the last accepted byte
+        OtpGenerator generator = new OtpGenerator(config,
+                () -> scriptedRandom(252, 251, 255, 0, 35, 36, 253, 71, 10));
+
+        String otp = generator.generateAlphanumeric();
+
+        assertThat(otp).isEqualTo("Z0Z0ZA");
+    }
+
+    @Test
+    @DisplayName("Should generate independently on many threads")
+    void shouldGenerateOnManyThreads() throws Exception {
+        Set<String> otps = ConcurrentHashMap.newKeySet();
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(4)) {
+            for (int t = 0; t < 4; t++) {
+                executor.submit(() -> {
+                    for (int i = 0; i < 250; i++) {
+                        otps.add(otpGenerator.generate());
+                    }
+                });
+            }
+        }
+
+        assertThat(otps).allMatch(otp -> otp.matches("\\d{6}"));
+        assertThat(otps.size()).isGreaterThan(900);
+    }
+
+    // Random source returning the given bytes first, then zeros
+    private static SecureRandom scriptedRandom(int... script) {
+        return new SecureRandom() {
+            private int next;
+
+            @Override
+            public void nextBytes(byte[] bytes) {
+                for (int i = 0; i < bytes.length; i++) {
+                    bytes[i] = (byte) (next < script.length ? script[next++] : 0);
+                }
+            }
+        };
+    }
 }
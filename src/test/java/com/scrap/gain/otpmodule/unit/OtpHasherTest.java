@@ -1,11 +1,14 @@
 package com.scrap.gain.otpmodule.unit;
 
+import com.scrap.gain.otpmodule.config.OtpConfigProperties;
+import com.scrap.gain.otpmodule.model.enums.HashAlgorithm;
 import com.scrap.gain.otpmodule.util.OtpHasher;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @DisplayName("OTP Hasher Tests")
 class OtpHasherTest {
@@ -14,7 +17,7 @@ class OtpHasherTest {
 
     @BeforeEach
     void setUp() {
-        otpHasher = new OtpHasher();
+        otpHasher = new OtpHasher(new OtpConfigProperties());
     }
 
     @Test
@@ -84,4 +87,74 @@ class OtpHasherTest {
 
         assertThat(salt1).isNotEqualTo(salt2);
     }
+
+    @Test
+    @DisplayName("Should reject incorrect OTP with SHA-256")
+    void shouldRejectIncorrectOtpWithSha256() {
+        String salt = otpHasher.generateSalt();
+        String hashedOtp = otpHasher.hashWithSha256("123456", salt);
+
+        boolean isValid = otpHasher.verifySha256("654321", hashedOtp, salt);
+
+        assertThat(isValid).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should hash with tagged HMAC-SHA256 when configured")
+    void shouldHashWithTaggedHmacWhenConfigured() {
+        OtpHasher hmacHasher = new OtpHasher(hmacConfig());
+
+        String hashedOtp = hmacHasher.hash("123456");
+
+        assertThat(hashedOtp).startsWith(OtpHasher.HMAC_PREFIX);
+        assertThat(hmacHasher.verify("123456", hashedOtp)).isTrue();
+        assertThat(hmacHasher.verify("654321", hashedOtp)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should salt HMAC hashes so equal OTPs hash differently")
+    void shouldSaltHmacHashes() {
+        OtpHasher hmacHasher = new OtpHasher(hmacConfig());
+
+        assertThat(hmacHasher.hash("123456")).isNotEqualTo(hmacHasher.hash("123456"));
+    }
+
+    @Test
+    @DisplayName("Should verify BCrypt and HMAC hashes side by side")
+    void shouldVerifyBcryptAndHmacHashesSideBySide() {
+        OtpHasher hmacHasher = new OtpHasher(hmacConfig());
+        String legacyHash = hmacHasher.hashWithBcrypt("123456");
+        String hmacHash = hmacHasher.hash("123456");
+
+        assertThat(hmacHasher.verify("123456", legacyHash)).isTrue();
+        assertThat(hmacHasher.verify("123456", hmacHash)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should reject HMAC hash created with a different pepper")
+    void shouldRejectHmacHashWithDifferentPepper() {
+        String hashedOtp = new OtpHasher(hmacConfig()).hash("123456");
+
+        OtpConfigProperties otherConfig = hmacConfig();
+        otherConfig.getHashing().setPepper("another-pepper");
+
+        assertThat(new OtpHasher(otherConfig).verify("123456", hashedOtp)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should require pepper for HMAC-SHA256")
+    void shouldRequirePepperForHmac() {
+        OtpConfigProperties config = new OtpConfigProperties();
+        config.getHashing().setAlgorithm(HashAlgorithm.HMAC_SHA256);
+
+        assertThatThrownBy(() -> new OtpHasher(config))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private static OtpConfigProperties hmacConfig() {
+        OtpConfigProperties config = new OtpConfigProperties();
+        config.getHashing().setAlgorithm(HashAlgorithm.HMAC_SHA256);
+        config.getHashing().setPepper("test-pepper");
+        return config;
+    }
 }
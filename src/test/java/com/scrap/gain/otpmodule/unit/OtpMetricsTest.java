@@ -0,0 +1,60 @@
+package com.scrap.gain.otpmodule.unit;
+
+import com.scrap.gain.otpmodule.dto.OtpResponse;
+import com.scrap.gain.otpmodule.exception.ErrorCode;
+import com.scrap.gain.otpmodule.exception.OtpException;
+import com.scrap.gain.otpmodule.metrics.OtpMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("OTP Metrics Tests")
+class OtpMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final OtpMetrics otpMetrics = new OtpMetrics(registry);
+
+    @Test
+    @DisplayName("Should time operation and count success")
+    void shouldTimeOperationAndCountSuccess() {
+        // When
+        otpMetrics.track("generate", () -> OtpResponse.success("ref", "+91****3210", Instant.now()));
+
+        // Then
+        assertThat(registry.get("otp.request").tag("operation", "generate").timer().count())
+                .isEqualTo(1);
+        assertThat(registry.get("otp.outcome").tags("operation", "generate", "outcome", OtpMetrics.SUCCESS)
+                .counter().count()).isEqualTo(1);
+        assertThat(registry.get("otp.request.inflight").tag("operation", "generate").gauge().value())
+                .isZero();
+    }
+
+    @Test
+    @DisplayName("Should count error code as outcome")
+    void shouldCountErrorCodeAsOutcome() {
+        // When
+        assertThatThrownBy(() -> otpMetrics.track("validate", () -> {
+            throw new OtpException(ErrorCode.OTP_EXPIRED);
+        })).isInstanceOf(OtpException.class);
+
+        // Then
+        assertThat(registry.get("otp.outcome").tags("operation", "validate", "outcome", "OTP_EXPIRED")
+                .counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should tag SMS send timer with provider and result")
+    void shouldTagSmsSendTimer() {
+        // When
+        otpMetrics.timeSend("MOCK", () -> false);
+
+        // Then
+        assertThat(registry.get("otp.sms.send").tags("provider", "MOCK", "result", "failed")
+                .timer().count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,106 @@
+package com.scrap.gain.otpmodule.unit;
+
+import com.scrap.gain.otpmodule.entity.OtpRecord;
+import com.scrap.gain.otpmodule.model.OtpPurpose;
+import com.scrap.gain.otpmodule.model.enums.RedisCodec;
+import com.scrap.gain.otpmodule.repository.OtpRecordRedisSerializer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.JacksonJsonRedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("OtpRecord Redis Serializer Tests")
+class OtpRecordRedisSerializerTest {
+
+    private final OtpRecordRedisSerializer serializer = new OtpRecordRedisSerializer(RedisCodec.BINARY);
+
+    @Test
+    @DisplayName("Should round-trip a full record through the binary codec")
+    void shouldRoundTripFullRecord() {
+        OtpRecord record = sampleRecord();
+
+        OtpRecord decoded = serializer.deserialize(serializer.serialize(record));
+
+        assertThat(decoded).isEqualTo(record);
+    }
+
+    @Test
+    @DisplayName("Should round-trip nulls and non-UUID ids")
+    void shouldRoundTripNullsAndNonUuidIds() {
+        OtpRecord record = OtpRecord.builder()
+                .id("custom-id")
+                .identifier("user@example.com")
+                .attemptCount(2)
+                .build();
+
+        OtpRecord decoded = serializer.deserialize(serializer.serialize(record));
+
+        assertThat(decoded).isEqualTo(record);
+    }
+
+    @Test
+    @DisplayName("Should read legacy JSON values")
+    void shouldReadLegacyJsonValues() {
+        OtpRecord record = sampleRecord();
+        byte[] json = new JacksonJsonRedisSerializer<>(OtpRecord.class).serialize(record);
+
+        OtpRecord decoded = serializer.deserialize(json);
+
+        assertThat(decoded.getId()).isEqualTo(record.getId());
+        assertThat(decoded.getOtpHash()).isEqualTo(record.getOtpHash());
+        assertThat(decoded.getExpiresAt()).isEqualTo(record.getExpiresAt());
+    }
+
+    @Test
+    @DisplayName("Should write JSON when configured for rollback")
+    void shouldWriteJsonWhenConfigured() {
+        OtpRecordRedisSerializer jsonWriter = new OtpRecordRedisSerializer(RedisCodec.JSON);
+
+        byte[] bytes = jsonWriter.serialize(sampleRecord());
+
+        assertThat(bytes[0]).isEqualTo((byte) '{');
+        assertThat(serializer.deserialize(bytes)).isEqualTo(sampleRecord());
+    }
+
+    @Test
+    @DisplayName("Should encode smaller than JSON")
+    void shouldEncodeSmallerThanJson() {
+        OtpRecord record = sampleRecord();
+
+        byte[] binary = serializer.serialize(record);
+        byte[] json = new JacksonJsonRedisSerializer<>(OtpRecord.class).serialize(record);
+
+        assertThat(binary.length).isLessThan(json.length / 2);
+    }
+
+    @Test
+    @DisplayName("Should reject truncated values")
+    void shouldRejectTruncatedValues() {
+        byte[] bytes = serializer.serialize(sampleRecord());
+
+        assertThatThrownBy(() -> serializer.deserialize(Arrays.copyOf(bytes, bytes.length - 5)))
+                .isInstanceOf(SerializationException.class);
+    }
+
+    private static OtpRecord sampleRecord() {
+        return OtpRecord.builder()
+                .id("3f2b8c4e-9a1d-4e6f-8b7a-2c5d9e0f1a3b")
+                .identifier("+919876543210")
+                .otpHash("$2a$10$abcdefghijklmnopqrstuuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ01")
+                .purpose(OtpPurpose.LOGIN)
+                .attemptCount(1)
+                .maxAttempts(5)
+                .createdAt(Instant.ofEpochSecond(1_760_000_000L))
+                .expiresAt(Instant.ofEpochSecond(1_760_000_300L))
+                .verified(false)
+                .metadata(Map.of("sessionId", "abc-123"))
+                .build();
+    }
+}
@@ -1,34 +1,56 @@
 package com.scrap.gain.otpmodule.unit;
 
 import com.scrap.gain.otpmodule.config.OtpConfigProperties;
+import com.scrap.gain.otpmodule.dto.OtpBatchGenerateRequest;
+import com.scrap.gain.otpmodule.dto.OtpBatchResponse;
 import com.scrap.gain.otpmodule.dto.OtpGenerateRequest;
+import com.scrap.gain.otpmodule.dto.OtpResendRequest;
 import com.scrap.gain.otpmodule.dto.OtpResponse;
 import com.scrap.gain.otpmodule.dto.OtpValidateRequest;
+import com.scrap.gain.otpmodule.dto.TokenVerifyRequest;
 import com.scrap.gain.otpmodule.entity.OtpRecord;
 import com.scrap.gain.otpmodule.exception.ErrorCode;
 import com.scrap.gain.otpmodule.exception.OtpException;
+import com.scrap.gain.otpmodule.metrics.OtpMetrics;
 import com.scrap.gain.otpmodule.model.OtpPurpose;
 import com.scrap.gain.otpmodule.repository.OtpRepository;
+import com.scrap.gain.otpmodule.repository.OutboxEntry;
+import com.scrap.gain.otpmodule.repository.RecordWrite;
+import com.scrap.gain.otpmodule.repository.ValidationAttempt;
 import com.scrap.gain.otpmodule.service.SmsService;
+import com.scrap.gain.otpmodule.service.ValidationGuard;
 import com.scrap.gain.otpmodule.service.impl.OtpServiceImpl;
+import com.scrap.gain.otpmodule.service.sms.SmsOutbox;
+import com.scrap.gain.otpmodule.util.HashingExecutor;
 import com.scrap.gain.otpmodule.util.MaskingUtil;
 import com.scrap.gain.otpmodule.util.OtpGenerator;
-import com.scrap.gain.otpmodule.util.OtpHasher;
+import com.scrap.gain.otpmodule.util.PrehashedOtpPool;
+import com.scrap.gain.otpmodule.util.VerificationTokenIssuer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -38,27 +60,40 @@ class OtpServiceTest {
     @Mock
     private OtpRepository otpRepository;
     @Mock private OtpGenerator otpGenerator;
-    @Mock private OtpHasher otpHasher;
+    @Mock private HashingExecutor hashingExecutor;
+    @Mock private PrehashedOtpPool prehashedOtpPool;
     @Mock private MaskingUtil maskingUtil;
     @Mock (strictness = Mock.Strictness.LENIENT) private OtpConfigProperties config;
     @Mock private SmsService smsService;
+    @Mock private SmsOutbox smsOutbox;
+    @Mock private ValidationGuard validationGuard;
 
     private OtpServiceImpl otpService;
+    private VerificationTokenIssuer tokenIssuer;
 
     private static final String PHONE = "+919876543210";
     private static final String OTP = "123456";
     private static final String HASHED_OTP = "$2a$10$hashedOtp";
+    private static final OutboxEntry OUTBOX_JOB = new OutboxEntry(SmsOutbox.STREAM_KEY, Map.of(), 1000);
 
     @BeforeEach
     void setUp() {
+        OtpConfigProperties tokenConfig = new OtpConfigProperties();
+        tokenConfig.getToken().setSecret("test-token-secret");
+        tokenIssuer = new VerificationTokenIssuer(tokenConfig);
+
         otpService = new OtpServiceImpl(
-                otpRepository, otpGenerator, otpHasher,
-                maskingUtil, config, smsService
+                otpRepository, otpGenerator, hashingExecutor, prehashedOtpPool, tokenIssuer,
+                maskingUtil, config, smsService, smsOutbox, validationGuard,
+                new OtpMetrics(new SimpleMeterRegistry()),
+                Validation.buildDefaultValidatorFactory().getValidator()
         );
 
         when(config.getMaxAttempts()).thenReturn(5);
         when(config.getExpiryMinutes()).thenReturn(5);
-        when(maskingUtil.maskIdentifier(anyString())).thenReturn("+91****3210");
+        lenient().when(maskingUtil.maskIdentifier(anyString())).thenReturn("+91****3210");
+        lenient().when(validationGuard.run(anyString(), any(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(2).get());
     }
 
     // ============ Generate OTP Tests ============
@@ -72,12 +107,10 @@ class OtpServiceTest {
                 .purpose(OtpPurpose.LOGIN)
                 .build();
 
-        when(otpRepository.findByIdentifierAndPurpose(PHONE, OtpPurpose.LOGIN))
-                .thenReturn(Optional.empty());
         when(otpGenerator.generate()).thenReturn(OTP);
-        when(otpHasher.hashWithBcrypt(OTP)).thenReturn(HASHED_OTP);
-        when(otpRepository.save(any(OtpRecord.class))).thenAnswer(i -> i.getArgument(0));
-        doNothing().when(smsService).sendOtp(anyString(), anyString());
+        when(hashingExecutor.hash(OTP)).thenReturn(HASHED_OTP);
+        when(otpRepository.createIfAbsent(any(OtpRecord.class), any())).thenReturn(RecordWrite.unqueued(true));
+        doNothing().when(smsService).dispatchOtp(anyString(), anyString(), anyString());
 
         // When
         OtpResponse response = otpService.generateOtp(request);
@@ -87,31 +120,266 @@ class OtpServiceTest {
         assertThat(response.getReferenceId()).isNotNull();
         assertThat(response.getMessage()).isEqualTo("OTP sent successfully");
 
-        verify(otpRepository).save(any(OtpRecord.class));
-        verify(smsService).sendOtp(PHONE, OTP);
+        verify(otpRepository).exists(PHONE, OtpPurpose.LOGIN);
+        verify(otpRepository).createIfAbsent(any(OtpRecord.class), any());
+        verify(smsService).dispatchOtp(anyString(), eq(PHONE), eq(OTP));
     }
 
     @Test
-    @DisplayName("Should throw exception when OTP already sent")
-    void shouldThrowExceptionWhenOtpAlreadySent() {
+    @DisplayName("Should append the send job to the outbox in the same round trip as the record")
+    void shouldEnqueueThroughOutbox() {
+        // Given
+        OtpGenerateRequest request = OtpGenerateRequest.builder()
+                .identifier(PHONE)
+                .purpose(OtpPurpose.LOGIN)
+                .build();
+
+        when(otpGenerator.generate()).thenReturn(OTP);
+        when(hashingExecutor.hash(OTP)).thenReturn(HASHED_OTP);
+        when(smsOutbox.jobFor(any(OtpRecord.class), eq(PHONE), eq(OTP))).thenReturn(OUTBOX_JOB);
+        when(otpRepository.createIfAbsent(any(OtpRecord.class), eq(OUTBOX_JOB)))
+                .thenReturn(new RecordWrite(true, true));
+
+        // When
+        OtpResponse response = otpService.generateOtp(request);
+
+        // Then
+        assertThat(response.getMessage()).isEqualTo("OTP sent successfully");
+        verify(smsOutbox).markQueued(response.getReferenceId());
+        verify(smsService, never()).dispatchOtp(anyString(), anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("Should send from the local queue after the write when the job was not queued")
+    void shouldDispatchLocallyWhenOutboxUnreachable() {
+        // Given
+        OtpGenerateRequest request = OtpGenerateRequest.builder()
+                .identifier(PHONE)
+                .purpose(OtpPurpose.LOGIN)
+                .build();
+
+        when(otpGenerator.generate()).thenReturn(OTP);
+        when(hashingExecutor.hash(OTP)).thenReturn(HASHED_OTP);
+        when(smsOutbox.jobFor(any(OtpRecord.class), eq(PHONE), eq(OTP))).thenReturn(OUTBOX_JOB);
+        when(otpRepository.createIfAbsent(any(OtpRecord.class), eq(OUTBOX_JOB)))
+                .thenReturn(RecordWrite.unqueued(true));
+
+        // When
+        otpService.generateOtp(request);
+
+        // Then
+        InOrder order = inOrder(otpRepository, smsService);
+        order.verify(otpRepository).createIfAbsent(any(OtpRecord.class), eq(OUTBOX_JOB));
+        order.verify(smsService).dispatchOtp(anyString(), eq(PHONE), eq(OTP));
+        verify(smsOutbox, never()).markQueued(any());
+    }
+
+    @Test
+    @DisplayName("Should use a pre-hashed OTP when the pool has one")
+    void shouldUsePrehashedOtp() {
+        // Given
+        OtpGenerateRequest request = OtpGenerateRequest.builder()
+                .identifier(PHONE)
+                .purpose(OtpPurpose.LOGIN)
+                .build();
+
+        when(prehashedOtpPool.take())
+                .thenReturn(Optional.of(new PrehashedOtpPool.PrehashedOtp(OTP, HASHED_OTP)));
+        when(otpRepository.createIfAbsent(any(OtpRecord.class), any())).thenReturn(RecordWrite.unqueued(true));
+
+        // When
+        otpService.generateOtp(request);
+
+        // Then
+        verify(otpRepository).createIfAbsent(argThat(record -> HASHED_OTP.equals(record.getOtpHash())), any());
+        verify(otpRepository, never()).exists(any(), any());
+        verify(smsService).dispatchOtp(anyString(), eq(PHONE), eq(OTP));
+        verifyNoInteractions(otpGenerator, hashingExecutor);
+    }
+
+    @Test
+    @DisplayName("Should send nothing when a concurrent generate created the record first")
+    void shouldAbortWhenConcurrentGenerateWins() {
+        // Given
+        OtpGenerateRequest request = OtpGenerateRequest.builder()
+                .identifier(PHONE)
+                .purpose(OtpPurpose.LOGIN)
+                .build();
+
+        when(prehashedOtpPool.take())
+                .thenReturn(Optional.of(new PrehashedOtpPool.PrehashedOtp(OTP, HASHED_OTP)));
+        when(otpRepository.createIfAbsent(any(OtpRecord.class), any())).thenReturn(RecordWrite.unqueued(false));
+
+        // When & Then
+        assertThatThrownBy(() -> otpService.generateOtp(request))
+                .isInstanceOf(OtpException.class)
+                .extracting("errorCode")
+                .isEqualTo(ErrorCode.OTP_ALREADY_SENT);
+
+        verify(otpRepository, never()).delete(any(), any());
+        verify(smsOutbox, never()).markQueued(any());
+        verifyNoInteractions(smsService, hashingExecutor);
+    }
+
+    @Test
+    @DisplayName("Should drop saved OTP when SMS queue is full")
+    void shouldDropSavedOtpWhenSmsQueueIsFull() {
         // Given
         OtpGenerateRequest request = OtpGenerateRequest.builder()
                 .identifier(PHONE)
                 .purpose(OtpPurpose.LOGIN)
                 .build();
 
-        OtpRecord existingRecord = OtpRecord.builder()
-                .expiresAt(Instant.now().plus(5, ChronoUnit.MINUTES)) // Not expired
+        when(otpGenerator.generate()).thenReturn(OTP);
+        when(hashingExecutor.hash(OTP)).thenReturn(HASHED_OTP);
+        when(otpRepository.createIfAbsent(any(OtpRecord.class), any())).thenReturn(RecordWrite.unqueued(true));
+        doThrow(new OtpException(ErrorCode.SMS_QUEUE_FULL))
+                .when(smsService).dispatchOtp(anyString(), anyString(), anyString());
+
+        // When & Then
+        assertThatThrownBy(() -> otpService.generateOtp(request))
+                .isInstanceOf(OtpException.class)
+                .extracting("errorCode")
+                .isEqualTo(ErrorCode.SMS_QUEUE_FULL);
+
+        verify(otpRepository).delete(PHONE, OtpPurpose.LOGIN);
+    }
+
+    @Test
+    @DisplayName("Should throw exception when OTP already sent")
+    void shouldThrowExceptionWhenOtpAlreadySent() {
+        // Given
+        OtpGenerateRequest request = OtpGenerateRequest.builder()
+                .identifier(PHONE)
+                .purpose(OtpPurpose.LOGIN)
                 .build();
 
-        when(otpRepository.findByIdentifierAndPurpose(PHONE, OtpPurpose.LOGIN))
-                .thenReturn(Optional.of(existingRecord));
+        when(otpRepository.exists(PHONE, OtpPurpose.LOGIN)).thenReturn(true);
 
         // When & Then
         assertThatThrownBy(() -> otpService.generateOtp(request))
                 .isInstanceOf(OtpException.class)
                 .extracting("errorCode")
                 .isEqualTo(ErrorCode.OTP_ALREADY_SENT);
+
+        // Rejected before hashing
+        verifyNoInteractions(otpGenerator, hashingExecutor);
+    }
+
+    // ============ Batch Generate Tests ============
+
+    @Test
+    @DisplayName("Should return per-item results for batch generate")
+    void shouldReturnPerItemResultsForBatch() {
+        // Given
+        String email = "user@example.com";
+        OtpBatchGenerateRequest request = OtpBatchGenerateRequest.builder()
+                .requests(List.of(
+                        OtpGenerateRequest.builder().identifier(PHONE).purpose(OtpPurpose.LOGIN).build(),
+                        OtpGenerateRequest.builder().identifier("not-a-phone").purpose(OtpPurpose.LOGIN).build(),
+                        OtpGenerateRequest.builder().identifier(PHONE).purpose(OtpPurpose.LOGIN).build(),
+                        OtpGenerateRequest.builder().identifier(email).purpose(OtpPurpose.LOGIN).build()))
+                .build();
+
+        OtpRecord live = OtpRecord.builder()
+                .identifier(email)
+                .purpose(OtpPurpose.LOGIN)
+                .expiresAt(Instant.now().plus(5, ChronoUnit.MINUTES))
+                .build();
+
+        when(config.getBatch()).thenReturn(new OtpConfigProperties.BatchConfig());
+        when(otpRepository.findAllByKeys(List.of(
+                OtpRecord.buildRedisKey(PHONE, OtpPurpose.LOGIN),
+                OtpRecord.buildRedisKey(email, OtpPurpose.LOGIN))))
+                .thenReturn(Arrays.asList(null, live));
+        when(otpGenerator.generate()).thenReturn(OTP);
+        when(hashingExecutor.hashAll(List.of(OTP))).thenReturn(List.of(HASHED_OTP));
+        when(otpRepository.createAllIfAbsent(anyList(), anyList())).thenReturn(List.of(RecordWrite.unqueued(true)));
+        when(smsService.dispatchOtpBatch(anyList())).thenReturn(List.of());
+
+        // When
+        OtpBatchResponse response = otpService.generateOtpBatch(request);
+
+        // Then
+        assertThat(response.getSucceeded()).isEqualTo(1);
+        assertThat(response.getFailed()).isEqualTo(3);
+        assertThat(response.getResults())
+                .extracting(OtpResponse::getErrorCode)
+                .containsExactly(null, ErrorCode.INVALID_REQUEST.getCode(),
+                        ErrorCode.OTP_ALREADY_SENT.getCode(), ErrorCode.OTP_ALREADY_SENT.getCode());
+        verify(otpRepository).createAllIfAbsent(argThat(records -> records.size() == 1), anyList());
+    }
+
+    @Test
+    @DisplayName("Should not send batch items that a concurrent generate created first")
+    void shouldSkipBatchItemsCreatedConcurrently() {
+        // Given
+        OtpBatchGenerateRequest request = OtpBatchGenerateRequest.builder()
+                .requests(List.of(OtpGenerateRequest.builder().identifier(PHONE).purpose(OtpPurpose.LOGIN).build()))
+                .build();
+
+        when(config.getBatch()).thenReturn(new OtpConfigProperties.BatchConfig());
+        when(otpRepository.findAllByKeys(anyList())).thenReturn(Arrays.asList((OtpRecord) null));
+        when(otpGenerator.generate()).thenReturn(OTP);
+        when(hashingExecutor.hashAll(List.of(OTP))).thenReturn(List.of(HASHED_OTP));
+        when(otpRepository.createAllIfAbsent(anyList(), anyList())).thenReturn(List.of(RecordWrite.unqueued(false)));
+
+        // When
+        OtpBatchResponse response = otpService.generateOtpBatch(request);
+
+        // Then
+        assertThat(response.getResults())
+                .extracting(OtpResponse::getErrorCode)
+                .containsExactly(ErrorCode.OTP_ALREADY_SENT.getCode());
+        verify(smsService).dispatchOtpBatch(List.of());
+        verify(otpRepository, never()).deleteByKey(anyString());
+    }
+
+    @Test
+    @DisplayName("Should leave batch items whose job reached the outbox to the outbox workers")
+    void shouldQueueBatchItemsThroughOutbox() {
+        // Given
+        OtpBatchGenerateRequest request = OtpBatchGenerateRequest.builder()
+                .requests(List.of(OtpGenerateRequest.builder().identifier(PHONE).purpose(OtpPurpose.LOGIN).build()))
+                .build();
+
+        when(config.getBatch()).thenReturn(new OtpConfigProperties.BatchConfig());
+        when(otpRepository.findAllByKeys(anyList())).thenReturn(Arrays.asList((OtpRecord) null));
+        when(otpGenerator.generate()).thenReturn(OTP);
+        when(hashingExecutor.hashAll(List.of(OTP))).thenReturn(List.of(HASHED_OTP));
+        when(smsOutbox.jobFor(any(OtpRecord.class), eq(PHONE), eq(OTP))).thenReturn(OUTBOX_JOB);
+        when(otpRepository.createAllIfAbsent(anyList(), eq(List.of(OUTBOX_JOB))))
+                .thenReturn(List.of(new RecordWrite(true, true)));
+
+        // When
+        OtpBatchResponse response = otpService.generateOtpBatch(request);
+
+        // Then
+        assertThat(response.getSucceeded()).isEqualTo(1);
+        verify(smsOutbox).markQueued(response.getResults().get(0).getReferenceId());
+        verify(smsService).dispatchOtpBatch(List.of());
+    }
+
+    @Test
+    @DisplayName("Should reject batch above the configured maximum")
+    void shouldRejectOversizedBatch() {
+        // Given
+        OtpConfigProperties.BatchConfig batch = new OtpConfigProperties.BatchConfig();
+        batch.setMaxSize(1);
+        when(config.getBatch()).thenReturn(batch);
+
+        OtpGenerateRequest item = OtpGenerateRequest.builder().identifier(PHONE).purpose(OtpPurpose.LOGIN).build();
+        OtpBatchGenerateRequest request = OtpBatchGenerateRequest.builder()
+                .requests(List.of(item, item))
+                .build();
+
+        // When & Then
+        assertThatThrownBy(() -> otpService.generateOtpBatch(request))
+                .isInstanceOf(OtpException.class)
+                .extracting("errorCode")
+                .isEqualTo(ErrorCode.BATCH_TOO_LARGE);
+
+        verifyNoInteractions(otpRepository);
     }
 
     // ============ Validate OTP Tests ============
@@ -136,20 +404,149 @@ class OtpServiceTest {
                 .verified(false)
                 .build();
 
-        when(otpRepository.findByIdentifierAndPurpose(PHONE, OtpPurpose.LOGIN))
-                .thenReturn(Optional.of(record));
-        when(otpHasher.verifyBcrypt(OTP, HASHED_OTP)).thenReturn(true);
+        when(otpRepository.attemptValidation(PHONE, OtpPurpose.LOGIN, 5))
+                .thenReturn(ValidationAttempt.accepted(record, 1));
+        when(hashingExecutor.verify(any(), eq(OTP), eq(HASHED_OTP))).thenReturn(true);
 
         // When
         OtpResponse response = otpService.validateOtp(request);
 
         // Then
         assertThat(response.getValid()).isTrue();
-        assertThat(response.getVerificationToken()).isNotNull();
+        assertThat(tokenIssuer.getVerifier().verify(response.getVerificationToken()))
+                .hasValueSatisfying(token -> {
+                    assertThat(token.identifier()).isEqualTo(PHONE);
+                    assertThat(token.purpose()).isEqualTo(OtpPurpose.LOGIN.name());
+                });
 
         verify(otpRepository).delete(PHONE, OtpPurpose.LOGIN);
     }
 
+    // ============ Resend OTP Tests ============
+
+    @Test
+    @DisplayName("Should replace the OTP and send once when resend is past the cooldown")
+    void shouldResendPastCooldown() {
+        // Given
+        OtpResendRequest request = OtpResendRequest.builder()
+                .identifier(PHONE)
+                .purpose(OtpPurpose.LOGIN)
+                .build();
+
+        when(config.getResend()).thenReturn(new OtpConfigProperties.ResendConfig());
+        when(otpGenerator.generate()).thenReturn(OTP);
+        when(hashingExecutor.hash(OTP)).thenReturn(HASHED_OTP);
+        when(otpRepository.replaceAfterCooldown(any(OtpRecord.class), eq(Duration.ofSeconds(30)), any()))
+                .thenReturn(RecordWrite.unqueued(true));
+
+        // When
+        OtpResponse response = otpService.resendOtp(request);
+
+        // Then
+        assertThat(response.getReferenceId()).isNotNull();
+        verify(smsService).dispatchOtp(anyString(), eq(PHONE), eq(OTP));
+        verify(otpRepository, never()).delete(anyString(), any());
+        verify(otpRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should reject resend inside the purpose cooldown without sending")
+    void shouldRejectResendInsideCooldown() {
+        // Given
+        OtpResendRequest request = OtpResendRequest.builder()
+                .identifier(PHONE)
+                .purpose(OtpPurpose.TRANSACTION)
+                .build();
+
+        OtpConfigProperties.ResendConfig resend = new OtpConfigProperties.ResendConfig();
+        resend.getPurposeCooldownSeconds().put(OtpPurpose.TRANSACTION, 60);
+        when(config.getResend()).thenReturn(resend);
+        when(otpGenerator.generate()).thenReturn(OTP);
+        when(hashingExecutor.hash(OTP)).thenReturn(HASHED_OTP);
+        when(otpRepository.replaceAfterCooldown(any(OtpRecord.class), eq(Duration.ofSeconds(60)), any()))
+                .thenReturn(RecordWrite.unqueued(false));
+
+        // When & Then
+        assertThatThrownBy(() -> otpService.resendOtp(request))
+                .isInstanceOf(OtpException.class)
+                .extracting("errorCode")
+                .isEqualTo(ErrorCode.OTP_ALREADY_SENT);
+
+        verifyNoInteractions(smsService);
+    }
+
+    @Test
+    @DisplayName("Should reject a resend inside the cooldown before hashing or queueing a job")
+    void shouldRejectResendInsideCooldownBeforeHashing() {
+        // Given
+        OtpResendRequest request = OtpResendRequest.builder()
+                .identifier(PHONE)
+                .purpose(OtpPurpose.LOGIN)
+                .build();
+
+        OtpRecord current = OtpRecord.builder()
+                .identifier(PHONE)
+                .purpose(OtpPurpose.LOGIN)
+                .createdAt(Instant.now().minusSeconds(10))
+                .build();
+        when(config.getResend()).thenReturn(new OtpConfigProperties.ResendConfig());
+        when(otpRepository.findByIdentifierAndPurpose(PHONE, OtpPurpose.LOGIN)).thenReturn(Optional.of(current));
+
+        // When & Then
+        assertThatThrownBy(() -> otpService.resendOtp(request))
+                .isInstanceOf(OtpException.class)
+                .extracting("errorCode")
+                .isEqualTo(ErrorCode.OTP_ALREADY_SENT);
+
+        verify(otpRepository, never()).replaceAfterCooldown(any(), any(), any());
+        verifyNoInteractions(prehashedOtpPool, hashingExecutor, smsOutbox, smsService);
+    }
+
+    // ============ Verify Token Tests ============
+
+    @Test
+    @DisplayName("Should accept a verification token once")
+    void shouldAcceptVerificationTokenOnce() {
+        // Given
+        TokenVerifyRequest request = TokenVerifyRequest.builder()
+                .token(tokenIssuer.issue(PHONE, OtpPurpose.LOGIN))
+                .purpose(OtpPurpose.LOGIN)
+                .build();
+
+        when(otpRepository.markTokenUsed(eq(PHONE), anyString(), any())).thenReturn(true, false);
+
+        // When
+        OtpResponse response = otpService.verifyToken(request);
+
+        // Then
+        assertThat(response.getValid()).isTrue();
+        assertThat(response.getIdentifier()).isEqualTo(PHONE);
+        assertThat(response.getPurpose()).isEqualTo(OtpPurpose.LOGIN);
+
+        assertThatThrownBy(() -> otpService.verifyToken(request))
+                .isInstanceOf(OtpException.class)
+                .extracting("errorCode")
+                .isEqualTo(ErrorCode.TOKEN_ALREADY_USED);
+    }
+
+    @Test
+    @DisplayName("Should reject a verification token issued for another purpose")
+    void shouldRejectTokenForOtherPurpose() {
+        // Given
+        TokenVerifyRequest request = TokenVerifyRequest.builder()
+                .token(tokenIssuer.issue(PHONE, OtpPurpose.LOGIN))
+                .purpose(OtpPurpose.PASSWORD_RESET)
+                .build();
+
+        // When & Then
+        assertThatThrownBy(() -> otpService.verifyToken(request))
+                .isInstanceOf(OtpException.class)
+                .extracting("errorCode")
+                .isEqualTo(ErrorCode.TOKEN_INVALID);
+
+        verify(otpRepository, never()).markTokenUsed(anyString(), anyString(), any());
+    }
+
     @Test
     @DisplayName("Should reject invalid OTP")
     void shouldRejectInvalidOtp() {
@@ -170,10 +567,9 @@ class OtpServiceTest {
                 .verified(false)
                 .build();
 
-        when(otpRepository.findByIdentifierAndPurpose(PHONE, OtpPurpose.LOGIN))
-                .thenReturn(Optional.of(record));
-        when(otpHasher.verifyBcrypt("000000", HASHED_OTP)).thenReturn(false);
-        when(otpRepository.update(any(OtpRecord.class))).thenAnswer(i -> i.getArgument(0));
+        when(otpRepository.attemptValidation(PHONE, OtpPurpose.LOGIN, 5))
+                .thenReturn(ValidationAttempt.accepted(record, 1));
+        when(hashingExecutor.verify(any(), eq("000000"), eq(HASHED_OTP))).thenReturn(false);
 
         // When
         OtpResponse response = otpService.validateOtp(request);
@@ -181,6 +577,7 @@ class OtpServiceTest {
         // Then
         assertThat(response.getValid()).isFalse();
         assertThat(response.getRemainingAttempts()).isEqualTo(4);
+        verify(otpRepository, never()).delete(anyString(), any(OtpPurpose.class));
     }
 
     @Test
@@ -200,8 +597,8 @@ class OtpServiceTest {
                 .verified(false)
                 .build();
 
-        when(otpRepository.findByIdentifierAndPurpose(PHONE, OtpPurpose.LOGIN))
-                .thenReturn(Optional.of(record));
+        when(otpRepository.attemptValidation(PHONE, OtpPurpose.LOGIN, 5))
+                .thenReturn(ValidationAttempt.accepted(record, 1));
 
         // When & Then
         assertThatThrownBy(() -> otpService.validateOtp(request))
@@ -220,22 +617,56 @@ class OtpServiceTest {
                 .otp(OTP)
                 .build();
 
-        OtpRecord record = OtpRecord.builder()
+        when(otpRepository.attemptValidation(PHONE, OtpPurpose.LOGIN, 5))
+                .thenReturn(ValidationAttempt.maxAttempts(5));
+
+        // When & Then
+        assertThatThrownBy(() -> otpService.validateOtp(request))
+                .isInstanceOf(OtpException.class)
+                .extracting("errorCode")
+                .isEqualTo(ErrorCode.OTP_MAX_ATTEMPTS);
+    }
+
+    @Test
+    @DisplayName("Should throw exception when OTP not found")
+    void shouldThrowExceptionWhenOtpNotFound() {
+        // Given
+        OtpValidateRequest request = OtpValidateRequest.builder()
                 .identifier(PHONE)
                 .purpose(OtpPurpose.LOGIN)
-                .attemptCount(5)
-                .maxAttempts(5)
-                .expiresAt(Instant.now().plus(5, ChronoUnit.MINUTES))
-                .verified(false)
+                .otp(OTP)
                 .build();
 
-        when(otpRepository.findByIdentifierAndPurpose(PHONE, OtpPurpose.LOGIN))
-                .thenReturn(Optional.of(record));
+        when(otpRepository.attemptValidation(PHONE, OtpPurpose.LOGIN, 5))
+                .thenReturn(ValidationAttempt.notFound());
 
         // When & Then
         assertThatThrownBy(() -> otpService.validateOtp(request))
                 .isInstanceOf(OtpException.class)
                 .extracting("errorCode")
-                .isEqualTo(ErrorCode.OTP_MAX_ATTEMPTS);
+                .isEqualTo(ErrorCode.OTP_NOT_FOUND);
+
+        verify(hashingExecutor, never()).verify(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should shed an overloaded validation before counting the attempt")
+    void shouldShedValidationBeforeCountingAttempt() {
+        // Given
+        OtpValidateRequest request = OtpValidateRequest.builder()
+                .identifier(PHONE)
+                .purpose(OtpPurpose.LOGIN)
+                .otp(OTP)
+                .build();
+
+        when(hashingExecutor.reserve()).thenThrow(new OtpException(ErrorCode.HASHING_OVERLOADED));
+
+        // When & Then
+        assertThatThrownBy(() -> otpService.validateOtp(request))
+                .isInstanceOf(OtpException.class)
+                .extracting("errorCode")
+                .isEqualTo(ErrorCode.HASHING_OVERLOADED);
+
+        verify(otpRepository, never()).attemptValidation(any(), any(), anyInt());
     }
 }
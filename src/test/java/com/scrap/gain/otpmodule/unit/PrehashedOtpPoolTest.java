@@ -0,0 +1,125 @@
+package com.scrap.gain.otpmodule.unit;
+
+import com.scrap.gain.otpmodule.config.OtpConfigProperties;
+import com.scrap.gain.otpmodule.util.HashingExecutor;
+import com.scrap.gain.otpmodule.util.OtpGenerator;
+import com.scrap.gain.otpmodule.util.OtpHasher;
+import com.scrap.gain.otpmodule.util.PrehashedOtpPool;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("Pre-hashed OTP Pool Tests")
+class PrehashedOtpPoolTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicLong clock = new AtomicLong();
+    private final OtpConfigProperties config = new OtpConfigProperties();
+    private final OtpHasher otpHasher = mock(OtpHasher.class);
+    private final HashingExecutor hashingExecutor = mock(HashingExecutor.class);
+
+    private PrehashedOtpPool pool;
+
+    @BeforeEach
+    void setUp() {
+        when(otpHasher.hash(anyString())).thenAnswer(i -> "hash-" + i.getArgument(0));
+        config.getHashing().getPrehash().setPoolSize(2);
+        config.getHashing().getPrehash().setMaxAgeSeconds(60);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should fill the pool and hand out each pair once")
+    void shouldFillAndHandOutPairs() throws Exception {
+        // Given
+        pool = newPool();
+        awaitSize(2);
+
+        // When
+        Optional<PrehashedOtpPool.PrehashedOtp> first = pool.take();
+        Optional<PrehashedOtpPool.PrehashedOtp> second = pool.take();
+
+        // Then
+        assertThat(first).isPresent();
+        assertThat(first.get().hashedOtp()).isEqualTo("hash-" + first.get().plainOtp());
+        assertThat(second).isPresent();
+        assertThat(second.get()).isNotSameAs(first.get());
+        assertThat(registry.get("otp.prehash.take").tag("result", "hit").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should return empty when the pool is disabled")
+    void shouldReturnEmptyWhenDisabled() {
+        // Given
+        config.getHashing().getPrehash().setPoolSize(0);
+        pool = newPool();
+
+        // When / Then
+        assertThat(pool.take()).isEmpty();
+        assertThat(registry.get("otp.prehash.take").tag("result", "miss").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should discard pairs older than the max age")
+    void shouldDiscardStalePairs() throws Exception {
+        // Given
+        pool = newPool();
+        awaitSize(2);
+
+        // When
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(61));
+        pool.discardStale();
+
+        // Then
+        assertThat(registry.get("otp.prehash.discarded").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should refill discarded slots only once pairs are taken again")
+    void shouldRefillDiscardedSlotsOnDemand() throws Exception {
+        // Given
+        pool = newPool();
+        awaitSize(2);
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(61));
+        pool.discardStale();
+
+        // When
+        Thread.sleep(100);
+        int idleSize = pool.size();
+        Optional<PrehashedOtpPool.PrehashedOtp> taken = pool.take();
+
+        // Then
+        assertThat(idleSize).isZero();
+        assertThat(taken).isEmpty();
+        awaitSize(1);
+    }
+
+    private PrehashedOtpPool newPool() {
+        return new PrehashedOtpPool(new OtpGenerator(config), otpHasher, hashingExecutor, config, registry, clock::get);
+    }
+
+    private void awaitSize(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline && pool.size() < expected) {
+            Thread.sleep(10);
+        }
+        assertThat(pool.size()).isEqualTo(expected);
+    }
+}
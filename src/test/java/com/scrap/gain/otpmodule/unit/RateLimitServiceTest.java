@@ -0,0 +1,125 @@
+package com.scrap.gain.otpmodule.unit;
+
+import com.scrap.gain.otpmodule.config.OtpConfigProperties;
+import com.scrap.gain.otpmodule.exception.ErrorCode;
+import com.scrap.gain.otpmodule.exception.OtpException;
+import com.scrap.gain.otpmodule.repository.RedisCircuitBreaker;
+import com.scrap.gain.otpmodule.service.RateLimitService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Rate Limit Service Tests")
+class RateLimitServiceTest {
+
+    private static final String PHONE = "+919876543210";
+    private static final String CLIENT_IP = "10.0.0.1";
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    private OtpConfigProperties config;
+    private RateLimitService rateLimitService;
+
+    @BeforeEach
+    void setUp() {
+        config = new OtpConfigProperties();
+        rateLimitService = new RateLimitService(stringRedisTemplate, config,
+                new RedisCircuitBreaker(config, new SimpleMeterRegistry()));
+    }
+
+    @Test
+    @DisplayName("Should allow request when Redis allows it")
+    void shouldAllowRequestWhenRedisAllowsIt() {
+        when(stringRedisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class)))
+                .thenReturn(List.of(0L, 0L));
+
+        assertThatCode(() -> rateLimitService.checkLimit(PHONE, CLIENT_IP))
+                .doesNotThrowAnyException();
+    }
+
+    @Test
+    @DisplayName("Should reject blocked key from near-cache without calling Redis again")
+    void shouldRejectBlockedKeyFromNearCache() {
+        when(stringRedisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class)))
+                .thenReturn(List.of(30_000L, 0L));
+
+        assertThatThrownBy(() -> rateLimitService.checkLimit(PHONE, CLIENT_IP))
+                .isInstanceOf(OtpException.class)
+                .extracting("errorCode")
+                .isEqualTo(ErrorCode.RATE_LIMIT_EXCEEDED);
+
+        assertThatThrownBy(() -> rateLimitService.checkLimit(PHONE, "10.0.0.2"))
+                .isInstanceOf(OtpException.class)
+                .extracting("errorCode")
+                .isEqualTo(ErrorCode.RATE_LIMIT_EXCEEDED);
+
+        verify(stringRedisTemplate, times(1))
+                .execute(any(RedisScript.class), anyList(), any(Object[].class));
+    }
+
+    @Test
+    @DisplayName("Should allow request when Redis is unavailable")
+    void shouldAllowRequestWhenRedisIsUnavailable() {
+        when(stringRedisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class)))
+                .thenThrow(new RedisConnectionFailureException("connection refused"));
+
+        assertThatCode(() -> rateLimitService.checkLimit(PHONE, CLIENT_IP))
+                .doesNotThrowAnyException();
+    }
+
+    @Test
+    @DisplayName("Should skip Redis when rate limiting is disabled")
+    void shouldSkipRedisWhenDisabled() {
+        config.getRateLimit().setEnabled(false);
+
+        rateLimitService.checkLimit(PHONE, CLIENT_IP);
+
+        verifyNoInteractions(stringRedisTemplate);
+    }
+
+    @Test
+    @DisplayName("Should evaluate one key per script call on Redis Cluster and undo earlier records on denial")
+    void shouldEvaluatePerSlotOnCluster() {
+        LettuceConnectionFactory connectionFactory = mock(LettuceConnectionFactory.class);
+        ZSetOperations<String, String> zSetOperations = mock(ZSetOperations.class);
+        when(connectionFactory.isClusterAware()).thenReturn(true);
+        when(stringRedisTemplate.getConnectionFactory()).thenReturn(connectionFactory);
+        when(stringRedisTemplate.opsForZSet()).thenReturn(zSetOperations);
+
+        String identifierKey = "ratelimit:id:{" + PHONE + "}";
+        String ipKey = "ratelimit:ip:{" + CLIENT_IP + "}";
+        when(stringRedisTemplate.execute(any(RedisScript.class), eq(List.of(identifierKey)), any(Object[].class)))
+                .thenReturn(List.of(0L));
+        when(stringRedisTemplate.execute(any(RedisScript.class), eq(List.of(ipKey)), any(Object[].class)))
+                .thenReturn(List.of(30_000L));
+
+        assertThatThrownBy(() -> rateLimitService.checkLimit(PHONE, CLIENT_IP))
+                .isInstanceOf(OtpException.class)
+                .extracting("errorCode")
+                .isEqualTo(ErrorCode.RATE_LIMIT_EXCEEDED);
+
+        verify(zSetOperations).remove(eq(identifierKey), any());
+        verify(stringRedisTemplate, never())
+                .execute(any(RedisScript.class), eq(List.of(identifierKey, ipKey)), any(Object[].class));
+    }
+}
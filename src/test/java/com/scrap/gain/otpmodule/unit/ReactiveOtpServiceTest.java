@@ -0,0 +1,202 @@
+package com.scrap.gain.otpmodule.unit;
+
+import com.scrap.gain.otpmodule.config.OtpConfigProperties;
+import com.scrap.gain.otpmodule.dto.OtpGenerateRequest;
+import com.scrap.gain.otpmodule.dto.OtpResendRequest;
+import com.scrap.gain.otpmodule.dto.OtpValidateRequest;
+import com.scrap.gain.otpmodule.entity.OtpRecord;
+import com.scrap.gain.otpmodule.exception.ErrorCode;
+import com.scrap.gain.otpmodule.exception.OtpException;
+import com.scrap.gain.otpmodule.metrics.OtpMetrics;
+import com.scrap.gain.otpmodule.model.OtpPurpose;
+import com.scrap.gain.otpmodule.repository.ReactiveOtpRepository;
+import com.scrap.gain.otpmodule.repository.ValidationAttempt;
+import com.scrap.gain.otpmodule.service.SmsService;
+import com.scrap.gain.otpmodule.service.impl.ReactiveOtpServiceImpl;
+import com.scrap.gain.otpmodule.util.HashingExecutor;
+import com.scrap.gain.otpmodule.util.MaskingUtil;
+import com.scrap.gain.otpmodule.util.OtpGenerator;
+import com.scrap.gain.otpmodule.util.PrehashedOtpPool;
+import com.scrap.gain.otpmodule.util.VerificationTokenIssuer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Reactive OTP Service Tests")
+class ReactiveOtpServiceTest {
+
+    @Mock private ReactiveOtpRepository otpRepository;
+    @Mock private OtpGenerator otpGenerator;
+    @Mock private HashingExecutor hashingExecutor;
+    @Mock private HashingExecutor.Reservation slot;
+    @Mock private PrehashedOtpPool prehashedOtpPool;
+    @Mock (strictness = Mock.Strictness.LENIENT) private MaskingUtil maskingUtil;
+    @Mock (strictness = Mock.Strictness.LENIENT) private OtpConfigProperties config;
+    @Mock private SmsService smsService;
+
+    private ReactiveOtpServiceImpl otpService;
+
+    private static final String PHONE = "+919876543210";
+    private static final String OTP = "123456";
+    private static final String HASHED_OTP = "$2a$10$hashedOtp";
+
+    @BeforeEach
+    void setUp() {
+        OtpConfigProperties tokenConfig = new OtpConfigProperties();
+        tokenConfig.getToken().setSecret("test-token-secret");
+
+        otpService = new ReactiveOtpServiceImpl(
+                otpRepository, otpGenerator, hashingExecutor, prehashedOtpPool,
+                new VerificationTokenIssuer(tokenConfig), maskingUtil, config, smsService,
+                new OtpMetrics(new SimpleMeterRegistry())
+        );
+
+        when(config.getMaxAttempts()).thenReturn(5);
+        when(config.getExpiryMinutes()).thenReturn(5);
+        when(maskingUtil.maskIdentifier(anyString())).thenReturn("+91****3210");
+    }
+
+    @Test
+    @DisplayName("Should generate OTP and start a non-blocking send")
+    void shouldGenerateOtp() {
+        // Given
+        OtpGenerateRequest request = OtpGenerateRequest.builder()
+                .identifier(PHONE)
+                .purpose(OtpPurpose.LOGIN)
+                .build();
+
+        when(otpRepository.exists(PHONE, OtpPurpose.LOGIN)).thenReturn(Mono.just(false));
+        when(otpGenerator.generate()).thenReturn(OTP);
+        when(hashingExecutor.hashAsync(OTP)).thenReturn(CompletableFuture.completedFuture(HASHED_OTP));
+        when(otpRepository.createIfAbsent(any(OtpRecord.class))).thenReturn(Mono.just(true));
+
+        // When & Then
+        StepVerifier.create(otpService.generateOtp(request))
+                .assertNext(response -> assertThat(response.getReferenceId()).isNotNull())
+                .verifyComplete();
+
+        verify(smsService).dispatchOtpReactive(anyString(), eq(PHONE), eq(OTP));
+    }
+
+    @Test
+    @DisplayName("Should signal OTP_ALREADY_SENT when a live OTP exists")
+    void shouldRejectWhenOtpAlreadySent() {
+        // Given
+        OtpGenerateRequest request = OtpGenerateRequest.builder()
+                .identifier(PHONE)
+                .purpose(OtpPurpose.LOGIN)
+                .build();
+
+        when(otpRepository.exists(PHONE, OtpPurpose.LOGIN)).thenReturn(Mono.just(true));
+
+        // When & Then
+        StepVerifier.create(otpService.generateOtp(request))
+                .expectErrorSatisfies(error -> assertThat(error)
+                        .isInstanceOf(OtpException.class)
+                        .extracting("errorCode")
+                        .isEqualTo(ErrorCode.OTP_ALREADY_SENT))
+                .verify();
+
+        verifyNoInteractions(hashingExecutor, smsService);
+    }
+
+    @Test
+    @DisplayName("Should reject a resend inside the cooldown before hashing")
+    void shouldRejectResendInsideCooldownBeforeHashing() {
+        // Given
+        OtpResendRequest request = OtpResendRequest.builder()
+                .identifier(PHONE)
+                .purpose(OtpPurpose.LOGIN)
+                .build();
+
+        OtpRecord current = OtpRecord.builder()
+                .identifier(PHONE)
+                .purpose(OtpPurpose.LOGIN)
+                .createdAt(Instant.now())
+                .build();
+        when(config.getResend()).thenReturn(new OtpConfigProperties.ResendConfig());
+        when(otpRepository.findByIdentifierAndPurpose(PHONE, OtpPurpose.LOGIN)).thenReturn(Mono.just(current));
+
+        // When & Then
+        StepVerifier.create(otpService.resendOtp(request))
+                .expectErrorSatisfies(error -> assertThat(error)
+                        .isInstanceOf(OtpException.class)
+                        .extracting("errorCode")
+                        .isEqualTo(ErrorCode.OTP_ALREADY_SENT))
+                .verify();
+
+        verify(otpRepository, never()).replaceAfterCooldown(any(), any());
+        verifyNoInteractions(prehashedOtpPool, hashingExecutor, smsService);
+    }
+
+    @Test
+    @DisplayName("Should return remaining attempts for invalid OTP")
+    void shouldRejectInvalidOtp() {
+        // Given
+        OtpValidateRequest request = OtpValidateRequest.builder()
+                .identifier(PHONE)
+                .purpose(OtpPurpose.LOGIN)
+                .otp("000000")
+                .build();
+
+        OtpRecord record = OtpRecord.builder()
+                .otpHash(HASHED_OTP)
+                .expiresAt(Instant.now().plus(5, ChronoUnit.MINUTES))
+                .build();
+        when(otpRepository.attemptValidation(PHONE, OtpPurpose.LOGIN, 5))
+                .thenReturn(Mono.just(ValidationAttempt.accepted(record, 2)));
+        when(hashingExecutor.reserve()).thenReturn(slot);
+        when(hashingExecutor.verifyAsync(slot, "000000", HASHED_OTP))
+                .thenReturn(CompletableFuture.completedFuture(false));
+
+        // When & Then
+        StepVerifier.create(otpService.validateOtp(request))
+                .assertNext(response -> {
+                    assertThat(response.getValid()).isFalse();
+                    assertThat(response.getRemainingAttempts()).isEqualTo(3);
+                })
+                .verifyComplete();
+
+        verify(otpRepository, never()).delete(any(), any());
+        verify(slot).close();
+    }
+
+    @Test
+    @DisplayName("Should shed an overloaded validation before counting the attempt")
+    void shouldShedValidationBeforeCountingAttempt() {
+        // Given
+        OtpValidateRequest request = OtpValidateRequest.builder()
+                .identifier(PHONE)
+                .purpose(OtpPurpose.LOGIN)
+                .otp(OTP)
+                .build();
+        when(hashingExecutor.reserve()).thenThrow(new OtpException(ErrorCode.HASHING_OVERLOADED));
+
+        // When & Then
+        StepVerifier.create(otpService.validateOtp(request))
+                .expectErrorSatisfies(error -> assertThat(error)
+                        .isInstanceOf(OtpException.class)
+                        .extracting("errorCode")
+                        .isEqualTo(ErrorCode.HASHING_OVERLOADED))
+                .verify();
+
+        verifyNoInteractions(otpRepository);
+    }
+}
@@ -0,0 +1,121 @@
+package com.scrap.gain.otpmodule.unit;
+
+import com.scrap.gain.otpmodule.config.OtpConfigProperties;
+import com.scrap.gain.otpmodule.repository.RedisCircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Redis Circuit Breaker Tests")
+class RedisCircuitBreakerTest {
+
+    private static final RedisConnectionFailureException FAILURE =
+            new RedisConnectionFailureException("connection refused");
+
+    private final AtomicLong nanos = new AtomicLong();
+    private RedisCircuitBreaker breaker;
+
+    @BeforeEach
+    void setUp() {
+        OtpConfigProperties config = new OtpConfigProperties();
+        config.getRedis().getCircuitBreaker().setFailureThreshold(3);
+        config.getRedis().getCircuitBreaker().setOpenSeconds(5);
+        breaker = new RedisCircuitBreaker(config, new SimpleMeterRegistry(), nanos::get);
+    }
+
+    @Test
+    @DisplayName("Should open after consecutive failures and refuse calls")
+    void shouldOpenAfterThreshold() {
+        // Given
+        breaker.onFailure(FAILURE);
+        breaker.onFailure(FAILURE);
+        assertThat(breaker.tryAcquire()).isTrue();
+
+        // When
+        breaker.onFailure(FAILURE);
+
+        // Then
+        assertThat(breaker.getState()).isEqualTo(RedisCircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should reset the failure count on success")
+    void shouldResetOnSuccess() {
+        // Given
+        breaker.onFailure(FAILURE);
+        breaker.onFailure(FAILURE);
+
+        // When
+        breaker.onSuccess();
+        breaker.onFailure(FAILURE);
+
+        // Then
+        assertThat(breaker.getState()).isEqualTo(RedisCircuitBreaker.State.CLOSED);
+        assertThat(breaker.getConsecutiveFailures()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should let one probe through after the open period and close on its success")
+    void shouldCloseAfterSuccessfulProbe() {
+        // Given
+        openBreaker();
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(5));
+
+        // When
+        boolean probe = breaker.tryAcquire();
+        boolean concurrent = breaker.tryAcquire();
+        breaker.onSuccess();
+
+        // Then
+        assertThat(probe).isTrue();
+        assertThat(concurrent).isFalse();
+        assertThat(breaker.getState()).isEqualTo(RedisCircuitBreaker.State.CLOSED);
+        assertThat(breaker.tryAcquire()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should reopen when the probe fails")
+    void shouldReopenOnFailedProbe() {
+        // Given
+        openBreaker();
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(5));
+        assertThat(breaker.tryAcquire()).isTrue();
+
+        // When
+        breaker.onFailure(FAILURE);
+
+        // Then
+        assertThat(breaker.getState()).isEqualTo(RedisCircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should replace a probe that never reports back")
+    void shouldReplaceStuckProbe() {
+        // Given
+        openBreaker();
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(5));
+        assertThat(breaker.tryAcquire()).isTrue();
+
+        // When
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(5));
+
+        // Then
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.getState()).isEqualTo(RedisCircuitBreaker.State.HALF_OPEN);
+    }
+
+    private void openBreaker() {
+        for (int i = 0; i < 3; i++) {
+            breaker.onFailure(FAILURE);
+        }
+    }
+}
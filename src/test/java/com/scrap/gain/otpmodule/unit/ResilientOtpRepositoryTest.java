@@ -0,0 +1,190 @@
+package com.scrap.gain.otpmodule.unit;
+
+import com.scrap.gain.otpmodule.config.OtpConfigProperties;
+import com.scrap.gain.otpmodule.entity.OtpRecord;
+import com.scrap.gain.otpmodule.exception.ErrorCode;
+import com.scrap.gain.otpmodule.exception.OtpException;
+import com.scrap.gain.otpmodule.model.OtpPurpose;
+import com.scrap.gain.otpmodule.repository.OutboxEntry;
+import com.scrap.gain.otpmodule.repository.RecordWrite;
+import com.scrap.gain.otpmodule.repository.RedisCircuitBreaker;
+import com.scrap.gain.otpmodule.repository.RedisOtpRepository;
+import com.scrap.gain.otpmodule.repository.ResilientOtpRepository;
+import com.scrap.gain.otpmodule.repository.ValidationAttempt;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Resilient OTP Repository Tests")
+class ResilientOtpRepositoryTest {
+
+    private static final String PHONE = "+919876543210";
+
+    @Mock
+    private RedisOtpRepository redis;
+
+    private OtpConfigProperties config;
+    private RedisCircuitBreaker breaker;
+    private ResilientOtpRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        config = new OtpConfigProperties();
+        config.getRedis().getCircuitBreaker().setFailureThreshold(1);
+        config.getRedis().getCircuitBreaker().setOpenSeconds(60);
+        breaker = new RedisCircuitBreaker(config, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should use Redis while it is healthy")
+    void shouldUseRedisWhenHealthy() {
+        // Given
+        repository = newRepository(true);
+        when(redis.findByIdentifierAndPurpose(PHONE, OtpPurpose.LOGIN)).thenReturn(Optional.of(record()));
+
+        // When
+        Optional<OtpRecord> found = repository.findByIdentifierAndPurpose(PHONE, OtpPurpose.LOGIN);
+
+        // Then
+        assertThat(found).isPresent();
+        assertThat(breaker.getState()).isEqualTo(RedisCircuitBreaker.State.CLOSED);
+        assertThat(repository.degradedSize()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should fail with STORE_UNAVAILABLE and stop calling Redis once the circuit opens")
+    void shouldFailFastWithoutDegradedMode() {
+        // Given
+        repository = newRepository(false);
+        doThrow(new RedisConnectionFailureException("connection refused")).when(redis).save(any());
+
+        // When & Then
+        assertThatThrownBy(() -> repository.save(record()))
+                .isInstanceOf(OtpException.class)
+                .extracting(e -> ((OtpException) e).getErrorCode())
+                .isEqualTo(ErrorCode.STORE_UNAVAILABLE);
+        assertThatThrownBy(() -> repository.findByIdentifierAndPurpose(PHONE, OtpPurpose.LOGIN))
+                .isInstanceOf(OtpException.class);
+        verify(redis, never()).findByIdentifierAndPurpose(anyString(), any());
+    }
+
+    @Test
+    @DisplayName("Should keep OTPs locally while Redis is unavailable in degraded mode")
+    void shouldFallBackToLocalStore() {
+        // Given
+        repository = newRepository(true);
+        doThrow(new RedisConnectionFailureException("connection refused")).when(redis).save(any());
+
+        // When
+        repository.save(record());
+
+        // Then
+        assertThat(repository.degradedSize()).isEqualTo(1);
+        assertThat(repository.findByIdentifierAndPurpose(PHONE, OtpPurpose.LOGIN)).isPresent();
+        assertThat(repository.attemptValidation(PHONE, OtpPurpose.LOGIN, 5).status())
+                .isEqualTo(ValidationAttempt.Status.ACCEPTED);
+        verify(redis, never()).findByIdentifierAndPurpose(anyString(), any());
+    }
+
+    @Test
+    @DisplayName("Should drop the local copy once a delete reaches the local store")
+    void shouldDeleteLocalRecord() {
+        // Given
+        repository = newRepository(true);
+        doThrow(new RedisConnectionFailureException("connection refused")).when(redis).save(any());
+        repository.save(record());
+
+        // When
+        repository.delete(PHONE, OtpPurpose.LOGIN);
+
+        // Then
+        assertThat(repository.degradedSize()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should fail a Redis record delete with STORE_UNAVAILABLE even in degraded mode")
+    void shouldFailClosedOnRedisDelete() {
+        // Given
+        repository = newRepository(true);
+        doThrow(new RedisConnectionFailureException("connection refused")).when(redis).deleteByKey(anyString());
+
+        // When & Then
+        assertThatThrownBy(() -> repository.delete(PHONE, OtpPurpose.LOGIN))
+                .isInstanceOf(OtpException.class)
+                .extracting(e -> ((OtpException) e).getErrorCode())
+                .isEqualTo(ErrorCode.STORE_UNAVAILABLE);
+    }
+
+    @Test
+    @DisplayName("Should fail token replay checks with STORE_UNAVAILABLE even in degraded mode")
+    void shouldFailClosedOnTokenMarker() {
+        // Given
+        repository = newRepository(true);
+        when(redis.markTokenUsed(eq(PHONE), anyString(), any()))
+                .thenThrow(new RedisConnectionFailureException("connection refused"));
+
+        // When & Then
+        assertThatThrownBy(() -> repository.markTokenUsed(PHONE, "nonce", Duration.ofMinutes(5)))
+                .isInstanceOf(OtpException.class)
+                .extracting(e -> ((OtpException) e).getErrorCode())
+                .isEqualTo(ErrorCode.STORE_UNAVAILABLE);
+    }
+
+    @Test
+    @DisplayName("Should create locally without queueing the outbox job when the pipeline fails")
+    void shouldCreateLocallyWithoutJob() {
+        // Given
+        repository = newRepository(true);
+        OutboxEntry job = new OutboxEntry("otp:{sms-outbox}:jobs", Map.of(), 1000);
+        when(redis.createIfAbsent(any(OtpRecord.class), eq(job)))
+                .thenThrow(new RedisConnectionFailureException("connection refused"));
+
+        // When
+        RecordWrite write = repository.createIfAbsent(record(), job);
+
+        // Then
+        assertThat(write).isEqualTo(RecordWrite.unqueued(true));
+        assertThat(repository.degradedSize()).isEqualTo(1);
+    }
+
+    private ResilientOtpRepository newRepository(boolean degradedMode) {
+        config.getRedis().getDegraded().setEnabled(degradedMode);
+        return new ResilientOtpRepository(redis, breaker, config, new SimpleMeterRegistry());
+    }
+
+    private static OtpRecord record() {
+        return OtpRecord.builder()
+                .id(OtpRecord.generateId())
+                .identifier(PHONE)
+                .purpose(OtpPurpose.LOGIN)
+                .otpHash("hash")
+                .maxAttempts(5)
+                .createdAt(Instant.now())
+                .expiresAt(Instant.now().plusSeconds(300))
+                .build();
+    }
+}
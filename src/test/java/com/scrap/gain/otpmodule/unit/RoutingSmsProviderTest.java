@@ -0,0 +1,160 @@
+package com.scrap.gain.otpmodule.unit;
+
+import com.scrap.gain.otpmodule.config.OtpConfigProperties;
+import com.scrap.gain.otpmodule.service.sms.RoutingSmsProvider;
+import com.scrap.gain.otpmodule.service.sms.SmsProvider;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Routing SMS Provider Tests")
+class RoutingSmsProviderTest {
+
+    private static final String PHONE = "+919876543210";
+
+    @Test
+    @DisplayName("Should fail over to next provider when the first fails")
+    void shouldFailOverWhenFirstProviderFails() {
+        FakeProvider failing = new FakeProvider("A", false, 0);
+        FakeProvider healthy = new FakeProvider("B", true, 0);
+
+        try (RoutingSmsProvider routing = new RoutingSmsProvider(List.of(failing, healthy), routingConfig())) {
+            assertThat(routing.sendSms(PHONE, "msg")).isTrue();
+            assertThat(failing.calls.get()).isEqualTo(1);
+            assertThat(healthy.calls.get()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    @DisplayName("Should route to the healthy provider after errors")
+    void shouldPreferHealthyProviderAfterErrors() {
+        FakeProvider failing = new FakeProvider("A", false, 0);
+        FakeProvider healthy = new FakeProvider("B", true, 0);
+
+        try (RoutingSmsProvider routing = new RoutingSmsProvider(List.of(failing, healthy), routingConfig())) {
+            routing.sendSms(PHONE, "msg");
+
+            assertThat(routing.rankedProviders()).containsExactly(healthy, failing);
+
+            routing.sendSms(PHONE, "msg");
+            assertThat(failing.calls.get()).isEqualTo(1);
+            assertThat(healthy.calls.get()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    @DisplayName("Should return false when every provider fails")
+    void shouldReturnFalseWhenAllProvidersFail() {
+        try (RoutingSmsProvider routing = new RoutingSmsProvider(
+                List.of(new FakeProvider("A", false, 0), new FakeProvider("B", false, 0)), routingConfig())) {
+            assertThat(routing.sendSms(PHONE, "msg")).isFalse();
+        }
+    }
+
+    @Test
+    @DisplayName("Should hedge to second provider when the first is slow")
+    void shouldHedgeWhenFirstProviderIsSlow() {
+        FakeProvider slow = new FakeProvider("A", true, 2_000);
+        FakeProvider fast = new FakeProvider("B", true, 0);
+
+        OtpConfigProperties.RoutingConfig config = routingConfig();
+        config.setHedgingEnabled(true);
+        config.setMinHedgeDelayMillis(50);
+
+        try (RoutingSmsProvider routing = new RoutingSmsProvider(List.of(slow, fast), config)) {
+            long start = System.nanoTime();
+
+            assertThat(routing.sendSms(PHONE, "msg")).isTrue();
+
+            assertThat(fast.calls.get()).isEqualTo(1);
+            assertThat(System.nanoTime() - start).isLessThan(1_000_000_000L);
+        }
+    }
+
+    @Test
+    @DisplayName("Should probe a provider again once its failures age out")
+    void shouldProbeProviderAfterFailuresAgeOut() throws InterruptedException {
+        FakeProvider recovering = new FakeProvider("A", false, 0);
+        FakeProvider healthy = new FakeProvider("B", true, 0);
+
+        OtpConfigProperties.RoutingConfig config = routingConfig();
+        config.setStatsMaxAgeMillis(100);
+
+        try (RoutingSmsProvider routing = new RoutingSmsProvider(List.of(recovering, healthy), config)) {
+            routing.sendSms(PHONE, "msg");
+            assertThat(routing.rankedProviders()).containsExactly(healthy, recovering);
+
+            Thread.sleep(150);
+            recovering.succeeds = true;
+
+            assertThat(routing.rankedProviders()).containsExactly(recovering, healthy);
+            assertThat(routing.sendSms(PHONE, "msg")).isTrue();
+            assertThat(recovering.calls.get()).isEqualTo(2);
+            assertThat(healthy.calls.get()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    @DisplayName("Should send without hedging when every hedge thread is busy")
+    void shouldSkipHedgeWhenHedgeThreadsBusy() {
+        FakeProvider slow = new FakeProvider("A", true, 200);
+        FakeProvider fast = new FakeProvider("B", true, 0);
+
+        OtpConfigProperties.RoutingConfig config = routingConfig();
+        config.setHedgingEnabled(true);
+        config.setMinHedgeDelayMillis(20);
+        config.setHedgeThreads(1);
+
+        try (RoutingSmsProvider routing = new RoutingSmsProvider(List.of(slow, fast), config)) {
+            assertThat(routing.sendSms(PHONE, "msg")).isTrue();
+
+            assertThat(slow.calls.get()).isEqualTo(1);
+            assertThat(fast.calls.get()).isZero();
+        }
+    }
+
+    private static OtpConfigProperties.RoutingConfig routingConfig() {
+        return new OtpConfigProperties.RoutingConfig();
+    }
+
+    private static final class FakeProvider implements SmsProvider {
+
+        private final String name;
+        private volatile boolean succeeds;
+        private final long delayMillis;
+        private final AtomicInteger calls = new AtomicInteger();
+
+        private FakeProvider(String name, boolean succeeds, long delayMillis) {
+            this.name = name;
+            this.succeeds = succeeds;
+            this.delayMillis = delayMillis;
+        }
+
+        @Override
+        public boolean sendSms(String phoneNumber, String message) {
+            calls.incrementAndGet();
+            if (delayMillis > 0) {
+                try {
+                    Thread.sleep(delayMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return succeeds;
+        }
+
+        @Override
+        public String getProviderName() {
+            return name;
+        }
+
+        @Override
+        public boolean isConfigured() {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.scrap.gain.otpmodule.unit;
+
+import com.scrap.gain.otpmodule.config.OtpConfigProperties;
+import com.scrap.gain.otpmodule.exception.ErrorCode;
+import com.scrap.gain.otpmodule.exception.OtpException;
+import com.scrap.gain.otpmodule.model.enums.SmsDeliveryStatus;
+import com.scrap.gain.otpmodule.service.sms.SmsDispatcher;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("SMS Dispatcher Tests")
+class SmsDispatcherTest {
+
+    private SmsDispatcher smsDispatcher;
+
+    @BeforeEach
+    void setUp() {
+        OtpConfigProperties config = new OtpConfigProperties();
+        config.getSms().getDispatch().setWorkers(1);
+        config.getSms().getDispatch().setQueueCapacity(1);
+        config.getSms().getDispatch().setShutdownTimeoutSeconds(5);
+        smsDispatcher = new SmsDispatcher(config);
+    }
+
+    @AfterEach
+    void tearDown() {
+        smsDispatcher.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should mark send as SENT after worker completes")
+    void shouldMarkSendAsSent() throws Exception {
+        CountDownLatch sent = new CountDownLatch(1);
+
+        smsDispatcher.dispatch("ref-1", sent::countDown);
+
+        assertThat(sent.await(5, TimeUnit.SECONDS)).isTrue();
+        awaitStatus("ref-1", SmsDeliveryStatus.SENT);
+    }
+
+    @Test
+    @DisplayName("Should mark send as FAILED when provider throws")
+    void shouldMarkSendAsFailed() throws Exception {
+        smsDispatcher.dispatch("ref-1", () -> {
+            throw new OtpException(ErrorCode.SMS_DELIVERY_FAILED);
+        });
+
+        awaitStatus("ref-1", SmsDeliveryStatus.FAILED);
+    }
+
+    @Test
+    @DisplayName("Should reject sends when queue is full")
+    void shouldRejectSendsWhenQueueIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+
+        // Occupy the only worker, then fill the only queue slot
+        smsDispatcher.dispatch("ref-1", () -> {
+            started.countDown();
+            awaitQuietly(release);
+        });
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        smsDispatcher.dispatch("ref-2", () -> { });
+
+        assertThatThrownBy(() -> smsDispatcher.dispatch("ref-3", () -> { }))
+                .isInstanceOf(OtpException.class)
+                .extracting("errorCode")
+                .isEqualTo(ErrorCode.SMS_QUEUE_FULL);
+        assertThat(smsDispatcher.getStatus("ref-3")).isEmpty();
+
+        release.countDown();
+    }
+
+    @Test
+    @DisplayName("Should count batched sends against the queue capacity")
+    void shouldRejectBatchedSendsBeyondQueueCapacity() throws Exception {
+        SmsDispatcher dispatcher = dispatcher(1, 10);
+        Map<String, Runnable> sends = new LinkedHashMap<>();
+        for (int i = 1; i <= 12; i++) {
+            sends.put("ref-" + i, () -> { });
+        }
+
+        try {
+            // The first chunk of eight fits, the second chunk of four would exceed ten
+            List<String> rejected = dispatcher.dispatchBatch(sends);
+
+            assertThat(rejected).containsExactly("ref-9", "ref-10", "ref-11", "ref-12");
+            awaitStatus(dispatcher, "ref-8", SmsDeliveryStatus.SENT);
+            assertThat(dispatcher.getStatus("ref-9")).isEmpty();
+        } finally {
+            dispatcher.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should leave a worker free for single sends while a batch runs")
+    void shouldKeepWorkerForSingleSends() throws Exception {
+        SmsDispatcher dispatcher = dispatcher(2, 100);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        Map<String, Runnable> sends = new LinkedHashMap<>();
+        sends.put("ref-1", () -> {
+            started.countDown();
+            awaitQuietly(release);
+        });
+        for (int i = 2; i <= 16; i++) {
+            sends.put("ref-" + i, () -> { });
+        }
+
+        try {
+            assertThat(dispatcher.dispatchBatch(sends)).isEmpty();
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+            // The batch holds one of two workers, so the single send runs right away
+            dispatcher.dispatch("single", () -> { });
+
+            awaitStatus(dispatcher, "single", SmsDeliveryStatus.SENT);
+            assertThat(dispatcher.getStatus("ref-9")).contains(SmsDeliveryStatus.QUEUED);
+        } finally {
+            release.countDown();
+            awaitStatus(dispatcher, "ref-16", SmsDeliveryStatus.SENT);
+            dispatcher.shutdown();
+        }
+    }
+
+    private void awaitStatus(String referenceId, SmsDeliveryStatus expected) throws InterruptedException {
+        awaitStatus(smsDispatcher, referenceId, expected);
+    }
+
+    private static void awaitStatus(SmsDispatcher dispatcher, String referenceId, SmsDeliveryStatus expected)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline
+                && dispatcher.getStatus(referenceId).orElse(null) != expected) {
+            Thread.sleep(10);
+        }
+        assertThat(dispatcher.getStatus(referenceId)).contains(expected);
+    }
+
+    private static SmsDispatcher dispatcher(int workers, int queueCapacity) {
+        OtpConfigProperties config = new OtpConfigProperties();
+        config.getSms().getDispatch().setWorkers(workers);
+        config.getSms().getDispatch().setQueueCapacity(queueCapacity);
+        config.getSms().getDispatch().setShutdownTimeoutSeconds(5);
+        return new SmsDispatcher(config);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
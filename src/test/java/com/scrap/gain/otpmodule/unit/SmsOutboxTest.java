@@ -0,0 +1,130 @@
+package com.scrap.gain.otpmodule.unit;
+
+import com.scrap.gain.otpmodule.config.OtpConfigProperties;
+import com.scrap.gain.otpmodule.entity.OtpRecord;
+import com.scrap.gain.otpmodule.model.OtpPurpose;
+import com.scrap.gain.otpmodule.model.enums.SmsDeliveryStatus;
+import com.scrap.gain.otpmodule.repository.OutboxEntry;
+import com.scrap.gain.otpmodule.service.sms.SmsDispatcher;
+import com.scrap.gain.otpmodule.service.sms.SmsOutbox;
+import com.scrap.gain.otpmodule.service.sms.SmsOutbox.Job;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SMS Outbox Tests")
+class SmsOutboxTest {
+
+    private static final String PHONE = "+919876543210";
+    private static final String OTP = "123456";
+
+    @Mock private SmsDispatcher smsDispatcher;
+
+    private OtpConfigProperties config;
+    private SmsOutbox smsOutbox;
+
+    @BeforeEach
+    void setUp() {
+        config = outboxConfig("test-outbox-secret");
+        smsOutbox = newOutbox(config);
+    }
+
+    @Test
+    @DisplayName("Should seal jobs so only a node with the same secret can open them")
+    void shouldSealJobs() {
+        // Given
+        Job job = new Job("ref-1", PHONE, OTP, 2, 1_700_000_000_000L, OtpPurpose.LOGIN);
+
+        // When
+        String sealed = smsOutbox.encode(job);
+
+        // Then
+        assertThat(sealed).doesNotContain(OTP).doesNotContain("9876543210");
+        assertThat(smsOutbox.decode(sealed)).contains(job);
+        assertThat(newOutbox(outboxConfig("other-secret")).decode(sealed)).isEmpty();
+        assertThat(smsOutbox.decode("not-a-job")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should require a secret when the outbox is enabled")
+    void shouldRequireSecret() {
+        assertThatThrownBy(() -> newOutbox(outboxConfig(null)))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(newOutbox(new OtpConfigProperties()).isEnabled()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should double the retry delay up to the max")
+    void shouldBackOffExponentially() {
+        // Given
+        config.getSms().getOutbox().setRetryBaseMillis(1000);
+        config.getSms().getOutbox().setRetryMaxMillis(5000);
+
+        // When & Then
+        assertThat(smsOutbox.retryDelay(1)).isEqualTo(Duration.ofSeconds(1));
+        assertThat(smsOutbox.retryDelay(2)).isEqualTo(Duration.ofSeconds(2));
+        assertThat(smsOutbox.retryDelay(3)).isEqualTo(Duration.ofSeconds(4));
+        assertThat(smsOutbox.retryDelay(10)).isEqualTo(Duration.ofSeconds(5));
+    }
+
+    @Test
+    @DisplayName("Should build a sealed job for the record on the job stream")
+    void shouldBuildJob() {
+        // Given
+        OtpRecord record = record();
+
+        // When
+        OutboxEntry entry = smsOutbox.jobFor(record, PHONE, OTP);
+
+        // Then
+        assertThat(entry.streamKey()).isEqualTo(SmsOutbox.STREAM_KEY);
+        assertThat(smsOutbox.decode(entry.fields().get(SmsOutbox.JOB_FIELD)))
+                .contains(new Job(record.getId(), PHONE, OTP, 0, record.getExpiresAt().toEpochMilli(),
+                        OtpPurpose.LOGIN));
+        assertThat(newOutbox(new OtpConfigProperties()).jobFor(record, PHONE, OTP)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should mark a job that reached the stream as queued")
+    void shouldMarkQueued() {
+        // When
+        smsOutbox.markQueued("ref-1");
+
+        // Then
+        verify(smsDispatcher).recordStatus("ref-1", SmsDeliveryStatus.QUEUED);
+    }
+
+    private SmsOutbox newOutbox(OtpConfigProperties properties) {
+        return new SmsOutbox(smsDispatcher, properties);
+    }
+
+    private static OtpConfigProperties outboxConfig(String secret) {
+        OtpConfigProperties properties = new OtpConfigProperties();
+        properties.getSms().getOutbox().setEnabled(true);
+        properties.getSms().getOutbox().setSecret(secret);
+        return properties;
+    }
+
+    private static OtpRecord record() {
+        return OtpRecord.builder()
+                .id(OtpRecord.generateId())
+                .identifier(PHONE)
+                .purpose(OtpPurpose.LOGIN)
+                .otpHash("hash")
+                .maxAttempts(5)
+                .createdAt(Instant.now())
+                .expiresAt(Instant.now().plusSeconds(300))
+                .build();
+    }
+}
@@ -0,0 +1,188 @@
+package com.scrap.gain.otpmodule.unit;
+
+import com.scrap.gain.otpmodule.config.OtpConfigProperties;
+import com.scrap.gain.otpmodule.entity.OtpRecord;
+import com.scrap.gain.otpmodule.exception.ErrorCode;
+import com.scrap.gain.otpmodule.exception.OtpException;
+import com.scrap.gain.otpmodule.model.OtpPurpose;
+import com.scrap.gain.otpmodule.model.enums.SmsDeliveryStatus;
+import com.scrap.gain.otpmodule.repository.OtpRepository;
+import com.scrap.gain.otpmodule.service.SmsService;
+import com.scrap.gain.otpmodule.service.sms.SmsDispatcher;
+import com.scrap.gain.otpmodule.service.sms.SmsOutbox;
+import com.scrap.gain.otpmodule.service.sms.SmsOutbox.Job;
+import com.scrap.gain.otpmodule.service.sms.SmsOutboxWorker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SMS Outbox Worker Tests")
+class SmsOutboxWorkerTest {
+
+    private static final String PHONE = "+919876543210";
+    private static final String OTP = "123456";
+    private static final String ENTRY_ID = "1700000000000-0";
+
+    @Mock private StringRedisTemplate stringRedisTemplate;
+    @Mock private SmsService smsService;
+    @Mock private SmsDispatcher smsDispatcher;
+    @Mock private OtpRepository otpRepository;
+
+    private SmsOutbox smsOutbox;
+    private SmsOutboxWorker worker;
+
+    @BeforeEach
+    void setUp() {
+        OtpConfigProperties config = new OtpConfigProperties();
+        config.getSms().getOutbox().setEnabled(true);
+        config.getSms().getOutbox().setSecret("test-outbox-secret");
+        config.getSms().getOutbox().setMaxAttempts(3);
+        // No consumer threads: the tests drive handle() directly
+        config.getSms().getOutbox().setWorkers(0);
+
+        smsOutbox = new SmsOutbox(smsDispatcher, config);
+        worker = new SmsOutboxWorker(stringRedisTemplate, smsOutbox, smsService, smsDispatcher, otpRepository,
+                config, new SimpleMeterRegistry(), Duration.ofMillis(500));
+        lenient().when(otpRepository.findByIdentifierAndPurpose(PHONE, OtpPurpose.LOGIN))
+                .thenReturn(Optional.of(liveRecord("ref-1")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        worker.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should send the job, then acknowledge and delete its entry")
+    void shouldSendAndAcknowledge() {
+        // When
+        worker.handle(ENTRY_ID, smsOutbox.encode(job(0)));
+
+        // Then
+        verify(smsService).sendOtp("ref-1", PHONE, OTP);
+        verify(stringRedisTemplate).execute(any(RedisScript.class), eq(List.of(SmsOutbox.STREAM_KEY)),
+                any(Object[].class));
+        verify(smsDispatcher).recordStatus("ref-1", SmsDeliveryStatus.SENT);
+    }
+
+    @Test
+    @DisplayName("Should schedule a retry when the send fails")
+    void shouldScheduleRetry() {
+        // Given
+        doThrow(new OtpException(ErrorCode.SMS_DELIVERY_FAILED)).when(smsService).sendOtp(anyString(), anyString(), anyString());
+
+        // When
+        worker.handle(ENTRY_ID, smsOutbox.encode(job(0)));
+
+        // Then
+        verify(stringRedisTemplate).execute(any(RedisScript.class),
+                eq(List.of(SmsOutbox.STREAM_KEY, SmsOutbox.RETRY_KEY)), any(Object[].class));
+        verify(smsDispatcher).recordStatus("ref-1", SmsDeliveryStatus.QUEUED);
+    }
+
+    @Test
+    @DisplayName("Should dead-letter the job once it runs out of attempts")
+    void shouldDeadLetterAfterMaxAttempts() {
+        // Given
+        doThrow(new OtpException(ErrorCode.SMS_DELIVERY_FAILED)).when(smsService).sendOtp(anyString(), anyString(), anyString());
+
+        // When
+        worker.handle(ENTRY_ID, smsOutbox.encode(job(2)));
+
+        // Then
+        verify(stringRedisTemplate).execute(any(RedisScript.class),
+                eq(List.of(SmsOutbox.STREAM_KEY, SmsOutbox.DEAD_LETTER_KEY)), any(Object[].class));
+        verify(smsDispatcher).recordStatus("ref-1", SmsDeliveryStatus.FAILED);
+    }
+
+    @Test
+    @DisplayName("Should dead-letter expired and unreadable jobs without sending")
+    void shouldDeadLetterExpiredAndUnreadableJobs() {
+        // When
+        worker.handle(ENTRY_ID, smsOutbox.encode(
+                new Job("ref-1", PHONE, OTP, 0, System.currentTimeMillis() - 1, OtpPurpose.LOGIN)));
+        worker.handle(ENTRY_ID, "garbage");
+
+        // Then
+        verify(smsService, never()).sendOtp(anyString(), anyString(), anyString());
+        verify(stringRedisTemplate, times(2)).execute(any(RedisScript.class),
+                eq(List.of(SmsOutbox.STREAM_KEY, SmsOutbox.DEAD_LETTER_KEY)), any(Object[].class));
+    }
+
+    @Test
+    @DisplayName("Should drop the job when another OTP record is live")
+    void shouldDropSupersededJob() {
+        // Given
+        when(otpRepository.findByIdentifierAndPurpose(PHONE, OtpPurpose.LOGIN))
+                .thenReturn(Optional.of(liveRecord("ref-2")));
+
+        // When
+        worker.handle(ENTRY_ID, smsOutbox.encode(job(0)));
+
+        // Then
+        verify(smsService, never()).sendOtp(anyString(), anyString(), anyString());
+        verify(stringRedisTemplate).execute(any(RedisScript.class), eq(List.of(SmsOutbox.STREAM_KEY)),
+                any(Object[].class));
+        verifyNoInteractions(smsDispatcher);
+    }
+
+    @Test
+    @DisplayName("Should look again later while the record may still be written, then drop the job")
+    void shouldWaitForRecordThenDrop() {
+        // Given
+        when(otpRepository.findByIdentifierAndPurpose(PHONE, OtpPurpose.LOGIN)).thenReturn(Optional.empty());
+        long justAppended = System.currentTimeMillis() + 300_000;
+        long appendedLongAgo = justAppended - 60_000;
+
+        // When
+        worker.handle(ENTRY_ID, smsOutbox.encode(new Job("ref-1", PHONE, OTP, 0, justAppended, OtpPurpose.LOGIN)));
+        worker.handle(ENTRY_ID, smsOutbox.encode(new Job("ref-1", PHONE, OTP, 0, appendedLongAgo, OtpPurpose.LOGIN)));
+
+        // Then
+        verify(smsService, never()).sendOtp(anyString(), anyString(), anyString());
+        verify(stringRedisTemplate).execute(any(RedisScript.class),
+                eq(List.of(SmsOutbox.STREAM_KEY, SmsOutbox.RETRY_KEY)), any(Object[].class));
+        verify(stringRedisTemplate).execute(any(RedisScript.class), eq(List.of(SmsOutbox.STREAM_KEY)),
+                any(Object[].class));
+    }
+
+    @Test
+    @DisplayName("Should refuse to start when the read block outlasts the Redis command timeout")
+    void shouldRejectBlockLongerThanCommandTimeout() {
+        // Given
+        OtpConfigProperties config = new OtpConfigProperties();
+        config.getSms().getOutbox().setWorkers(0);
+        config.getSms().getOutbox().setBlockMillis(2000);
+
+        // When & Then
+        assertThatThrownBy(() -> new SmsOutboxWorker(stringRedisTemplate, smsOutbox, smsService, smsDispatcher,
+                otpRepository, config, new SimpleMeterRegistry(), Duration.ofMillis(500)))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private static Job job(int attempt) {
+        return new Job("ref-1", PHONE, OTP, attempt, System.currentTimeMillis() + 300_000, OtpPurpose.LOGIN);
+    }
+
+    private static OtpRecord liveRecord(String id) {
+        return OtpRecord.builder().id(id).identifier(PHONE).purpose(OtpPurpose.LOGIN).build();
+    }
+}
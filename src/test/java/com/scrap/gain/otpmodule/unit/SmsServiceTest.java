@@ -0,0 +1,81 @@
+package com.scrap.gain.otpmodule.unit;
+
+import com.scrap.gain.otpmodule.metrics.OtpMetrics;
+import com.scrap.gain.otpmodule.service.SmsService;
+import com.scrap.gain.otpmodule.service.sms.DeliveryReceiptTracker;
+import com.scrap.gain.otpmodule.service.sms.SentMessage;
+import com.scrap.gain.otpmodule.service.sms.SmsDispatcher;
+import com.scrap.gain.otpmodule.service.sms.SmsProvider;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SMS Service Tests")
+class SmsServiceTest {
+
+    private static final String PHONE = "+919876543210";
+    private static final String REFERENCE_ID = "ref-1";
+
+    @Mock private SmsProvider smsProvider;
+    @Mock private SmsDispatcher smsDispatcher;
+    @Mock private DeliveryReceiptTracker receiptTracker;
+
+    private SmsService smsService;
+
+    @BeforeEach
+    void setUp() {
+        smsService = new SmsService(smsProvider, smsDispatcher, new OtpMetrics(new SimpleMeterRegistry()),
+                receiptTracker);
+        when(smsProvider.getProviderName()).thenReturn("TWILIO");
+    }
+
+    @Test
+    @DisplayName("Should track the delivery receipt of a non-blocking send")
+    void shouldTrackReactiveSend() {
+        // Given
+        SentMessage sent = new SentMessage("TWILIO", "SM123");
+        when(smsProvider.sendTrackedReactive(eq(PHONE), anyString())).thenReturn(Mono.just(sent));
+        when(receiptTracker.isEnabled()).thenReturn(true);
+
+        // When
+        smsService.dispatchOtpReactive(REFERENCE_ID, PHONE, "123456");
+
+        // Then
+        StepVerifier.create(dispatchedSend()).expectNext(true).verifyComplete();
+        verify(receiptTracker).track(REFERENCE_ID, PHONE, sent);
+    }
+
+    @Test
+    @DisplayName("Should report a failed non-blocking send without tracking it")
+    void shouldReportFailedReactiveSend() {
+        // Given
+        when(smsProvider.sendTrackedReactive(eq(PHONE), anyString())).thenReturn(Mono.empty());
+
+        // When
+        smsService.dispatchOtpReactive(REFERENCE_ID, PHONE, "123456");
+
+        // Then
+        StepVerifier.create(dispatchedSend()).expectNext(false).verifyComplete();
+        verify(receiptTracker, never()).track(any(), any(), any());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Mono<Boolean> dispatchedSend() {
+        ArgumentCaptor<Mono<Boolean>> send = ArgumentCaptor.forClass(Mono.class);
+        verify(smsDispatcher).dispatchReactive(eq(REFERENCE_ID), send.capture());
+        return send.getValue();
+    }
+}
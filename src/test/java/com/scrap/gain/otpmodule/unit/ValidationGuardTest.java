@@ -0,0 +1,129 @@
+package com.scrap.gain.otpmodule.unit;
+
+import com.scrap.gain.otpmodule.config.OtpConfigProperties;
+import com.scrap.gain.otpmodule.exception.ErrorCode;
+import com.scrap.gain.otpmodule.exception.OtpException;
+import com.scrap.gain.otpmodule.model.OtpPurpose;
+import com.scrap.gain.otpmodule.model.enums.StoreType;
+import com.scrap.gain.otpmodule.repository.RedisCircuitBreaker;
+import com.scrap.gain.otpmodule.service.ValidationGuard;
+import com.scrap.gain.otpmodule.util.MaskingUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Validation Guard Tests")
+class ValidationGuardTest {
+
+    private static final String PHONE = "+919876543210";
+    private static final String MARKER = "otp:{" + PHONE + "}:LOGIN:validating";
+
+    @Mock private StringRedisTemplate stringRedisTemplate;
+    @Mock private ValueOperations<String, String> valueOperations;
+
+    private OtpConfigProperties config;
+    private ValidationGuard guard;
+    private AtomicInteger executions;
+
+    @BeforeEach
+    void setUp() {
+        config = new OtpConfigProperties();
+        guard = new ValidationGuard(stringRedisTemplate, config,
+                new RedisCircuitBreaker(config, new SimpleMeterRegistry()), new MaskingUtil());
+        executions = new AtomicInteger();
+    }
+
+    @Test
+    @DisplayName("Should take and release the shared marker around a validation")
+    void shouldHoldMarkerWhileRunning() {
+        // Given
+        when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(eq(MARKER), anyString(), eq(Duration.ofMillis(5000)))).thenReturn(true);
+
+        // When
+        String result = guard.run(PHONE, OtpPurpose.LOGIN, this::validation);
+
+        // Then
+        assertThat(result).isEqualTo("validated");
+        assertThat(executions).hasValue(1);
+        verify(stringRedisTemplate).execute(any(RedisScript.class), eq(List.of(MARKER)), anyString());
+    }
+
+    @Test
+    @DisplayName("Should reject a validation already running on another node")
+    void shouldRejectWhenMarkerHeld() {
+        // Given
+        when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(false);
+
+        // When & Then
+        assertThatThrownBy(() -> guard.run(PHONE, OtpPurpose.LOGIN, this::validation))
+                .isInstanceOf(OtpException.class)
+                .extracting("errorCode").isEqualTo(ErrorCode.VALIDATION_IN_PROGRESS);
+        assertThat(executions).hasValue(0);
+        verify(stringRedisTemplate, never()).execute(any(RedisScript.class), anyList(), anyString());
+    }
+
+    @Test
+    @DisplayName("Should reject a parallel validation on this node without calling Redis")
+    void shouldRejectLocalDuplicate() {
+        // Given
+        config.getStore().setType(StoreType.MEMORY);
+
+        // When & Then
+        String result = guard.run(PHONE, OtpPurpose.LOGIN, () -> {
+            assertThatThrownBy(() -> guard.run(PHONE, OtpPurpose.LOGIN, this::validation))
+                    .isInstanceOf(OtpException.class)
+                    .extracting("errorCode").isEqualTo(ErrorCode.VALIDATION_IN_PROGRESS);
+            assertThat(guard.run(PHONE, OtpPurpose.REGISTRATION, this::validation)).isEqualTo("validated");
+            return validation();
+        });
+
+        assertThat(result).isEqualTo("validated");
+        assertThat(executions).hasValue(2);
+        assertThat(guard.run(PHONE, OtpPurpose.LOGIN, this::validation)).isEqualTo("validated");
+        verifyNoInteractions(stringRedisTemplate);
+    }
+
+    @Test
+    @DisplayName("Should guard on this node only when Redis is unavailable")
+    void shouldFailOpen() {
+        // Given
+        when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class)))
+                .thenThrow(new RedisConnectionFailureException("connection refused"));
+
+        // When
+        String result = guard.run(PHONE, OtpPurpose.LOGIN, this::validation);
+
+        // Then
+        assertThat(result).isEqualTo("validated");
+        verify(stringRedisTemplate, never()).execute(any(RedisScript.class), anyList(), anyString());
+    }
+
+    private String validation() {
+        executions.incrementAndGet();
+        return "validated";
+    }
+}
@@ -0,0 +1,162 @@
+package com.scrap.gain.otpmodule.unit;
+
+import com.scrap.gain.otpmodule.config.OtpConfigProperties;
+import com.scrap.gain.otpmodule.model.OtpPurpose;
+import com.scrap.gain.otpmodule.util.VerificationTokenIssuer;
+import com.scrap.gain.otpmodule.util.VerificationTokenVerifier;
+import com.scrap.gain.otpmodule.util.VerificationTokenVerifier.VerifiedToken;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Verification Token Tests")
+class VerificationTokenVerifierTest {
+
+    private static final String PHONE = "+919876543210";
+    private static final String SECRET = "test-token-secret";
+    private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+
+    private VerificationTokenIssuer issuer;
+
+    @BeforeEach
+    void setUp() {
+        OtpConfigProperties config = new OtpConfigProperties();
+        config.getToken().setSecret(SECRET);
+        config.getToken().setTtlSeconds(300);
+        issuer = new VerificationTokenIssuer(config, Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    @DisplayName("Should verify a token with an embedded verifier sharing the secret")
+    void shouldVerifyWithEmbeddedVerifier() {
+        // Given
+        String token = issuer.issue(PHONE, OtpPurpose.LOGIN);
+
+        // When
+        VerifiedToken verified = verifierAt(NOW.plusSeconds(10)).verify(token).orElseThrow();
+
+        // Then
+        assertThat(verified.identifier()).isEqualTo(PHONE);
+        assertThat(verified.purpose()).isEqualTo("LOGIN");
+        assertThat(verified.expiresAt()).isEqualTo(NOW.plusSeconds(300));
+        assertThat(verified.nonce()).isNotBlank();
+    }
+
+    @Test
+    @DisplayName("Should reject tampered, foreign and malformed tokens")
+    void shouldRejectTamperedTokens() {
+        // Given
+        String token = issuer.issue(PHONE, OtpPurpose.LOGIN);
+        String otherPayload = issuer.issue("+919876543211", OtpPurpose.LOGIN).split("\\.")[0];
+        VerificationTokenVerifier verifier = verifierAt(NOW);
+
+        // When & Then
+        assertThat(verifier.verify(otherPayload + "." + token.split("\\.")[1])).isEmpty();
+        assertThat(new VerificationTokenVerifier("other-secret").verify(token)).isEmpty();
+        assertThat(verifier.verify("not-a-token")).isEmpty();
+        assertThat(verifier.verify("%%%.%%%")).isEmpty();
+        assertThat(verifier.verify(null)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should reject expired tokens")
+    void shouldRejectExpiredTokens() {
+        // Given
+        String token = issuer.issue(PHONE, OtpPurpose.LOGIN);
+
+        // When & Then
+        assertThat(verifierAt(NOW.plusSeconds(299)).verify(token)).isPresent();
+        assertThat(verifierAt(NOW.plusSeconds(300)).verify(token)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should accept a token only once with verifyOnce")
+    void shouldAcceptTokenOnce() {
+        // Given
+        VerificationTokenVerifier verifier = verifierAt(NOW);
+        String token = issuer.issue(PHONE, OtpPurpose.LOGIN);
+
+        // When & Then
+        assertThat(verifier.verifyOnce(token)).isPresent();
+        assertThat(verifier.verifyOnce(token)).isEmpty();
+        assertThat(verifier.verifyOnce(issuer.issue(PHONE, OtpPurpose.LOGIN))).isPresent();
+    }
+
+    @Test
+    @DisplayName("Should fail closed when the replay set is full, until its tokens expire")
+    void shouldPruneExpiredNonces() {
+        // Given
+        AtomicReference<Instant> now = new AtomicReference<>(NOW);
+        VerificationTokenVerifier verifier = new VerificationTokenVerifier(
+                SECRET.getBytes(StandardCharsets.UTF_8), new TestClock(now), 1);
+        assertThat(verifier.verifyOnce(issuer.issue(PHONE, OtpPurpose.LOGIN))).isPresent();
+
+        OtpConfigProperties config = new OtpConfigProperties();
+        config.getToken().setSecret(SECRET);
+        String later = new VerificationTokenIssuer(config, Clock.fixed(NOW.plusSeconds(200), ZoneOffset.UTC))
+                .issue(PHONE, OtpPurpose.LOGIN);
+
+        // When & Then
+        assertThat(verifier.verifyOnce(later)).isEmpty();
+
+        now.set(NOW.plusSeconds(300));
+        assertThat(verifier.verifyOnce(later)).isPresent();
+    }
+
+    @Test
+    @DisplayName("Should refuse to start without a secret unless random secrets are allowed")
+    void shouldRequireSecret() {
+        // Given
+        OtpConfigProperties config = new OtpConfigProperties();
+
+        // When & Then
+        assertThatThrownBy(() -> new VerificationTokenIssuer(config))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("otp.token.secret");
+
+        config.getToken().setAllowRandomSecret(true);
+        VerificationTokenIssuer devIssuer = new VerificationTokenIssuer(config, Clock.fixed(NOW, ZoneOffset.UTC));
+        String token = devIssuer.issue(PHONE, OtpPurpose.LOGIN);
+        assertThat(devIssuer.verify(token, OtpPurpose.LOGIN).identifier()).isEqualTo(PHONE);
+        assertThat(verifierAt(NOW).verify(token)).isEmpty();
+    }
+
+    private static VerificationTokenVerifier verifierAt(Instant now) {
+        return new VerificationTokenVerifier(
+                SECRET.getBytes(StandardCharsets.UTF_8), Clock.fixed(now, ZoneOffset.UTC), 100);
+    }
+
+    private static final class TestClock extends Clock {
+
+        private final AtomicReference<Instant> now;
+
+        private TestClock(AtomicReference<Instant> now) {
+            this.now = now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now.get();
+        }
+    }
+}